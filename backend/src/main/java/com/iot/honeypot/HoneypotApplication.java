@@ -1,14 +1,18 @@
 package com.iot.honeypot;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
 @SpringBootApplication
 public class HoneypotApplication {
+    private static final Logger log = LoggerFactory.getLogger(HoneypotApplication.class);
+    
     public static void main(String[] args) {
         SpringApplication.run(HoneypotApplication.class, args);
-        System.out.println("IOT HONEYPOT BACKEND STARTED!");
-        System.out.println("API: http://localhost:8080");
-        System.out.println("Open: http://localhost:8080/api/test");
+        log.info("IOT HONEYPOT BACKEND STARTED!");
+        log.info("API: http://localhost:8080");
+        log.info("Open: http://localhost:8080/api/test");
     }
 }
\ No newline at end of file
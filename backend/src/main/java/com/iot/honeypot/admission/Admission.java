@@ -0,0 +1,34 @@
+package com.iot.honeypot.admission;
+
+/**
+ * What admission control made of a freshly accepted connection: the
+ * {@link AdmissionDecision} and the name of the classifier list its source
+ * is on, if any, which the handler stamps on the records it captures.
+ */
+public final class Admission {
+    private static final Admission[] UNTAGGED = new Admission[AdmissionDecision.values().length];
+    
+    static {
+        for (AdmissionDecision decision : AdmissionDecision.values()) {
+            UNTAGGED[decision.ordinal()] = new Admission(decision, null);
+        }
+    }
+    
+    private final AdmissionDecision decision;
+    private final String sourceTag;
+    
+    private Admission(AdmissionDecision decision, String sourceTag) {
+        this.decision = decision;
+        this.sourceTag = sourceTag;
+    }
+    
+    /** Shared instances for untagged sources, so the common case allocates nothing. */
+    public static Admission of(AdmissionDecision decision, String sourceTag) {
+        return sourceTag == null ? UNTAGGED[decision.ordinal()] : new Admission(decision, sourceTag);
+    }
+    
+    public AdmissionDecision getDecision() { return decision; }
+    
+    /** Name of the classifier list the source is on, or {@code null}. */
+    public String getSourceTag() { return sourceTag; }
+}
\ No newline at end of file
@@ -0,0 +1,140 @@
+package com.iot.honeypot.admission;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admission control consulted right after accept(), before any handler
+ * state exists. The {@link SourceClassifier} lists are checked first, so a
+ * listed network is closed or sampled before it counts against anything
+ * else, and the list a source is on travels with the decision. Connections
+ * beyond the global session cap are rejected; an address that opens
+ * connections faster than its token bucket refills gets the configured
+ * over-rate action. IPv4 sources are tracked per address and IPv6 sources
+ * per /64, since a single host can rotate through a whole /64.
+ */
+@Component
+public class AdmissionController {
+    private final SourceClassifier classifier;
+    private final boolean enabled;
+    private final int maxSessions;
+    private final AdmissionDecision overRateAction;
+    private final int maxTarpitted;
+    private final long tarpitHoldMillis;
+    private final TokenBucketTable buckets;
+    private final AtomicInteger tarpitted = new AtomicInteger();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder rejectedOverRate = new LongAdder();
+    private final LongAdder rejectedOverCap = new LongAdder();
+    private final LongAdder rejectedByList = new LongAdder();
+    private final LongAdder tarpittedTotal = new LongAdder();
+    
+    public AdmissionController(SourceClassifier classifier,
+                               @Value("${honeypot.admission.enabled:true}") boolean enabled,
+                               @Value("${honeypot.admission.rate-per-second:5}") double ratePerSecond,
+                               @Value("${honeypot.admission.burst:20}") double burst,
+                               @Value("${honeypot.admission.max-tracked-ips:65536}") int maxTrackedIps,
+                               @Value("${honeypot.admission.stripes:64}") int stripes,
+                               @Value("${honeypot.admission.idle-evict-ms:60000}") long idleEvictMillis,
+                               @Value("${honeypot.admission.max-sessions:10000}") int maxSessions,
+                               @Value("${honeypot.admission.over-rate-action:tarpit}") String overRateAction,
+                               @Value("${honeypot.admission.max-tarpitted:2000}") int maxTarpitted,
+                               @Value("${honeypot.admission.tarpit-hold-ms:30000}") long tarpitHoldMillis) {
+        this.classifier = classifier;
+        this.enabled = enabled;
+        this.maxSessions = maxSessions;
+        this.overRateAction = AdmissionDecision.valueOf(overRateAction.trim().toUpperCase(Locale.ROOT));
+        this.maxTarpitted = maxTarpitted;
+        this.tarpitHoldMillis = tarpitHoldMillis;
+        // An entry idle for less than a full refill still carries information, so never evict before that
+        long refillMillis = ratePerSecond > 0 ? (long) Math.ceil(burst / ratePerSecond * 1000) : Long.MAX_VALUE;
+        this.buckets = new TokenBucketTable(stripes, maxTrackedIps, ratePerSecond, burst,
+                TimeUnit.MILLISECONDS.toNanos(Math.max(idleEvictMillis, refillMillis)));
+    }
+    
+    /**
+     * Decides what to do with a connection from {@code address} while
+     * {@code activeSessions} are already open, tagged with the classifier
+     * list {@code address} is on. A {@link AdmissionDecision#TARPIT}
+     * reserves a holding slot that the caller must give back with
+     * {@link #tarpitEnded()} once the connection is closed.
+     */
+    public Admission decide(InetAddress address, int activeSessions) {
+        Admission listed = classifier.classify(address);
+        if (listed.getDecision() == AdmissionDecision.REJECT) {
+            rejectedByList.increment();
+            return listed;
+        }
+        String tag = listed.getSourceTag();
+        if (!enabled) return listed;
+        if (activeSessions >= maxSessions) {
+            rejectedOverCap.increment();
+            return Admission.of(AdmissionDecision.REJECT, tag);
+        }
+        if (buckets.tryAcquire(key(address), System.nanoTime())) {
+            accepted.increment();
+            return listed;
+        }
+        rateLimited.increment();
+        if (overRateAction == AdmissionDecision.TARPIT) {
+            if (tarpitted.incrementAndGet() <= maxTarpitted) {
+                tarpittedTotal.increment();
+                return Admission.of(AdmissionDecision.TARPIT, tag);
+            }
+            tarpitted.decrementAndGet();
+        } else if (overRateAction == AdmissionDecision.ACCEPT) {
+            accepted.increment();
+            return listed;
+        }
+        rejectedOverRate.increment();
+        return Admission.of(AdmissionDecision.REJECT, tag);
+    }
+    
+    public void tarpitEnded() {
+        tarpitted.decrementAndGet();
+    }
+    
+    /** How long a tarpitted connection is held before it is closed. */
+    public long getTarpitHoldMillis() {
+        return tarpitHoldMillis;
+    }
+    
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("overRateAction", overRateAction.name().toLowerCase(Locale.ROOT));
+        stats.put("maxSessions", maxSessions);
+        stats.put("accepted", accepted.sum());
+        stats.put("rateLimited", rateLimited.sum());
+        stats.put("tarpitted", tarpittedTotal.sum());
+        stats.put("tarpittedNow", tarpitted.get());
+        stats.put("rejectedOverRate", rejectedOverRate.sum());
+        stats.put("rejectedOverCap", rejectedOverCap.sum());
+        stats.put("rejectedByList", rejectedByList.sum());
+        stats.put("trackedSources", buckets.size());
+        stats.put("evictedIdle", buckets.getEvictedIdle());
+        stats.put("evictedOverflow", buckets.getEvictedOverflow());
+        return stats;
+    }
+    
+    /** IPv4 address as an unsigned int, or the upper 64 bits (the /64) of an IPv6 address. */
+    static long key(InetAddress address) {
+        byte[] bytes = address.getAddress();
+        long key = 0;
+        int length = address instanceof Inet4Address ? 4 : 8;
+        for (int i = 0; i < length; i++) {
+            key = (key << 8) | (bytes[i] & 0xff);
+        }
+        // Keep IPv4 and IPv6 keys apart
+        return address instanceof Inet4Address ? key | (1L << 32) : key;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.iot.honeypot.admission;
+
+/** What to do with a freshly accepted connection. */
+public enum AdmissionDecision {
+    /** Serve it normally. */
+    ACCEPT,
+    /** Hold it open without serving it, then close. Costs the attacker time and us almost nothing. */
+    TARPIT,
+    /** Reset it immediately; only a counter remembers it. */
+    REJECT
+}
\ No newline at end of file
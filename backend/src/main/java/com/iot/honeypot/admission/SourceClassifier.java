@@ -0,0 +1,224 @@
+package com.iot.honeypot.admission;
+
+import com.iot.honeypot.net.PrefixTable;
+import com.iot.honeypot.net.WatchedResources;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sorts incoming connections by the network lists in
+ * {@code honeypot.classifier.lists}, such as research scanners or our own
+ * monitoring probes, before any handler is spent on them. All lists are
+ * merged into one {@link PrefixTable} whose values are list positions, so a
+ * check is a single lock-free lookup however many networks are loaded. The
+ * table is held by {@link WatchedResources}, so a reload never holds up
+ * accepts, and it is rebuilt whenever a list file's modification time
+ * changes. Counters are kept per list name and survive reloads.
+ */
+@Component
+public class SourceClassifier {
+    private static final Logger log = LoggerFactory.getLogger(SourceClassifier.class);
+    private static final Admission UNLISTED = Admission.of(AdmissionDecision.ACCEPT, null);
+    private final SourceClassifierProperties properties;
+    private final ResourceLoader resources;
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+    private final LongAdder reloads = new LongAdder();
+    private final LongAdder reloadFailures = new LongAdder();
+    private final WatchedResources<Snapshot> snapshots;
+    
+    public SourceClassifier(SourceClassifierProperties properties, ResourceLoader resources) {
+        this.properties = properties;
+        this.resources = resources;
+        List<String> locations = new ArrayList<>();
+        for (SourceList list : properties.getLists().values()) {
+            locations.add(list.getLocation());
+        }
+        this.snapshots = new WatchedResources<>("Classifier lists", resources, locations,
+                new Snapshot(PrefixTable.empty(), new Rule[0]), this::load);
+    }
+    
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled() || properties.getLists().isEmpty()) return;
+        try {
+            reload();
+        } catch (IOException e) {
+            log.error("❌ Classifier lists not loaded, connections are not classified: {}", e.getMessage());
+        }
+        snapshots.watch("honeypot-classifier", properties.getReloadCheckMs(), this::reload);
+    }
+    
+    /**
+     * Applies the list action for a connection from {@code address}: a
+     * {@link AdmissionDecision#REJECT} if it is on a {@link SourceListAction#CLOSE}
+     * list or was not picked by a {@link SourceListAction#SAMPLE} list, an
+     * {@link AdmissionDecision#ACCEPT} otherwise, tagged with the list it is on.
+     */
+    public Admission classify(InetAddress address) {
+        Snapshot snapshot = snapshots.get();
+        int list = snapshot.table.lookup(address);
+        if (list == PrefixTable.NONE) return UNLISTED;
+        Rule rule = snapshot.rules[list];
+        rule.counters.matched.increment();
+        boolean admitted = rule.action == SourceListAction.TAG
+                || (rule.action == SourceListAction.SAMPLE && rule.counters.sampled.getAndIncrement() % rule.sampleRate == 0);
+        if (admitted) {
+            rule.counters.admitted.increment();
+            return rule.admitted;
+        }
+        rule.counters.closed.increment();
+        return rule.closed;
+    }
+    
+    /**
+     * Name of the list {@code sourceIp} is on now, or {@code null}, for
+     * records read back from storage that does not keep the tag they were
+     * captured with; connections on close lists never get this far.
+     */
+    public String tagOf(String sourceIp) {
+        Snapshot snapshot = snapshots.get();
+        int list = snapshot.table.lookup(sourceIp);
+        return list == PrefixTable.NONE ? null : snapshot.rules[list].name;
+    }
+    
+    /** Reads every list again and swaps them in together; the previous lists stay in use if any of them fails. */
+    public synchronized Map<String, Object> reload() throws IOException {
+        if (!properties.isEnabled()) throw new IOException("honeypot.classifier.enabled is false");
+        Snapshot snapshot = snapshots.reload();
+        reloads.increment();
+        log.info("🔎 Loaded {} classifier lists ({} networks) in {} ms", snapshot.rules.length, snapshot.table.size(), snapshots.loadMillis());
+        return getStats();
+    }
+    
+    public Map<String, Object> getStats() {
+        Snapshot snapshot = snapshots.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", properties.isEnabled());
+        stats.put("networks", snapshot.table.size());
+        stats.put("trieNodes", snapshot.table.nodeCount());
+        stats.put("loadedAt", snapshots.loadedAt());
+        stats.put("loadMillis", snapshots.loadMillis());
+        stats.put("reloads", reloads.sum());
+        stats.put("reloadFailures", reloadFailures.sum());
+        Map<String, Object> lists = new LinkedHashMap<>();
+        for (Rule rule : snapshot.rules) {
+            Map<String, Object> list = new LinkedHashMap<>();
+            list.put("action", rule.action.name().toLowerCase(Locale.ROOT));
+            if (rule.action == SourceListAction.SAMPLE) list.put("sampleRate", rule.sampleRate);
+            list.put("networks", rule.prefixes);
+            list.put("matched", rule.counters.matched.sum());
+            list.put("admitted", rule.counters.admitted.sum());
+            list.put("closed", rule.counters.closed.sum());
+            lists.put(rule.name, list);
+        }
+        stats.put("lists", lists);
+        return stats;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        snapshots.shutdown();
+    }
+    
+    /** Merges every list into the next table, failing as a whole if any of them does. */
+    private Snapshot load() throws IOException {
+        PrefixTable.Builder table = new PrefixTable.Builder();
+        List<Rule> rules = new ArrayList<>();
+        for (Map.Entry<String, SourceList> entry : properties.getLists().entrySet()) {
+            String name = entry.getKey();
+            SourceList list = entry.getValue();
+            if (list.getLocation() == null) throw new IOException("List " + name + " has no location");
+            Resource resource = resources.getResource(list.getLocation());
+            int prefixes;
+            try {
+                prefixes = read(resource, table, rules.size());
+            } catch (IOException | IllegalArgumentException e) {
+                reloadFailures.increment();
+                throw new IOException(name + " (" + list.getLocation() + "): " + e.getMessage(), e);
+            }
+            Counters listCounters = counters.computeIfAbsent(name, k -> new Counters());
+            rules.add(new Rule(name, list.getAction(), Math.max(1, list.getSampleRate()), prefixes, listCounters));
+        }
+        return new Snapshot(table.build(), rules.toArray(new Rule[0]));
+    }
+    
+    /** Adds the networks of one list file, the first word of each line, under {@code value}; returns how many. */
+    private static int read(Resource resource, PrefixTable.Builder table, int value) throws IOException {
+        int prefixes = 0;
+        int number = 0;
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                number++;
+                int comment = line.indexOf('#');
+                String network = (comment < 0 ? line : line.substring(0, comment)).trim();
+                if (network.isEmpty()) continue;
+                int end = 0;
+                while (end < network.length() && !Character.isWhitespace(network.charAt(end)) && network.charAt(end) != ',') end++;
+                try {
+                    table.add(network.substring(0, end), value);
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("line " + number + ": " + e.getMessage());
+                }
+                prefixes++;
+            }
+        }
+        return prefixes;
+    }
+    
+    private static final class Counters {
+        final LongAdder matched = new LongAdder();
+        final LongAdder admitted = new LongAdder();
+        final LongAdder closed = new LongAdder();
+        // Drives 1-in-N sampling, so it has to be exact rather than striped
+        final AtomicLong sampled = new AtomicLong();
+    }
+    
+    private static final class Rule {
+        final String name;
+        final SourceListAction action;
+        final int sampleRate;
+        final int prefixes;
+        final Counters counters;
+        final Admission admitted;
+        final Admission closed;
+        
+        Rule(String name, SourceListAction action, int sampleRate, int prefixes, Counters counters) {
+            this.name = name;
+            this.action = action;
+            this.sampleRate = sampleRate;
+            this.prefixes = prefixes;
+            this.counters = counters;
+            this.admitted = Admission.of(AdmissionDecision.ACCEPT, name);
+            this.closed = Admission.of(AdmissionDecision.REJECT, name);
+        }
+    }
+    
+    private static final class Snapshot {
+        final PrefixTable table;
+        final Rule[] rules;
+        
+        Snapshot(PrefixTable table, Rule[] rules) {
+            this.table = table;
+            this.rules = rules;
+        }
+    }
+}
\ No newline at end of file
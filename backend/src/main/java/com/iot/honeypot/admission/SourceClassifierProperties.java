@@ -0,0 +1,30 @@
+package com.iot.honeypot.admission;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code honeypot.classifier.*}: the network lists checked at accept time,
+ * keyed by list name, which is also the tag their attacks get. Where lists
+ * overlap the most specific network wins, and on the very same network the
+ * list configured last. A {@code reloadCheckMs} of 0 turns off watching the
+ * list files for changes.
+ */
+@Component
+@ConfigurationProperties(prefix = "honeypot.classifier")
+public class SourceClassifierProperties {
+    private boolean enabled = true;
+    private long reloadCheckMs = 10000;
+    private Map<String, SourceList> lists = new LinkedHashMap<>();
+    
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    
+    public long getReloadCheckMs() { return reloadCheckMs; }
+    public void setReloadCheckMs(long reloadCheckMs) { this.reloadCheckMs = reloadCheckMs; }
+    
+    public Map<String, SourceList> getLists() { return lists; }
+    public void setLists(Map<String, SourceList> lists) { this.lists = lists; }
+}
\ No newline at end of file
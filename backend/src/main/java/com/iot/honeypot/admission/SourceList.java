@@ -0,0 +1,20 @@
+package com.iot.honeypot.admission;
+
+/**
+ * One {@code honeypot.classifier.lists.<name>.*} entry: a file of networks,
+ * one CIDR per line with {@code #} comments, and what to do with them.
+ */
+public class SourceList {
+    private String location;
+    private SourceListAction action = SourceListAction.TAG;
+    private int sampleRate = 10;
+    
+    public String getLocation() { return location; }
+    public void setLocation(String location) { this.location = location; }
+    
+    public SourceListAction getAction() { return action; }
+    public void setAction(SourceListAction action) { this.action = action; }
+    
+    public int getSampleRate() { return sampleRate; }
+    public void setSampleRate(int sampleRate) { this.sampleRate = sampleRate; }
+}
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.iot.honeypot.admission;
+
+/** What to do with connections from a classifier list's networks. */
+public enum SourceListAction {
+    /** Serve them as usual and label their attacks with the list's name. */
+    TAG,
+    /** Serve one in every {@code sample-rate} of them, labelled like {@link #TAG}, and close the rest. */
+    SAMPLE,
+    /** Close them straight after accept. */
+    CLOSE
+}
\ No newline at end of file
@@ -0,0 +1,124 @@
+package com.iot.honeypot.admission;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-key token buckets split across lock stripes. Each stripe is an
+ * access-ordered map with a hard entry cap, so the table never holds more
+ * than {@code maxEntries} buckets however many source addresses show up; the
+ * least recently seen key is forgotten first. Keys idle long enough for their
+ * bucket to have refilled are dropped as the stripe is touched, since a full
+ * bucket is exactly what a new entry would get anyway.
+ */
+final class TokenBucketTable {
+    private final Stripe[] stripes;
+    private final int mask;
+    private final double tokensPerNano;
+    private final double burst;
+    private final long idleNanos;
+    private final LongAdder evictedIdle = new LongAdder();
+    private final LongAdder evictedOverflow = new LongAdder();
+    
+    TokenBucketTable(int stripeCount, int maxEntries, double ratePerSecond, double burst, long idleNanos) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new Stripe[size];
+        this.mask = size - 1;
+        int perStripe = Math.max(1, maxEntries / size);
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+        this.tokensPerNano = ratePerSecond / 1e9;
+        this.burst = Math.max(1, burst);
+        this.idleNanos = idleNanos;
+    }
+    
+    /** Takes one token for {@code key}; false if its bucket is empty. */
+    boolean tryAcquire(long key, long nowNanos) {
+        Stripe stripe = stripes[spread(key) & mask];
+        synchronized (stripe) {
+            stripe.evictIdle(nowNanos);
+            Bucket bucket = stripe.get(key);
+            if (bucket == null) {
+                bucket = new Bucket(burst, nowNanos);
+                stripe.put(key, bucket);
+            } else {
+                bucket.tokens = Math.min(burst, bucket.tokens + (nowNanos - bucket.lastNanos) * tokensPerNano);
+                bucket.lastNanos = nowNanos;
+            }
+            if (bucket.tokens < 1) return false;
+            bucket.tokens -= 1;
+            return true;
+        }
+    }
+    
+    int size() {
+        int total = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                total += stripe.size();
+            }
+        }
+        return total;
+    }
+    
+    long getEvictedIdle() {
+        return evictedIdle.sum();
+    }
+    
+    long getEvictedOverflow() {
+        return evictedOverflow.sum();
+    }
+    
+    void clear() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+    }
+    
+    private static int spread(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+    
+    @SuppressWarnings("serial")
+    private final class Stripe extends LinkedHashMap<Long, Bucket> {
+        private final int maxEntries;
+        
+        Stripe(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+        
+        void evictIdle(long nowNanos) {
+            // Access order puts the longest-idle key first, so stop at the first recent one
+            Iterator<Bucket> it = values().iterator();
+            while (it.hasNext()) {
+                if (nowNanos - it.next().lastNanos < idleNanos) return;
+                it.remove();
+                evictedIdle.increment();
+            }
+        }
+        
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Bucket> eldest) {
+            if (size() <= maxEntries) return false;
+            evictedOverflow.increment();
+            return true;
+        }
+    }
+    
+    private static final class Bucket {
+        double tokens;
+        long lastNanos;
+        
+        Bucket(double tokens, long lastNanos) {
+            this.tokens = tokens;
+            this.lastNanos = lastNanos;
+        }
+    }
+}
\ No newline at end of file
@@ -1,9 +1,26 @@
 package com.iot.honeypot.controller;
 
 import com.iot.honeypot.entity.AttackLog;
+import com.iot.honeypot.feed.AttackFeed;
+import com.iot.honeypot.feed.FeedFilter;
 import com.iot.honeypot.service.AttackService;
+import com.iot.honeypot.stats.AttackRollups;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -15,9 +32,42 @@ public class AttackController {
     @Autowired
     private AttackService attackService;
     
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private AttackFeed attackFeed;
+    
+    /**
+     * Newest first. Pass the id of the last record received as {@code after}
+     * to fetch the next page. The array is written to the response while the
+     * store is walked, so even an unlimited request holds no copy of the data.
+     */
     @GetMapping
-    public List<AttackLog> getAllAttacks() {
-        return attackService.getAllAttacks();
+    public ResponseEntity<StreamingResponseBody> getAttacks(@RequestParam(required = false) Long after,
+                                                            @RequestParam(defaultValue = "0") int limit,
+                                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                            @RequestParam(required = false) String service) {
+        // Let the servlet buffer decide when to send instead of flushing every record
+        ObjectWriter writer = objectMapper.writerFor(AttackLog.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.writeStartArray();
+                attackService.forEachAttack(after, from, to, service, limit, attack -> {
+                    try {
+                        writer.writeValue(generator, attack);
+                        return true;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
     
     @GetMapping("/recent")
@@ -30,11 +80,110 @@ public class AttackController {
         return attackService.getAttacksByType(serviceType);
     }
     
+    @GetMapping("/ip/{ip}")
+    public List<AttackLog> getAttacksByIp(@PathVariable String ip) {
+        return attackService.getAttacksByIp(ip);
+    }
+    
+    @GetMapping("/device/{device}")
+    public List<AttackLog> getAttacksByDevice(@PathVariable String device) {
+        return attackService.getAttacksByDevice(device);
+    }
+    
+    @GetMapping("/country/{country}")
+    public List<AttackLog> getAttacksByCountry(@PathVariable String country) {
+        return attackService.getAttacksByCountry(country);
+    }
+    
+    /** Takes the number with or without its {@code AS} prefix. */
+    @GetMapping("/asn/{asn}")
+    public List<AttackLog> getAttacksByAsn(@PathVariable String asn) {
+        String number = asn.regionMatches(true, 0, "AS", 0, 2) ? asn.substring(2) : asn;
+        try {
+            return attackService.getAttacksByAsn(Integer.parseInt(number));
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "asn must be a number, optionally prefixed with AS");
+        }
+    }
+    
+    /** Reads from persistent storage, so it reaches past what the in-memory store still holds. */
+    @GetMapping("/history")
+    public List<AttackLog> getHistory(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                      @RequestParam(defaultValue = "1000") int limit) {
+        return attackService.getHistory(from, to, limit);
+    }
+    
+    /**
+     * Server-Sent Events feed of new attacks, optionally filtered by service
+     * and source IP prefix. With {@code coalesce=true} each tick delivers one
+     * {@code batch} event holding an array instead of one event per attack.
+     */
+    @GetMapping(value = "/feed", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribe(@RequestParam(required = false) String service,
+                                                @RequestParam(required = false) String ipPrefix,
+                                                @RequestParam(defaultValue = "false") boolean coalesce) {
+        SseEmitter emitter = attackFeed.subscribe(new FeedFilter(service, ipPrefix), coalesce);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+    
+    @GetMapping("/feed/stats")
+    public Map<String, Object> getFeedStats() {
+        return attackFeed.getStats();
+    }
+    
     @GetMapping("/stats")
     public Map<String, Object> getStats() {
         return attackService.getStats();
     }
     
+    /**
+     * Attack counts per second, minute or hour from the ingest-time rollups.
+     * Defaults to the last 60 buckets at the chosen resolution.
+     */
+    @GetMapping("/timeseries")
+    public Map<String, Object> getTimeseries(@RequestParam(defaultValue = "minute") String resolution,
+                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        AttackRollups.Resolution step;
+        try {
+            step = AttackRollups.Resolution.parse(resolution);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "resolution must be second, minute or hour");
+        }
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusSeconds(60 * step.getWidthSeconds());
+        return attackService.getTimeseries(step, start, end);
+    }
+    
+    @GetMapping("/retention")
+    public Map<String, Object> getRetentionStats() {
+        return attackService.getRetentionStats();
+    }
+    
+    @GetMapping("/enrichment")
+    public Map<String, Object> getEnrichmentStats() {
+        return attackService.getEnrichmentStats();
+    }
+    
+    /** Reloads the IP range database now instead of waiting for the file watcher; the old one stays on failure. */
+    @PostMapping("/enrichment/reload")
+    public Map<String, Object> reloadEnrichment() {
+        try {
+            return attackService.reloadEnrichment();
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, e.getMessage());
+        }
+    }
+    
+    @GetMapping("/persistence")
+    public Map<String, Object> getPersistenceStats() {
+        return attackService.getPersistenceStats();
+    }
+    
     @PostMapping("/log")
     public String logAttack(@RequestBody AttackLog attack) {
         attackService.logAttack(attack);
@@ -0,0 +1,21 @@
+package com.iot.honeypot.controller;
+
+import com.iot.honeypot.service.AttackService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/credentials")
+@CrossOrigin(origins = "*")
+public class CredentialController {
+    
+    @Autowired
+    private AttackService attackService;
+    
+    /** Most tried usernames, passwords and pairs since startup, read off the dictionary's counters. */
+    @GetMapping("/top")
+    public Map<String, Object> getTop(@RequestParam(defaultValue = "10") int limit) {
+        return attackService.getTopCredentials(limit);
+    }
+}
\ No newline at end of file
@@ -1,10 +1,17 @@
 package com.iot.honeypot.controller;
 
-import com.iot.honeypot.honeypot.HttpHoneypot;
-import com.iot.honeypot.honeypot.TelnetHoneypot;
+import com.iot.honeypot.admission.AdmissionController;
+import com.iot.honeypot.admission.SourceClassifier;
+import com.iot.honeypot.device.DeviceRuntime;
+import com.iot.honeypot.honeypot.SshHoneypot;
+import com.iot.honeypot.listener.HandlerExecutors;
 import com.iot.honeypot.service.HoneypotService;
+import com.iot.honeypot.tarpit.Tarpit;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import java.io.IOException;
 import java.util.Map;
 
 @RestController
@@ -16,10 +23,22 @@ public class ServiceController {
     private HoneypotService honeypotService;
     
     @Autowired
-    private TelnetHoneypot telnetHoneypot;
+    private HandlerExecutors handlerExecutors;
     
     @Autowired
-    private HttpHoneypot httpHoneypot;
+    private Tarpit tarpit;
+    
+    @Autowired
+    private AdmissionController admission;
+    
+    @Autowired
+    private SourceClassifier classifier;
+    
+    @Autowired
+    private DeviceRuntime deviceRuntime;
+    
+    @Autowired
+    private SshHoneypot sshHoneypot;
     
     @GetMapping("/status")
     public Map<String, Object> getServiceStatus() {
@@ -28,19 +47,14 @@ public class ServiceController {
     
     @PostMapping("/{serviceName}/toggle")
     public Map<String, Object> toggleService(@PathVariable String serviceName) {
-        boolean newStatus = honeypotService.toggleService(serviceName);
-        
-        // Actually start/stop the service
-        switch (serviceName.toLowerCase()) {
-            case "telnet":
-                if (newStatus) telnetHoneypot.start();
-                else telnetHoneypot.stop();
-                break;
-            case "http":
-                if (newStatus) httpHoneypot.start();
-                else httpHoneypot.stop();
-                break;
+        if (!honeypotService.hasService(serviceName)) {
+            return Map.of(
+                "service", serviceName,
+                "running", false,
+                "message", "Unknown service: " + serviceName
+            );
         }
+        boolean newStatus = honeypotService.toggleService(serviceName);
         
         return Map.of(
             "service", serviceName,
@@ -49,6 +63,51 @@ public class ServiceController {
         );
     }
     
+    @GetMapping("/execution")
+    public Map<String, Object> getExecutionGauges() {
+        return handlerExecutors.getGauges();
+    }
+    
+    @GetMapping("/tarpit")
+    public Map<String, Object> getTarpitStats() {
+        return tarpit.getStats();
+    }
+    
+    @GetMapping("/admission")
+    public Map<String, Object> getAdmissionStats() {
+        return admission.getStats();
+    }
+    
+    @GetMapping("/classifier")
+    public Map<String, Object> getClassifierStats() {
+        return classifier.getStats();
+    }
+    
+    @PostMapping("/classifier/reload")
+    public Map<String, Object> reloadClassifier() {
+        try {
+            return classifier.reload();
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, e.getMessage());
+        }
+    }
+    
+    @GetMapping("/http/templates")
+    public Map<String, Object> getHttpTemplates() {
+        return deviceRuntime.getTemplateStats();
+    }
+    
+    @PostMapping("/http/templates/reload")
+    public Map<String, Object> reloadHttpTemplates() {
+        int pages = deviceRuntime.reloadTemplates();
+        return Map.of("pages", pages, "message", "HTTP templates reloaded");
+    }
+    
+    @GetMapping("/ssh/handshakes")
+    public Map<String, Object> getSshHandshakes() {
+        return sshHoneypot.getStats();
+    }
+    
     @GetMapping("/health")
     public Map<String, String> health() {
         return Map.of("status", "✅ Backend is healthy and running!");
@@ -12,28 +12,6 @@ public class SimpleController {
         return "🚀 IOT HONEYPOT BACKEND IS WORKING!";
     }
     
-    @GetMapping("/attacks")
-    public String getAttacks() {
-        return """
-               [
-                 {
-                   "id": 1,
-                   "sourceIp": "192.168.1.100",
-                   "serviceType": "TELNET",
-                   "message": "Failed login attempt",
-                   "timestamp": "2024-01-15T10:30:00"
-                 },
-                 {
-                   "id": 2,
-                   "sourceIp": "10.0.0.55",
-                   "serviceType": "HTTP", 
-                   "message": "Web interface access",
-                   "timestamp": "2024-01-15T10:25:00"
-                 }
-               ]
-               """;
-    }
-    
     @GetMapping("/stats")
     public String getStats() {
         return """
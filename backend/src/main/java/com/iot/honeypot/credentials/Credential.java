@@ -0,0 +1,38 @@
+package com.iot.honeypot.credentials;
+
+/**
+ * One distinct username or password. Interned credentials are shared by every
+ * record that captured the same text, so a record costs a reference rather
+ * than its own copy of the string; the id is the value's slot in the
+ * {@link CredentialDictionary}. Detached credentials have no id: they were
+ * read back from storage or arrived after the dictionary filled up.
+ */
+public final class Credential {
+    public static final int DETACHED = -1;
+    
+    private final int id;
+    private final String value;
+    
+    Credential(int id, String value) {
+        this.id = id;
+        this.value = value;
+    }
+    
+    /** Wraps {@code value} without interning it; {@code null} stays {@code null}. */
+    public static Credential detached(String value) {
+        return value == null ? null : new Credential(DETACHED, value);
+    }
+    
+    public int getId() { return id; }
+    
+    public String getValue() { return value; }
+    
+    public boolean isInterned() {
+        return id != DETACHED;
+    }
+    
+    @Override
+    public String toString() {
+        return value;
+    }
+}
\ No newline at end of file
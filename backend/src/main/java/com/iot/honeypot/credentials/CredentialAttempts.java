@@ -0,0 +1,95 @@
+package com.iot.honeypot.credentials;
+
+/**
+ * Text form of the login attempts a record carries, for storage that keeps
+ * them as one string: each credential in turn, username then password, as
+ * {@code <length>:<value>}, {@code -} for a missing one, or {@code #<id>:} for
+ * an interned one where the reader has the same dictionary. So
+ * {@code 4:root6:xc3511-} is root/xc3511 followed by a login whose client
+ * hung up before giving the password. Lengths count chars, so any text
+ * survives unescaped.
+ */
+public final class CredentialAttempts {
+    
+    private CredentialAttempts() {
+    }
+    
+    /**
+     * Spells out {@code attempts} (username, password pairs) by value, whole
+     * pairs only, stopping before the text would pass {@code maxLength};
+     * {@code null} for none.
+     */
+    public static String encode(Credential[] attempts, int maxLength) {
+        return encode(attempts, maxLength, false);
+    }
+    
+    /** As {@link #encode(Credential[], int)}, but interned credentials are written as their ids. */
+    public static String encodeIds(Credential[] attempts, int maxLength) {
+        return encode(attempts, maxLength, true);
+    }
+    
+    /** Reads back text from {@link #encode}; ids are resolved in {@code dictionary}, if there is one. */
+    public static Credential[] decode(String text, CredentialDictionary dictionary) {
+        if (text == null || text.isEmpty()) return null;
+        Credential[] attempts = new Credential[8];
+        int count = 0;
+        int position = 0;
+        try {
+            while (position < text.length()) {
+                Credential credential = null;
+                char first = text.charAt(position);
+                if (first == '-') {
+                    position++;
+                } else if (first == '#') {
+                    int colon = text.indexOf(':', position);
+                    int id = Integer.parseInt(text.substring(position + 1, colon));
+                    credential = dictionary != null ? dictionary.get(id) : null;
+                    position = colon + 1;
+                } else {
+                    int colon = text.indexOf(':', position);
+                    int length = Integer.parseInt(text.substring(position, colon));
+                    credential = Credential.detached(text.substring(colon + 1, colon + 1 + length));
+                    position = colon + 1 + length;
+                }
+                if (count == attempts.length) {
+                    Credential[] grown = new Credential[count * 2];
+                    System.arraycopy(attempts, 0, grown, 0, count);
+                    attempts = grown;
+                }
+                attempts[count++] = credential;
+            }
+        } catch (RuntimeException e) {
+            // Cut short or damaged: keep the whole pairs read so far
+        }
+        count &= ~1;
+        if (count == 0) return null;
+        Credential[] exact = new Credential[count];
+        System.arraycopy(attempts, 0, exact, 0, count);
+        return exact;
+    }
+    
+    private static String encode(Credential[] attempts, int maxLength, boolean ids) {
+        if (attempts == null || attempts.length < 2) return null;
+        StringBuilder text = new StringBuilder(attempts.length * 12);
+        for (int i = 0; i + 1 < attempts.length; i += 2) {
+            int pairStart = text.length();
+            append(text, attempts[i], ids);
+            append(text, attempts[i + 1], ids);
+            if (text.length() > maxLength) {
+                text.setLength(pairStart);
+                break;
+            }
+        }
+        return text.length() == 0 ? null : text.toString();
+    }
+    
+    private static void append(StringBuilder text, Credential credential, boolean ids) {
+        if (credential == null) {
+            text.append('-');
+        } else if (ids && credential.isInterned()) {
+            text.append('#').append(credential.getId()).append(':');
+        } else {
+            text.append(credential.getValue().length()).append(':').append(credential.getValue());
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,222 @@
+package com.iot.honeypot.credentials;
+
+import com.iot.honeypot.entity.AttackLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Every distinct username and password seen at ingest, each interned once
+ * under a dense integer id with its own hit counters. Botnets cycle through
+ * a few hundred credential pairs, so stored records end up pointing at a
+ * handful of shared entries, and the most tried usernames, passwords and
+ * pairs are read straight off the counters.
+ *
+ * <p>At most {@code capacity} values are interned and ids are never reused,
+ * so a credential keeps its id for the life of the process. Once full, new
+ * values stay detached on their record and are counted as untracked; pairs
+ * are bounded the same way.
+ */
+@Component
+public class CredentialDictionary {
+    private static final int MAX_TOP = 1000;
+    
+    private final int capacity;
+    private final Map<String, Entry> byValue = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<Entry> byId;
+    private final AtomicInteger nextId = new AtomicInteger();
+    private final Map<Long, LongAdder> pairs = new ConcurrentHashMap<>();
+    private final LongAdder untracked = new LongAdder();
+    
+    public CredentialDictionary(@Value("${honeypot.credentials.capacity:65536}") int capacity) {
+        this.capacity = Math.max(1, capacity);
+        this.byId = new AtomicReferenceArray<>(this.capacity);
+    }
+    
+    /**
+     * Swaps the attack's credentials for their interned entries and counts
+     * every login it holds: each of its attempts, or the username and
+     * password fields when it has no attempt list. Pairs are counted when
+     * both halves are set.
+     */
+    public void record(AttackLog attack) {
+        Entry username = intern(attack.getUsername());
+        Entry password = intern(attack.getPassword());
+        if (username != null) attack.setUsername(username.credential);
+        if (password != null) attack.setPassword(password.credential);
+        Credential[] attempts = attack.getAttemptCredentials();
+        if (attempts == null) {
+            count(username, password);
+            return;
+        }
+        for (int i = 0; i + 1 < attempts.length; i += 2) {
+            Entry attemptUsername = intern(attempts[i]);
+            Entry attemptPassword = intern(attempts[i + 1]);
+            if (attemptUsername != null) attempts[i] = attemptUsername.credential;
+            if (attemptPassword != null) attempts[i + 1] = attemptPassword.credential;
+            count(attemptUsername, attemptPassword);
+        }
+    }
+    
+    private void count(Entry username, Entry password) {
+        if (username != null) username.asUsername.increment();
+        if (password != null) password.asPassword.increment();
+        if (username != null && password != null) {
+            long key = (long) username.credential.getId() << 32 | password.credential.getId();
+            LongAdder count = pairs.size() < capacity ? pairs.computeIfAbsent(key, k -> new LongAdder()) : pairs.get(key);
+            if (count != null) {
+                count.increment();
+            } else {
+                untracked.increment();
+            }
+        }
+    }
+    
+    /** The interned credential with this id, or {@code null}. */
+    public Credential get(int id) {
+        if (id < 0 || id >= capacity) return null;
+        Entry entry = byId.get(id);
+        return entry == null ? null : entry.credential;
+    }
+    
+    public int size() {
+        return Math.min(nextId.get(), capacity);
+    }
+    
+    /** Zeroes every counter. Ids stay assigned, so credentials already handed out stay valid. */
+    public void reset() {
+        int size = size();
+        for (int id = 0; id < size; id++) {
+            Entry entry = byId.get(id);
+            if (entry != null) {
+                entry.asUsername.reset();
+                entry.asPassword.reset();
+            }
+        }
+        pairs.clear();
+        untracked.reset();
+    }
+    
+    /** The {@code limit} most tried usernames, passwords and pairs, most tried first. */
+    public Map<String, Object> getTop(int limit) {
+        int top = Math.max(1, Math.min(limit, MAX_TOP));
+        int size = size();
+        PriorityQueue<Ranked<String>> usernames = new PriorityQueue<>();
+        PriorityQueue<Ranked<String>> passwords = new PriorityQueue<>();
+        for (int id = 0; id < size; id++) {
+            Entry entry = byId.get(id);
+            if (entry == null) continue;
+            offer(usernames, entry.credential.getValue(), entry.asUsername.sum(), top);
+            offer(passwords, entry.credential.getValue(), entry.asPassword.sum(), top);
+        }
+        PriorityQueue<Ranked<Long>> topPairs = new PriorityQueue<>();
+        for (Map.Entry<Long, LongAdder> pair : pairs.entrySet()) {
+            offer(topPairs, pair.getKey(), pair.getValue().sum(), top);
+        }
+        
+        List<Map<String, Object>> pairRows = new ArrayList<>(topPairs.size());
+        for (Ranked<Long> pair : drainDescending(topPairs)) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("username", get((int) (pair.item >>> 32)).getValue());
+            row.put("password", get((int) (long) pair.item).getValue());
+            row.put("count", pair.count);
+            pairRows.add(row);
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("distinct", size);
+        result.put("capacity", capacity);
+        result.put("untracked", untracked.sum());
+        result.put("usernames", rows(drainDescending(usernames)));
+        result.put("passwords", rows(drainDescending(passwords)));
+        result.put("pairs", pairRows);
+        return result;
+    }
+    
+    /** The shared entry for {@code credential}, interning it if there is room; {@code null} if there is none. */
+    private Entry intern(Credential credential) {
+        if (credential == null) return null;
+        if (credential.isInterned()) {
+            Entry entry = byId.get(credential.getId());
+            if (entry != null && entry.credential == credential) return entry;
+        }
+        String value = credential.getValue();
+        Entry entry = byValue.get(value);
+        if (entry == null && nextId.get() < capacity) {
+            entry = byValue.computeIfAbsent(value, v -> {
+                int id = nextId.getAndIncrement();
+                if (id >= capacity) return null;
+                Entry created = new Entry(new Credential(id, v));
+                byId.set(id, created);
+                return created;
+            });
+        }
+        if (entry == null) untracked.increment();
+        return entry;
+    }
+    
+    /** Keeps the {@code limit} largest counts in a min-heap. */
+    private static <T> void offer(PriorityQueue<Ranked<T>> heap, T item, long count, int limit) {
+        if (count <= 0) return;
+        if (heap.size() < limit) {
+            heap.add(new Ranked<>(item, count));
+        } else if (count > heap.peek().count) {
+            heap.poll();
+            heap.add(new Ranked<>(item, count));
+        }
+    }
+    
+    private static <T> List<Ranked<T>> drainDescending(PriorityQueue<Ranked<T>> heap) {
+        List<Ranked<T>> ranked = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            ranked.add(heap.poll());
+        }
+        Collections.reverse(ranked);
+        return ranked;
+    }
+    
+    private static List<Map<String, Object>> rows(List<Ranked<String>> ranked) {
+        List<Map<String, Object>> rows = new ArrayList<>(ranked.size());
+        for (Ranked<String> entry : ranked) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("value", entry.item);
+            row.put("count", entry.count);
+            rows.add(row);
+        }
+        return rows;
+    }
+    
+    /** A count snapshot, so the heap never sees a counter move under it. */
+    private static final class Ranked<T> implements Comparable<Ranked<T>> {
+        final T item;
+        final long count;
+        
+        Ranked(T item, long count) {
+            this.item = item;
+            this.count = count;
+        }
+        
+        @Override
+        public int compareTo(Ranked<T> other) {
+            return Long.compare(count, other.count);
+        }
+    }
+    
+    private static final class Entry {
+        final Credential credential;
+        final LongAdder asUsername = new LongAdder();
+        final LongAdder asPassword = new LongAdder();
+        
+        Entry(Credential credential) {
+            this.credential = credential;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,81 @@
+package com.iot.honeypot.device;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One emulated device: the protocol it speaks, the ports it answers on and
+ * its persona. {@code device} is the name attacks are logged under and the
+ * key of its tarpit profile. Telnet devices send {@code banner}; HTTP devices
+ * serve {@code pages} with {@code server} as the Server header.
+ * <p>
+ * Pages are keyed by an arbitrary page name. A page whose path ends in
+ * {@code /} answers every path under it; any other path must match exactly
+ * (query string ignored). The longest match wins, so a page at {@code /}
+ * catches everything else.
+ */
+public class DeviceProfile {
+    private String protocol;
+    private String device;
+    private String description = "";
+    private List<Integer> ports = new ArrayList<>();
+    private boolean enabled = true;
+    private String banner = "";
+    private String server = "";
+    private Map<String, Page> pages = new LinkedHashMap<>();
+    
+    public String getProtocol() { return protocol; }
+    public void setProtocol(String protocol) { this.protocol = protocol; }
+    
+    public String getDevice() { return device; }
+    public void setDevice(String device) { this.device = device; }
+    
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+    
+    public List<Integer> getPorts() { return ports; }
+    public void setPorts(List<Integer> ports) { this.ports = ports; }
+    
+    /** Whether the device starts with the application; it can still be toggled either way. */
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    
+    public String getBanner() { return banner; }
+    public void setBanner(String banner) { this.banner = banner; }
+    
+    public String getServer() { return server; }
+    public void setServer(String server) { this.server = server; }
+    
+    public Map<String, Page> getPages() { return pages; }
+    public void setPages(Map<String, Page> pages) { this.pages = pages; }
+    
+    public static class Page {
+        private String path = "/";
+        private int status = 200;
+        private String reason = "OK";
+        private String contentType = "text/html";
+        /** Resource location of the body, e.g. {@code classpath:http/dlink/index.html} or {@code file:pages/x.html}. */
+        private String body;
+        private Map<String, String> headers = new LinkedHashMap<>();
+        
+        public String getPath() { return path; }
+        public void setPath(String path) { this.path = path; }
+        
+        public int getStatus() { return status; }
+        public void setStatus(int status) { this.status = status; }
+        
+        public String getReason() { return reason; }
+        public void setReason(String reason) { this.reason = reason; }
+        
+        public String getContentType() { return contentType; }
+        public void setContentType(String contentType) { this.contentType = contentType; }
+        
+        public String getBody() { return body; }
+        public void setBody(String body) { this.body = body; }
+        
+        public Map<String, String> getHeaders() { return headers; }
+        public void setHeaders(Map<String, String> headers) { this.headers = headers; }
+    }
+}
\ No newline at end of file
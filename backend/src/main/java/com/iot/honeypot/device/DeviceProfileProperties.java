@@ -0,0 +1,21 @@
+package com.iot.honeypot.device;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code honeypot.devices.*}: the device profiles this process emulates,
+ * keyed by profile id. The shipped set lives in {@code devices.properties};
+ * an optional {@code ./devices.properties} next to the jar adds profiles or
+ * overrides single settings of the shipped ones.
+ */
+@Component
+@ConfigurationProperties(prefix = "honeypot.devices")
+public class DeviceProfileProperties {
+    private Map<String, DeviceProfile> profiles = new LinkedHashMap<>();
+    
+    public Map<String, DeviceProfile> getProfiles() { return profiles; }
+    public void setProfiles(Map<String, DeviceProfile> profiles) { this.profiles = profiles; }
+}
\ No newline at end of file
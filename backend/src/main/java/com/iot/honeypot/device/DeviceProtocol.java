@@ -0,0 +1,25 @@
+package com.iot.honeypot.device;
+
+import com.iot.honeypot.listener.ProtocolHandler;
+import java.net.Socket;
+
+/**
+ * A protocol the {@link DeviceRuntime} can serve device profiles with. One
+ * instance serves every device of its protocol; everything device-specific
+ * comes from the {@link EmulatedDevice} passed in.
+ */
+public interface DeviceProtocol {
+    
+    /** The {@code protocol} value profiles use to select this implementation. */
+    String getName();
+    
+    /** Handler for one connection accepted by the {@code nio} listener engine. */
+    ProtocolHandler newSession(EmulatedDevice device);
+    
+    /**
+     * Thread-per-connection handler for the blocking modes; it owns and
+     * closes {@code socket}. {@code sourceTag} is the classifier list the
+     * peer is on, or {@code null}.
+     */
+    Runnable newHandler(Socket socket, String sourceTag, EmulatedDevice device);
+}
\ No newline at end of file
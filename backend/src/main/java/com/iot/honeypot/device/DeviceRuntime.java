@@ -0,0 +1,288 @@
+package com.iot.honeypot.device;
+
+import com.iot.honeypot.admission.Admission;
+import com.iot.honeypot.admission.AdmissionController;
+import com.iot.honeypot.admission.AdmissionDecision;
+import com.iot.honeypot.listener.HandlerExecutors;
+import com.iot.honeypot.listener.ListenerEngine;
+import com.iot.honeypot.listener.ServerBinding;
+import com.iot.honeypot.metrics.HoneypotMetrics;
+import com.iot.honeypot.metrics.ListenerMetrics;
+import com.iot.honeypot.tarpit.Tarpit;
+import com.iot.honeypot.tarpit.TarpitPlan;
+import com.iot.honeypot.tarpit.TarpitTarget;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Serves every configured device profile through one accept and dispatch
+ * path. In {@code nio} mode each port is a binding on the shared
+ * {@link ListenerEngine}; in the blocking modes each port gets an accept loop
+ * on one executor shared by all devices. Either way, admission control runs
+ * here and the device's {@link DeviceProtocol} only ever sees admitted
+ * connections. Devices start and stop independently.
+ */
+@Component
+public class DeviceRuntime {
+    private static final Logger log = LoggerFactory.getLogger(DeviceRuntime.class);
+    
+    private final ListenerEngine listenerEngine;
+    private final HandlerExecutors handlerExecutors;
+    private final AdmissionController admission;
+    private final Tarpit tarpit;
+    private final Map<String, DeviceListener> devices = new LinkedHashMap<>();
+    private ExecutorService executor;
+    
+    public DeviceRuntime(DeviceProfileProperties properties, List<DeviceProtocol> protocols,
+                         ListenerEngine listenerEngine, HandlerExecutors handlerExecutors,
+                         AdmissionController admission, Tarpit tarpit, HoneypotMetrics honeypotMetrics,
+                         ResourceLoader resources) {
+        this.listenerEngine = listenerEngine;
+        this.handlerExecutors = handlerExecutors;
+        this.admission = admission;
+        this.tarpit = tarpit;
+        Map<String, DeviceProtocol> byName = new LinkedHashMap<>();
+        for (DeviceProtocol protocol : protocols) {
+            byName.put(protocol.getName(), protocol);
+        }
+        for (Map.Entry<String, DeviceProfile> entry : properties.getProfiles().entrySet()) {
+            String id = entry.getKey();
+            DeviceProfile profile = entry.getValue();
+            DeviceProtocol protocol = byName.get(profile.getProtocol());
+            if (protocol == null) {
+                log.warn("⚠️ Skipping device {}: unknown protocol '{}'", id, profile.getProtocol());
+            } else if (profile.getPorts().isEmpty()) {
+                log.warn("⚠️ Skipping device {}: no ports", id);
+            } else {
+                if (profile.getDevice() == null) profile.setDevice(id);
+                EmulatedDevice device = new EmulatedDevice(id, profile, honeypotMetrics.listener(id), resources);
+                devices.put(id, new DeviceListener(device, protocol));
+            }
+        }
+        log.info("📟 {} device profiles loaded: {}", devices.size(), devices.keySet());
+    }
+    
+    /** Starts every profile marked enabled once the application is up. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startEnabled() {
+        for (DeviceListener listener : devices.values()) {
+            if (listener.device.getProfile().isEnabled()) {
+                start(listener.device.getId());
+            }
+        }
+    }
+    
+    public boolean contains(String id) {
+        return devices.containsKey(id);
+    }
+    
+    /** Opens the device's ports; true if at least one of them is listening. */
+    public synchronized boolean start(String id) {
+        DeviceListener listener = devices.get(id);
+        if (listener == null) return false;
+        listener.start();
+        return listener.isRunning();
+    }
+    
+    public synchronized void stop(String id) {
+        DeviceListener listener = devices.get(id);
+        if (listener != null) listener.stop();
+    }
+    
+    /** Starts a stopped device or stops a running one; returns whether it is running afterwards. */
+    public synchronized boolean toggle(String id) {
+        DeviceListener listener = devices.get(id);
+        if (listener == null) return false;
+        if (listener.isRunning()) {
+            listener.stop();
+        } else {
+            listener.start();
+        }
+        return listener.isRunning();
+    }
+    
+    public boolean isRunning(String id) {
+        DeviceListener listener = devices.get(id);
+        return listener != null && listener.isRunning();
+    }
+    
+    public synchronized Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        for (DeviceListener listener : devices.values()) {
+            DeviceProfile profile = listener.device.getProfile();
+            Map<String, Object> device = new LinkedHashMap<>();
+            device.put("running", listener.isRunning());
+            device.put("protocol", profile.getProtocol());
+            device.put("device", profile.getDevice());
+            device.put("description", profile.getDescription());
+            device.put("ports", profile.getPorts());
+            device.put("listening", listener.listeningPorts());
+            device.put("activeSessions", listener.device.getMetrics().getActiveSessions());
+            status.put(listener.device.getId(), device);
+        }
+        return status;
+    }
+    
+    /** Rendered pages of every HTTP device, by device id. */
+    public Map<String, Object> getTemplateStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (DeviceListener listener : devices.values()) {
+            if (listener.device.getTemplates() != null) {
+                stats.put(listener.device.getId(), listener.device.getTemplates().getStats());
+            }
+        }
+        return stats;
+    }
+    
+    /** Re-renders the pages of every HTTP device; returns the total number of pages loaded. */
+    public int reloadTemplates() {
+        int pages = 0;
+        for (DeviceListener listener : devices.values()) {
+            if (listener.device.getTemplates() != null) {
+                pages += listener.device.getTemplates().reload();
+            }
+        }
+        return pages;
+    }
+    
+    @PreDestroy
+    public synchronized void shutdown() {
+        for (DeviceListener listener : devices.values()) {
+            listener.stop();
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+    
+    /** The executor shared by all blocking-mode accept loops and handlers, created on first use. */
+    private ExecutorService executor() {
+        if (executor == null) {
+            executor = handlerExecutors.newExecutor();
+        }
+        return executor;
+    }
+    
+    /** Applies admission control to a blocking-mode connection; the admission if it should be served, null otherwise. */
+    private Admission admit(Socket socket, ListenerMetrics metrics) {
+        Admission admitted = admission.decide(socket.getInetAddress(), handlerExecutors.getActiveSessions());
+        AdmissionDecision decision = admitted.getDecision();
+        metrics.admitted(decision);
+        if (decision == AdmissionDecision.ACCEPT) return admitted;
+        if (decision == AdmissionDecision.TARPIT) {
+            tarpit.run(TarpitTarget.of(socket, metrics), new TarpitPlan().pause(admission.getTarpitHoldMillis()).close())
+                  .whenComplete((done, error) -> admission.tarpitEnded());
+        } else {
+            try {
+                socket.setSoLinger(true, 0);
+                socket.close();
+            } catch (IOException e) {
+                // Ignore
+            }
+        }
+        return null;
+    }
+    
+    /** The open ports of one device. Guarded by the runtime's lock. */
+    private class DeviceListener {
+        private final EmulatedDevice device;
+        private final DeviceProtocol protocol;
+        private final List<ServerBinding> bindings = new ArrayList<>();
+        private final List<ServerSocket> serverSockets = new ArrayList<>();
+        private volatile boolean running;
+        
+        DeviceListener(EmulatedDevice device, DeviceProtocol protocol) {
+            this.device = device;
+            this.protocol = protocol;
+        }
+        
+        boolean isRunning() {
+            return running;
+        }
+        
+        void start() {
+            if (running) return;
+            boolean nio = handlerExecutors.getMode() == HandlerExecutors.Mode.NIO;
+            for (int port : device.getProfile().getPorts()) {
+                try {
+                    if (nio) {
+                        bindings.add(listenerEngine.bind(port, device.getMetrics(), () -> protocol.newSession(device)));
+                    } else {
+                        ServerSocket serverSocket = new ServerSocket(port);
+                        serverSockets.add(serverSocket);
+                        executor().execute(() -> acceptLoop(serverSocket));
+                    }
+                } catch (IOException e) {
+                    log.warn("❌ Failed to open port {} for {}: {}", port, device.getId(), e.getMessage());
+                }
+            }
+            running = !bindings.isEmpty() || !serverSockets.isEmpty();
+            if (running) {
+                log.info("📟 {} ({}) started on ports {} ({})", device.getId(), protocol.getName(),
+                        listeningPorts(), handlerExecutors.getMode().name().toLowerCase());
+            }
+        }
+        
+        void stop() {
+            if (!running) return;
+            running = false;
+            for (ServerBinding binding : bindings) {
+                binding.close();
+            }
+            bindings.clear();
+            for (ServerSocket serverSocket : serverSockets) {
+                try {
+                    serverSocket.close();
+                } catch (IOException e) {
+                    log.warn("Error closing port {} of {}: {}", serverSocket.getLocalPort(), device.getId(), e.getMessage());
+                }
+            }
+            serverSockets.clear();
+            log.info("🛑 {} stopped", device.getId());
+        }
+        
+        List<Integer> listeningPorts() {
+            List<Integer> ports = new ArrayList<>();
+            for (ServerBinding binding : bindings) {
+                ports.add(binding.getPort());
+            }
+            for (ServerSocket serverSocket : serverSockets) {
+                ports.add(serverSocket.getLocalPort());
+            }
+            return ports;
+        }
+        
+        private void acceptLoop(ServerSocket serverSocket) {
+            ExecutorService handlers = executor();
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket clientSocket = serverSocket.accept();
+                    Admission admitted = admit(clientSocket, device.getMetrics());
+                    if (admitted != null) {
+                        handlers.execute(handlerExecutors.tracked(protocol.newHandler(clientSocket, admitted.getSourceTag(), device)));
+                    }
+                } catch (SocketException e) {
+                    if (!serverSocket.isClosed()) {
+                        log.warn("❌ {} socket error: {}", device.getId(), e.getMessage());
+                    }
+                } catch (IOException e) {
+                    log.warn("❌ {} accept failed: {}", device.getId(), e.getMessage());
+                }
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.iot.honeypot.device;
+
+import com.iot.honeypot.honeypot.HttpResponseTemplates;
+import com.iot.honeypot.metrics.ListenerMetrics;
+import org.springframework.core.io.ResourceLoader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A device profile prepared for serving: its banner encoded and its pages
+ * rendered once, plus the listener meters all of its ports share.
+ */
+public final class EmulatedDevice {
+    private final String id;
+    private final DeviceProfile profile;
+    private final ListenerMetrics metrics;
+    private final byte[] banner;
+    private final HttpResponseTemplates templates;
+    
+    EmulatedDevice(String id, DeviceProfile profile, ListenerMetrics metrics, ResourceLoader resources) {
+        this.id = id;
+        this.profile = profile;
+        this.metrics = metrics;
+        this.banner = profile.getBanner().getBytes(StandardCharsets.UTF_8);
+        this.templates = "http".equals(profile.getProtocol())
+                ? new HttpResponseTemplates(id, profile.getServer(), profile.getPages(), resources)
+                : null;
+    }
+    
+    public String getId() { return id; }
+    
+    /** The device name attacks are logged under, e.g. {@code TP-Link Router}. */
+    public String getDevice() { return profile.getDevice(); }
+    
+    public DeviceProfile getProfile() { return profile; }
+    
+    public ListenerMetrics getMetrics() { return metrics; }
+    
+    /** The telnet banner, ending in the login prompt. Must not be modified. */
+    public byte[] getBanner() { return banner; }
+    
+    /** The rendered pages of an HTTP device; null for other protocols. */
+    public HttpResponseTemplates getTemplates() { return templates; }
+}
\ No newline at end of file
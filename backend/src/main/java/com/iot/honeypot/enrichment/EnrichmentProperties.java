@@ -0,0 +1,30 @@
+package com.iot.honeypot.enrichment;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code honeypot.enrichment.*} settings. The database is a Spring resource
+ * location; a {@code reloadCheckMs} of 0 turns off watching it for changes,
+ * and a {@code cacheSize} of 0 sends every lookup to the trie.
+ */
+@Component
+@ConfigurationProperties(prefix = "honeypot.enrichment")
+public class EnrichmentProperties {
+    private boolean enabled = true;
+    private String database = "classpath:ip-ranges.csv";
+    private int cacheSize = 16384;
+    private long reloadCheckMs = 10000;
+    
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    
+    public String getDatabase() { return database; }
+    public void setDatabase(String database) { this.database = database; }
+    
+    public int getCacheSize() { return cacheSize; }
+    public void setCacheSize(int cacheSize) { this.cacheSize = cacheSize; }
+    
+    public long getReloadCheckMs() { return reloadCheckMs; }
+    public void setReloadCheckMs(long reloadCheckMs) { this.reloadCheckMs = reloadCheckMs; }
+}
\ No newline at end of file
@@ -0,0 +1,139 @@
+package com.iot.honeypot.enrichment;
+
+import com.iot.honeypot.entity.AttackLog;
+import com.iot.honeypot.net.WatchedResources;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Resolves source addresses to their ASN, organization and country from the
+ * range database at {@code honeypot.enrichment.database}, with an LRU cache
+ * in front for scanners that keep coming back. Lookups read an immutable
+ * snapshot of database and cache held by {@link WatchedResources}, so
+ * ingest never waits for a reload, and the file is reloaded whenever its
+ * modification time changes.
+ */
+@Component
+public class IpEnricher {
+    private static final Logger log = LoggerFactory.getLogger(IpEnricher.class);
+    private final EnrichmentProperties properties;
+    private final ResourceLoader resources;
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder resolved = new LongAdder();
+    private final LongAdder reloads = new LongAdder();
+    private final LongAdder reloadFailures = new LongAdder();
+    private final WatchedResources<Snapshot> snapshots;
+    
+    public IpEnricher(EnrichmentProperties properties, ResourceLoader resources) {
+        this.properties = properties;
+        this.resources = resources;
+        this.snapshots = new WatchedResources<>("IP range database", resources,
+                Collections.singletonList(properties.getDatabase()), new Snapshot(IpRangeDatabase.empty(), null), this::load);
+    }
+    
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) return;
+        try {
+            reload();
+        } catch (IOException e) {
+            log.error("❌ IP range database not loaded, records stay unenriched: {}", e.getMessage());
+        }
+        snapshots.watch("honeypot-enrichment", properties.getReloadCheckMs(), this::reload);
+    }
+    
+    /** Sets the network of {@code attack} from its source IP unless it already has one. */
+    public void enrich(AttackLog attack) {
+        if (attack.getNetwork() == null) {
+            attack.setNetwork(lookup(attack.getSourceIp()));
+        }
+    }
+    
+    /** The network {@code address} belongs to, or {@code null} if it is in no listed range or enrichment is off. */
+    public NetworkInfo lookup(String address) {
+        Snapshot snapshot = snapshots.get();
+        if (address == null || snapshot.database.nodeCount() == 0) return null;
+        lookups.increment();
+        NetworkInfo network = snapshot.cache != null ? snapshot.cache.get(address) : null;
+        if (network != null) {
+            cacheHits.increment();
+        } else {
+            network = snapshot.database.lookup(address);
+            if (snapshot.cache != null) snapshot.cache.put(address, network);
+        }
+        if (network == LookupCache.MISS || network == null) return null;
+        resolved.increment();
+        return network;
+    }
+    
+    /** Loads the database again and swaps it in; the previous one stays in use if this fails. */
+    public synchronized Map<String, Object> reload() throws IOException {
+        if (!properties.isEnabled()) throw new IOException("honeypot.enrichment.enabled is false");
+        IpRangeDatabase database = snapshots.reload().database;
+        reloads.increment();
+        log.info("🌐 Loaded {} IP ranges ({} networks) from {} in {} ms",
+                database.prefixCount(), database.networkCount(), properties.getDatabase(), snapshots.loadMillis());
+        return getStats();
+    }
+    
+    public Map<String, Object> getStats() {
+        Snapshot snapshot = snapshots.get();
+        long lookupCount = lookups.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", properties.isEnabled());
+        stats.put("database", properties.getDatabase());
+        stats.put("prefixes", snapshot.database.prefixCount());
+        stats.put("networks", snapshot.database.networkCount());
+        stats.put("trieNodes", snapshot.database.nodeCount());
+        stats.put("loadedAt", snapshots.loadedAt());
+        stats.put("loadMillis", snapshots.loadMillis());
+        stats.put("reloads", reloads.sum());
+        stats.put("reloadFailures", reloadFailures.sum());
+        stats.put("lookups", lookupCount);
+        stats.put("resolved", resolved.sum());
+        stats.put("cacheHits", cacheHits.sum());
+        stats.put("cacheHitRate", lookupCount > 0 ? (double) cacheHits.sum() / lookupCount : 0.0);
+        stats.put("cachedAddresses", snapshot.cache != null ? snapshot.cache.size() : 0);
+        return stats;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        snapshots.shutdown();
+    }
+    
+    private Snapshot load() throws IOException {
+        IpRangeDatabase database;
+        try (Reader reader = new InputStreamReader(resources.getResource(properties.getDatabase()).getInputStream(), StandardCharsets.UTF_8)) {
+            database = IpRangeDatabase.parse(reader);
+        } catch (IOException e) {
+            reloadFailures.increment();
+            throw new IOException(properties.getDatabase() + ": " + e.getMessage(), e);
+        }
+        LookupCache cache = properties.getCacheSize() > 0 ? new LookupCache(properties.getCacheSize()) : null;
+        return new Snapshot(database, cache);
+    }
+    
+    private static final class Snapshot {
+        final IpRangeDatabase database;
+        final LookupCache cache;
+        
+        Snapshot(IpRangeDatabase database, LookupCache cache) {
+            this.database = database;
+            this.cache = cache;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,122 @@
+package com.iot.honeypot.enrichment;
+
+import com.iot.honeypot.net.PrefixTable;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable map from network ranges to {@link NetworkInfo}, loaded from
+ * CSV lines of the form {@code network,asn,organization[,country]} with the
+ * network in CIDR notation. That is the layout of the GeoLite2 ASN CSV, and
+ * a fourth column adds the country. Blank lines, {@code #} comments and a
+ * header line are skipped; fields may be double-quoted. Lookups are a
+ * longest-prefix match in a {@link PrefixTable} whose values index the
+ * distinct networks, so ranges of one AS share a single instance.
+ */
+public final class IpRangeDatabase {
+    private final PrefixTable table;
+    private final NetworkInfo[] networks;
+    
+    private IpRangeDatabase(PrefixTable table, NetworkInfo[] networks) {
+        this.table = table;
+        this.networks = networks;
+    }
+    
+    public static IpRangeDatabase empty() {
+        return new IpRangeDatabase(PrefixTable.empty(), new NetworkInfo[0]);
+    }
+    
+    /** Parses {@code reader} to the end; a malformed data line fails the whole load with its line number. */
+    public static IpRangeDatabase parse(Reader reader) throws IOException {
+        BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        Map<NetworkInfo, Integer> ids = new HashMap<>();
+        List<NetworkInfo> networks = new ArrayList<>();
+        PrefixTable.Builder table = new PrefixTable.Builder();
+        int number = 0;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            number++;
+            line = line.trim();
+            if (line.isEmpty() || line.charAt(0) == '#') continue;
+            List<String> fields = split(line);
+            // Header line, e.g. "network,autonomous_system_number,..."
+            if (networks.isEmpty() && !PrefixTable.isNetwork(fields.get(0))) continue;
+            try {
+                NetworkInfo network = new NetworkInfo(fields.size() > 1 ? parseAsn(fields.get(1)) : 0,
+                        fields.size() > 2 ? fields.get(2) : null,
+                        fields.size() > 3 ? fields.get(3) : null);
+                Integer id = ids.get(network);
+                if (id == null) {
+                    id = networks.size();
+                    ids.put(network, id);
+                    networks.add(network);
+                }
+                // Later lines win, so a file can override an earlier range
+                table.add(fields.get(0), id);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Line " + number + ": " + e.getMessage());
+            }
+        }
+        return new IpRangeDatabase(table.build(), networks.toArray(new NetworkInfo[0]));
+    }
+    
+    /** The most specific range holding {@code address}, or {@code null} if none does or it is not an IP literal. */
+    public NetworkInfo lookup(String address) {
+        int id = table.lookup(address);
+        return id == PrefixTable.NONE ? null : networks[id];
+    }
+    
+    /** Ranges loaded, counting each CSV line once. */
+    public int prefixCount() {
+        return table.size();
+    }
+    
+    /** Distinct ASN, organization and country combinations. */
+    public int networkCount() {
+        return networks.length;
+    }
+    
+    public int nodeCount() {
+        return table.nodeCount();
+    }
+    
+    /** Plain or {@code AS}-prefixed; empty means none. */
+    private static int parseAsn(String text) {
+        if (text.isEmpty()) return 0;
+        boolean prefixed = text.length() > 2 && (text.charAt(0) == 'A' || text.charAt(0) == 'a') && (text.charAt(1) == 'S' || text.charAt(1) == 's');
+        return Integer.parseInt(prefixed ? text.substring(2) : text);
+    }
+    
+    private static List<String> split(String line) {
+        List<String> fields = new ArrayList<>(4);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+}
\ No newline at end of file
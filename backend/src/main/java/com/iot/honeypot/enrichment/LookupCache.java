@@ -0,0 +1,70 @@
+package com.iot.honeypot.enrichment;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded LRU map from address text to its lookup result, split into
+ * stripes by hash so concurrent listeners rarely contend on one lock.
+ * Addresses with no range are cached too, as {@link #MISS}, since repeat
+ * scanners from unlisted space are as common as listed ones.
+ */
+final class LookupCache {
+    static final NetworkInfo MISS = new NetworkInfo(0, null, null);
+    private static final int STRIPES = 16;
+    
+    private final Stripe[] stripes;
+    
+    LookupCache(int capacity) {
+        int perStripe = Math.max(1, capacity / STRIPES);
+        stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+    }
+    
+    /** The cached result, {@link #MISS} for a cached miss, or {@code null} if the address is not cached. */
+    NetworkInfo get(String address) {
+        Stripe stripe = stripeOf(address);
+        synchronized (stripe) {
+            return stripe.get(address);
+        }
+    }
+    
+    void put(String address, NetworkInfo network) {
+        Stripe stripe = stripeOf(address);
+        synchronized (stripe) {
+            stripe.put(address, network == null ? MISS : network);
+        }
+    }
+    
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+    
+    private Stripe stripeOf(String address) {
+        int hash = address.hashCode();
+        return stripes[(hash ^ hash >>> 16) & (STRIPES - 1)];
+    }
+    
+    @SuppressWarnings("serial")
+    private static final class Stripe extends LinkedHashMap<String, NetworkInfo> {
+        private final int capacity;
+        
+        Stripe(int capacity) {
+            super(Math.min(capacity, 1024) * 4 / 3 + 1, 0.75f, true);
+            this.capacity = capacity;
+        }
+        
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, NetworkInfo> eldest) {
+            return size() > capacity;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.iot.honeypot.enrichment;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * What the range database knows about the network an address belongs to.
+ * Instances are shared by every address in the range and by every record
+ * enriched from it. An ASN of 0 means the range has no origin AS on record.
+ */
+public final class NetworkInfo {
+    private final int asn;
+    private final String asnKey;
+    private final String organization;
+    private final String country;
+    
+    public NetworkInfo(int asn, String organization, String country) {
+        this.asn = asn;
+        this.asnKey = asn > 0 ? Integer.toString(asn) : null;
+        this.organization = organization == null || organization.isEmpty() ? null : organization;
+        this.country = country == null || country.isEmpty() ? null : country.toUpperCase(Locale.ROOT);
+    }
+    
+    public int getAsn() { return asn; }
+    
+    /** The ASN as text, or {@code null} without one; kept so indexing a record allocates nothing. */
+    public String getAsnKey() { return asnKey; }
+    
+    public String getOrganization() { return organization; }
+    
+    /** ISO 3166 alpha-2 code, upper case, or {@code null}. */
+    public String getCountry() { return country; }
+    
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (!(other instanceof NetworkInfo)) return false;
+        NetworkInfo that = (NetworkInfo) other;
+        return asn == that.asn && Objects.equals(organization, that.organization) && Objects.equals(country, that.country);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(asn, organization, country);
+    }
+    
+    @Override
+    public String toString() {
+        return "AS" + asn + " " + organization + " (" + country + ")";
+    }
+}
\ No newline at end of file
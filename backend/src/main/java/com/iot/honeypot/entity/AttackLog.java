@@ -0,0 +1,134 @@
+package com.iot.honeypot.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.iot.honeypot.credentials.Credential;
+import com.iot.honeypot.credentials.CredentialAttempts;
+import com.iot.honeypot.enrichment.NetworkInfo;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Entity
+@Table(name = "attack_logs")
+public class AttackLog {
+    public static final int PAYLOAD_LENGTH = 65536;
+    public static final int CREDENTIAL_LENGTH = 1024;
+    
+    // Assigned from the attack store's sequence at ingest rather than an IDENTITY
+    // column, which would force one round trip per row and rule out batch inserts
+    @Id
+    private Long id;
+    
+    private String sourceIp;
+    private String serviceType;
+    @Column(length = PAYLOAD_LENGTH)
+    private String payload;
+    // Shared dictionary entries once ingested; the text columns are mapped through the getters below
+    @Transient
+    private Credential username;
+    @Transient
+    private Credential password;
+    // Every login of a multi-attempt session, username then password, interned like the two above;
+    // null when the record holds at most one, which is then the one in the fields
+    @Transient
+    private Credential[] attempts;
+    private LocalDateTime timestamp;
+    private String deviceEmulated;
+    // Derived from the source IP at ingest and again whenever a record is read back, so never stored
+    @Transient
+    private NetworkInfo network;
+    // Name of the classifier list the connection was admitted under, set by the handler that captured it
+    @Transient
+    private String sourceTag;
+    
+    public AttackLog() {
+        this.timestamp = LocalDateTime.now();
+    }
+    
+    public AttackLog(String sourceIp, String serviceType, String payload, String deviceEmulated) {
+        this();
+        this.sourceIp = sourceIp;
+        this.serviceType = serviceType;
+        this.payload = payload;
+        this.deviceEmulated = deviceEmulated;
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getSourceIp() { return sourceIp; }
+    public void setSourceIp(String sourceIp) { this.sourceIp = sourceIp; }
+    
+    public String getServiceType() { return serviceType; }
+    public void setServiceType(String serviceType) { this.serviceType = serviceType; }
+    
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+    
+    @Access(AccessType.PROPERTY)
+    @Column(length = CREDENTIAL_LENGTH)
+    public String getUsernameAttempt() { return username == null ? null : username.getValue(); }
+    public void setUsernameAttempt(String usernameAttempt) { this.username = Credential.detached(usernameAttempt); }
+    
+    @Access(AccessType.PROPERTY)
+    @Column(length = CREDENTIAL_LENGTH)
+    public String getPasswordAttempt() { return password == null ? null : password.getValue(); }
+    public void setPasswordAttempt(String passwordAttempt) { this.password = Credential.detached(passwordAttempt); }
+    
+    @JsonIgnore
+    public Credential getUsername() { return username; }
+    public void setUsername(Credential username) { this.username = username; }
+    
+    @JsonIgnore
+    public Credential getPassword() { return password; }
+    public void setPassword(Credential password) { this.password = password; }
+    
+    /** Stored as text, so every attempt is counted again when the record is replayed. */
+    @JsonIgnore
+    @Access(AccessType.PROPERTY)
+    @Column(length = PAYLOAD_LENGTH)
+    public String getLoginAttempts() { return CredentialAttempts.encode(attempts, PAYLOAD_LENGTH); }
+    public void setLoginAttempts(String loginAttempts) { this.attempts = CredentialAttempts.decode(loginAttempts, null); }
+    
+    @JsonIgnore
+    public Credential[] getAttemptCredentials() { return attempts; }
+    public void setAttemptCredentials(Credential[] attempts) { this.attempts = attempts; }
+    
+    /** The attempts as username and password pairs for JSON; {@code null} when there was at most one. */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public List<Map<String, String>> getAttempts() {
+        if (attempts == null) return null;
+        List<Map<String, String>> pairs = new ArrayList<>(attempts.length / 2);
+        for (int i = 0; i + 1 < attempts.length; i += 2) {
+            Map<String, String> pair = new LinkedHashMap<>();
+            pair.put("username", attempts[i] == null ? null : attempts[i].getValue());
+            pair.put("password", attempts[i + 1] == null ? null : attempts[i + 1].getValue());
+            pairs.add(pair);
+        }
+        return pairs;
+    }
+    
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
+    
+    public String getDeviceEmulated() { return deviceEmulated; }
+    public void setDeviceEmulated(String deviceEmulated) { this.deviceEmulated = deviceEmulated; }
+    
+    @JsonIgnore
+    public NetworkInfo getNetwork() { return network; }
+    public void setNetwork(NetworkInfo network) { this.network = network; }
+    
+    public Integer getAsn() { return network == null || network.getAsn() == 0 ? null : network.getAsn(); }
+    
+    public String getAsOrganization() { return network == null ? null : network.getOrganization(); }
+    
+    public String getCountry() { return network == null ? null : network.getCountry(); }
+    
+    public String getSourceTag() { return sourceTag; }
+    public void setSourceTag(String sourceTag) { this.sourceTag = sourceTag; }
+}
\ No newline at end of file
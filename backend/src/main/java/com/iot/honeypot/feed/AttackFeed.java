@@ -0,0 +1,232 @@
+package com.iot.honeypot.feed;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.iot.honeypot.entity.AttackLog;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pushes new attacks to Server-Sent Events subscribers as they are logged.
+ *
+ * <p>{@link #publish} runs on the ingest path and only tests filters and
+ * offers to each subscriber's bounded buffer. A ticker hands subscribers with
+ * pending events to a small sender pool, one send in flight per subscriber.
+ * A client that stops reading blocks its send inside the servlet write, so a
+ * send still running after {@code send-timeout-ms} evicts its subscriber and
+ * the pool gets a replacement thread until the stuck write gives up; stalled
+ * clients can never take the whole pool. Each attack is serialised once
+ * however many subscribers receive it. Coalescing subscribers get
+ * everything buffered during a tick as one {@code batch} event instead of
+ * one {@code attack} event each.
+ */
+@Component
+public class AttackFeed {
+    private static final long HEARTBEAT_MS = 15_000;
+    
+    private final List<FeedSubscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ObjectWriter attackWriter;
+    private final ScheduledExecutorService ticker;
+    private final ThreadPoolExecutor senders;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long sendTimeoutMillis;
+    private final AtomicLong nextId = new AtomicLong();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder stalled = new LongAdder();
+    
+    public AttackFeed(ObjectMapper objectMapper,
+                      @Value("${honeypot.feed.buffer-size:1024}") int bufferSize,
+                      @Value("${honeypot.feed.tick-ms:100}") long tickMillis,
+                      @Value("${honeypot.feed.max-subscribers:500}") int maxSubscribers,
+                      @Value("${honeypot.feed.sender-threads:4}") int senderThreads,
+                      @Value("${honeypot.feed.send-timeout-ms:5000}") long sendTimeoutMillis) {
+        this.attackWriter = objectMapper.writerFor(AttackLog.class);
+        this.bufferSize = Math.max(1, bufferSize);
+        this.maxSubscribers = maxSubscribers;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+        this.ticker = Executors.newSingleThreadScheduledExecutor(daemon("honeypot-feed-ticker"));
+        int threads = Math.max(1, senderThreads);
+        this.senders = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), daemon("honeypot-feed-sender"));
+        ticker.scheduleWithFixedDelay(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    /** Fans {@code attack} out to matching subscribers. Never blocks. */
+    public void publish(AttackLog attack) {
+        published.increment();
+        FeedEvent event = null;
+        for (FeedSubscriber subscriber : subscribers) {
+            if (!subscriber.closed && subscriber.filter.matches(attack)) {
+                if (event == null) event = new FeedEvent(attack);
+                if (!subscriber.offer(event)) dropped.increment();
+            }
+        }
+    }
+    
+    /** Registers a new subscriber, or returns {@code null} if the subscriber cap is reached. */
+    public SseEmitter subscribe(FeedFilter filter, boolean coalesce) {
+        if (subscribers.size() >= maxSubscribers) {
+            rejected.increment();
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(0L);
+        FeedSubscriber subscriber = new FeedSubscriber(nextId.incrementAndGet(), emitter, filter, coalesce, bufferSize);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        subscribers.add(subscriber);
+        try {
+            emitter.send(SseEmitter.event().name("subscribed").data(Map.of("subscriber", subscriber.id, "coalesce", coalesce)));
+        } catch (IOException e) {
+            remove(subscriber);
+        }
+        return emitter;
+    }
+    
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        int pending = 0;
+        for (FeedSubscriber subscriber : subscribers) {
+            pending += subscriber.pending();
+        }
+        stats.put("subscribers", subscribers.size());
+        stats.put("maxSubscribers", maxSubscribers);
+        stats.put("published", published.sum());
+        stats.put("sent", sent.sum());
+        stats.put("dropped", dropped.sum());
+        stats.put("pending", pending);
+        stats.put("rejectedSubscriptions", rejected.sum());
+        stats.put("stalledEvicted", stalled.sum());
+        stats.put("senderThreads", senders.getCorePoolSize());
+        return stats;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+        senders.shutdownNow();
+        for (FeedSubscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+    }
+    
+    private void tick() {
+        long now = System.currentTimeMillis();
+        for (FeedSubscriber subscriber : subscribers) {
+            long started = subscriber.sendStartedMillis;
+            if (sendTimeoutMillis > 0 && started != 0 && now - started >= sendTimeoutMillis) {
+                evictStalled(subscriber);
+                continue;
+            }
+            boolean heartbeat = now - subscriber.lastSendMillis >= HEARTBEAT_MS;
+            if ((subscriber.hasPending() || heartbeat) && subscriber.sending.compareAndSet(false, true)) {
+                senders.execute(() -> send(subscriber));
+            }
+        }
+    }
+    
+    private void send(FeedSubscriber subscriber) {
+        List<FeedEvent> batch = new ArrayList<>();
+        subscriber.sendStartedMillis = System.currentTimeMillis();
+        try {
+            subscriber.drainTo(batch, bufferSize);
+            if (batch.isEmpty()) {
+                subscriber.emitter.send(SseEmitter.event().comment("keep-alive"));
+            } else if (subscriber.coalesce) {
+                StringBuilder json = new StringBuilder(batch.size() * 256).append('[');
+                for (int i = 0; i < batch.size(); i++) {
+                    if (i > 0) json.append(',');
+                    json.append(batch.get(i).json(attackWriter));
+                }
+                json.append(']');
+                long lastId = batch.get(batch.size() - 1).attack.getId();
+                subscriber.emitter.send(SseEmitter.event().name("batch").id(Long.toString(lastId))
+                        .data(json.toString(), MediaType.APPLICATION_JSON));
+            } else {
+                for (FeedEvent event : batch) {
+                    subscriber.emitter.send(SseEmitter.event().name("attack").id(Long.toString(event.attack.getId()))
+                            .data(event.json(attackWriter), MediaType.APPLICATION_JSON));
+                }
+            }
+            sent.add(batch.size());
+            subscriber.lastSendMillis = System.currentTimeMillis();
+            if (subscriber.stalled) subscriber.emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; the emitter callbacks may not fire for a dead socket
+            remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+        } finally {
+            boolean wasStalled;
+            synchronized (subscriber) {
+                subscriber.sendStartedMillis = 0;
+                wasStalled = subscriber.stalled;
+            }
+            subscriber.sending.set(false);
+            // The write finally gave up or went through; hand back the thread added in its place
+            if (wasStalled) resizeSenders(-1);
+        }
+    }
+    
+    /**
+     * Drops a subscriber whose send has been blocked past the timeout. Its
+     * emitter cannot be completed while the send holds it, so the write is
+     * left to fail on the container's socket timeout; meanwhile the pool
+     * gets one more thread so the other subscribers keep being served.
+     */
+    private void evictStalled(FeedSubscriber subscriber) {
+        synchronized (subscriber) {
+            if (subscriber.stalled || subscriber.sendStartedMillis == 0) return;
+            subscriber.stalled = true;
+        }
+        remove(subscriber);
+        stalled.increment();
+        resizeSenders(1);
+    }
+    
+    private synchronized void resizeSenders(int delta) {
+        int threads = senders.getCorePoolSize() + delta;
+        if (delta > 0) {
+            senders.setMaximumPoolSize(threads);
+            senders.setCorePoolSize(threads);
+        } else {
+            senders.setCorePoolSize(threads);
+            senders.setMaximumPoolSize(threads);
+        }
+    }
+    
+    private void remove(FeedSubscriber subscriber) {
+        subscriber.closed = true;
+        subscribers.remove(subscriber);
+    }
+    
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
\ No newline at end of file
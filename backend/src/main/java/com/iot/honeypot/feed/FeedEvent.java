@@ -0,0 +1,27 @@
+package com.iot.honeypot.feed;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.iot.honeypot.entity.AttackLog;
+
+/**
+ * One published attack shared by every subscriber it matched. The JSON is
+ * rendered by whichever sender needs it first and reused by the rest.
+ */
+final class FeedEvent {
+    final AttackLog attack;
+    private volatile String json;
+    
+    FeedEvent(AttackLog attack) {
+        this.attack = attack;
+    }
+    
+    String json(ObjectWriter writer) throws JsonProcessingException {
+        String rendered = json;
+        if (rendered == null) {
+            rendered = writer.writeValueAsString(attack);
+            json = rendered;
+        }
+        return rendered;
+    }
+}
\ No newline at end of file
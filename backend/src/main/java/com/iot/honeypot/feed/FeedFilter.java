@@ -0,0 +1,19 @@
+package com.iot.honeypot.feed;
+
+import com.iot.honeypot.entity.AttackLog;
+
+/** Server-side subscription filter; a {@code null} criterion matches everything. */
+public final class FeedFilter {
+    private final String serviceType;
+    private final String ipPrefix;
+    
+    public FeedFilter(String serviceType, String ipPrefix) {
+        this.serviceType = serviceType == null || serviceType.isBlank() ? null : serviceType;
+        this.ipPrefix = ipPrefix == null || ipPrefix.isBlank() ? null : ipPrefix;
+    }
+    
+    public boolean matches(AttackLog attack) {
+        if (serviceType != null && !serviceType.equalsIgnoreCase(attack.getServiceType())) return false;
+        return ipPrefix == null || (attack.getSourceIp() != null && attack.getSourceIp().startsWith(ipPrefix));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.iot.honeypot.feed;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A connected client: its emitter, filter and a bounded buffer between
+ * ingest and the sender. Ingest only ever offers to the buffer; when the
+ * client falls behind far enough to fill it, new events are dropped for that
+ * client alone.
+ */
+final class FeedSubscriber {
+    final long id;
+    final SseEmitter emitter;
+    final FeedFilter filter;
+    final boolean coalesce;
+    final AtomicBoolean sending = new AtomicBoolean();
+    private final BlockingQueue<FeedEvent> buffer;
+    volatile long lastSendMillis = System.currentTimeMillis();
+    volatile boolean closed;
+    // Wall-clock start of the send in flight, 0 when idle
+    volatile long sendStartedMillis;
+    volatile boolean stalled;
+    
+    FeedSubscriber(long id, SseEmitter emitter, FeedFilter filter, boolean coalesce, int bufferSize) {
+        this.id = id;
+        this.emitter = emitter;
+        this.filter = filter;
+        this.coalesce = coalesce;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+    }
+    
+    /** Returns false if the buffer is full and the event was dropped. */
+    boolean offer(FeedEvent event) {
+        return buffer.offer(event);
+    }
+    
+    boolean hasPending() {
+        return !buffer.isEmpty();
+    }
+    
+    int drainTo(List<FeedEvent> batch, int max) {
+        return buffer.drainTo(batch, max);
+    }
+    
+    int pending() {
+        return buffer.size();
+    }
+}
\ No newline at end of file
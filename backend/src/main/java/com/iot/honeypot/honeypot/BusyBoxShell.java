@@ -0,0 +1,137 @@
+package com.iot.honeypot.honeypot;
+
+import java.util.Set;
+
+/**
+ * Just enough of a BusyBox {@code ash} to keep an IoT bot talking after it
+ * logs in: the applet probes, {@code /proc} reads and {@code echo}s that
+ * loaders use to fingerprint the device, with every other command "not
+ * found". Nothing is executed; downloads always time out.
+ */
+final class BusyBoxShell {
+    static final String PROMPT = "# ";
+    
+    private static final String BANNER =
+            "BusyBox v1.19.4 (2018-05-29 18:20:37 CST) built-in shell (ash)\r\n" +
+            "Enter 'help' for a list of built-in commands.\r\n\r\n";
+    private static final String VERSION =
+            "BusyBox v1.19.4 (2018-05-29 18:20:37 CST) multi-call binary.\r\n";
+    private static final String MOUNTS =
+            "rootfs / rootfs rw 0 0\r\n" +
+            "/dev/root / squashfs ro,relatime 0 0\r\n" +
+            "proc /proc proc rw,relatime 0 0\r\n" +
+            "sysfs /sys sysfs rw,relatime 0 0\r\n" +
+            "tmpfs /tmp tmpfs rw,relatime 0 0\r\n" +
+            "tmpfs /var tmpfs rw,relatime 0 0\r\n";
+    private static final String CPUINFO =
+            "system type\t\t: MediaTek MT7628AN ver:1 eco:2\r\n" +
+            "machine\t\t\t: TP-Link TL-WR840N v5\r\n" +
+            "processor\t\t: 0\r\n" +
+            "cpu model\t\t: MIPS 24KEc V5.5\r\n" +
+            "BogoMIPS\t\t: 385.84\r\n";
+    private static final String UNAME = "Linux TL-WR840N 2.6.36 #1 Tue May 29 18:20:37 CST 2018 mips GNU/Linux";
+    private static final String LS = "bin   dev   etc   lib   mnt   proc  sbin  sys   tmp   usr   var\r\n";
+    private static final String PS =
+            "  PID USER       VSZ STAT COMMAND\r\n" +
+            "    1 root      1536 S    init\r\n" +
+            "   57 root      1532 S    /usr/bin/httpd\r\n" +
+            "   61 root      1528 S    telnetd\r\n";
+    
+    private static final Set<String> APPLETS = Set.of(
+            "cat", "cd", "chmod", "cp", "echo", "ftpget", "kill", "ls", "mkdir", "ps", "rm", "sh", "tftp",
+            "uname", "wget");
+    // Accepted without output, as on the real shell
+    private static final Set<String> SILENT = Set.of(
+            "enable", "system", "shell", "sh", "linuxshell", "cd", "chmod", "rm", "mkdir", "kill", "export", "cp");
+    private static final Set<String> DOWNLOADERS = Set.of("wget", "tftp", "curl", "ftpget");
+    
+    private boolean exited;
+    
+    /** Printed once the login succeeds. */
+    String banner() {
+        return BANNER + PROMPT;
+    }
+    
+    boolean hasExited() {
+        return exited;
+    }
+    
+    /** Output of {@code line}, followed by the next prompt unless the shell exited. */
+    String run(String line) {
+        StringBuilder out = new StringBuilder();
+        for (String command : line.split(";|&&|\\|\\|")) {
+            execute(command.trim(), out);
+            if (exited) return out.toString();
+        }
+        return out.append(PROMPT).toString();
+    }
+    
+    /** Whether {@code line} fetches something: the dropper step of an infection. */
+    static boolean isDropper(String line) {
+        for (String word : line.split("[\\s;&|/]+")) {
+            if (DOWNLOADERS.contains(word)) return true;
+        }
+        return false;
+    }
+    
+    private void execute(String command, StringBuilder out) {
+        if (command.isEmpty()) return;
+        String[] words = command.split("\\s+");
+        String name = words[0].substring(words[0].lastIndexOf('/') + 1);
+        int args = 1;
+        if (name.equals("busybox")) {
+            if (words.length == 1) {
+                out.append(VERSION);
+                return;
+            }
+            name = words[1];
+            args = 2;
+            if (!APPLETS.contains(name)) {
+                out.append(name).append(": applet not found\r\n");
+                return;
+            }
+        }
+        String first = words.length > args ? words[args] : "";
+        
+        if (name.equals("exit") || name.equals("logout") || name.equals("quit")) {
+            exited = true;
+        } else if (SILENT.contains(name)) {
+            // No output
+        } else if (name.equals("echo")) {
+            echo(words, args, out);
+        } else if (name.equals("cat")) {
+            if (first.equals("/proc/mounts")) {
+                out.append(MOUNTS);
+            } else if (first.equals("/proc/cpuinfo")) {
+                out.append(CPUINFO);
+            } else if (!first.isEmpty()) {
+                out.append("cat: can't open '").append(first).append("': No such file or directory\r\n");
+            }
+        } else if (name.equals("uname")) {
+            out.append(first.equals("-a") ? UNAME : "Linux").append("\r\n");
+        } else if (name.equals("ls")) {
+            out.append(LS);
+        } else if (name.equals("ps")) {
+            out.append(PS);
+        } else if (DOWNLOADERS.contains(name)) {
+            out.append(name).append(": can't connect to remote host: Connection timed out\r\n");
+        } else {
+            out.append("-sh: ").append(name).append(": not found\r\n");
+        }
+    }
+    
+    /** {@code echo [-n] [-e] args}: prints the arguments without their quotes, escapes left as typed. */
+    private static void echo(String[] words, int args, StringBuilder out) {
+        boolean newline = true;
+        while (args < words.length && words[args].startsWith("-") && words[args].length() > 1
+                && words[args].substring(1).chars().allMatch(c -> c == 'n' || c == 'e')) {
+            if (words[args].indexOf('n') > 0) newline = false;
+            args++;
+        }
+        for (int i = args; i < words.length; i++) {
+            if (i > args) out.append(' ');
+            out.append(words[i].replace("'", "").replace("\"", ""));
+        }
+        if (newline) out.append("\r\n");
+    }
+}
\ No newline at end of file
@@ -1,128 +1,200 @@
 package com.iot.honeypot.honeypot;
 
-import com.iot.honeypot.entity.AttackLog;
+import com.iot.honeypot.device.DeviceProtocol;
+import com.iot.honeypot.device.EmulatedDevice;
+import com.iot.honeypot.listener.ProtocolHandler;
+import com.iot.honeypot.listener.Session;
+import com.iot.honeypot.metrics.ListenerMetrics;
 import com.iot.honeypot.service.AttackService;
+import com.iot.honeypot.tarpit.Tarpit;
+import com.iot.honeypot.tarpit.TarpitTarget;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import jakarta.annotation.PostConstruct;
 import java.io.*;
 import java.net.*;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.nio.ByteBuffer;
 
+/**
+ * The {@code http} protocol for device profiles: one request per connection,
+ * captured by a pooled {@link HttpRequestParser} and answered with the
+ * device's pre-rendered page for the path.
+ */
 @Component
-public class HttpHoneypot {
+public class HttpHoneypot implements DeviceProtocol {
+    private static final Logger log = LoggerFactory.getLogger(HttpHoneypot.class);
+    
+    private static final int MAX_IDLE_PARSERS = 256;
     
     @Autowired
     private AttackService attackService;
     
-    private ServerSocket serverSocket;
-    private ExecutorService threadPool;
-    private boolean running = false;
-    private final int PORT = 8081;
+    @Autowired
+    private Tarpit tarpit;
     
-    public void start() {
-        if (running) return;
-        
-        threadPool = Executors.newCachedThreadPool();
-        threadPool.execute(() -> {
-            try {
-                serverSocket = new ServerSocket(PORT);
-                running = true;
-                System.out.println("🌐 HTTP Honeypot started on port " + PORT);
-                
-                while (running && !serverSocket.isClosed()) {
-                    try {
-                        Socket clientSocket = serverSocket.accept();
-                        threadPool.execute(new HttpHandler(clientSocket));
-                    } catch (SocketException e) {
-                        if (running) {
-                            System.out.println("❌ HTTP socket error: " + e.getMessage());
-                        }
-                    }
-                }
-            } catch (IOException e) {
-                System.out.println("❌ Failed to start HTTP honeypot: " + e.getMessage());
-            }
-        });
+    @Value("${honeypot.http.max-head-bytes:8192}")
+    private int maxHeadBytes;
+    
+    @Value("${honeypot.http.max-headers:100}")
+    private int maxHeaders;
+    
+    @Value("${honeypot.http.max-body-bytes:8192}")
+    private int maxBodyBytes;
+    
+    @Value("${honeypot.http.request-timeout-ms:10000}")
+    private long requestTimeoutMs;
+    
+    private HttpRequestParser.Pool parsers;
+    
+    @PostConstruct
+    public void init() {
+        parsers = new HttpRequestParser.Pool(maxHeadBytes, maxHeaders, maxBodyBytes, MAX_IDLE_PARSERS);
     }
     
-    public void stop() {
-        running = false;
-        try {
-            if (serverSocket != null) {
-                serverSocket.close();
-            }
-            if (threadPool != null) {
-                threadPool.shutdown();
-            }
-            System.out.println("🛑 HTTP honeypot stopped");
-        } catch (IOException e) {
-            System.out.println("Error stopping HTTP honeypot: " + e.getMessage());
-        }
+    @Override
+    public String getName() {
+        return "http";
+    }
+    
+    @Override
+    public ProtocolHandler newSession(EmulatedDevice device) {
+        return new HttpSession(device);
     }
     
-    public boolean isRunning() {
-        return running;
+    @Override
+    public Runnable newHandler(Socket socket, String sourceTag, EmulatedDevice device) {
+        return new HttpHandler(socket, sourceTag, device);
     }
     
     private class HttpHandler implements Runnable {
-        private Socket clientSocket;
+        private final Socket clientSocket;
+        private final String sourceTag;
+        private final EmulatedDevice device;
         
-        public HttpHandler(Socket socket) {
+        public HttpHandler(Socket socket, String sourceTag, EmulatedDevice device) {
             this.clientSocket = socket;
+            this.sourceTag = sourceTag;
+            this.device = device;
         }
         
         @Override
         public void run() {
             String clientIp = clientSocket.getInetAddress().getHostAddress();
+            long started = System.nanoTime();
+            ListenerMetrics metrics = device.getMetrics();
+            metrics.sessionOpened();
             
-            try (BufferedReader in = new BufferedReader(
-                    new InputStreamReader(clientSocket.getInputStream()));
-                 PrintWriter out = new PrintWriter(clientSocket.getOutputStream(), true)) {
-                
-                // Read HTTP request
-                String requestLine = in.readLine();
-                if (requestLine == null) return;
-                
-                String[] requestParts = requestLine.split(" ");
-                String method = requestParts.length > 0 ? requestParts[0] : "UNKNOWN";
-                String path = requestParts.length > 1 ? requestParts[1] : "/";
-                
-                // Read headers to find User-Agent
-                String userAgent = "Unknown";
-                String line;
-                while ((line = in.readLine()) != null && !line.isEmpty()) {
-                    if (line.toLowerCase().startsWith("user-agent:")) {
-                        userAgent = line.substring(11).trim();
+            HttpRequestParser request = parsers.acquire();
+            boolean handedOff = false;
+            
+            try {
+                // Read straight into the parser's buffer until the request is complete, rejected or out of time
+                InputStream in = metrics.countingIn(clientSocket.getInputStream());
+                long deadline = System.currentTimeMillis() + requestTimeoutMs;
+                HttpRequestParser.Status status = request.getStatus();
+                while (status == HttpRequestParser.Status.INCOMPLETE) {
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (remaining <= 0) {
+                        status = request.expire();
+                        break;
+                    }
+                    clientSocket.setSoTimeout((int) Math.min(remaining, Integer.MAX_VALUE));
+                    try {
+                        status = request.readFrom(in);
+                    } catch (SocketTimeoutException e) {
+                        status = request.expire();
                     }
                 }
                 
-                // Log the attack
-                String payload = method + " " + path + " | User-Agent: " + userAgent;
-                AttackLog attack = new AttackLog(clientIp, "HTTP", payload, "D-Link Camera");
-                attackService.logAttack(attack);
+                // Log the attack, with whatever was captured if it was rejected
+                attackService.logAttack(request.toAttack(clientIp, sourceTag, device.getDevice()));
+                if (status == HttpRequestParser.Status.REJECTED) return;
                 
-                // Send fake HTTP response
-                out.println("HTTP/1.1 200 OK");
-                out.println("Content-Type: text/html");
-                out.println("Connection: close");
-                out.println();
-                out.println("<!DOCTYPE html>");
-                out.println("<html><head><title>D-Link Camera</title></head>");
-                out.println("<body>");
-                out.println("<h1>D-Link Wireless Camera DCS-932L</h1>");
-                out.println("<p>Please <a href='/login.html'>login</a> to access camera controls.</p>");
-                out.println("</body></html>");
+                // Send the pre-rendered page for the path; the tarpit applies the device profile's delays and closes
+                HttpResponseTemplate page = device.getTemplates().select(request);
+                tarpit.run(TarpitTarget.of(clientSocket, metrics), tarpit.profileFor(device.getDevice()).reply(page.bytes()));
+                handedOff = true;
                 
+            } catch (EOFException e) {
+                if (request.endOfInput() == HttpRequestParser.Status.REJECTED || request.hasRequestLine()) {
+                    attackService.logAttack(request.toAttack(clientIp, sourceTag, device.getDevice()));
+                }
             } catch (IOException e) {
-                System.out.println("HTTP Client error: " + clientIp);
+                log.debug("HTTP Client error: {}", clientIp);
             } finally {
-                try {
-                    clientSocket.close();
-                } catch (IOException e) {
-                    // Ignore
+                parsers.release(request);
+                metrics.handlerNanos(System.nanoTime() - started);
+                metrics.sessionClosed();
+                if (!handedOff) {
+                    try {
+                        clientSocket.close();
+                    } catch (IOException e) {
+                        // Ignore
+                    }
                 }
             }
         }
     }
+    
+    /**
+     * Non-blocking equivalent of {@link HttpHandler}: feeds each read to a
+     * pooled parser, logs once the request is complete or rejected and hands
+     * the pre-rendered page for the path to the tarpit, which sends it with
+     * one gathering write. Requests not complete within the timeout are
+     * rejected as slowloris attempts.
+     */
+    private class HttpSession implements ProtocolHandler {
+        private final EmulatedDevice device;
+        private HttpRequestParser request;
+        
+        HttpSession(EmulatedDevice device) {
+            this.device = device;
+        }
+        
+        @Override
+        public void onOpen(Session session) {
+            request = parsers.acquire();
+            session.schedule(requestTimeoutMs, () -> {
+                if (request != null && request.expire() == HttpRequestParser.Status.REJECTED) {
+                    finish(session);
+                }
+            });
+        }
+        
+        @Override
+        public void onData(Session session, ByteBuffer data) {
+            if (request == null || request.offer(data) == HttpRequestParser.Status.INCOMPLETE) return;
+            finish(session);
+        }
+        
+        @Override
+        public void onClose(Session session) {
+            if (request == null) return;
+            if (request.endOfInput() == HttpRequestParser.Status.REJECTED || request.hasRequestLine()) {
+                attackService.logAttack(request.toAttack(session.getRemoteIp(), session.getSourceTag(), device.getDevice()));
+            }
+            release();
+        }
+        
+        /** Logs the request, then answers it if it completed or drops the connection if it was rejected. */
+        private void finish(Session session) {
+            attackService.logAttack(request.toAttack(session.getRemoteIp(), session.getSourceTag(), device.getDevice()));
+            if (request.getStatus() == HttpRequestParser.Status.COMPLETE) {
+                HttpResponseTemplate page = device.getTemplates().select(request);
+                release();
+                tarpit.run(TarpitTarget.of(session), tarpit.profileFor(device.getDevice()).reply(page.buffers()));
+            } else {
+                release();
+                session.close();
+            }
+        }
+        
+        private void release() {
+            parsers.release(request);
+            request = null;
+        }
+    }
 }
\ No newline at end of file
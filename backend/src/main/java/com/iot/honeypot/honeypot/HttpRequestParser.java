@@ -0,0 +1,468 @@
+package com.iot.honeypot.honeypot;
+
+import com.iot.honeypot.entity.AttackLog;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Incremental HTTP/1.x request parser for the camera honeypot, fed raw bytes
+ * by either listener path. The request is kept as bytes in one reusable
+ * buffer and described by offsets: method, target (path and query), every
+ * header, and up to {@code maxBodyBytes} of body. Nothing is decoded until
+ * {@link #toAttack} builds the record, so a parser taken from a {@link Pool}
+ * allocates only the payload string.
+ * <p>
+ * Requests are rejected once they can be told apart from a plausible one:
+ * a head over {@code maxHeadBytes} or {@code maxHeaders}, or (via
+ * {@link #expire()}) a client too slow to finish within the caller's
+ * deadline. Input that is not HTTP at all, such as a TLS ClientHello or a
+ * binary exploit, is still taken in up to {@code maxHeadBytes}, the
+ * deadline or the end of input ({@link #endOfInput()}) before it is
+ * rejected, so what is captured does not depend on how TCP split it.
+ */
+public final class HttpRequestParser {
+    
+    public enum Status { INCOMPLETE, COMPLETE, REJECTED }
+    
+    public enum Rejection { MALFORMED, HEAD_TOO_LARGE, TOO_MANY_HEADERS, TIMEOUT }
+    
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final byte[] USER_AGENT = bytes("user-agent");
+    private static final byte[] CONTENT_LENGTH = bytes("content-length");
+    private static final byte[] TRANSFER_ENCODING = bytes("transfer-encoding");
+    private static final byte[] CHUNKED = bytes("chunked");
+    private static final byte[] LAST_CHUNK = bytes("0\r\n\r\n");
+    private static final byte[] HEX = bytes("0123456789abcdef");
+    
+    private final int maxHeadBytes;
+    private final int maxHeaders;
+    private final int maxBodyBytes;
+    // Per header: name start, name end, value start, value end
+    private final int[] headers;
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+    private byte[] scratch = new byte[INITIAL_CAPACITY];
+    private int payloadLength;
+    
+    private int length;
+    private int scan;
+    private int lineStart;
+    private int methodEnd;
+    private int targetStart;
+    private int targetEnd;
+    private int queryStart;
+    private int headerCount;
+    private int userAgent;
+    private int headEnd;
+    private long contentLength;
+    private boolean chunked;
+    private int bodyLimit;
+    private Status status;
+    private Rejection rejection;
+    // Known not to be HTTP, only collecting bytes for the record
+    private boolean malformed;
+    
+    public HttpRequestParser(int maxHeadBytes, int maxHeaders, int maxBodyBytes) {
+        this.maxHeadBytes = maxHeadBytes;
+        this.maxHeaders = maxHeaders;
+        this.maxBodyBytes = maxBodyBytes;
+        this.headers = new int[maxHeaders * 4];
+        reset();
+    }
+    
+    /** Forgets the current request so the parser can take the next connection. Buffers are kept. */
+    public void reset() {
+        length = 0;
+        scan = 0;
+        lineStart = 0;
+        methodEnd = -1;
+        targetStart = -1;
+        targetEnd = -1;
+        queryStart = -1;
+        headerCount = 0;
+        userAgent = -1;
+        headEnd = -1;
+        contentLength = -1;
+        chunked = false;
+        bodyLimit = 0;
+        status = Status.INCOMPLETE;
+        rejection = null;
+        malformed = false;
+    }
+    
+    /**
+     * Consumes bytes from {@code data}. Anything after a complete request,
+     * and any body beyond the cap, is skipped rather than left in the buffer.
+     */
+    public Status offer(ByteBuffer data) {
+        while (status == Status.INCOMPLETE && data.hasRemaining()) {
+            int n = Math.min(data.remaining(), room());
+            if (n == 0) break;
+            ensureCapacity(length + n);
+            data.get(buffer, length, n);
+            appended(n);
+        }
+        if (status != Status.INCOMPLETE) data.position(data.limit());
+        return status;
+    }
+    
+    /**
+     * Performs one read from {@code in} straight into the parser's buffer.
+     *
+     * @throws EOFException if the stream ended before the request was complete
+     */
+    public Status readFrom(InputStream in) throws IOException {
+        if (status != Status.INCOMPLETE) return status;
+        int n = room();
+        if (n == 0) return status;
+        ensureCapacity(length + n);
+        int read = in.read(buffer, length, n);
+        if (read < 0) throw new EOFException();
+        appended(read);
+        return status;
+    }
+    
+    /** Rejects the request as too slow, or as not HTTP, unless it has already completed. */
+    public Status expire() {
+        if (status == Status.INCOMPLETE) reject(malformed ? Rejection.MALFORMED : Rejection.TIMEOUT);
+        return status;
+    }
+    
+    /** The client stopped sending: input already known not to be HTTP is rejected with what was captured. */
+    public Status endOfInput() {
+        if (status == Status.INCOMPLETE && malformed) reject(Rejection.MALFORMED);
+        return status;
+    }
+    
+    public Status getStatus() { return status; }
+    
+    public Rejection getRejection() { return rejection; }
+    
+    public boolean hasRequestLine() {
+        return methodEnd >= 0;
+    }
+    
+    public String getMethod() {
+        return hasRequestLine() ? ascii(0, methodEnd) : null;
+    }
+    
+    /** The target without its query string, {@code /} until the request line has been read. */
+    public String getPath() {
+        return hasRequestLine() ? ascii(targetStart, pathEnd()) : "/";
+    }
+    
+    /** The query string without its {@code ?}, or {@code null} if there is none. */
+    public String getQuery() {
+        return queryStart >= 0 ? ascii(queryStart + 1, targetEnd) : null;
+    }
+    
+    public int getHeaderCount() { return headerCount; }
+    
+    /** Body bytes captured, at most {@code maxBodyBytes}. */
+    public int getBodyLength() {
+        return headEnd >= 0 ? length - headEnd : 0;
+    }
+    
+    /** Whether the path equals {@code path}, or starts with it when {@code prefix} is set. Allocation-free. */
+    public boolean pathMatches(byte[] path, boolean prefix) {
+        if (!hasRequestLine()) return path.length == 1 && path[0] == '/';
+        int pathLength = pathEnd() - targetStart;
+        if (prefix ? pathLength < path.length : pathLength != path.length) return false;
+        return Arrays.equals(buffer, targetStart, targetStart + path.length, path, 0, path.length);
+    }
+    
+    /**
+     * The request as one attack record: {@code METHOD target | User-Agent: ...},
+     * every other header, the body and, if it was cut short, why. Bytes
+     * outside printable ASCII are escaped so binary exploit payloads survive.
+     * {@code sourceTag} is the classifier list the client was admitted under,
+     * or {@code null}.
+     */
+    public AttackLog toAttack(String sourceIp, String sourceTag, String device) {
+        payloadLength = 0;
+        if (hasRequestLine()) {
+            escape(0, targetEnd);
+        } else {
+            // Not HTTP at all: keep the bytes as they came, at most maxHeadBytes of them
+            escape(0, length);
+        }
+        append(" | User-Agent: ");
+        if (userAgent >= 0) {
+            escape(headers[userAgent * 4 + 2], headers[userAgent * 4 + 3]);
+        } else {
+            append("Unknown");
+        }
+        for (int i = 0; i < headerCount; i++) {
+            if (i == userAgent) continue;
+            int at = i * 4;
+            append(" | ");
+            escape(headers[at], headers[at + 1]);
+            append(": ");
+            escape(headers[at + 2], headers[at + 3]);
+        }
+        int body = getBodyLength();
+        if (body > 0) {
+            append(" | Body: ");
+            escape(headEnd, length);
+            if (!chunked && contentLength > body) {
+                append(" (truncated, Content-Length ");
+                append(Long.toString(contentLength));
+                append(")");
+            }
+        }
+        if (rejection != null) {
+            append(" | Rejected: ");
+            append(rejection.name().toLowerCase().replace('_', ' '));
+        }
+        String payload = new String(scratch, 0, payloadLength, StandardCharsets.ISO_8859_1);
+        AttackLog attack = new AttackLog(sourceIp, "HTTP", payload, device);
+        attack.setSourceTag(sourceTag);
+        return attack;
+    }
+    
+    /** How many more bytes the parser will take in its current state. */
+    private int room() {
+        if (headEnd < 0) return Math.max(0, maxHeadBytes - length);
+        return Math.max(0, headEnd + bodyLimit - length);
+    }
+    
+    private void appended(int n) {
+        length += n;
+        if (headEnd < 0) {
+            if (!malformed) parseHead();
+            if (status != Status.INCOMPLETE) return;
+            if (headEnd < 0) {
+                if (length >= maxHeadBytes) reject(malformed ? Rejection.MALFORMED : Rejection.HEAD_TOO_LARGE);
+                return;
+            }
+            // Part of the body may have come in with the head
+            length = Math.min(length, headEnd + bodyLimit);
+        }
+        checkBody();
+    }
+    
+    private void parseHead() {
+        if (length > 0 && !isTokenByte(buffer[0])) {
+            malformed = true;
+            return;
+        }
+        while (scan < length) {
+            if (buffer[scan++] != '\n') continue;
+            int lineEnd = scan - 1;
+            if (lineEnd > lineStart && buffer[lineEnd - 1] == '\r') lineEnd--;
+            int start = lineStart;
+            lineStart = scan;
+            if (methodEnd < 0) {
+                if (!parseRequestLine(start, lineEnd)) {
+                    malformed = true;
+                    return;
+                }
+            } else if (lineEnd == start) {
+                headEnd = scan;
+                bodyLimit = chunked ? maxBodyBytes : (int) Math.min(Math.max(contentLength, 0), maxBodyBytes);
+                return;
+            } else if (headerCount == maxHeaders) {
+                reject(Rejection.TOO_MANY_HEADERS);
+                return;
+            } else {
+                parseHeader(start, lineEnd);
+            }
+        }
+    }
+    
+    /** {@code METHOD SP target [SP version]}; the method must be a token and the target non-empty. */
+    private boolean parseRequestLine(int start, int end) {
+        int i = start;
+        while (i < end && isTokenByte(buffer[i])) i++;
+        if (i == start || i == end || buffer[i] != ' ') return false;
+        int target = i + 1;
+        int targetStop = target;
+        while (targetStop < end && buffer[targetStop] != ' ') targetStop++;
+        if (targetStop == target) return false;
+        methodEnd = i;
+        targetStart = target;
+        targetEnd = targetStop;
+        for (int q = target; q < targetStop; q++) {
+            if (buffer[q] == '?') {
+                queryStart = q;
+                break;
+            }
+        }
+        return true;
+    }
+    
+    private void parseHeader(int start, int end) {
+        int colon = start;
+        while (colon < end && buffer[colon] != ':') colon++;
+        int valueStart = Math.min(colon + 1, end);
+        while (valueStart < end && (buffer[valueStart] == ' ' || buffer[valueStart] == '\t')) valueStart++;
+        int valueEnd = end;
+        while (valueEnd > valueStart && (buffer[valueEnd - 1] == ' ' || buffer[valueEnd - 1] == '\t')) valueEnd--;
+        
+        int at = headerCount * 4;
+        headers[at] = start;
+        headers[at + 1] = colon;
+        headers[at + 2] = valueStart;
+        headers[at + 3] = valueEnd;
+        if (nameIs(start, colon, USER_AGENT)) {
+            if (userAgent < 0) userAgent = headerCount;
+        } else if (nameIs(start, colon, CONTENT_LENGTH)) {
+            contentLength = parseLength(valueStart, valueEnd);
+        } else if (nameIs(start, colon, TRANSFER_ENCODING)) {
+            chunked = contains(valueStart, valueEnd, CHUNKED);
+        }
+        headerCount++;
+    }
+    
+    /** Completes the request once the declared body, or the cap, has arrived. */
+    private void checkBody() {
+        int body = length - headEnd;
+        if (body >= bodyLimit) {
+            status = Status.COMPLETE;
+        } else if (chunked && body >= LAST_CHUNK.length
+                && Arrays.equals(buffer, length - LAST_CHUNK.length, length, LAST_CHUNK, 0, LAST_CHUNK.length)) {
+            status = Status.COMPLETE;
+        }
+    }
+    
+    private void reject(Rejection reason) {
+        status = Status.REJECTED;
+        rejection = reason;
+    }
+    
+    private int pathEnd() {
+        return queryStart >= 0 ? queryStart : targetEnd;
+    }
+    
+    private boolean nameIs(int start, int end, byte[] lowerName) {
+        if (end - start != lowerName.length) return false;
+        for (int i = 0; i < lowerName.length; i++) {
+            if ((buffer[start + i] | 0x20) != lowerName[i] && buffer[start + i] != lowerName[i]) return false;
+        }
+        return true;
+    }
+    
+    private boolean contains(int start, int end, byte[] lowerWord) {
+        outer:
+        for (int i = start; i + lowerWord.length <= end; i++) {
+            for (int j = 0; j < lowerWord.length; j++) {
+                if ((buffer[i + j] | 0x20) != lowerWord[j]) continue outer;
+            }
+            return true;
+        }
+        return false;
+    }
+    
+    /** Digits only; anything else counts as no length, and absurd values saturate. */
+    private long parseLength(int start, int end) {
+        if (start == end) return -1;
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = buffer[i] - '0';
+            if (digit < 0 || digit > 9) return -1;
+            value = value > Long.MAX_VALUE / 10 ? Long.MAX_VALUE : value * 10 + digit;
+        }
+        return value;
+    }
+    
+    private void ensureCapacity(int capacity) {
+        if (capacity > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(capacity, buffer.length * 2));
+        }
+    }
+    
+    private void escape(int start, int end) {
+        ensureScratch(payloadLength + (end - start) * 4);
+        byte[] out = scratch;
+        int n = payloadLength;
+        for (int i = start; i < end; i++) {
+            byte b = buffer[i];
+            if (b >= 0x20 && b < 0x7f && b != '\\') {
+                out[n++] = b;
+            } else {
+                out[n++] = '\\';
+                if (b == '\\') {
+                    out[n++] = '\\';
+                } else if (b == '\r') {
+                    out[n++] = 'r';
+                } else if (b == '\n') {
+                    out[n++] = 'n';
+                } else if (b == '\t') {
+                    out[n++] = 't';
+                } else {
+                    out[n++] = 'x';
+                    out[n++] = HEX[(b >> 4) & 0xf];
+                    out[n++] = HEX[b & 0xf];
+                }
+            }
+        }
+        payloadLength = n;
+    }
+    
+    private void append(String text) {
+        ensureScratch(payloadLength + text.length());
+        for (int i = 0; i < text.length(); i++) {
+            scratch[payloadLength++] = (byte) text.charAt(i);
+        }
+    }
+    
+    private void ensureScratch(int capacity) {
+        if (capacity > scratch.length) {
+            scratch = Arrays.copyOf(scratch, Math.max(capacity, scratch.length * 2));
+        }
+    }
+    
+    private String ascii(int start, int end) {
+        return new String(buffer, start, end - start, StandardCharsets.ISO_8859_1);
+    }
+    
+    private static boolean isTokenByte(byte b) {
+        if (b >= 'a' && b <= 'z' || b >= 'A' && b <= 'Z' || b >= '0' && b <= '9') return true;
+        return b > 0x20 && b < 0x7f && "!#$%&'*+-.^_`|~".indexOf(b) >= 0;
+    }
+    
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+    
+    /**
+     * Idle parsers shared by all connections of one listener. At most
+     * {@code maxIdle} are kept; the rest are left to the garbage collector.
+     */
+    public static final class Pool {
+        private final ConcurrentLinkedQueue<HttpRequestParser> idle = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger idleCount = new AtomicInteger();
+        private final int maxHeadBytes;
+        private final int maxHeaders;
+        private final int maxBodyBytes;
+        private final int maxIdle;
+        
+        public Pool(int maxHeadBytes, int maxHeaders, int maxBodyBytes, int maxIdle) {
+            this.maxHeadBytes = maxHeadBytes;
+            this.maxHeaders = maxHeaders;
+            this.maxBodyBytes = maxBodyBytes;
+            this.maxIdle = maxIdle;
+        }
+        
+        public HttpRequestParser acquire() {
+            HttpRequestParser parser = idle.poll();
+            if (parser == null) return new HttpRequestParser(maxHeadBytes, maxHeaders, maxBodyBytes);
+            idleCount.decrementAndGet();
+            return parser;
+        }
+        
+        public void release(HttpRequestParser parser) {
+            if (idleCount.incrementAndGet() > maxIdle) {
+                idleCount.decrementAndGet();
+                return;
+            }
+            parser.reset();
+            idle.offer(parser);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,69 @@
+package com.iot.honeypot.honeypot;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * One fake page, rendered once into its final wire form: status line and
+ * headers (with a matching Content-Length and CRLF line endings) in one
+ * direct buffer, body in another. Serving it costs two buffer duplicates and
+ * a gathering write; nothing is encoded or copied per request.
+ */
+public final class HttpResponseTemplate {
+    private final int status;
+    private final ByteBuffer head;
+    private final ByteBuffer body;
+    private final byte[] bytes;
+    
+    private HttpResponseTemplate(int status, byte[] head, byte[] body) {
+        this.status = status;
+        this.head = direct(head);
+        this.body = direct(body);
+        this.bytes = new byte[head.length + body.length];
+        System.arraycopy(head, 0, bytes, 0, head.length);
+        System.arraycopy(body, 0, bytes, head.length, body.length);
+    }
+    
+    /** Renders a complete {@code Connection: close} response; {@code headers} may be empty. */
+    public static HttpResponseTemplate render(int status, String reason, String server, String contentType,
+                                              Map<String, String> headers, byte[] body) {
+        StringBuilder head = new StringBuilder(256)
+                .append("HTTP/1.1 ").append(status).append(' ').append(reason).append("\r\n");
+        if (server != null && !server.isEmpty()) {
+            head.append("Server: ").append(server).append("\r\n");
+        }
+        head.append("Content-Type: ").append(contentType).append("\r\n");
+        head.append("Content-Length: ").append(body.length).append("\r\n");
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            head.append(header.getKey()).append(": ").append(header.getValue()).append("\r\n");
+        }
+        head.append("Connection: close\r\n\r\n");
+        return new HttpResponseTemplate(status, head.toString().getBytes(StandardCharsets.ISO_8859_1), body);
+    }
+    
+    public int getStatus() { return status; }
+    
+    /**
+     * Fresh views of the head and body for one gathering write. The views
+     * share the rendered memory, so callers may consume them freely.
+     */
+    public ByteBuffer[] buffers() {
+        return new ByteBuffer[] { head.duplicate(), body.duplicate() };
+    }
+    
+    /** The whole response as one array, for stream writes and drip-feeding. Must not be modified. */
+    public byte[] bytes() {
+        return bytes;
+    }
+    
+    public int length() {
+        return bytes.length;
+    }
+    
+    private static ByteBuffer direct(byte[] data) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(data.length);
+        buffer.put(data).flip();
+        return buffer.asReadOnlyBuffer();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,117 @@
+package com.iot.honeypot.honeypot;
+
+import com.iot.honeypot.device.DeviceProfile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The pages of one HTTP device profile, rendered once when the device is
+ * prepared and again on {@link #reload()}. Lookups read an immutable
+ * snapshot, so a reload never blocks or tears a request in flight.
+ */
+public class HttpResponseTemplates {
+    private static final Logger log = LoggerFactory.getLogger(HttpResponseTemplates.class);
+    
+    // Served when no configured page matches
+    private static final byte[] NOT_FOUND_BODY = (
+            "<HTML><HEAD><TITLE>404 Not Found</TITLE></HEAD>\r\n" +
+            "<BODY><H1>404 Not Found</H1>\r\n" +
+            "The requested URL was not found on this server.\r\n" +
+            "</BODY></HTML>\r\n").getBytes(StandardCharsets.UTF_8);
+    
+    private final String device;
+    private final String server;
+    private final Map<String, DeviceProfile.Page> pages;
+    private final ResourceLoader resources;
+    private volatile Snapshot snapshot;
+    
+    public HttpResponseTemplates(String device, String server, Map<String, DeviceProfile.Page> pages,
+                                 ResourceLoader resources) {
+        this.device = device;
+        this.server = server;
+        this.pages = pages;
+        this.resources = resources;
+        reload();
+    }
+    
+    /** Re-reads every page body and swaps the new set in atomically. Returns the number of pages loaded. */
+    public synchronized int reload() {
+        List<Route> routes = new ArrayList<>();
+        for (Map.Entry<String, DeviceProfile.Page> entry : pages.entrySet()) {
+            DeviceProfile.Page page = entry.getValue();
+            try {
+                byte[] body = page.getBody() != null ? read(page.getBody()) : new byte[0];
+                routes.add(new Route(entry.getKey(), page.getPath(), HttpResponseTemplate.render(
+                        page.getStatus(), page.getReason(), server, page.getContentType(), page.getHeaders(), body)));
+            } catch (IOException e) {
+                log.warn("⚠️ Skipping HTTP page {} of {}: {}", entry.getKey(), device, e.getMessage());
+            }
+        }
+        routes.sort(Comparator.comparingInt((Route route) -> route.path.length()).reversed());
+        HttpResponseTemplate fallback = HttpResponseTemplate.render(404, "Not Found", server, "text/html", Map.of(), NOT_FOUND_BODY);
+        snapshot = new Snapshot(routes.toArray(new Route[0]), fallback);
+        log.info("🌐 Loaded {} HTTP page templates for {}", routes.size(), device);
+        return routes.size();
+    }
+    
+    /** The page for the path of {@code request}, ignoring its query string. Allocation-free. */
+    public HttpResponseTemplate select(HttpRequestParser request) {
+        Snapshot current = snapshot;
+        for (Route route : current.routes) {
+            if (request.pathMatches(route.pathBytes, route.prefix)) return route.template;
+        }
+        return current.fallback;
+    }
+    
+    public Map<String, Object> getStats() {
+        Map<String, Object> pages = new LinkedHashMap<>();
+        for (Route route : snapshot.routes) {
+            pages.put(route.name, Map.of("path", route.path, "status", route.template.getStatus(),
+                    "bytes", route.template.length()));
+        }
+        return pages;
+    }
+    
+    private byte[] read(String location) throws IOException {
+        Resource resource = resources.getResource(location);
+        try (InputStream in = resource.getInputStream()) {
+            return in.readAllBytes();
+        }
+    }
+    
+    private static final class Route {
+        final String name;
+        final String path;
+        final byte[] pathBytes;
+        final boolean prefix;
+        final HttpResponseTemplate template;
+        
+        Route(String name, String path, HttpResponseTemplate template) {
+            this.name = name;
+            this.path = path;
+            this.pathBytes = path.getBytes(StandardCharsets.ISO_8859_1);
+            this.prefix = path.endsWith("/");
+            this.template = template;
+        }
+    }
+    
+    private static final class Snapshot {
+        final Route[] routes;
+        final HttpResponseTemplate fallback;
+        
+        Snapshot(Route[] routes, HttpResponseTemplate fallback) {
+            this.routes = routes;
+            this.fallback = fallback;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,55 @@
+package com.iot.honeypot.honeypot;
+
+import com.iot.honeypot.credentials.Credential;
+import com.iot.honeypot.entity.AttackLog;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The credentials one connection tried, in order, and how they are summed up
+ * on its record. Shared by the Telnet and SSH conversations, which keep one
+ * record per connection however many logins it tries.
+ */
+final class LoginAttempts {
+    // A password is null if the client hung up before giving one
+    private final List<String> usernames = new ArrayList<>();
+    private final List<String> passwords = new ArrayList<>();
+    
+    void add(String username, String password) {
+        usernames.add(username);
+        passwords.add(password);
+    }
+    
+    int size() {
+        return usernames.size();
+    }
+    
+    boolean isEmpty() {
+        return usernames.isEmpty();
+    }
+    
+    /** The start of the record's payload; the credentials themselves are carried by {@link #fill}. */
+    StringBuilder summary() {
+        return new StringBuilder(64).append("Attempts: ").append(usernames.size());
+    }
+    
+    /**
+     * Shows attempt {@code index}, or the last one if it is negative, in the
+     * record's credential fields, and hands a session of several attempts all
+     * of them, so each is interned and counted at ingest.
+     */
+    void fill(AttackLog attack, int index) {
+        int shown = index >= 0 ? index : usernames.size() - 1;
+        if (shown < 0) return;
+        attack.setUsernameAttempt(usernames.get(shown));
+        attack.setPasswordAttempt(passwords.get(shown));
+        if (usernames.size() > 1) {
+            Credential[] attempts = new Credential[usernames.size() * 2];
+            for (int i = 0; i < usernames.size(); i++) {
+                attempts[2 * i] = Credential.detached(usernames.get(i));
+                attempts[2 * i + 1] = Credential.detached(passwords.get(i));
+            }
+            attack.setAttemptCredentials(attempts);
+        }
+    }
+}
\ No newline at end of file
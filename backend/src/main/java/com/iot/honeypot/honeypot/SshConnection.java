@@ -0,0 +1,444 @@
+package com.iot.honeypot.honeypot;
+
+import com.iot.honeypot.entity.AttackLog;
+import com.iot.honeypot.honeypot.SshWire.SshException;
+import javax.crypto.KeyAgreement;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.PublicKey;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One SSH connection, independent of the listener path: version exchange,
+ * a curve25519 key exchange signed with the cached host key, then password
+ * and public-key authentication that always fails. Records the client's
+ * version, its HASSH (the MD5 of its KEXINIT key-exchange, cipher, MAC and
+ * compression lists) and every credential tried.
+ * <p>
+ * The key-exchange math only runs with a permit from the
+ * {@link SshHandshakeLimiter}; without one the client is disconnected before
+ * any is done, its fingerprint already taken from its KEXINIT.
+ */
+final class SshConnection {
+    
+    /** Output side of the connection. */
+    interface Io {
+        void write(byte[] data);
+        
+        void close();
+    }
+    
+    static final String DEFAULT_VERSION = "SSH-2.0-dropbear_2019.78";
+    
+    private static final int MSG_DISCONNECT = 1;
+    private static final int MSG_IGNORE = 2;
+    private static final int MSG_UNIMPLEMENTED = 3;
+    private static final int MSG_DEBUG = 4;
+    private static final int MSG_SERVICE_REQUEST = 5;
+    private static final int MSG_SERVICE_ACCEPT = 6;
+    private static final int MSG_KEXINIT = 20;
+    private static final int MSG_NEWKEYS = 21;
+    private static final int MSG_KEX_ECDH_INIT = 30;
+    private static final int MSG_KEX_ECDH_REPLY = 31;
+    private static final int MSG_USERAUTH_REQUEST = 50;
+    private static final int MSG_USERAUTH_FAILURE = 51;
+    
+    private static final int PROTOCOL_ERROR = 2;
+    private static final int KEY_EXCHANGE_FAILED = 3;
+    private static final int SERVICE_NOT_AVAILABLE = 7;
+    private static final int PROTOCOL_VERSION_NOT_SUPPORTED = 8;
+    private static final int TOO_MANY_CONNECTIONS = 12;
+    private static final int NO_MORE_AUTH_METHODS = 14;
+    
+    private static final String[] KEX = { "curve25519-sha256", "curve25519-sha256@libssh.org" };
+    private static final String[] HOST_KEY = { SshHostKey.ALGORITHM };
+    private static final String[] CIPHERS = { "aes128-ctr", "aes256-ctr" };
+    private static final String[] MACS = { "hmac-sha2-256" };
+    private static final String[] COMPRESSION = { "none" };
+    private static final String AUTH_METHODS = "publickey,password";
+    
+    // X.509 SubjectPublicKeyInfo prefix of a raw 32-byte X25519 key
+    private static final byte[] X25519_SPKI = {
+            0x30, 0x2a, 0x30, 0x05, 0x06, 0x03, 0x2b, 0x65, 0x6e, 0x03, 0x21, 0x00 };
+    private static final int MAX_CREDENTIAL_CHARS = 256;
+    private static final int MAX_PUBLIC_KEYS = 16;
+    
+    private enum Phase { VERSION, KEXINIT, KEX, NEWKEYS, SERVICE, AUTH, CLOSED }
+    
+    private final SshProperties settings;
+    private final SshHostKey hostKey;
+    private final SshHandshakeLimiter handshakes;
+    private final Io io;
+    private final String serverVersion;
+    private final SshTransport transport = new SshTransport();
+    
+    private Phase phase = Phase.VERSION;
+    private byte[] serverKexInit;
+    private byte[] clientKexInit;
+    private boolean skipGuessedPacket;
+    private String cipherIn;
+    private String cipherOut;
+    private byte[] keyIn;
+    private byte[] ivIn;
+    private byte[] macKeyIn;
+    
+    private String clientVersion;
+    private String hassh;
+    private String dropped;
+    private String probedUser;
+    // Passwords tried, with the username each came with
+    private final LoginAttempts attempts = new LoginAttempts();
+    private final List<String> publicKeys = new ArrayList<>();
+    private int authRequests;
+    
+    SshConnection(SshProperties settings, SshHostKey hostKey, SshHandshakeLimiter handshakes, Io io,
+                  String serverVersion) {
+        this.settings = settings;
+        this.hostKey = hostKey;
+        this.handshakes = handshakes;
+        this.io = io;
+        this.serverVersion = serverVersion;
+    }
+    
+    /** Sends the server's version line and KEXINIT; the client sends its own in parallel. */
+    public void start() {
+        io.write((serverVersion + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        serverKexInit = kexInit();
+        send(serverKexInit);
+    }
+    
+    public boolean isClosed() {
+        return phase == Phase.CLOSED;
+    }
+    
+    public void onData(ByteBuffer data) {
+        if (phase == Phase.CLOSED) return;
+        if (!transport.offer(data)) {
+            disconnect(PROTOCOL_ERROR, "Packet too large");
+            return;
+        }
+        try {
+            if (phase == Phase.VERSION && !readVersion()) return;
+            byte[] payload;
+            while (phase != Phase.CLOSED && (payload = transport.nextPayload()) != null) {
+                handle(payload);
+            }
+        } catch (SshException e) {
+            disconnect(PROTOCOL_ERROR, e.getMessage());
+        } catch (GeneralSecurityException e) {
+            disconnect(KEY_EXCHANGE_FAILED, "Key exchange failed");
+        }
+    }
+    
+    /** The login grace time ran out. */
+    public void expire() {
+        if (phase == Phase.CLOSED) return;
+        if (dropped == null) dropped = "Login grace time exceeded";
+        close();
+    }
+    
+    /** The client hung up. */
+    public void onClose() {
+        phase = Phase.CLOSED;
+    }
+    
+    /**
+     * The whole connection as one record: the last credentials in the
+     * username and password fields, every attempt, the client's fingerprint
+     * and why the honeypot dropped it, if it did. {@code sourceTag} is the
+     * classifier list the client was admitted under, or {@code null}.
+     */
+    public AttackLog toAttack(String sourceIp, String sourceTag, String device) {
+        StringBuilder payload = attempts.summary();
+        if (!publicKeys.isEmpty()) {
+            payload.append(" | Public keys: ").append(String.join(", ", publicKeys));
+        }
+        payload.append(" | Client: ").append(clientVersion);
+        if (hassh != null) payload.append(" | HASSH: ").append(hassh);
+        if (dropped != null) payload.append(" | Dropped: ").append(dropped);
+        AttackLog attack = new AttackLog(sourceIp, "SSH", payload.toString(), device);
+        attack.setSourceTag(sourceTag);
+        attempts.fill(attack, -1);
+        // Without a password attempt, show the user a none or publickey request probed for
+        if (attempts.isEmpty()) attack.setUsernameAttempt(probedUser);
+        return attack;
+    }
+    
+    public int getAttemptCount() {
+        return attempts.size();
+    }
+    
+    /** Reads the client's identification line; anything else first means this is not an SSH client. */
+    private boolean readVersion() {
+        String line = transport.nextLine();
+        if (line == null) return false;
+        clientVersion = line;
+        if (!line.startsWith("SSH-")) {
+            dropped = "Not SSH";
+            close();
+            return false;
+        }
+        if (!line.startsWith("SSH-2.0-") && !line.startsWith("SSH-1.99-")) {
+            disconnect(PROTOCOL_VERSION_NOT_SUPPORTED, "Protocol major versions differ");
+            return false;
+        }
+        phase = Phase.KEXINIT;
+        return true;
+    }
+    
+    private void handle(byte[] payload) throws SshException, GeneralSecurityException {
+        int type = payload[0] & 0xFF;
+        if (type == MSG_IGNORE || type == MSG_DEBUG || type == MSG_UNIMPLEMENTED) return;
+        if (type == MSG_DISCONNECT) {
+            close();
+            return;
+        }
+        if (skipGuessedPacket) {
+            // The client guessed the key exchange wrong; its first kex packet is void
+            skipGuessedPacket = false;
+            return;
+        }
+        
+        if (phase == Phase.KEXINIT && type == MSG_KEXINIT) {
+            onKexInit(payload);
+        } else if (phase == Phase.KEX && type == MSG_KEX_ECDH_INIT) {
+            onEcdhInit(payload);
+        } else if (phase == Phase.NEWKEYS && type == MSG_NEWKEYS) {
+            transport.newKeysIn(keyIn, ivIn, macKeyIn);
+            phase = Phase.SERVICE;
+        } else if (phase == Phase.SERVICE && type == MSG_SERVICE_REQUEST) {
+            String service = new SshWire.Reader(payload).skipType().readUtf8();
+            if (!service.equals("ssh-userauth")) {
+                disconnect(SERVICE_NOT_AVAILABLE, "Service not available");
+                return;
+            }
+            send(new SshWire.Writer(MSG_SERVICE_ACCEPT).writeString(service).toByteArray());
+            phase = Phase.AUTH;
+        } else if (phase == Phase.AUTH && type == MSG_USERAUTH_REQUEST) {
+            onAuthRequest(payload);
+        } else if (phase == Phase.AUTH && type != MSG_KEXINIT) {
+            send(new SshWire.Writer(MSG_UNIMPLEMENTED).writeUint32(transport.lastInSequence()).toByteArray());
+        } else {
+            disconnect(PROTOCOL_ERROR, "Unexpected message " + type);
+        }
+    }
+    
+    private void onKexInit(byte[] payload) throws SshException {
+        clientKexInit = payload;
+        SshWire.Reader reader = new SshWire.Reader(payload).skipType();
+        reader.skip(16);
+        String kex = reader.readUtf8();
+        String hostKeys = reader.readUtf8();
+        String ciphersIn = reader.readUtf8();
+        String ciphersOut = reader.readUtf8();
+        String macsIn = reader.readUtf8();
+        String macsOut = reader.readUtf8();
+        String compressionIn = reader.readUtf8();
+        String compressionOut = reader.readUtf8();
+        reader.readUtf8();
+        reader.readUtf8();
+        boolean guessFollows = reader.readBoolean();
+        hassh = md5(kex + ";" + ciphersIn + ";" + macsIn + ";" + compressionIn);
+        
+        String kexAlgorithm = choose(kex, KEX);
+        String hostKeyAlgorithm = choose(hostKeys, HOST_KEY);
+        cipherIn = choose(ciphersIn, CIPHERS);
+        cipherOut = choose(ciphersOut, CIPHERS);
+        if (kexAlgorithm == null || hostKeyAlgorithm == null || cipherIn == null || cipherOut == null
+                || choose(macsIn, MACS) == null || choose(macsOut, MACS) == null
+                || choose(compressionIn, COMPRESSION) == null || choose(compressionOut, COMPRESSION) == null) {
+            disconnect(KEY_EXCHANGE_FAILED, "No matching algorithms");
+            return;
+        }
+        skipGuessedPacket = guessFollows
+                && !(first(kex).equals(kexAlgorithm) && first(hostKeys).equals(hostKeyAlgorithm));
+        
+        if (!handshakes.allowsKeyExchange()) {
+            disconnect(TOO_MANY_CONNECTIONS, "Too many connections");
+            return;
+        }
+        phase = Phase.KEX;
+    }
+    
+    private void onEcdhInit(byte[] payload) throws SshException, GeneralSecurityException {
+        byte[] clientPublic = new SshWire.Reader(payload).skipType().readString();
+        if (clientPublic.length != 32) throw new SshException("Bad curve25519 key");
+        if (!handshakes.tryBegin()) {
+            disconnect(TOO_MANY_CONNECTIONS, "Too many connections");
+            return;
+        }
+        boolean keysDerived = false;
+        try {
+            keyExchange(clientPublic);
+            keysDerived = true;
+        } finally {
+            handshakes.end(keysDerived);
+        }
+        phase = Phase.NEWKEYS;
+    }
+    
+    /** Agrees on the shared secret, sends the signed reply and NEWKEYS, and derives both directions' keys. */
+    private void keyExchange(byte[] clientPublic) throws GeneralSecurityException {
+        KeyPair ephemeral = KeyPairGenerator.getInstance("X25519").generateKeyPair();
+        byte[] spki = ephemeral.getPublic().getEncoded();
+        byte[] serverPublic = Arrays.copyOfRange(spki, spki.length - 32, spki.length);
+        PublicKey clientKey = KeyFactory.getInstance("X25519")
+                .generatePublic(new X509EncodedKeySpec(concat(X25519_SPKI, clientPublic)));
+        KeyAgreement agreement = KeyAgreement.getInstance("X25519");
+        agreement.init(ephemeral.getPrivate());
+        agreement.doPhase(clientKey, true);
+        byte[] secret = new SshWire.Writer().writeMpint(agreement.generateSecret()).toByteArray();
+        
+        byte[] hostKeyBlob = hostKey.publicBlob();
+        byte[] exchangeHash = sha256(new SshWire.Writer()
+                .writeString(clientVersion)
+                .writeString(serverVersion)
+                .writeString(clientKexInit)
+                .writeString(serverKexInit)
+                .writeString(hostKeyBlob)
+                .writeString(clientPublic)
+                .writeString(serverPublic)
+                .writeBytes(secret)
+                .toByteArray());
+        
+        send(new SshWire.Writer(MSG_KEX_ECDH_REPLY)
+                .writeString(hostKeyBlob)
+                .writeString(serverPublic)
+                .writeString(hostKey.sign(exchangeHash))
+                .toByteArray());
+        send(new byte[] { MSG_NEWKEYS });
+        
+        // First exchange: the exchange hash is also the session id
+        transport.newKeysOut(derive(secret, exchangeHash, 'D', keyLength(cipherOut)),
+                derive(secret, exchangeHash, 'B', 16), derive(secret, exchangeHash, 'F', 32));
+        keyIn = derive(secret, exchangeHash, 'C', keyLength(cipherIn));
+        ivIn = derive(secret, exchangeHash, 'A', 16);
+        macKeyIn = derive(secret, exchangeHash, 'E', 32);
+    }
+    
+    private void onAuthRequest(byte[] payload) throws SshException {
+        SshWire.Reader reader = new SshWire.Reader(payload).skipType();
+        String user = cap(reader.readUtf8());
+        reader.readUtf8();
+        String method = reader.readUtf8();
+        if (method.equals("password")) {
+            reader.readBoolean();
+            attempts.add(user, cap(reader.readUtf8()));
+        } else if (method.equals("publickey")) {
+            reader.readBoolean();
+            if (publicKeys.size() < MAX_PUBLIC_KEYS) {
+                publicKeys.add(user + "/" + cap(reader.readUtf8()));
+            }
+        }
+        probedUser = user;
+        
+        // Public-key probes are cheap and clients send several before trying a password, so they get more room
+        if (attempts.size() >= settings.getMaxAuthAttempts()
+                || ++authRequests >= settings.getMaxAuthAttempts() + MAX_PUBLIC_KEYS) {
+            disconnect(NO_MORE_AUTH_METHODS, "Too many authentication failures");
+            return;
+        }
+        send(new SshWire.Writer(MSG_USERAUTH_FAILURE).writeString(AUTH_METHODS).writeBoolean(false).toByteArray());
+    }
+    
+    private byte[] kexInit() {
+        byte[] cookie = new byte[16];
+        ThreadLocalRandom.current().nextBytes(cookie);
+        return new SshWire.Writer(MSG_KEXINIT)
+                .writeBytes(cookie)
+                .writeString(String.join(",", KEX))
+                .writeString(String.join(",", HOST_KEY))
+                .writeString(String.join(",", CIPHERS))
+                .writeString(String.join(",", CIPHERS))
+                .writeString(String.join(",", MACS))
+                .writeString(String.join(",", MACS))
+                .writeString(String.join(",", COMPRESSION))
+                .writeString(String.join(",", COMPRESSION))
+                .writeString("")
+                .writeString("")
+                .writeBoolean(false)
+                .writeUint32(0)
+                .toByteArray();
+    }
+    
+    private void send(byte[] payload) {
+        io.write(transport.seal(payload));
+    }
+    
+    private void disconnect(int reason, String description) {
+        if (phase == Phase.CLOSED) return;
+        if (dropped == null) dropped = description;
+        send(new SshWire.Writer(MSG_DISCONNECT).writeUint32(reason).writeString(description).writeString("").toByteArray());
+        close();
+    }
+    
+    private void close() {
+        phase = Phase.CLOSED;
+        io.close();
+    }
+    
+    /** RFC 4253 7.2: HASH(K || H || letter || session_id), long enough for every key used here. */
+    private static byte[] derive(byte[] secret, byte[] exchangeHash, char letter, int length) throws GeneralSecurityException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        digest.update(secret);
+        digest.update(exchangeHash);
+        digest.update((byte) letter);
+        digest.update(exchangeHash);
+        return Arrays.copyOf(digest.digest(), length);
+    }
+    
+    private static int keyLength(String cipher) {
+        return cipher.equals("aes256-ctr") ? 32 : 16;
+    }
+    
+    /** The first of the client's algorithms the server also supports, or null. */
+    private static String choose(String clientList, String[] supported) {
+        for (String candidate : clientList.split(",")) {
+            for (String algorithm : supported) {
+                if (algorithm.equals(candidate)) return algorithm;
+            }
+        }
+        return null;
+    }
+    
+    private static String first(String nameList) {
+        int comma = nameList.indexOf(',');
+        return comma < 0 ? nameList : nameList.substring(0, comma);
+    }
+    
+    private static String cap(String value) {
+        return value.length() > MAX_CREDENTIAL_CHARS ? value.substring(0, MAX_CREDENTIAL_CHARS) : value;
+    }
+    
+    private static byte[] concat(byte[] a, byte[] b) {
+        byte[] joined = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, joined, a.length, b.length);
+        return joined;
+    }
+    
+    private static byte[] sha256(byte[] data) throws GeneralSecurityException {
+        return MessageDigest.getInstance("SHA-256").digest(data);
+    }
+    
+    private static String md5(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(text.getBytes(StandardCharsets.US_ASCII));
+            StringBuilder hex = new StringBuilder(32);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
\ No newline at end of file
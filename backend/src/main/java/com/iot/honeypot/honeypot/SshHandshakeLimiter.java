@@ -0,0 +1,60 @@
+package com.iot.honeypot.honeypot;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The global CPU budget for SSH key exchanges. The Diffie-Hellman and
+ * host-key signature work of a connection runs under a permit, so no more
+ * than {@code limit} exchanges ever compute at once however many clients are
+ * connected; a client that stalls mid-handshake holds nothing. Without a
+ * permit the client is only fingerprinted.
+ */
+final class SshHandshakeLimiter {
+    private final int limit;
+    private final boolean fingerprintOnly;
+    private final Semaphore permits;
+    private final LongAdder started = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+    
+    SshHandshakeLimiter(int limit, boolean fingerprintOnly) {
+        this.limit = limit;
+        this.fingerprintOnly = fingerprintOnly;
+        this.permits = new Semaphore(limit);
+    }
+    
+    /** False when key exchanges are switched off altogether; counted as shed. */
+    boolean allowsKeyExchange() {
+        if (fingerprintOnly) shed.increment();
+        return !fingerprintOnly;
+    }
+    
+    /** True if a key exchange may compute now; every true must be matched by one {@link #end(boolean)}. */
+    boolean tryBegin() {
+        if (!permits.tryAcquire()) {
+            shed.increment();
+            return false;
+        }
+        started.increment();
+        return true;
+    }
+    
+    void end(boolean keysDerived) {
+        permits.release();
+        if (keysDerived) completed.increment();
+    }
+    
+    Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("limit", limit);
+        stats.put("fingerprintOnly", fingerprintOnly);
+        stats.put("inFlight", limit - permits.availablePermits());
+        stats.put("started", started.sum());
+        stats.put("completed", completed.sum());
+        stats.put("shed", shed.sum());
+        return stats;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,197 @@
+package com.iot.honeypot.honeypot;
+
+import com.iot.honeypot.device.DeviceProtocol;
+import com.iot.honeypot.device.EmulatedDevice;
+import com.iot.honeypot.listener.ProtocolHandler;
+import com.iot.honeypot.listener.Session;
+import com.iot.honeypot.metrics.ListenerMetrics;
+import com.iot.honeypot.service.AttackService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import jakarta.annotation.PostConstruct;
+import java.io.*;
+import java.net.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
+import java.util.Map;
+
+/**
+ * The {@code ssh} protocol for device profiles: an {@link SshConnection} per
+ * connection, logged as one record when it ends. The profile's banner is the
+ * server version line. Key exchanges share one {@link SshHandshakeLimiter}
+ * across every SSH device, and the host key is loaded once at startup.
+ */
+@Component
+public class SshHoneypot implements DeviceProtocol {
+    private static final Logger log = LoggerFactory.getLogger(SshHoneypot.class);
+    
+    private static final int READ_BUFFER_BYTES = 2048;
+    
+    @Autowired
+    private AttackService attackService;
+    
+    @Autowired
+    private SshProperties settings;
+    
+    private SshHostKey hostKey;
+    private SshHandshakeLimiter handshakes;
+    
+    @PostConstruct
+    public void init() throws IOException, GeneralSecurityException {
+        hostKey = SshHostKey.loadOrCreate(Paths.get(settings.getHostKeyFile()));
+        int limit = settings.getMaxHandshakes() > 0 ? settings.getMaxHandshakes()
+                : Runtime.getRuntime().availableProcessors();
+        handshakes = new SshHandshakeLimiter(limit, settings.isFingerprintOnly());
+        log.info("🔑 SSH host key {}, at most {} concurrent key exchanges", hostKey.fingerprint(), limit);
+    }
+    
+    @Override
+    public String getName() {
+        return "ssh";
+    }
+    
+    @Override
+    public ProtocolHandler newSession(EmulatedDevice device) {
+        return new SshSession(device);
+    }
+    
+    @Override
+    public Runnable newHandler(Socket socket, String sourceTag, EmulatedDevice device) {
+        return new SshHandler(socket, sourceTag, device);
+    }
+    
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = handshakes.getStats();
+        stats.put("hostKey", hostKey.fingerprint());
+        return stats;
+    }
+    
+    private SshConnection newConnection(EmulatedDevice device, SshConnection.Io io) {
+        String version = new String(device.getBanner(), StandardCharsets.US_ASCII).trim();
+        return new SshConnection(settings, hostKey, handshakes, io, version.isEmpty() ? SshConnection.DEFAULT_VERSION : version);
+    }
+    
+    private class SshHandler implements Runnable {
+        private final Socket clientSocket;
+        private final String sourceTag;
+        private final EmulatedDevice device;
+        
+        public SshHandler(Socket socket, String sourceTag, EmulatedDevice device) {
+            this.clientSocket = socket;
+            this.sourceTag = sourceTag;
+            this.device = device;
+        }
+        
+        @Override
+        public void run() {
+            String clientIp = clientSocket.getInetAddress().getHostAddress();
+            long started = System.nanoTime();
+            ListenerMetrics metrics = device.getMetrics();
+            metrics.sessionOpened();
+            SshConnection connection = null;
+            
+            try {
+                InputStream in = metrics.countingIn(clientSocket.getInputStream());
+                OutputStream out = metrics.countingOut(clientSocket.getOutputStream());
+                connection = newConnection(device, new SshConnection.Io() {
+                    @Override
+                    public void write(byte[] data) {
+                        try {
+                            out.write(data);
+                        } catch (IOException e) {
+                            close();
+                        }
+                    }
+                    
+                    @Override
+                    public void close() {
+                        try {
+                            clientSocket.close();
+                        } catch (IOException e) {
+                            // Ignore
+                        }
+                    }
+                });
+                
+                // Authentication never succeeds, so the login grace time bounds the whole connection
+                long deadline = System.currentTimeMillis() + settings.getLoginGraceMs();
+                connection.start();
+                byte[] buffer = new byte[READ_BUFFER_BYTES];
+                while (!connection.isClosed()) {
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (remaining <= 0) {
+                        connection.expire();
+                        break;
+                    }
+                    clientSocket.setSoTimeout((int) Math.min(remaining, Integer.MAX_VALUE));
+                    int n;
+                    try {
+                        n = in.read(buffer);
+                    } catch (SocketTimeoutException e) {
+                        connection.expire();
+                        break;
+                    }
+                    if (n < 0) break;
+                    connection.onData(ByteBuffer.wrap(buffer, 0, n));
+                }
+                
+            } catch (IOException e) {
+                log.debug("SSH client disconnected: {}", clientIp);
+            } finally {
+                if (connection != null) {
+                    connection.onClose();
+                    attackService.logAttack(connection.toAttack(clientIp, sourceTag, device.getDevice()));
+                }
+                metrics.handlerNanos(System.nanoTime() - started);
+                metrics.sessionClosed();
+                try {
+                    clientSocket.close();
+                } catch (IOException e) {
+                    // Ignore
+                }
+            }
+        }
+    }
+    
+    /** Non-blocking equivalent of {@link SshHandler}; the login grace time is a scheduled close. */
+    private class SshSession implements ProtocolHandler {
+        private final EmulatedDevice device;
+        private SshConnection connection;
+        
+        SshSession(EmulatedDevice device) {
+            this.device = device;
+        }
+        
+        @Override
+        public void onOpen(Session session) {
+            connection = newConnection(device, new SshConnection.Io() {
+                @Override
+                public void write(byte[] data) {
+                    session.write(data);
+                }
+                
+                @Override
+                public void close() {
+                    session.close();
+                }
+            });
+            session.schedule(settings.getLoginGraceMs(), connection::expire);
+            connection.start();
+        }
+        
+        @Override
+        public void onData(Session session, ByteBuffer data) {
+            connection.onData(data);
+        }
+        
+        @Override
+        public void onClose(Session session) {
+            connection.onClose();
+            attackService.logAttack(connection.toAttack(session.getRemoteIp(), session.getSourceTag(), device.getDevice()));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.iot.honeypot.honeypot;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code honeypot.ssh.*} settings. At most {@code maxHandshakes} key
+ * exchanges compute at once across every SSH device (0 means one per
+ * processor); a client whose exchange would go over is disconnected before
+ * any key-exchange math is done, fingerprinted from its KEXINIT.
+ * {@code fingerprintOnly} does that for every client.
+ */
+@Component
+@ConfigurationProperties(prefix = "honeypot.ssh")
+public class SshProperties {
+    private int maxHandshakes = 0;
+    private boolean fingerprintOnly = false;
+    private int maxAuthAttempts = 6;
+    private long loginGraceMs = 30000;
+    private String hostKeyFile = "./data/ssh_host_ed25519_key";
+    
+    public int getMaxHandshakes() { return maxHandshakes; }
+    public void setMaxHandshakes(int maxHandshakes) { this.maxHandshakes = maxHandshakes; }
+    
+    public boolean isFingerprintOnly() { return fingerprintOnly; }
+    public void setFingerprintOnly(boolean fingerprintOnly) { this.fingerprintOnly = fingerprintOnly; }
+    
+    public int getMaxAuthAttempts() { return maxAuthAttempts; }
+    public void setMaxAuthAttempts(int maxAuthAttempts) { this.maxAuthAttempts = maxAuthAttempts; }
+    
+    public long getLoginGraceMs() { return loginGraceMs; }
+    public void setLoginGraceMs(long loginGraceMs) { this.loginGraceMs = loginGraceMs; }
+    
+    public String getHostKeyFile() { return hostKeyFile; }
+    public void setHostKeyFile(String hostKeyFile) { this.hostKeyFile = hostKeyFile; }
+}
\ No newline at end of file
@@ -0,0 +1,182 @@
+package com.iot.honeypot.honeypot;
+
+import com.iot.honeypot.honeypot.SshWire.SshException;
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The RFC 4253 binary packet layer of one connection: the version line,
+ * then length-prefixed, padded packets, in the clear until each direction
+ * switches to AES-CTR with HMAC-SHA2-256 at its NEWKEYS. Reads are fed in as
+ * they arrive and come back out as whole message payloads.
+ */
+final class SshTransport {
+    /** RFC 4253 6.1: every implementation must take packets of this size. */
+    static final int MAX_PACKET_BYTES = 35000;
+    private static final int MAX_VERSION_BYTES = 255;
+    private static final int MAC_BYTES = 32;
+    
+    private byte[] input = new byte[4096];
+    private int inputLength;
+    
+    private Cipher inCipher;
+    private Mac inMac;
+    private int inSequence;
+    // Packet whose first block is already decrypted, waiting for the rest
+    private byte[] packet;
+    
+    private Cipher outCipher;
+    private Mac outMac;
+    private int outSequence;
+    
+    /** Appends freshly read bytes; false if they would overflow the largest packet allowed. */
+    boolean offer(ByteBuffer data) {
+        int needed = inputLength + data.remaining();
+        if (needed > MAX_PACKET_BYTES + 2 * MAC_BYTES) return false;
+        if (needed > input.length) {
+            input = Arrays.copyOf(input, Math.max(needed, input.length * 2));
+        }
+        data.get(input, inputLength, data.remaining());
+        inputLength = needed;
+        return true;
+    }
+    
+    /**
+     * The next line of the identification phase without its line ending, or
+     * null until one is complete. Lines longer than the RFC limit are cut.
+     */
+    String nextLine() {
+        int limit = Math.min(inputLength, MAX_VERSION_BYTES);
+        int end = 0;
+        while (end < limit && input[end] != '\n') end++;
+        boolean complete = end < limit;
+        if (!complete && limit < MAX_VERSION_BYTES) return null;
+        int length = complete && end > 0 && input[end - 1] == '\r' ? end - 1 : end;
+        StringBuilder line = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            int c = input[i] & 0xFF;
+            line.append(c >= 0x20 && c < 0x7F ? (char) c : '.');
+        }
+        consume(complete ? end + 1 : end);
+        return line.toString();
+    }
+    
+    /** The payload of the next complete packet, or null until one has fully arrived. */
+    byte[] nextPayload() throws SshException {
+        int blockSize = inCipher != null ? 16 : 8;
+        if (packet == null) {
+            if (inputLength < blockSize) return null;
+            byte[] first = Arrays.copyOf(input, blockSize);
+            if (inCipher != null) {
+                first = inCipher.update(first);
+            }
+            int packetLength = ByteBuffer.wrap(first).getInt();
+            if (packetLength < 12 || packetLength > MAX_PACKET_BYTES || (packetLength + 4) % blockSize != 0) {
+                throw new SshException("Bad packet length " + packetLength);
+            }
+            packet = Arrays.copyOf(first, packetLength + 4);
+            consume(blockSize);
+        }
+        int macBytes = inMac != null ? MAC_BYTES : 0;
+        int remaining = packet.length - blockSize;
+        if (inputLength < remaining + macBytes) return null;
+        if (inCipher != null) {
+            try {
+                inCipher.update(input, 0, remaining, packet, blockSize);
+            } catch (GeneralSecurityException e) {
+                throw new SshException("Decryption failed");
+            }
+        } else {
+            System.arraycopy(input, 0, packet, blockSize, remaining);
+        }
+        if (inMac != null) {
+            inMac.update(sequence(inSequence));
+            byte[] expected = inMac.doFinal(packet);
+            if (!MessageDigest.isEqual(expected, Arrays.copyOfRange(input, remaining, remaining + MAC_BYTES))) {
+                throw new SshException("Corrupted MAC on input");
+            }
+        }
+        consume(remaining + macBytes);
+        inSequence++;
+        
+        int padding = packet[4] & 0xFF;
+        int payloadLength = packet.length - 5 - padding;
+        if (padding < 4 || payloadLength < 1) throw new SshException("Bad padding");
+        byte[] payload = Arrays.copyOfRange(packet, 5, 5 + payloadLength);
+        packet = null;
+        return payload;
+    }
+    
+    /** Frames, pads, encrypts and authenticates one payload for sending. */
+    byte[] seal(byte[] payload) {
+        int blockSize = outCipher != null ? 16 : 8;
+        int padding = blockSize - (5 + payload.length) % blockSize;
+        if (padding < 4) padding += blockSize;
+        int length = 5 + payload.length + padding;
+        int macBytes = outMac != null ? MAC_BYTES : 0;
+        byte[] out = new byte[length + macBytes];
+        ByteBuffer.wrap(out).putInt(length - 4).put((byte) padding).put(payload);
+        byte[] pad = new byte[padding];
+        ThreadLocalRandom.current().nextBytes(pad);
+        System.arraycopy(pad, 0, out, 5 + payload.length, padding);
+        if (outMac != null) {
+            outMac.update(sequence(outSequence));
+            outMac.update(out, 0, length);
+            System.arraycopy(outMac.doFinal(), 0, out, length, MAC_BYTES);
+        }
+        if (outCipher != null) {
+            try {
+                outCipher.update(out, 0, length, out, 0);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Encryption failed", e);
+            }
+        }
+        outSequence++;
+        return out;
+    }
+    
+    /** Switches incoming packets to the new keys; call right after the client's NEWKEYS. */
+    void newKeysIn(byte[] key, byte[] iv, byte[] macKey) throws GeneralSecurityException {
+        inCipher = cipher(Cipher.DECRYPT_MODE, key, iv);
+        inMac = mac(macKey);
+    }
+    
+    /** Switches outgoing packets to the new keys; call right after sending NEWKEYS. */
+    void newKeysOut(byte[] key, byte[] iv, byte[] macKey) throws GeneralSecurityException {
+        outCipher = cipher(Cipher.ENCRYPT_MODE, key, iv);
+        outMac = mac(macKey);
+    }
+    
+    /** Sequence number of the last packet received, for SSH_MSG_UNIMPLEMENTED. */
+    int lastInSequence() {
+        return inSequence - 1;
+    }
+    
+    private void consume(int bytes) {
+        System.arraycopy(input, bytes, input, 0, inputLength - bytes);
+        inputLength -= bytes;
+    }
+    
+    private static byte[] sequence(int sequence) {
+        return new byte[] { (byte) (sequence >>> 24), (byte) (sequence >>> 16), (byte) (sequence >>> 8), (byte) sequence };
+    }
+    
+    private static Cipher cipher(int mode, byte[] key, byte[] iv) throws GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance("AES/CTR/NoPadding");
+        cipher.init(mode, new SecretKeySpec(key, "AES"), new IvParameterSpec(iv, 0, 16));
+        return cipher;
+    }
+    
+    private static Mac mac(byte[] key) throws GeneralSecurityException {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(key, 0, MAC_BYTES, "HmacSHA256"));
+        return mac;
+    }
+}
\ No newline at end of file
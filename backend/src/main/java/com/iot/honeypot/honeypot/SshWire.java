@@ -0,0 +1,136 @@
+package com.iot.honeypot.honeypot;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/** RFC 4251 data types: readers and writers for SSH message payloads. */
+final class SshWire {
+    
+    private SshWire() {
+    }
+    
+    /** Sequential reader over one message payload; running past the end is a protocol error. */
+    static final class Reader {
+        private final byte[] data;
+        private int position;
+        
+        Reader(byte[] data) {
+            this.data = data;
+        }
+        
+        /** Skips the message type byte every payload starts with. */
+        Reader skipType() throws SshException {
+            skip(1);
+            return this;
+        }
+        
+        int readByte() throws SshException {
+            require(1);
+            return data[position++] & 0xFF;
+        }
+        
+        boolean readBoolean() throws SshException {
+            return readByte() != 0;
+        }
+        
+        int readUint32() throws SshException {
+            require(4);
+            int value = ((data[position] & 0xFF) << 24) | ((data[position + 1] & 0xFF) << 16)
+                    | ((data[position + 2] & 0xFF) << 8) | (data[position + 3] & 0xFF);
+            position += 4;
+            return value;
+        }
+        
+        byte[] readString() throws SshException {
+            int length = readUint32();
+            if (length < 0) throw new SshException("Bad string length");
+            require(length);
+            byte[] value = Arrays.copyOfRange(data, position, position + length);
+            position += length;
+            return value;
+        }
+        
+        String readUtf8() throws SshException {
+            return new String(readString(), StandardCharsets.UTF_8);
+        }
+        
+        void skip(int bytes) throws SshException {
+            require(bytes);
+            position += bytes;
+        }
+        
+        private void require(int bytes) throws SshException {
+            if (bytes > data.length - position) throw new SshException("Truncated message");
+        }
+    }
+    
+    /** Builds one message payload, or any other run of SSH data types such as the exchange hash input. */
+    static final class Writer {
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+        
+        Writer() {
+        }
+        
+        Writer(int messageType) {
+            out.write(messageType);
+        }
+        
+        Writer writeByte(int value) {
+            out.write(value);
+            return this;
+        }
+        
+        Writer writeBoolean(boolean value) {
+            out.write(value ? 1 : 0);
+            return this;
+        }
+        
+        Writer writeUint32(int value) {
+            out.write(value >>> 24);
+            out.write(value >>> 16);
+            out.write(value >>> 8);
+            out.write(value);
+            return this;
+        }
+        
+        Writer writeBytes(byte[] value) {
+            out.write(value, 0, value.length);
+            return this;
+        }
+        
+        Writer writeString(byte[] value) {
+            writeUint32(value.length);
+            return writeBytes(value);
+        }
+        
+        Writer writeString(String value) {
+            return writeString(value.getBytes(StandardCharsets.UTF_8));
+        }
+        
+        /** Unsigned big-endian magnitude as an mpint: no leading zeros, a zero byte added if the top bit is set. */
+        Writer writeMpint(byte[] magnitude) {
+            int start = 0;
+            while (start < magnitude.length && magnitude[start] == 0) start++;
+            int length = magnitude.length - start;
+            boolean pad = length > 0 && (magnitude[start] & 0x80) != 0;
+            writeUint32(length + (pad ? 1 : 0));
+            if (pad) out.write(0);
+            out.write(magnitude, start, length);
+            return this;
+        }
+        
+        byte[] toByteArray() {
+            return out.toByteArray();
+        }
+    }
+    
+    /** A message that cannot be parsed or violates the protocol; the connection is dropped. */
+    static final class SshException extends Exception {
+        private static final long serialVersionUID = 1L;
+        
+        SshException(String message) {
+            super(message);
+        }
+    }
+}
\ No newline at end of file
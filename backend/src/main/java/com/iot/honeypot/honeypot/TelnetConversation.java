@@ -0,0 +1,349 @@
+package com.iot.honeypot.honeypot;
+
+import com.iot.honeypot.entity.AttackLog;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One Telnet connection to the router honeypot, driven a read at a time by
+ * either listener path: option negotiation, as many login attempts as the
+ * bot makes (up to {@link TelnetProperties#getMaxAttempts()}), and a fake
+ * BusyBox shell for the logins that are let in. Everything is summed up in
+ * one record by {@link #toAttack}, however many credentials were tried.
+ * <p>
+ * Not thread-safe: the caller runs every method, and the continuations it
+ * passes to {@link Io}, in the context that owns the connection.
+ */
+public final class TelnetConversation {
+    
+    /** Output side of the connection. */
+    public interface Io {
+        void write(byte[] data);
+        
+        /** Sends the banner (drip-fed if the device profile says so), then runs {@code then}. */
+        void banner(byte[] data, Runnable then);
+        
+        /** Sends {@code data} after the device's reply delay, then runs {@code then}. */
+        void reply(byte[] data, Runnable then);
+        
+        void close();
+    }
+    
+    static final int IAC = 255;
+    static final int DONT = 254;
+    static final int DO = 253;
+    static final int WONT = 252;
+    static final int WILL = 251;
+    static final int SB = 250;
+    static final int SE = 240;
+    static final int ECHO = 1;
+    static final int SUPPRESS_GO_AHEAD = 3;
+    static final int NAWS = 31;
+    
+    // What BusyBox telnetd opens with: it echoes, suppresses go-ahead and asks for the window size
+    private static final byte[] NEGOTIATION = {
+            (byte) IAC, (byte) WILL, ECHO,
+            (byte) IAC, (byte) WILL, SUPPRESS_GO_AHEAD,
+            (byte) IAC, (byte) DO, NAWS };
+    private static final byte[] PASSWORD_PROMPT = ascii("Password: ");
+    private static final byte[] LOGIN_INCORRECT = ascii("\r\nLogin incorrect\r\n\r\nLogin: ");
+    private static final byte[] ACCESS_DENIED = ascii(
+            "\r\nLogin failed - invalid username or password\r\nAccess denied - connection closed\r\n");
+    private static final byte[] NEWLINE = ascii("\r\n");
+    private static final byte[] RUBOUT = ascii("\b \b");
+    private static final int MAX_LINE_LENGTH = 256;
+    private static final int MAX_QUEUED_LINES = 8;
+    
+    // Per-option negotiation state
+    private static final int LOCAL_ON = 1;
+    private static final int REMOTE_ON = 2;
+    private static final int LOCAL_REFUSED = 4;
+    private static final int REMOTE_REFUSED = 8;
+    
+    private enum Phase { LOGIN, PASSWORD, SHELL, CLOSED }
+    
+    private enum Input { DATA, IAC, OPTION, SUBNEGOTIATION, SUBNEGOTIATION_IAC }
+    
+    private final TelnetProperties settings;
+    private final Io io;
+    private final byte[] banner;
+    private final byte[] options = new byte[256];
+    
+    private Input input = Input.DATA;
+    private int command;
+    private boolean lastWasCr;
+    private final byte[] line = new byte[MAX_LINE_LENGTH];
+    private int lineLength;
+    private final byte[] echo = new byte[MAX_LINE_LENGTH];
+    private int echoLength;
+    
+    private Phase phase = Phase.LOGIN;
+    // Lines that arrive while a delayed reply is still going out
+    private ArrayDeque<String> queued;
+    private boolean waiting;
+    
+    private String username;
+    private final LoginAttempts attempts = new LoginAttempts();
+    private int acceptedAttempt = -1;
+    private BusyBoxShell shell;
+    private final List<String> commands = new ArrayList<>();
+    
+    public TelnetConversation(TelnetProperties settings, Io io, byte[] banner) {
+        this.settings = settings;
+        this.io = io;
+        this.banner = banner;
+        options[ECHO] = LOCAL_ON;
+        options[SUPPRESS_GO_AHEAD] = LOCAL_ON;
+    }
+    
+    public void start() {
+        io.write(NEGOTIATION);
+        waiting = true;
+        io.banner(banner, this::resume);
+    }
+    
+    public boolean isClosed() {
+        return phase == Phase.CLOSED;
+    }
+    
+    /** Consumes one read: negotiation is answered, typed characters echoed and completed lines acted on. */
+    public void onData(ByteBuffer data) {
+        while (data.hasRemaining() && phase != Phase.CLOSED) {
+            int b = data.get() & 0xff;
+            if (input == Input.DATA) {
+                if (b == IAC) {
+                    input = Input.IAC;
+                } else {
+                    onByte(b);
+                }
+            } else if (input == Input.IAC) {
+                if (b == IAC) {
+                    input = Input.DATA;
+                    onByte(b);
+                } else if (b == WILL || b == WONT || b == DO || b == DONT) {
+                    command = b;
+                    input = Input.OPTION;
+                } else if (b == SB) {
+                    input = Input.SUBNEGOTIATION;
+                } else {
+                    // NOP, AYT, BRK and friends carry no data
+                    input = Input.DATA;
+                }
+            } else if (input == Input.OPTION) {
+                negotiate(command, b);
+                input = Input.DATA;
+            } else if (input == Input.SUBNEGOTIATION) {
+                // Window size and terminal type are not needed; skip to IAC SE
+                if (b == IAC) input = Input.SUBNEGOTIATION_IAC;
+            } else {
+                input = b == SE ? Input.DATA : Input.SUBNEGOTIATION;
+            }
+        }
+        flushEcho();
+    }
+    
+    /** The client hung up: whatever was typed at an open prompt still counts. */
+    public void onClose() {
+        if (phase == Phase.CLOSED) return;
+        if (lineLength > 0 && !waiting) {
+            String partial = takeLine();
+            if (phase == Phase.LOGIN) {
+                attempt(partial, null);
+            } else if (phase == Phase.PASSWORD) {
+                attempt(username, partial);
+            }
+        } else if (phase == Phase.PASSWORD) {
+            attempt(username, null);
+        }
+        phase = Phase.CLOSED;
+    }
+    
+    /**
+     * The whole session as one record: the last (or accepted) credentials in
+     * the username and password fields, every attempt, and any shell commands
+     * with the downloads called out. {@code sourceTag} is the classifier
+     * list the client was admitted under, or {@code null}.
+     */
+    public AttackLog toAttack(String sourceIp, String sourceTag, String device) {
+        StringBuilder payload = attempts.summary();
+        if (acceptedAttempt >= 0) {
+            payload.append(" | Shell: ").append(commands.isEmpty() ? "-" : String.join("; ", commands));
+            StringBuilder droppers = new StringBuilder();
+            for (String command : commands) {
+                if (BusyBoxShell.isDropper(command)) {
+                    if (droppers.length() > 0) droppers.append("; ");
+                    droppers.append(command);
+                }
+            }
+            if (droppers.length() > 0) payload.append(" | Droppers: ").append(droppers);
+        }
+        AttackLog attack = new AttackLog(sourceIp, "TELNET", payload.toString(), device);
+        attack.setSourceTag(sourceTag);
+        attempts.fill(attack, acceptedAttempt);
+        return attack;
+    }
+    
+    public int getAttemptCount() {
+        return attempts.size();
+    }
+    
+    /** Line editing: CR LF, CR NUL and bare LF end a line; backspace and DEL rub out. */
+    private void onByte(int b) {
+        if (b == '\r' || b == '\n') {
+            boolean pair = b == '\n' && lastWasCr;
+            lastWasCr = b == '\r';
+            if (pair) return;
+            echo(NEWLINE);
+            onLine(takeLine());
+            return;
+        }
+        boolean afterCr = lastWasCr;
+        lastWasCr = false;
+        if (b == 0 && afterCr) return;
+        if (b == 8 || b == 127) {
+            if (lineLength > 0) {
+                lineLength--;
+                echo(RUBOUT);
+            }
+            return;
+        }
+        if (lineLength < line.length) {
+            line[lineLength++] = (byte) b;
+            if (b >= 0x20 && echoing()) {
+                if (echoLength == echo.length) flushEcho();
+                echo[echoLength++] = (byte) b;
+            }
+        }
+    }
+    
+    private void onLine(String text) {
+        if (waiting) {
+            if (queued == null) queued = new ArrayDeque<>(MAX_QUEUED_LINES);
+            if (queued.size() < MAX_QUEUED_LINES) queued.add(text);
+            return;
+        }
+        if (phase == Phase.LOGIN) {
+            username = text;
+            phase = Phase.PASSWORD;
+            flushEcho();
+            io.write(PASSWORD_PROMPT);
+        } else if (phase == Phase.PASSWORD) {
+            login(text);
+        } else if (phase == Phase.SHELL) {
+            if (commands.size() < settings.getMaxCommands()) commands.add(text);
+            String output = shell.run(text);
+            flushEcho();
+            io.write(ascii(output));
+            if (shell.hasExited() || commands.size() >= settings.getMaxCommands()) {
+                phase = Phase.CLOSED;
+                io.close();
+            }
+        }
+    }
+    
+    private void login(String password) {
+        attempt(username, password);
+        flushEcho();
+        if (settings.accepts(username, password)) {
+            acceptedAttempt = attempts.size() - 1;
+            phase = Phase.SHELL;
+            shell = new BusyBoxShell();
+            waiting = true;
+            io.reply(ascii("\r\n" + shell.banner()), this::resume);
+        } else if (attempts.size() >= settings.getMaxAttempts()) {
+            phase = Phase.CLOSED;
+            io.reply(ACCESS_DENIED, io::close);
+        } else {
+            phase = Phase.LOGIN;
+            waiting = true;
+            io.reply(LOGIN_INCORRECT, this::resume);
+        }
+    }
+    
+    private void attempt(String user, String password) {
+        attempts.add(user, password);
+    }
+    
+    /** A delayed write has gone out: act on lines typed in the meantime. */
+    private void resume() {
+        waiting = false;
+        while (!waiting && phase != Phase.CLOSED && queued != null && !queued.isEmpty()) {
+            onLine(queued.poll());
+        }
+        flushEcho();
+    }
+    
+    /**
+     * Answers DO/DONT/WILL/WONT without ever repeating itself, so two
+     * stubborn peers cannot loop: we echo and suppress go-ahead, and accept
+     * only the window size from the client.
+     */
+    private void negotiate(int verb, int option) {
+        int state = options[option];
+        if (verb == DO) {
+            if ((state & LOCAL_ON) != 0) return;
+            if (option == ECHO || option == SUPPRESS_GO_AHEAD) {
+                options[option] = (byte) (state | LOCAL_ON);
+                send(WILL, option);
+            } else if ((state & LOCAL_REFUSED) == 0) {
+                options[option] = (byte) (state | LOCAL_REFUSED);
+                send(WONT, option);
+            }
+        } else if (verb == DONT) {
+            if ((state & LOCAL_ON) == 0) return;
+            options[option] = (byte) (state & ~LOCAL_ON);
+            send(WONT, option);
+        } else if (verb == WILL) {
+            if ((state & REMOTE_ON) != 0) return;
+            if (option == NAWS) {
+                // Our opening DO NAWS asked for this; nothing to answer
+                options[option] = (byte) (state | REMOTE_ON);
+            } else if ((state & REMOTE_REFUSED) == 0) {
+                options[option] = (byte) (state | REMOTE_REFUSED);
+                send(DONT, option);
+            }
+        } else {
+            if ((state & REMOTE_ON) == 0) return;
+            options[option] = (byte) (state & ~REMOTE_ON);
+            send(DONT, option);
+        }
+    }
+    
+    private void send(int verb, int option) {
+        flushEcho();
+        io.write(new byte[] { (byte) IAC, (byte) verb, (byte) option });
+    }
+    
+    /** Characters are echoed back at the login and shell prompts, never at the password prompt. */
+    private boolean echoing() {
+        return (options[ECHO] & LOCAL_ON) != 0 && !waiting && phase != Phase.PASSWORD;
+    }
+    
+    private void echo(byte[] data) {
+        if (!echoing()) return;
+        if (echoLength + data.length > echo.length) flushEcho();
+        System.arraycopy(data, 0, echo, echoLength, data.length);
+        echoLength += data.length;
+    }
+    
+    private void flushEcho() {
+        if (echoLength == 0) return;
+        byte[] data = new byte[echoLength];
+        System.arraycopy(echo, 0, data, 0, echoLength);
+        echoLength = 0;
+        io.write(data);
+    }
+    
+    private String takeLine() {
+        String text = new String(line, 0, lineLength, StandardCharsets.ISO_8859_1);
+        lineLength = 0;
+        return text;
+    }
+    
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.ISO_8859_1);
+    }
+}
\ No newline at end of file
@@ -1,116 +1,133 @@
 package com.iot.honeypot.honeypot;
 
-import com.iot.honeypot.entity.AttackLog;
+import com.iot.honeypot.device.DeviceProtocol;
+import com.iot.honeypot.device.EmulatedDevice;
+import com.iot.honeypot.listener.ProtocolHandler;
+import com.iot.honeypot.listener.Session;
+import com.iot.honeypot.metrics.ListenerMetrics;
 import com.iot.honeypot.service.AttackService;
+import com.iot.honeypot.tarpit.Tarpit;
+import com.iot.honeypot.tarpit.TarpitPlan;
+import com.iot.honeypot.tarpit.TarpitProfile;
+import com.iot.honeypot.tarpit.TarpitTarget;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import java.io.*;
 import java.net.*;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.nio.ByteBuffer;
 
+/**
+ * The {@code telnet} protocol for device profiles: the device's banner, then
+ * a {@link TelnetConversation} logged as one record when the connection ends.
+ */
 @Component
-public class TelnetHoneypot {
+public class TelnetHoneypot implements DeviceProtocol {
+    private static final Logger log = LoggerFactory.getLogger(TelnetHoneypot.class);
+    
+    private static final int READ_BUFFER_BYTES = 512;
     
     @Autowired
     private AttackService attackService;
     
-    private ServerSocket serverSocket;
-    private ExecutorService threadPool;
-    private boolean running = false;
-    private final int PORT = 2323;
+    @Autowired
+    private Tarpit tarpit;
     
-    public void start() {
-        if (running) return;
-        
-        threadPool = Executors.newCachedThreadPool();
-        threadPool.execute(() -> {
-            try {
-                serverSocket = new ServerSocket(PORT);
-                running = true;
-                System.out.println("🤖 Telnet Honeypot started on port " + PORT);
-                
-                while (running && !serverSocket.isClosed()) {
-                    try {
-                        Socket clientSocket = serverSocket.accept();
-                        threadPool.execute(new TelnetHandler(clientSocket));
-                    } catch (SocketException e) {
-                        if (running) {
-                            System.out.println("❌ Telnet socket error: " + e.getMessage());
-                        }
-                    }
-                }
-            } catch (IOException e) {
-                System.out.println("❌ Failed to start Telnet honeypot: " + e.getMessage());
-            }
-        });
+    @Autowired
+    private TelnetProperties settings;
+    
+    @Value("${honeypot.listener.idle-timeout-ms:120000}")
+    private int idleTimeoutMs;
+    
+    @Override
+    public String getName() {
+        return "telnet";
     }
     
-    public void stop() {
-        running = false;
-        try {
-            if (serverSocket != null) {
-                serverSocket.close();
-            }
-            if (threadPool != null) {
-                threadPool.shutdown();
-            }
-            System.out.println("🛑 Telnet honeypot stopped");
-        } catch (IOException e) {
-            System.out.println("Error stopping telnet honeypot: " + e.getMessage());
-        }
+    @Override
+    public ProtocolHandler newSession(EmulatedDevice device) {
+        return new TelnetSession(device);
     }
     
-    public boolean isRunning() {
-        return running;
+    @Override
+    public Runnable newHandler(Socket socket, String sourceTag, EmulatedDevice device) {
+        return new TelnetHandler(socket, sourceTag, device);
     }
     
     private class TelnetHandler implements Runnable {
-        private Socket clientSocket;
+        private final Socket clientSocket;
+        private final String sourceTag;
+        private final EmulatedDevice device;
         
-        public TelnetHandler(Socket socket) {
+        public TelnetHandler(Socket socket, String sourceTag, EmulatedDevice device) {
             this.clientSocket = socket;
+            this.sourceTag = sourceTag;
+            this.device = device;
         }
         
         @Override
         public void run() {
             String clientIp = clientSocket.getInetAddress().getHostAddress();
+            long started = System.nanoTime();
+            ListenerMetrics metrics = device.getMetrics();
+            metrics.sessionOpened();
+            TarpitProfile profile = tarpit.profileFor(device.getDevice());
+            TarpitTarget target = TarpitTarget.of(clientSocket, metrics);
+            TelnetConversation conversation = null;
             
-            try (BufferedReader in = new BufferedReader(
-                    new InputStreamReader(clientSocket.getInputStream()));
-                 PrintWriter out = new PrintWriter(clientSocket.getOutputStream(), true)) {
-                
-                // Send fake router banner
-                out.println("\r\nWelcome to TP-Link Wireless Router WR840N");
-                out.println("Firmware Version: 3.16.9 Build 180529 Rel.55346n");
-                out.println("Hardware Version: WR840N v5 00000000");
-                out.println("===============================================");
-                out.print("Login: ");
-                out.flush();
-                
-                // Read credentials
-                String username = in.readLine();
-                out.print("Password: ");
-                out.flush();
-                String password = in.readLine();
-                
-                // Log the attack
-                String payload = "Username: " + (username != null ? username : "null") + 
-                               ", Password: " + (password != null ? password : "null");
+            try {
+                InputStream in = metrics.countingIn(clientSocket.getInputStream());
+                OutputStream out = metrics.countingOut(clientSocket.getOutputStream());
+                clientSocket.setSoTimeout(idleTimeoutMs);
                 
-                AttackLog attack = new AttackLog(clientIp, "TELNET", payload, "TP-Link Router");
-                attack.setUsernameAttempt(username);
-                attack.setPasswordAttempt(password);
-                attackService.logAttack(attack);
+                // Delays run on the tarpit and this thread waits for them, so the conversation stays in order
+                conversation = new TelnetConversation(settings, new TelnetConversation.Io() {
+                    @Override
+                    public void write(byte[] data) {
+                        try {
+                            out.write(data);
+                        } catch (IOException e) {
+                            close();
+                        }
+                    }
+                    
+                    @Override
+                    public void banner(byte[] data, Runnable then) {
+                        tarpit.run(target, profile.drip(new TarpitPlan(), data)).join();
+                        then.run();
+                    }
+                    
+                    @Override
+                    public void reply(byte[] data, Runnable then) {
+                        tarpit.run(target, profile.respond(data)).join();
+                        then.run();
+                    }
+                    
+                    @Override
+                    public void close() {
+                        target.close();
+                    }
+                }, device.getBanner());
                 
-                // Fake response and delay
-                Thread.sleep(2000);
-                out.println("Login failed - invalid username or password");
-                out.println("Access denied - connection closed");
+                conversation.start();
+                byte[] buffer = new byte[READ_BUFFER_BYTES];
+                int n;
+                while (!conversation.isClosed() && !clientSocket.isClosed() && (n = in.read(buffer)) >= 0) {
+                    conversation.onData(ByteBuffer.wrap(buffer, 0, n));
+                }
                 
-            } catch (IOException | InterruptedException e) {
-                System.out.println("Client disconnected: " + clientIp);
+            } catch (IOException e) {
+                log.debug("Client disconnected: {}", clientIp);
             } finally {
+                // One record for the whole session, however it ended
+                if (conversation != null) {
+                    conversation.onClose();
+                    attackService.logAttack(conversation.toAttack(clientIp, sourceTag, device.getDevice()));
+                }
+                metrics.handlerNanos(System.nanoTime() - started);
+                metrics.sessionClosed();
                 try {
                     clientSocket.close();
                 } catch (IOException e) {
@@ -119,4 +136,63 @@ public class TelnetHoneypot {
             }
         }
     }
+    
+    /**
+     * Non-blocking equivalent of {@link TelnetHandler}: the same conversation,
+     * with banner and reply delays handled by the tarpit instead of a waiting
+     * thread. The record is logged when the connection closes.
+     */
+    private class TelnetSession implements ProtocolHandler {
+        private final EmulatedDevice device;
+        private TelnetConversation conversation;
+        
+        TelnetSession(EmulatedDevice device) {
+            this.device = device;
+        }
+        
+        @Override
+        public void onOpen(Session session) {
+            TarpitProfile profile = tarpit.profileFor(device.getDevice());
+            conversation = new TelnetConversation(settings, new TelnetConversation.Io() {
+                @Override
+                public void write(byte[] data) {
+                    session.write(data);
+                }
+                
+                @Override
+                public void banner(byte[] data, Runnable then) {
+                    if (profile.getDripChunkBytes() <= 0) {
+                        session.write(data);
+                        then.run();
+                        return;
+                    }
+                    tarpit.run(TarpitTarget.of(session), profile.drip(new TarpitPlan(), data))
+                          .thenRun(() -> session.execute(then));
+                }
+                
+                @Override
+                public void reply(byte[] data, Runnable then) {
+                    tarpit.run(TarpitTarget.of(session), profile.respond(data))
+                          .thenRun(() -> session.execute(then));
+                }
+                
+                @Override
+                public void close() {
+                    session.close();
+                }
+            }, device.getBanner());
+            conversation.start();
+        }
+        
+        @Override
+        public void onData(Session session, ByteBuffer data) {
+            conversation.onData(data);
+        }
+        
+        @Override
+        public void onClose(Session session) {
+            conversation.onClose();
+            attackService.logAttack(conversation.toAttack(session.getRemoteIp(), session.getSourceTag(), device.getDevice()));
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.iot.honeypot.honeypot;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * {@code honeypot.telnet.*} settings. {@code acceptedLogins} lists
+ * {@code user:password} pairs that get into the fake shell; every other
+ * attempt fails, and the session is dropped after {@code maxAttempts}.
+ */
+@Component
+@ConfigurationProperties(prefix = "honeypot.telnet")
+public class TelnetProperties {
+    private int maxAttempts = 10;
+    private int maxCommands = 50;
+    private List<String> acceptedLogins = new ArrayList<>();
+    private Set<String> accepted = new HashSet<>();
+    
+    public int getMaxAttempts() { return maxAttempts; }
+    public void setMaxAttempts(int maxAttempts) { this.maxAttempts = maxAttempts; }
+    
+    public int getMaxCommands() { return maxCommands; }
+    public void setMaxCommands(int maxCommands) { this.maxCommands = maxCommands; }
+    
+    public List<String> getAcceptedLogins() { return acceptedLogins; }
+    public void setAcceptedLogins(List<String> acceptedLogins) {
+        this.acceptedLogins = acceptedLogins;
+        this.accepted = new HashSet<>(acceptedLogins);
+    }
+    
+    public boolean accepts(String username, String password) {
+        return !accepted.isEmpty() && accepted.contains(username + ":" + password);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,301 @@
+package com.iot.honeypot.listener;
+
+import com.iot.honeypot.admission.Admission;
+import com.iot.honeypot.admission.AdmissionDecision;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A single selector thread. Owns every session registered with it, plus a
+ * timer queue so handlers can delay work without parking a thread.
+ */
+final class EventLoop implements Runnable {
+    private static final Logger log = LoggerFactory.getLogger(EventLoop.class);
+    private static final int READ_BUFFER_SIZE = 16 * 1024;
+    private static final int MAX_ACCEPTS_PER_WAKEUP = 256;
+    private static final long IDLE_SWEEP_INTERVAL_MS = 1000;
+    
+    private final ListenerEngine engine;
+    private final Selector selector;
+    private final Thread thread;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final PriorityQueue<Timer> timers = new PriorityQueue<>();
+    private final AtomicBoolean wakeupPending = new AtomicBoolean();
+    private final AtomicInteger sessions = new AtomicInteger();
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+    private final long idleTimeoutMillis;
+    private long timerSequence;
+    private long nextIdleSweep;
+    private volatile boolean running = true;
+    
+    EventLoop(ListenerEngine engine, String name, long idleTimeoutMillis) throws IOException {
+        this.engine = engine;
+        this.selector = Selector.open();
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.thread = new Thread(this, name);
+        this.thread.setDaemon(true);
+    }
+    
+    void start() {
+        thread.start();
+    }
+    
+    int sessionCount() {
+        return sessions.get();
+    }
+    
+    boolean inLoop() {
+        return Thread.currentThread() == thread;
+    }
+    
+    void execute(Runnable task) {
+        tasks.add(task);
+        if (!inLoop() && wakeupPending.compareAndSet(false, true)) {
+            selector.wakeup();
+        }
+    }
+    
+    void schedule(long delayMillis, Runnable task) {
+        long deadline = System.currentTimeMillis() + Math.max(0, delayMillis);
+        if (inLoop()) {
+            timers.add(new Timer(deadline, timerSequence++, task));
+        } else {
+            execute(() -> timers.add(new Timer(deadline, timerSequence++, task)));
+        }
+    }
+    
+    void listen(ServerBinding binding) {
+        execute(() -> {
+            try {
+                binding.channel().register(selector, SelectionKey.OP_ACCEPT, binding);
+            } catch (ClosedChannelException e) {
+                // Closed before it was registered
+            }
+        });
+    }
+    
+    void unlisten(ServerBinding binding) {
+        execute(() -> {
+            SelectionKey key = binding.channel().keyFor(selector);
+            if (key != null) key.cancel();
+        });
+    }
+    
+    /** Registers an accepted channel, served by {@code handler} or by a fresh one from the binding if null. */
+    void adopt(SocketChannel channel, ServerBinding binding, ProtocolHandler handler, String sourceTag) {
+        execute(() -> {
+            Session session = new Session(this, channel, binding, handler != null ? handler : binding.newHandler(), sourceTag);
+            SelectionKey key;
+            try {
+                key = channel.register(selector, SelectionKey.OP_READ, session);
+            } catch (IOException e) {
+                closeQuietly(channel);
+                if (handler instanceof HoldingHandler) ((HoldingHandler) handler).release();
+                return;
+            }
+            sessions.incrementAndGet();
+            binding.sessionOpened();
+            session.register(key);
+        });
+    }
+    
+    void sessionClosed(Session session) {
+        sessions.decrementAndGet();
+        session.getBinding().sessionClosed();
+    }
+    
+    void shutdown() {
+        running = false;
+        selector.wakeup();
+    }
+    
+    @Override
+    public void run() {
+        while (running) {
+            try {
+                long timeout = nextTimeout();
+                if (timeout < 0) {
+                    selector.selectNow();
+                } else {
+                    selector.select(timeout);
+                }
+                wakeupPending.set(false);
+                processKeys();
+                runTasks();
+                runTimers();
+                sweepIdle();
+            } catch (IOException | RuntimeException e) {
+                log.warn("❌ Event loop error: {}", e.getMessage());
+            }
+        }
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof Session) {
+                ((Session) key.attachment()).abort();
+            }
+        }
+        try {
+            selector.close();
+        } catch (IOException e) {
+            // Ignore
+        }
+    }
+    
+    /** Milliseconds to block in select: 0 means forever, negative means do not block. */
+    private long nextTimeout() {
+        if (!tasks.isEmpty()) return -1;
+        long now = System.currentTimeMillis();
+        long wait = Math.max(1, nextIdleSweep - now);
+        Timer next = timers.peek();
+        if (next != null) {
+            long untilTimer = next.deadline - now;
+            if (untilTimer <= 0) return -1;
+            wait = Math.min(wait, untilTimer);
+        }
+        return wait;
+    }
+    
+    private void processKeys() {
+        Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+        while (it.hasNext()) {
+            SelectionKey key = it.next();
+            it.remove();
+            if (!key.isValid()) continue;
+            Object attachment = key.attachment();
+            if (attachment instanceof ServerBinding) {
+                acceptAll((ServerBinding) attachment);
+                continue;
+            }
+            Session session = (Session) attachment;
+            if (key.isReadable()) {
+                session.onReadable(readBuffer);
+            }
+            if (key.isValid() && key.isWritable()) {
+                session.onWritable();
+            }
+        }
+    }
+    
+    private void acceptAll(ServerBinding binding) {
+        ServerSocketChannel server = binding.channel();
+        for (int i = 0; i < MAX_ACCEPTS_PER_WAKEUP; i++) {
+            SocketChannel channel;
+            try {
+                channel = server.accept();
+            } catch (IOException e) {
+                if (!binding.isClosed()) {
+                    log.warn("❌ Accept error on port {}: {}", binding.getPort(), e.getMessage());
+                }
+                return;
+            }
+            if (channel == null) return;
+            Admission admission;
+            try {
+                channel.configureBlocking(false);
+                InetSocketAddress remote = (InetSocketAddress) channel.getRemoteAddress();
+                admission = engine.admission().decide(remote.getAddress(), engine.getActiveSessions());
+            } catch (IOException e) {
+                closeQuietly(channel);
+                continue;
+            }
+            AdmissionDecision decision = admission.getDecision();
+            binding.getMetrics().admitted(decision);
+            if (decision == AdmissionDecision.REJECT) {
+                reset(channel);
+                continue;
+            }
+            ProtocolHandler handler = decision == AdmissionDecision.TARPIT ? new HoldingHandler(engine.admission()) : null;
+            engine.nextLoop().adopt(channel, binding, handler, admission.getSourceTag());
+        }
+    }
+    
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                log.warn("❌ Event loop task error: {}", e.getMessage());
+            }
+        }
+    }
+    
+    private void runTimers() {
+        long now = System.currentTimeMillis();
+        Timer timer;
+        while ((timer = timers.peek()) != null && timer.deadline <= now) {
+            timers.poll();
+            try {
+                timer.task.run();
+            } catch (RuntimeException e) {
+                log.warn("❌ Scheduled task error: {}", e.getMessage());
+            }
+        }
+    }
+    
+    private void sweepIdle() {
+        long now = System.currentTimeMillis();
+        if (now < nextIdleSweep) return;
+        nextIdleSweep = now + IDLE_SWEEP_INTERVAL_MS;
+        if (idleTimeoutMillis <= 0) return;
+        for (SelectionKey key : selector.keys()) {
+            Object attachment = key.attachment();
+            if (attachment instanceof Session) {
+                Session session = (Session) attachment;
+                if (now - session.lastActivity > idleTimeoutMillis) {
+                    session.abort();
+                }
+            }
+        }
+    }
+    
+    /** Closes with an RST instead of a FIN, so a rejected connection leaves no TIME_WAIT behind. */
+    private static void reset(SocketChannel channel) {
+        try {
+            channel.setOption(StandardSocketOptions.SO_LINGER, 0);
+        } catch (IOException e) {
+            // Close normally then
+        }
+        closeQuietly(channel);
+    }
+    
+    private static void closeQuietly(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Ignore
+        }
+    }
+    
+    private static final class Timer implements Comparable<Timer> {
+        final long deadline;
+        final long sequence;
+        final Runnable task;
+        
+        Timer(long deadline, long sequence, Runnable task) {
+            this.deadline = deadline;
+            this.sequence = sequence;
+            this.task = task;
+        }
+        
+        @Override
+        public int compareTo(Timer other) {
+            int byDeadline = Long.compare(deadline, other.deadline);
+            return byDeadline != 0 ? byDeadline : Long.compare(sequence, other.sequence);
+        }
+    }
+}
\ No newline at end of file
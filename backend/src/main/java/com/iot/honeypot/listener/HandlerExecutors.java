@@ -0,0 +1,159 @@
+package com.iot.honeypot.listener;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides how honeypot connections are executed and keeps per-mode gauges so
+ * the modes can be compared under the same load.
+ *
+ * <ul>
+ *   <li>{@code nio} - sessions run on the shared {@link ListenerEngine}</li>
+ *   <li>{@code platform} - one cached-pool platform thread per connection handler</li>
+ *   <li>{@code virtual} - one virtual thread per connection handler (JDK 21+,
+ *       falls back to {@code platform} on older runtimes)</li>
+ * </ul>
+ */
+@Component
+public class HandlerExecutors {
+    private static final Logger log = LoggerFactory.getLogger(HandlerExecutors.class);
+    
+    public enum Mode { NIO, PLATFORM, VIRTUAL }
+    
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    
+    private final ListenerEngine listenerEngine;
+    private final Mode configuredMode;
+    private final Mode mode;
+    private final Map<Mode, AtomicInteger> liveHandlers = new LinkedHashMap<>();
+    private final AtomicLong pinnedEvents = new AtomicLong();
+    private final AtomicLong pinnedNanos = new AtomicLong();
+    private AutoCloseable pinningStream;
+    
+    public HandlerExecutors(ListenerEngine listenerEngine,
+                            @Value("${honeypot.listener.mode:nio}") String mode,
+                            @Value("${honeypot.listener.pinning-threshold-ms:20}") long pinningThresholdMillis) {
+        this.listenerEngine = listenerEngine;
+        this.configuredMode = Mode.valueOf(mode.trim().toUpperCase());
+        liveHandlers.put(Mode.PLATFORM, new AtomicInteger());
+        liveHandlers.put(Mode.VIRTUAL, new AtomicInteger());
+        if (configuredMode == Mode.VIRTUAL && !virtualThreadsAvailable()) {
+            log.warn("⚠️ Virtual threads need JDK 21+, falling back to platform threads");
+            this.mode = Mode.PLATFORM;
+        } else {
+            this.mode = configuredMode;
+        }
+        if (this.mode == Mode.VIRTUAL) {
+            pinningStream = startPinningMonitor(Duration.ofMillis(pinningThresholdMillis));
+        }
+    }
+    
+    /** The mode actually in effect after any fallback. */
+    public Mode getMode() {
+        return mode;
+    }
+    
+    /** Executor for accept loops and connection handlers in the blocking modes. */
+    public ExecutorService newExecutor() {
+        if (mode == Mode.VIRTUAL) {
+            try {
+                return (ExecutorService) virtualThreadFactory().invoke(null);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot create virtual thread executor", e);
+            }
+        }
+        return Executors.newCachedThreadPool();
+    }
+    
+    /** Wraps a connection handler so it shows up in the live handler gauge while running. */
+    public Runnable tracked(Runnable handler) {
+        AtomicInteger live = liveHandlers.get(mode);
+        return () -> {
+            live.incrementAndGet();
+            try {
+                handler.run();
+            } finally {
+                live.decrementAndGet();
+            }
+        };
+    }
+    
+    /** Connections currently being served, whichever mode is in effect. */
+    public int getActiveSessions() {
+        return mode == Mode.NIO ? listenerEngine.getActiveSessions() : liveHandlers.get(mode).get();
+    }
+    
+    public Map<String, Object> getGauges() {
+        Map<String, Object> gauges = new LinkedHashMap<>();
+        gauges.put("configuredMode", configuredMode.name().toLowerCase());
+        gauges.put("mode", mode.name().toLowerCase());
+        Map<String, Integer> live = new LinkedHashMap<>();
+        liveHandlers.forEach((m, count) -> live.put(m.name().toLowerCase(), count.get()));
+        // NIO sessions have no handler thread to wrap, the engine counts them instead
+        live.put("nio", listenerEngine.getActiveSessions());
+        gauges.put("liveHandlers", live);
+        gauges.put("pinningMonitored", pinningStream != null);
+        gauges.put("pinnedEvents", pinnedEvents.get());
+        gauges.put("pinnedMillis", pinnedNanos.get() / 1_000_000);
+        return gauges;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        if (pinningStream != null) {
+            try {
+                pinningStream.close();
+            } catch (Exception e) {
+                // Ignore
+            }
+        }
+    }
+    
+    private AutoCloseable startPinningMonitor(Duration threshold) {
+        try {
+            jdk.jfr.consumer.RecordingStream stream = new jdk.jfr.consumer.RecordingStream();
+            stream.enable(PINNED_EVENT).withThreshold(threshold);
+            stream.onEvent(PINNED_EVENT, event -> {
+                pinnedEvents.incrementAndGet();
+                pinnedNanos.addAndGet(event.getDuration().toNanos());
+            });
+            stream.startAsync();
+            return stream;
+        } catch (RuntimeException | LinkageError e) {
+            log.warn("⚠️ Carrier pinning monitor unavailable: {}", e.getMessage());
+            return null;
+        }
+    }
+    
+    /** {@code Executors.newVirtualThreadPerTaskExecutor()}, looked up reflectively so the build stays on JDK 17. */
+    static Method virtualThreadFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+    
+    /** False on JDK 17, and on JDK 19/20 without --enable-preview. */
+    static boolean virtualThreadsAvailable() {
+        Method factory = virtualThreadFactory();
+        if (factory == null) return false;
+        try {
+            ((ExecutorService) factory.invoke(null)).shutdown();
+            return true;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return false;
+        }
+    }
+}
\ No newline at end of file
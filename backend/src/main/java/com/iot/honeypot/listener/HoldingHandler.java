@@ -0,0 +1,39 @@
+package com.iot.honeypot.listener;
+
+import com.iot.honeypot.admission.AdmissionController;
+import java.nio.ByteBuffer;
+
+/**
+ * Stands in for the real protocol handler on a tarpitted connection: says
+ * nothing, discards whatever arrives and closes after the configured hold.
+ */
+final class HoldingHandler implements ProtocolHandler {
+    private final AdmissionController admission;
+    private boolean released;
+    
+    HoldingHandler(AdmissionController admission) {
+        this.admission = admission;
+    }
+    
+    @Override
+    public void onOpen(Session session) {
+        session.schedule(admission.getTarpitHoldMillis(), session::abort);
+    }
+    
+    @Override
+    public void onData(Session session, ByteBuffer data) {
+        data.position(data.limit());
+    }
+    
+    @Override
+    public void onClose(Session session) {
+        release();
+    }
+    
+    /** Gives the holding slot back; also used if the connection never got registered. */
+    void release() {
+        if (released) return;
+        released = true;
+        admission.tarpitEnded();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,47 @@
+package com.iot.honeypot.listener;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reassembles newline-terminated lines from partial reads. Lines longer than
+ * the configured cap are truncated rather than buffered without bound.
+ */
+public final class LineBuffer {
+    private final byte[] buffer;
+    private int length;
+    
+    public LineBuffer(int maxLineLength) {
+        this.buffer = new byte[maxLineLength];
+    }
+    
+    /**
+     * Consumes bytes from {@code data} up to and including the next newline.
+     * Returns the completed line without its terminator, or {@code null} if
+     * {@code data} ran out first.
+     */
+    public String poll(ByteBuffer data) {
+        while (data.hasRemaining()) {
+            byte b = data.get();
+            if (b == '\n') {
+                int end = length;
+                if (end > 0 && buffer[end - 1] == '\r') end--;
+                String line = new String(buffer, 0, end, StandardCharsets.UTF_8);
+                length = 0;
+                return line;
+            }
+            if (length < buffer.length) {
+                buffer[length++] = b;
+            }
+        }
+        return null;
+    }
+    
+    /** Returns whatever partial line is buffered, or {@code null} if nothing is. */
+    public String drain() {
+        if (length == 0) return null;
+        String line = new String(buffer, 0, length, StandardCharsets.UTF_8);
+        length = 0;
+        return line;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,119 @@
+package com.iot.honeypot.listener;
+
+import com.iot.honeypot.admission.AdmissionController;
+import com.iot.honeypot.metrics.ListenerMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ServerSocketChannel;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Shared non-blocking listener runtime. A small fixed set of selector threads
+ * serves every honeypot port, so an open attacker connection costs a channel
+ * and a few objects instead of an OS thread. Every accepted connection passes
+ * the {@link AdmissionController} before any handler is created for it.
+ */
+@Component
+public class ListenerEngine {
+    private static final Logger log = LoggerFactory.getLogger(ListenerEngine.class);
+    private static final int ACCEPT_BACKLOG = 4096;
+    
+    private final AdmissionController admission;
+    private final int loopCount;
+    private final long idleTimeoutMillis;
+    private final AtomicInteger nextLoop = new AtomicInteger();
+    private volatile EventLoop[] loops;
+    
+    public ListenerEngine(AdmissionController admission,
+                          @Value("${honeypot.listener.event-loops:0}") int eventLoops,
+                          @Value("${honeypot.listener.idle-timeout-ms:120000}") long idleTimeoutMillis) {
+        this.admission = admission;
+        this.loopCount = eventLoops > 0 ? eventLoops
+                : Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+    
+    /**
+     * Starts listening on {@code port} (0 for an ephemeral port); each accepted
+     * connection gets a fresh handler from {@code handlers} and is counted in
+     * {@code metrics}.
+     */
+    public synchronized ServerBinding bind(int port, ListenerMetrics metrics, Supplier<ProtocolHandler> handlers) throws IOException {
+        ensureStarted();
+        ServerSocketChannel server = ServerSocketChannel.open();
+        try {
+            server.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+            server.bind(new InetSocketAddress(port), ACCEPT_BACKLOG);
+            server.configureBlocking(false);
+        } catch (IOException e) {
+            server.close();
+            throw e;
+        }
+        int boundPort = server.socket().getLocalPort();
+        ServerBinding binding = new ServerBinding(this, server, boundPort, metrics, handlers);
+        acceptLoop(boundPort).listen(binding);
+        return binding;
+    }
+    
+    public int getEventLoopCount() {
+        return loopCount;
+    }
+    
+    public int getActiveSessions() {
+        EventLoop[] current = loops;
+        if (current == null) return 0;
+        int total = 0;
+        for (EventLoop loop : current) {
+            total += loop.sessionCount();
+        }
+        return total;
+    }
+    
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (loops == null) return;
+        for (EventLoop loop : loops) {
+            loop.shutdown();
+        }
+        loops = null;
+    }
+    
+    synchronized void unbind(ServerBinding binding) {
+        if (loops != null) {
+            acceptLoop(binding.getPort()).unlisten(binding);
+        }
+    }
+    
+    AdmissionController admission() {
+        return admission;
+    }
+    
+    EventLoop nextLoop() {
+        EventLoop[] current = loops;
+        return current[Math.floorMod(nextLoop.getAndIncrement(), current.length)];
+    }
+    
+    private EventLoop acceptLoop(int port) {
+        return loops[Math.floorMod(port, loops.length)];
+    }
+    
+    private void ensureStarted() throws IOException {
+        if (loops != null) return;
+        EventLoop[] created = new EventLoop[loopCount];
+        for (int i = 0; i < loopCount; i++) {
+            created[i] = new EventLoop(this, "honeypot-io-" + i, idleTimeoutMillis);
+        }
+        for (EventLoop loop : created) {
+            loop.start();
+        }
+        loops = created;
+        log.info("⚙️ Listener engine started with {} event loops", loopCount);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.iot.honeypot.listener;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Per-connection protocol logic plugged into the {@link ListenerEngine}.
+ * All callbacks run on the session's event-loop thread and must never block.
+ */
+public interface ProtocolHandler {
+    
+    /** Called once the connection is registered with its event loop. */
+    void onOpen(Session session);
+    
+    /**
+     * Called with freshly read bytes. The buffer is shared by every session on
+     * the loop, so anything that must outlive the call has to be copied.
+     */
+    void onData(Session session, ByteBuffer data);
+    
+    /** Called exactly once when the connection is gone, for whatever reason. */
+    default void onClose(Session session) {
+    }
+}
\ No newline at end of file
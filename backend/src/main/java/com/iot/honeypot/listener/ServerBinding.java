@@ -0,0 +1,61 @@
+package com.iot.honeypot.listener;
+
+import com.iot.honeypot.metrics.ListenerMetrics;
+import java.io.IOException;
+import java.nio.channels.ServerSocketChannel;
+import java.util.function.Supplier;
+
+/**
+ * A listening port registered with the {@link ListenerEngine}. Closing the
+ * binding stops accepting; sessions that are already open run to completion.
+ */
+public final class ServerBinding {
+    private final ListenerEngine engine;
+    private final ServerSocketChannel serverChannel;
+    private final int port;
+    private final ListenerMetrics metrics;
+    private final Supplier<ProtocolHandler> handlers;
+    private volatile boolean closed;
+    
+    ServerBinding(ListenerEngine engine, ServerSocketChannel serverChannel, int port,
+                  ListenerMetrics metrics, Supplier<ProtocolHandler> handlers) {
+        this.engine = engine;
+        this.serverChannel = serverChannel;
+        this.port = port;
+        this.metrics = metrics;
+        this.handlers = handlers;
+    }
+    
+    public int getPort() { return port; }
+    
+    public ListenerMetrics getMetrics() { return metrics; }
+    
+    public long getAcceptedCount() { return metrics.getAcceptedCount(); }
+    
+    public int getActiveSessions() { return metrics.getActiveSessions(); }
+    
+    public boolean isClosed() { return closed; }
+    
+    public void close() {
+        if (closed) return;
+        closed = true;
+        engine.unbind(this);
+        try {
+            serverChannel.close();
+        } catch (IOException e) {
+            // Ignore
+        }
+    }
+    
+    ServerSocketChannel channel() { return serverChannel; }
+    
+    ProtocolHandler newHandler() { return handlers.get(); }
+    
+    void sessionOpened() {
+        metrics.sessionOpened();
+    }
+    
+    void sessionClosed() {
+        metrics.sessionClosed();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,220 @@
+package com.iot.honeypot.listener;
+
+import com.iot.honeypot.metrics.ListenerMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+
+/**
+ * One accepted connection owned by a single event loop. Apart from
+ * {@link #execute(Runnable)}, every method must be called from that loop,
+ * which is always the case inside {@link ProtocolHandler} callbacks and
+ * scheduled tasks.
+ */
+public final class Session {
+    private static final Logger log = LoggerFactory.getLogger(Session.class);
+    
+    private final EventLoop loop;
+    private final SocketChannel channel;
+    private final ServerBinding binding;
+    private final ProtocolHandler handler;
+    private final ListenerMetrics metrics;
+    private final String remoteIp;
+    private final String sourceTag;
+    
+    private SelectionKey key;
+    private ArrayDeque<ByteBuffer> pending;
+    private boolean closeAfterFlush;
+    private boolean closed;
+    private Object attachment;
+    long lastActivity;
+    
+    Session(EventLoop loop, SocketChannel channel, ServerBinding binding, ProtocolHandler handler, String sourceTag) {
+        this.loop = loop;
+        this.channel = channel;
+        this.binding = binding;
+        this.handler = handler;
+        this.metrics = binding.getMetrics();
+        this.remoteIp = remoteIpOf(channel);
+        this.sourceTag = sourceTag;
+        this.lastActivity = System.currentTimeMillis();
+    }
+    
+    public String getRemoteIp() { return remoteIp; }
+    
+    /** The classifier list admission control found the remote address on, or {@code null}. */
+    public String getSourceTag() { return sourceTag; }
+    
+    public int getLocalPort() { return binding.getPort(); }
+    
+    public ServerBinding getBinding() { return binding; }
+    
+    public Object getAttachment() { return attachment; }
+    public void setAttachment(Object attachment) { this.attachment = attachment; }
+    
+    public boolean isOpen() {
+        return !closed && !closeAfterFlush;
+    }
+    
+    /** Queues the remaining bytes of {@code data}; the buffer must not be reused by the caller. */
+    public void write(ByteBuffer data) {
+        if (closed || closeAfterFlush || !data.hasRemaining()) return;
+        if (pending == null || pending.isEmpty()) {
+            try {
+                metrics.bytesOut(channel.write(data));
+            } catch (IOException e) {
+                abort();
+                return;
+            }
+            if (!data.hasRemaining()) return;
+            if (pending == null) pending = new ArrayDeque<>(4);
+        }
+        pending.add(data);
+        key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+    }
+    
+    /** Writes {@code data} with one gathering write, queueing whatever the socket did not take. */
+    public void write(ByteBuffer[] data) {
+        if (closed || closeAfterFlush) return;
+        if (pending == null || pending.isEmpty()) {
+            try {
+                metrics.bytesOut(channel.write(data));
+            } catch (IOException e) {
+                abort();
+                return;
+            }
+        }
+        for (ByteBuffer buffer : data) {
+            if (buffer.hasRemaining()) write(buffer);
+        }
+    }
+    
+    public void write(byte[] data) {
+        write(ByteBuffer.wrap(data));
+    }
+    
+    public void write(String text) {
+        write(text.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /** Closes the connection once everything queued so far has been written. */
+    public void close() {
+        if (closed || closeAfterFlush) return;
+        closeAfterFlush = true;
+        if (pending == null || pending.isEmpty()) {
+            abort();
+        }
+    }
+    
+    /** Closes the connection immediately, dropping unwritten data. */
+    public void abort() {
+        if (closed) return;
+        closed = true;
+        if (key != null) key.cancel();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Ignore
+        }
+        loop.sessionClosed(this);
+        long started = System.nanoTime();
+        try {
+            handler.onClose(this);
+        } catch (RuntimeException e) {
+            log.warn("❌ Protocol handler error on close: {}", e.getMessage());
+        }
+        metrics.handlerNanos(System.nanoTime() - started);
+    }
+    
+    /** Runs {@code task} on this session's loop after {@code delayMillis}, unless the session is closed by then. */
+    public void schedule(long delayMillis, Runnable task) {
+        loop.schedule(delayMillis, () -> {
+            if (!closed) task.run();
+        });
+    }
+    
+    /** Runs {@code task} on this session's loop. Safe to call from any thread. */
+    public void execute(Runnable task) {
+        loop.execute(() -> {
+            if (!closed) task.run();
+        });
+    }
+    
+    /** Like {@link #execute(Runnable)}, but runs {@code task} even if the session has closed; check {@link #isOpen()}. */
+    public void executeAlways(Runnable task) {
+        loop.execute(task);
+    }
+    
+    void register(SelectionKey key) {
+        this.key = key;
+        long started = System.nanoTime();
+        try {
+            handler.onOpen(this);
+        } catch (RuntimeException e) {
+            log.warn("❌ Protocol handler error on open: {}", e.getMessage());
+            abort();
+        }
+        metrics.handlerNanos(System.nanoTime() - started);
+    }
+    
+    void onReadable(ByteBuffer readBuffer) {
+        int n;
+        try {
+            readBuffer.clear();
+            n = channel.read(readBuffer);
+        } catch (IOException e) {
+            abort();
+            return;
+        }
+        if (n < 0) {
+            abort();
+            return;
+        }
+        metrics.bytesIn(n);
+        if (n == 0 || closeAfterFlush) return;
+        lastActivity = System.currentTimeMillis();
+        readBuffer.flip();
+        long started = System.nanoTime();
+        try {
+            handler.onData(this, readBuffer);
+        } catch (RuntimeException e) {
+            log.warn("❌ Protocol handler error: {}", e.getMessage());
+            abort();
+        }
+        metrics.handlerNanos(System.nanoTime() - started);
+    }
+    
+    void onWritable() {
+        try {
+            while (pending != null && !pending.isEmpty()) {
+                ByteBuffer head = pending.peek();
+                metrics.bytesOut(channel.write(head));
+                if (head.hasRemaining()) return;
+                pending.poll();
+            }
+        } catch (IOException e) {
+            abort();
+            return;
+        }
+        if (closeAfterFlush) {
+            abort();
+        } else {
+            key.interestOps(SelectionKey.OP_READ);
+        }
+    }
+    
+    private static String remoteIpOf(SocketChannel channel) {
+        try {
+            InetSocketAddress remote = (InetSocketAddress) channel.getRemoteAddress();
+            return remote.getAddress().getHostAddress();
+        } catch (IOException | RuntimeException e) {
+            return "unknown";
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.iot.honeypot.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Asynchronous console for the event log: callers only enqueue, one worker
+ * writes. Configured never to block, so when the queue is full new events
+ * are dropped and counted instead of stalling a honeypot thread.
+ */
+public class EventLogAppender extends AsyncAppender {
+    private final LongAdder dropped = new LongAdder();
+    
+    /** Events lost to a full queue since startup (approximate under contention). */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+    
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (isNeverBlock() && getRemainingCapacity() == 0) {
+            dropped.increment();
+        }
+        super.append(event);
+    }
+}
\ No newline at end of file
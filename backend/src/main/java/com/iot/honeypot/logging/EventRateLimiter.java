@@ -0,0 +1,96 @@
+package com.iot.honeypot.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.LoggerFactory;
+import org.slf4j.Marker;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps how fast each honeypot logger may write, so an attack flood cannot
+ * make the event log the bottleneck. Every logger under {@code prefix} gets
+ * {@code ratePerSecond} events with bursts of up to {@code burst}; the rest
+ * are dropped before a log event is even built, and the next event that gets
+ * through is preceded by a line saying how many were lost. Warnings and
+ * errors each draw on a budget of their own, so a flood of attack events
+ * never hides a persistence or reload failure from the same logger. Lock-free:
+ * each budget is a single timestamp advanced with CAS.
+ */
+public class EventRateLimiter extends TurboFilter {
+    private static final org.slf4j.Logger summary = LoggerFactory.getLogger(EventRateLimiter.class);
+    
+    private final ConcurrentHashMap<String, Budget> budgets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Budget> warningBudgets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Budget> errorBudgets = new ConcurrentHashMap<>();
+    private final LongAdder suppressed = new LongAdder();
+    private String prefix = "com.iot.honeypot";
+    private double ratePerSecond = 20;
+    private int burst = 100;
+    private long intervalNanos;
+    private long toleranceNanos;
+    
+    public void setPrefix(String prefix) { this.prefix = prefix; }
+    
+    public void setRatePerSecond(double ratePerSecond) { this.ratePerSecond = ratePerSecond; }
+    
+    public void setBurst(int burst) { this.burst = burst; }
+    
+    /** Events dropped since startup, across all loggers. */
+    public long getSuppressedCount() {
+        return suppressed.sum();
+    }
+    
+    @Override
+    public void start() {
+        // A rate of 0 or less switches limiting off
+        intervalNanos = ratePerSecond > 0 ? (long) (1_000_000_000L / ratePerSecond) : 0;
+        toleranceNanos = intervalNanos * Math.max(0, burst - 1);
+        super.start();
+    }
+    
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // format is null for isXxxEnabled() checks, which must not spend budget
+        if (!isStarted() || intervalNanos == 0 || format == null) return FilterReply.NEUTRAL;
+        String name = logger.getName();
+        if (!name.startsWith(prefix) || name.equals(summary.getName())) return FilterReply.NEUTRAL;
+        if (!level.isGreaterOrEqual(logger.getEffectiveLevel())) return FilterReply.NEUTRAL;
+        
+        ConcurrentHashMap<String, Budget> byLogger = budgets;
+        if (level.isGreaterOrEqual(Level.ERROR)) {
+            byLogger = errorBudgets;
+        } else if (level.isGreaterOrEqual(Level.WARN)) {
+            byLogger = warningBudgets;
+        }
+        Budget budget = byLogger.computeIfAbsent(name, n -> new Budget());
+        if (!budget.tryAcquire(System.nanoTime())) {
+            budget.suppressed.increment();
+            suppressed.increment();
+            return FilterReply.DENY;
+        }
+        long missed = budget.suppressed.sumThenReset();
+        if (missed > 0) {
+            summary.warn("⏳ {} events from {} were dropped by the event log rate limit", missed, name);
+        }
+        return FilterReply.NEUTRAL;
+    }
+    
+    /** Generic cell rate algorithm: admits an event unless the next free slot is more than a burst ahead. */
+    private final class Budget {
+        private final AtomicLong nextSlot = new AtomicLong(Long.MIN_VALUE);
+        final LongAdder suppressed = new LongAdder();
+        
+        boolean tryAcquire(long now) {
+            while (true) {
+                long slot = nextSlot.get();
+                long start = Math.max(slot, now);
+                if (start - now > toleranceNanos) return false;
+                if (nextSlot.compareAndSet(slot, start + intervalNanos)) return true;
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,83 @@
+package com.iot.honeypot.metrics;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.Appender;
+import com.iot.honeypot.logging.EventLogAppender;
+import com.iot.honeypot.logging.EventRateLimiter;
+import com.iot.honeypot.persistence.AttackPersistence;
+import com.iot.honeypot.service.AttackService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registers the honeypot's meters, exposed at {@code /actuator/metrics} and
+ * {@code /actuator/prometheus}. Listener meters come from
+ * {@link #listener(String)}; everything else is read from the owning
+ * component at scrape time, so the hot paths pay nothing extra for it.
+ */
+@Component
+public class HoneypotMetrics {
+    private final MeterRegistry registry;
+    private final Map<String, ListenerMetrics> listeners = new ConcurrentHashMap<>();
+    
+    public HoneypotMetrics(MeterRegistry registry, AttackService attackService, AttackPersistence persistence) {
+        this.registry = registry;
+        
+        FunctionCounter.builder("honeypot.attacks.logged", attackService, AttackService::getLoggedCount)
+                .description("Attacks reported by the honeypots")
+                .register(registry);
+        Gauge.builder("honeypot.store.size", attackService, AttackService::getStoreSize)
+                .description("Attacks held in the in-memory store")
+                .register(registry);
+        Gauge.builder("honeypot.store.heap", attackService, AttackService::getStoreHeapBytes)
+                .description("Estimated heap held by the in-memory store")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("honeypot.ingest.queue.depth", persistence, AttackPersistence::getQueueDepth)
+                .description("Attacks waiting to be written behind to storage")
+                .tag("queue", "persistence")
+                .register(registry);
+        FunctionCounter.builder("honeypot.ingest.dropped", persistence, AttackPersistence::getDroppedCount)
+                .description("Attacks not persisted because the write-behind queue was full")
+                .tag("queue", "persistence")
+                .register(registry);
+        registerEventLog();
+    }
+    
+    /** Meters for the listener called {@code name}, created on first use and shared after that. */
+    public ListenerMetrics listener(String name) {
+        return listeners.computeIfAbsent(name, n -> new ListenerMetrics(n, registry));
+    }
+    
+    /** The async queue and rate limit from logback-spring.xml, when logback is the backend in use. */
+    private void registerEventLog() {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext)) return;
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        for (TurboFilter filter : context.getTurboFilterList()) {
+            if (filter instanceof EventRateLimiter) {
+                FunctionCounter.builder("honeypot.eventlog.suppressed", (EventRateLimiter) filter,
+                                EventRateLimiter::getSuppressedCount)
+                        .description("Event log lines dropped by the per-logger rate limit")
+                        .register(registry);
+            }
+        }
+        Appender<?> appender = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME).getAppender("EVENTS");
+        if (appender instanceof EventLogAppender) {
+            EventLogAppender events = (EventLogAppender) appender;
+            Gauge.builder("honeypot.ingest.queue.depth", events, EventLogAppender::getNumberOfElementsInQueue)
+                    .description("Event log lines waiting to be written")
+                    .tag("queue", "eventlog")
+                    .register(registry);
+            FunctionCounter.builder("honeypot.ingest.dropped", events, EventLogAppender::getDroppedCount)
+                    .description("Event log lines lost to a full queue")
+                    .tag("queue", "eventlog")
+                    .register(registry);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,141 @@
+package com.iot.honeypot.metrics;
+
+import com.iot.honeypot.admission.AdmissionDecision;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for one honeypot listener, shared by the non-blocking and the
+ * thread-per-connection paths. Hot-path updates only touch striped adders;
+ * the registry reads them when it is scraped.
+ */
+public final class ListenerMetrics {
+    private final String name;
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder tarpitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+    private final Timer handlerLatency;
+    
+    public ListenerMetrics(String name, MeterRegistry registry) {
+        this.name = name;
+        connections(registry, "accepted", accepted);
+        connections(registry, "tarpitted", tarpitted);
+        connections(registry, "rejected", rejected);
+        Gauge.builder("honeypot.listener.sessions.active", active, AtomicInteger::get)
+                .description("Open sessions being served")
+                .tag("listener", name)
+                .register(registry);
+        bytes(registry, "in", bytesIn);
+        bytes(registry, "out", bytesOut);
+        this.handlerLatency = Timer.builder("honeypot.listener.handler.latency")
+                .description("Time spent in protocol handlers; in the blocking modes this includes waiting on the client")
+                .tag("listener", name)
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(1_000))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(registry);
+    }
+    
+    public String getName() { return name; }
+    
+    public long getAcceptedCount() { return accepted.sum(); }
+    
+    public int getActiveSessions() { return active.get(); }
+    
+    /** Counts the admission outcome of one incoming connection. */
+    public void admitted(AdmissionDecision decision) {
+        if (decision == AdmissionDecision.ACCEPT) {
+            accepted.increment();
+        } else if (decision == AdmissionDecision.TARPIT) {
+            tarpitted.increment();
+        } else {
+            rejected.increment();
+        }
+    }
+    
+    public void sessionOpened() {
+        active.incrementAndGet();
+    }
+    
+    public void sessionClosed() {
+        active.decrementAndGet();
+    }
+    
+    public void bytesIn(long count) {
+        if (count > 0) bytesIn.add(count);
+    }
+    
+    public void bytesOut(long count) {
+        if (count > 0) bytesOut.add(count);
+    }
+    
+    public void handlerNanos(long nanos) {
+        handlerLatency.record(nanos, TimeUnit.NANOSECONDS);
+    }
+    
+    /** {@code in}, counting every byte read through it as received on this listener. */
+    public InputStream countingIn(InputStream in) {
+        return new FilterInputStream(in) {
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b >= 0) bytesIn.increment();
+                return b;
+            }
+            
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                int n = super.read(buffer, offset, length);
+                bytesIn(n);
+                return n;
+            }
+        };
+    }
+    
+    /** {@code out}, counting every byte written through it as sent on this listener. */
+    public OutputStream countingOut(OutputStream out) {
+        return new FilterOutputStream(out) {
+            @Override
+            public void write(int b) throws IOException {
+                out.write(b);
+                bytesOut.increment();
+            }
+            
+            @Override
+            public void write(byte[] buffer, int offset, int length) throws IOException {
+                out.write(buffer, offset, length);
+                bytesOut(length);
+            }
+        };
+    }
+    
+    private void connections(MeterRegistry registry, String outcome, LongAdder counter) {
+        FunctionCounter.builder("honeypot.listener.connections", counter, LongAdder::sum)
+                .description("Incoming connections by admission outcome")
+                .tags("listener", name, "outcome", outcome)
+                .register(registry);
+    }
+    
+    private void bytes(MeterRegistry registry, String direction, LongAdder counter) {
+        FunctionCounter.builder("honeypot.listener.bytes", counter, LongAdder::sum)
+                .description("Payload bytes exchanged with attackers")
+                .baseUnit("bytes")
+                .tags("listener", name, "direction", direction)
+                .register(registry);
+    }
+}
\ No newline at end of file
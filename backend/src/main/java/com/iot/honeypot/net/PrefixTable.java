@@ -0,0 +1,293 @@
+package com.iot.honeypot.net;
+
+import com.iot.honeypot.store.PackedAddress;
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/**
+ * An immutable longest-prefix-match table from IPv4 and IPv6 networks to
+ * int values, shared by source enrichment and accept-time classification.
+ * Readers need no lock; a new table is built on the side and swapped in.
+ *
+ * <p>IPv4 networks are held as IPv4-mapped IPv6 ({@code ::ffff:0:0/96}), so
+ * one path-compressed binary trie covers both families. The trie is built
+ * from linked nodes and then flattened into one {@code long[]}, four longs
+ * per node (key high, key low, children, value and length), so each level
+ * of a lookup touches a single cache line and allocates nothing. IPv4
+ * lookups, nearly all of the traffic, start from a table indexed by the top
+ * 16 bits of the address that holds the node to resume at and the best
+ * match above it, so only the few levels below the /16 are walked.
+ */
+public final class PrefixTable {
+    /** What a lookup returns when no network holds the address. */
+    public static final int NONE = -1;
+    private static final long MAPPED_IPV4 = 0xffff_0000_0000L;
+    private static final int STRIDE = 4;
+    private static final int IPV4_TABLE_BITS = 16;
+    // Prefix length of a table entry's block, counted in the mapped address
+    private static final int IPV4_TABLE_LENGTH = 96 + IPV4_TABLE_BITS;
+    
+    private final long[] nodes;
+    // Per /16: offset of the node to resume at in the high int, best match so far in the low int
+    private final long[] ipv4Table;
+    private final int prefixes;
+    
+    private PrefixTable(Node root, int prefixes) {
+        this.nodes = new long[count(root) * STRIDE];
+        this.prefixes = prefixes;
+        if (root != null) flatten(root, 0);
+        this.ipv4Table = root != null ? buildIpv4Table() : new long[0];
+    }
+    
+    public static PrefixTable empty() {
+        return new PrefixTable(null, 0);
+    }
+    
+    /** Value of the most specific network holding {@code address}, or {@link #NONE}, also when it is not an IP literal. */
+    public int lookup(String address) {
+        if (address == null || nodes.length == 0) return NONE;
+        long v4 = PackedAddress.parseIpv4(address);
+        if (v4 >= 0) return lookup(0, MAPPED_IPV4 | v4);
+        long[] halves = new long[2];
+        if (PackedAddress.parseIpv6(address, halves) || parseAddress(address, halves) != 0) {
+            return lookup(halves[0], halves[1]);
+        }
+        return NONE;
+    }
+    
+    public int lookup(InetAddress address) {
+        if (address == null || nodes.length == 0) return NONE;
+        byte[] bytes = address.getAddress();
+        if (bytes.length == 4) return lookup(0, MAPPED_IPV4 | toLong(bytes, 0, 4));
+        return lookup(toLong(bytes, 0, 8), toLong(bytes, 8, 8));
+    }
+    
+    /** Longest-prefix match of a 128-bit address; IPv4 is passed mapped, as {@code ::ffff:a.b.c.d}. */
+    public int lookup(long high, long low) {
+        if (nodes.length == 0) return NONE;
+        int node = 0;
+        int best = NONE;
+        if (high == 0 && (low & ~0xffff_ffffL) == MAPPED_IPV4) {
+            long entry = ipv4Table[(int) (low >>> (32 - IPV4_TABLE_BITS)) & ((1 << IPV4_TABLE_BITS) - 1)];
+            node = (int) (entry >> 32);
+            best = (int) entry;
+        }
+        while (node != NONE) {
+            long entry = nodes[node + 3];
+            int length = (int) entry & 0xff;
+            if (((high ^ nodes[node]) & maskOf(length, 0)) != 0 || ((low ^ nodes[node + 1]) & maskOf(length, 64)) != 0) break;
+            int value = (int) (entry >> 8);
+            if (value != NONE) best = value;
+            if (length == 128) break;
+            long children = nodes[node + 2];
+            node = bit(high, low, length) == 0 ? (int) (children >> 32) : (int) children;
+        }
+        return best;
+    }
+    
+    /** Networks added, counting a repeated one each time. */
+    public int size() {
+        return prefixes;
+    }
+    
+    public int nodeCount() {
+        return nodes.length / STRIDE;
+    }
+    
+    /**
+     * Fills {@code halves} from an IPv4 or IPv6 literal and returns its family
+     * (4 or 6), or 0 if {@code text} is not one. Text without a colon is only
+     * tried as dotted-quad, so a stray word is never resolved as a host name.
+     */
+    public static int parseAddress(String text, long[] halves) {
+        long v4 = PackedAddress.parseIpv4(text);
+        if (v4 >= 0) {
+            halves[0] = 0;
+            halves[1] = MAPPED_IPV4 | v4;
+            return 4;
+        }
+        if (text.indexOf(':') < 0) return 0;
+        try {
+            InetAddress address = InetAddress.getByName(text);
+            byte[] bytes = address.getAddress();
+            if (address instanceof Inet4Address) {
+                halves[0] = 0;
+                halves[1] = MAPPED_IPV4 | toLong(bytes, 0, 4);
+                return 4;
+            }
+            halves[0] = toLong(bytes, 0, 8);
+            halves[1] = toLong(bytes, 8, 8);
+            return 6;
+        } catch (UnknownHostException e) {
+            return 0;
+        }
+    }
+    
+    /** True if {@code text} starts with an IP literal, so it can be told apart from a header or a word. */
+    public static boolean isNetwork(String text) {
+        int slash = text.indexOf('/');
+        return parseAddress(slash < 0 ? text : text.substring(0, slash), new long[2]) != 0;
+    }
+    
+    private static long toLong(byte[] bytes, int offset, int count) {
+        long value = 0;
+        for (int i = 0; i < count; i++) {
+            value = value << 8 | (bytes[offset + i] & 0xff);
+        }
+        return value;
+    }
+    
+    /**
+     * Walks the trie once per /16 of IPv4 space, stopping at the first node
+     * longer than the block, which is where a lookup in that block resumes.
+     */
+    private long[] buildIpv4Table() {
+        long[] table = new long[1 << IPV4_TABLE_BITS];
+        for (int block = 0; block < table.length; block++) {
+            long low = MAPPED_IPV4 | (long) block << (32 - IPV4_TABLE_BITS);
+            int node = 0;
+            int best = NONE;
+            while (node != NONE) {
+                long entry = nodes[node + 3];
+                int length = (int) entry & 0xff;
+                if (length > IPV4_TABLE_LENGTH) break;
+                if ((nodes[node] & maskOf(length, 0)) != 0 || ((low ^ nodes[node + 1]) & maskOf(length, 64)) != 0) {
+                    node = NONE;
+                    break;
+                }
+                int value = (int) (entry >> 8);
+                if (value != NONE) best = value;
+                if (length == IPV4_TABLE_LENGTH) {
+                    // Anything longer sits below, chosen by the bits after the block
+                    break;
+                }
+                long children = nodes[node + 2];
+                node = bit(0, low, length) == 0 ? (int) (children >> 32) : (int) children;
+            }
+            table[block] = (long) node << 32 | (best & 0xffff_ffffL);
+        }
+        return table;
+    }
+    
+    private static int commonPrefix(long high1, long low1, long high2, long low2) {
+        long high = high1 ^ high2;
+        if (high != 0) return Long.numberOfLeadingZeros(high);
+        return 64 + Long.numberOfLeadingZeros(low1 ^ low2);
+    }
+    
+    private static int bit(long high, long low, int position) {
+        return position < 64 ? (int) (high >>> (63 - position)) & 1 : (int) (low >>> (127 - position)) & 1;
+    }
+    
+    /** The bits of the half starting at bit {@code from} that a /{@code length} prefix covers. */
+    private static long maskOf(int length, int from) {
+        int bits = length - from;
+        if (bits <= 0) return 0;
+        return bits >= 64 ? -1L : -1L << (64 - bits);
+    }
+    
+    private static int count(Node node) {
+        return node == null ? 0 : 1 + count(node.left) + count(node.right);
+    }
+    
+    /** Pre-order, so the root is at 0; returns the next free offset. Children are stored as offsets, not node numbers. */
+    private int flatten(Node node, int offset) {
+        nodes[offset] = node.high;
+        nodes[offset + 1] = node.low;
+        nodes[offset + 3] = (long) node.value << 8 | node.length;
+        int next = offset + STRIDE;
+        int left = NONE;
+        int right = NONE;
+        if (node.left != null) {
+            left = next;
+            next = flatten(node.left, next);
+        }
+        if (node.right != null) {
+            right = next;
+            next = flatten(node.right, next);
+        }
+        nodes[offset + 2] = (long) left << 32 | (right & 0xffff_ffffL);
+        return next;
+    }
+    
+    /** Collects networks for one table; not thread-safe. When a network is added twice, the later value wins. */
+    public static final class Builder {
+        private final long[] halves = new long[2];
+        private Node root;
+        private int prefixes;
+        
+        /** Adds {@code network} in CIDR notation, or a single address; throws IllegalArgumentException if it is neither. */
+        public Builder add(String network, int value) {
+            int slash = network.indexOf('/');
+            String address = slash < 0 ? network : network.substring(0, slash);
+            int family = parseAddress(address, halves);
+            if (family == 0) throw new IllegalArgumentException("not a network: " + network);
+            int bits = family == 4 ? 32 : 128;
+            int length;
+            try {
+                length = slash < 0 ? bits : Integer.parseInt(network.substring(slash + 1));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("bad prefix length: " + network);
+            }
+            if (length < 0 || length > bits) throw new IllegalArgumentException("bad prefix length: " + network);
+            return add(halves[0], halves[1], family == 4 ? 96 + length : length, value);
+        }
+        
+        /** Adds a 128-bit network; IPv4 is passed mapped, with 96 added to its length. */
+        public Builder add(long high, long low, int length, int value) {
+            if (value < 0) throw new IllegalArgumentException("negative value " + value);
+            root = insert(root, high & maskOf(length, 0), low & maskOf(length, 64), length, value);
+            prefixes++;
+            return this;
+        }
+        
+        public PrefixTable build() {
+            return new PrefixTable(root, prefixes);
+        }
+        
+        private static Node insert(Node node, long high, long low, int length, int value) {
+            if (node == null) return new Node(high, low, length, value);
+            int common = Math.min(commonPrefix(node.high, node.low, high, low), Math.min(node.length, length));
+            if (common == node.length && common == length) {
+                node.value = value;
+                return node;
+            }
+            if (common == node.length) {
+                if (bit(high, low, common) == 0) {
+                    node.left = insert(node.left, high, low, length, value);
+                } else {
+                    node.right = insert(node.right, high, low, length, value);
+                }
+                return node;
+            }
+            Node split = new Node(high & maskOf(common, 0), low & maskOf(common, 64), common, NONE);
+            Node leaf = common == length ? null : new Node(high, low, length, value);
+            if (leaf == null) split.value = value;
+            if (bit(node.high, node.low, common) == 0) {
+                split.left = node;
+                split.right = leaf;
+            } else {
+                split.right = node;
+                split.left = leaf;
+            }
+            return split;
+        }
+    }
+    
+    private static final class Node {
+        final long high;
+        final long low;
+        final int length;
+        int value;
+        Node left;
+        Node right;
+        
+        Node(long high, long low, int length, int value) {
+            this.high = high;
+            this.low = low;
+            this.length = length;
+            this.value = value;
+        }
+    }
+}
\ No newline at end of file
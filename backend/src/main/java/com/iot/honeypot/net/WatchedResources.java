@@ -0,0 +1,140 @@
+package com.iot.honeypot.net;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Holds what was last built from a set of files, such as a range database
+ * or network lists, for lock-free readers. A reload builds the next value on
+ * the side and swaps it in, so readers never wait for one and the previous
+ * value stays in use if it fails. A background thread can reload whenever a
+ * file's modification time changes.
+ */
+public final class WatchedResources<T> {
+    private static final Logger log = LoggerFactory.getLogger(WatchedResources.class);
+    private final String description;
+    private final ResourceLoader resources;
+    private final List<String> locations;
+    private final Loader<T> loader;
+    private volatile Loaded<T> current;
+    private Thread watcher;
+    // Modification times the watcher last acted on, so a broken file is reported once rather than every check
+    private long[] seenModified;
+    private volatile boolean running = true;
+    
+    /**
+     * {@code description} names the files in log lines; a null entry in
+     * {@code locations} is a file that is never considered changed.
+     */
+    public WatchedResources(String description, ResourceLoader resources, List<String> locations, T empty, Loader<T> loader) {
+        this.description = description;
+        this.resources = resources;
+        this.locations = locations;
+        this.loader = loader;
+        this.current = new Loaded<>(empty, new long[locations.size()], null, 0);
+    }
+    
+    public T get() {
+        return current.value;
+    }
+    
+    public LocalDateTime loadedAt() {
+        return current.loadedAt;
+    }
+    
+    public long loadMillis() {
+        return current.loadMillis;
+    }
+    
+    /** Builds the next value and swaps it in; the previous one stays in use if this throws. */
+    public synchronized T reload() throws IOException {
+        long[] modified = modifiedTimes();
+        long started = System.nanoTime();
+        T value = loader.load();
+        current = new Loaded<>(value, modified, LocalDateTime.now(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return value;
+    }
+    
+    /**
+     * Starts a daemon thread named {@code threadName} that calls
+     * {@code reload} every {@code checkMs} (at least 100) in which a file
+     * changed; 0 never starts one.
+     */
+    public void watch(String threadName, long checkMs, Callable<?> reload) {
+        if (checkMs <= 0) return;
+        seenModified = modifiedTimes();
+        watcher = new Thread(() -> watch(TimeUnit.MILLISECONDS.toNanos(Math.max(100, checkMs)), reload), threadName);
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+    
+    public void shutdown() {
+        running = false;
+        Thread current = watcher;
+        if (current != null) {
+            LockSupport.unpark(current);
+        }
+    }
+    
+    private void watch(long interval, Callable<?> reload) {
+        while (running) {
+            LockSupport.parkNanos(interval);
+            if (!running) return;
+            long[] modified = modifiedTimes();
+            if (Arrays.equals(modified, seenModified) || Arrays.equals(modified, current.modified)) continue;
+            seenModified = modified;
+            try {
+                reload.call();
+            } catch (Exception e) {
+                log.error("❌ {} reload failed, keeping the previous one: {}", description, e.getMessage());
+            }
+        }
+    }
+    
+    private long[] modifiedTimes() {
+        long[] modified = new long[locations.size()];
+        for (int i = 0; i < modified.length; i++) {
+            String location = locations.get(i);
+            modified[i] = location == null ? 0 : lastModified(resources.getResource(location));
+        }
+        return modified;
+    }
+    
+    /** 0 when the resource cannot say, such as a classpath entry inside a jar on some loaders. */
+    private static long lastModified(Resource resource) {
+        try {
+            return resource.lastModified();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+    
+    /** Builds the value from the files, throwing to keep the previous one. */
+    @FunctionalInterface
+    public interface Loader<T> {
+        T load() throws IOException;
+    }
+    
+    private static final class Loaded<T> {
+        final T value;
+        final long[] modified;
+        final LocalDateTime loadedAt;
+        final long loadMillis;
+        
+        Loaded(T value, long[] modified, LocalDateTime loadedAt, long loadMillis) {
+            this.value = value;
+            this.modified = modified;
+            this.loadedAt = loadedAt;
+            this.loadMillis = loadMillis;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.iot.honeypot.persistence;
+
+import com.iot.honeypot.entity.AttackLog;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Durable copy of the attack stream behind {@code AttackService}. Selected
+ * with {@code honeypot.persistence.mode}.
+ */
+public interface AttackPersistence {
+    
+    /** Hands {@code attack} over for storage. Called on honeypot handler threads, so it must never block. */
+    void append(AttackLog attack);
+    
+    /** Removes every persisted attack, ordered after anything appended before the call. */
+    void clear();
+    
+    /**
+     * Feeds the newest {@code maxRecords} persisted attacks to {@code sink},
+     * oldest first, with their original ids. Returns how many were replayed.
+     */
+    long replay(int maxRecords, Consumer<AttackLog> sink);
+    
+    /**
+     * Streams persisted attacks with {@code from <= timestamp < to}, oldest
+     * first, until {@code visitor} returns false. Records are decoded one at a
+     * time, never collected up front.
+     */
+    void forEachInRange(LocalDateTime from, LocalDateTime to, Predicate<AttackLog> visitor);
+    
+    Map<String, Object> getStats();
+    
+    /** Attacks handed over but not yet stored. */
+    default int getQueueDepth() {
+        return 0;
+    }
+    
+    /** Attacks never stored because the queue was full. */
+    default long getDroppedCount() {
+        return 0;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,118 @@
+package com.iot.honeypot.persistence;
+
+import com.iot.honeypot.entity.AttackLog;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Write-behind persistence into the {@code attack_logs} table: JDBC batch
+ * inserts, one transaction per batch.
+ */
+@Component
+@ConditionalOnProperty(name = "honeypot.persistence.mode", havingValue = "jdbc", matchIfMissing = true)
+public class JdbcWriteBehindPersistence extends WriteBehindPersistence {
+    private static final String COLUMNS =
+            "id, source_ip, service_type, payload, username_attempt, password_attempt, login_attempts, timestamp, device_emulated";
+    private static final String INSERT_SQL =
+            "INSERT INTO attack_logs (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_NEWEST_SQL =
+            "SELECT " + COLUMNS + " FROM attack_logs ORDER BY id DESC LIMIT ?";
+    private static final String SELECT_RANGE_SQL =
+            "SELECT " + COLUMNS + " FROM attack_logs WHERE timestamp >= ? AND timestamp < ? ORDER BY id";
+    private static final int RANGE_FETCH_SIZE = 500;
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    
+    // EntityManagerFactory is only injected so Hibernate has created the schema first
+    public JdbcWriteBehindPersistence(JdbcTemplate jdbcTemplate,
+                                      PlatformTransactionManager transactionManager,
+                                      EntityManagerFactory entityManagerFactory,
+                                      @Value("${honeypot.persistence.queue-capacity:65536}") int queueCapacity,
+                                      @Value("${honeypot.persistence.batch-size:500}") int batchSize,
+                                      @Value("${honeypot.persistence.flush-interval-ms:200}") long flushIntervalMillis) {
+        super("jdbc", queueCapacity, batchSize, flushIntervalMillis);
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        startWriter();
+    }
+    
+    @Override
+    public long replay(int maxRecords, Consumer<AttackLog> sink) {
+        List<AttackLog> newest = jdbcTemplate.query(SELECT_NEWEST_SQL, ROW_MAPPER, maxRecords);
+        for (int i = newest.size() - 1; i >= 0; i--) {
+            sink.accept(newest.get(i));
+        }
+        return newest.size();
+    }
+    
+    @Override
+    public void forEachInRange(LocalDateTime from, LocalDateTime to, Predicate<AttackLog> visitor) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(SELECT_RANGE_SQL);
+            ps.setFetchSize(RANGE_FETCH_SIZE);
+            ps.setTimestamp(1, Timestamp.valueOf(from));
+            ps.setTimestamp(2, Timestamp.valueOf(to));
+            return ps;
+        }, rs -> {
+            int row = 0;
+            while (rs.next()) {
+                if (!visitor.test(ROW_MAPPER.mapRow(rs, row++))) break;
+            }
+            return null;
+        });
+    }
+    
+    @Override
+    protected void writeBatch(List<AttackLog> rows) {
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), JdbcWriteBehindPersistence::bind));
+    }
+    
+    @Override
+    protected void clearStorage() {
+        jdbcTemplate.update("DELETE FROM attack_logs");
+    }
+    
+    private static final RowMapper<AttackLog> ROW_MAPPER = (rs, row) -> {
+        AttackLog attack = new AttackLog(rs.getString("source_ip"), rs.getString("service_type"),
+                rs.getString("payload"), rs.getString("device_emulated"));
+        attack.setId(rs.getLong("id"));
+        attack.setUsernameAttempt(rs.getString("username_attempt"));
+        attack.setPasswordAttempt(rs.getString("password_attempt"));
+        attack.setLoginAttempts(rs.getString("login_attempts"));
+        Timestamp timestamp = rs.getTimestamp("timestamp");
+        if (timestamp != null) attack.setTimestamp(timestamp.toLocalDateTime());
+        return attack;
+    };
+    
+    private static void bind(PreparedStatement ps, AttackLog attack) throws SQLException {
+        ps.setLong(1, attack.getId());
+        ps.setString(2, truncate(attack.getSourceIp(), 255));
+        ps.setString(3, truncate(attack.getServiceType(), 255));
+        ps.setString(4, truncate(attack.getPayload(), AttackLog.PAYLOAD_LENGTH));
+        ps.setString(5, truncate(attack.getUsernameAttempt(), AttackLog.CREDENTIAL_LENGTH));
+        ps.setString(6, truncate(attack.getPasswordAttempt(), AttackLog.CREDENTIAL_LENGTH));
+        // Already cut to whole pairs within the column
+        ps.setString(7, attack.getLoginAttempts());
+        ps.setTimestamp(8, attack.getTimestamp() != null ? Timestamp.valueOf(attack.getTimestamp()) : null);
+        ps.setString(9, truncate(attack.getDeviceEmulated(), 255));
+    }
+    
+    private static String truncate(String value, int max) {
+        return value == null || value.length() <= max ? value : value.substring(0, max);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.iot.honeypot.persistence;
+
+import com.iot.honeypot.entity.AttackLog;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/** {@code honeypot.persistence.mode=none}: attacks live only in memory. */
+@Component
+@ConditionalOnProperty(name = "honeypot.persistence.mode", havingValue = "none")
+public class NoAttackPersistence implements AttackPersistence {
+    
+    @Override
+    public void append(AttackLog attack) {
+    }
+    
+    @Override
+    public void clear() {
+    }
+    
+    @Override
+    public long replay(int maxRecords, Consumer<AttackLog> sink) {
+        return 0;
+    }
+    
+    @Override
+    public void forEachInRange(LocalDateTime from, LocalDateTime to, Predicate<AttackLog> visitor) {
+    }
+    
+    @Override
+    public Map<String, Object> getStats() {
+        return Map.of("mode", "none");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,172 @@
+package com.iot.honeypot.persistence;
+
+import com.iot.honeypot.entity.AttackLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shared write-behind plumbing. Handler threads only offer to a bounded
+ * queue; one background writer drains it in batches. If storage falls behind
+ * far enough to fill the queue, new attacks are dropped and counted rather
+ * than slowing down the honeypots.
+ */
+public abstract class WriteBehindPersistence implements AttackPersistence {
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindPersistence.class);
+    private static final Object CLEAR = new Object();
+    
+    private final String name;
+    private final BlockingQueue<Object> queue;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile long lastBatchMicros;
+    private volatile boolean running = true;
+    private Thread writer;
+    
+    protected WriteBehindPersistence(String name, int queueCapacity, int batchSize, long flushIntervalMillis) {
+        this.name = name;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalMillis = Math.max(1, flushIntervalMillis);
+    }
+    
+    /** Starts the writer; subclasses call this once their storage is ready. */
+    protected void startWriter() {
+        writer = new Thread(this::drain, "honeypot-" + name + "-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+    
+    /** Stores {@code rows} in order. Returns normally only if all of them were stored. */
+    protected abstract void writeBatch(List<AttackLog> rows) throws Exception;
+    
+    /** Removes everything stored so far. Runs on the writer thread. */
+    protected abstract void clearStorage() throws Exception;
+    
+    /** Extra entries for {@link #getStats()}. */
+    protected void addStats(Map<String, Object> stats) {
+    }
+    
+    @Override
+    public void append(AttackLog attack) {
+        if (!queue.offer(attack)) {
+            dropped.increment();
+        }
+    }
+    
+    @Override
+    public void clear() {
+        try {
+            queue.put(CLEAR);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    @Override
+    public int getQueueDepth() {
+        return queue.size();
+    }
+    
+    @Override
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+    
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("mode", name);
+        stats.put("queueDepth", queue.size());
+        stats.put("written", written.get());
+        stats.put("batches", batches.get());
+        stats.put("dropped", dropped.sum());
+        stats.put("failed", failed.get());
+        stats.put("lastBatchMicros", lastBatchMicros);
+        addStats(stats);
+        return stats;
+    }
+    
+    @PreDestroy
+    public void shutdown() throws Exception {
+        running = false;
+        if (writer != null) {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+    
+    private void drain() {
+        List<Object> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Object first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                // Give a trickle of attacks up to one flush interval to fill the batch
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+                while (batch.size() < batchSize && running) {
+                    if (queue.drainTo(batch, batchSize - batch.size()) > 0) continue;
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) break;
+                    Object next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+                queue.drainTo(batch, batchSize - batch.size());
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("❌ Attack persistence error: {}", e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+    
+    private void write(List<Object> batch) {
+        long started = System.nanoTime();
+        List<AttackLog> rows = new ArrayList<>(batch.size());
+        for (Object item : batch) {
+            if (item == CLEAR) {
+                store(rows);
+                rows.clear();
+                try {
+                    clearStorage();
+                } catch (Exception e) {
+                    log.error("❌ Failed to clear persisted attacks: {}", e.getMessage());
+                }
+            } else {
+                rows.add((AttackLog) item);
+            }
+        }
+        store(rows);
+        batches.incrementAndGet();
+        lastBatchMicros = (System.nanoTime() - started) / 1000;
+    }
+    
+    private void store(List<AttackLog> rows) {
+        if (rows.isEmpty()) return;
+        try {
+            writeBatch(rows);
+            written.addAndGet(rows.size());
+        } catch (Exception e) {
+            failed.addAndGet(rows.size());
+            log.error("❌ Failed to persist {} attacks: {}", rows.size(), e.getMessage());
+        }
+    }
+}
\ No newline at end of file
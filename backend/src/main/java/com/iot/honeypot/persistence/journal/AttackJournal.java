@@ -0,0 +1,128 @@
+package com.iot.honeypot.persistence.journal;
+
+import com.iot.honeypot.entity.AttackLog;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Append-only attack journal made of fixed-size memory-mapped segments named
+ * after the first sequence they hold. Appends come from one writer thread;
+ * reads may run concurrently from any thread and see every record whose
+ * append has returned.
+ */
+public class AttackJournal {
+    private final Path directory;
+    private final int segmentBytes;
+    private final int maxSegments;
+    private final ConcurrentSkipListMap<Long, JournalSegment> segments = new ConcurrentSkipListMap<>();
+    private JournalSegment active;
+    
+    public AttackJournal(Path directory, int segmentBytes, int maxSegments) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = maxSegments;
+        Files.createDirectories(directory);
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> listing = Files.list(directory)) {
+            listing.filter(JournalSegment::isSegmentFile).sorted().forEach(files::add);
+        }
+        for (Path file : files) {
+            JournalSegment segment = JournalSegment.open(file, segmentBytes);
+            segments.put(segment.getFirstSequence(), segment);
+        }
+        Map.Entry<Long, JournalSegment> last = segments.lastEntry();
+        active = last != null ? last.getValue() : null;
+    }
+    
+    /** Appends in sequence order; must only be called from the writer thread. */
+    public void append(AttackLog attack) throws IOException {
+        byte[][] fields = JournalRecordCodec.fields(attack);
+        int size = JournalRecordCodec.encodedSize(fields);
+        if (size > segmentBytes) {
+            throw new IOException("Record " + attack.getId() + " is " + size + " bytes, larger than a segment");
+        }
+        if (active == null || !active.append(attack, fields, size)) {
+            roll(attack.getId());
+            active.append(attack, fields, size);
+        }
+    }
+    
+    /** Flushes the active segment's dirty pages to disk. */
+    public void force() {
+        if (active != null) active.force();
+    }
+    
+    /** Visits records with {@code sequence >= fromSequence}, oldest first, until the visitor returns false. */
+    public void forEachFrom(long fromSequence, Predicate<AttackLog> visitor) {
+        Long start = segments.floorKey(fromSequence);
+        for (JournalSegment segment : segments.tailMap(start != null ? start : Long.MIN_VALUE).values()) {
+            if (!segment.forEachFrom(fromSequence, visitor)) return;
+        }
+    }
+    
+    /** Visits records stamped within {@code [fromMillis, toMillis)}, oldest first, until the visitor returns false. */
+    public void forEachInRange(long fromMillis, long toMillis, Predicate<AttackLog> visitor) {
+        for (JournalSegment segment : segments.values()) {
+            if (!segment.forEachInRange(fromMillis, toMillis, visitor)) return;
+        }
+    }
+    
+    public long firstSequence() {
+        Map.Entry<Long, JournalSegment> first = segments.firstEntry();
+        return first != null ? first.getKey() : 0;
+    }
+    
+    public long lastSequence() {
+        return active != null ? active.getLastSequence() : 0;
+    }
+    
+    public int segmentCount() {
+        return segments.size();
+    }
+    
+    /** Bytes actually written across all segments, not the mapped size. */
+    public long bytesWritten() {
+        long total = 0;
+        for (JournalSegment segment : segments.values()) {
+            total += segment.getWritePosition();
+        }
+        return total;
+    }
+    
+    /** Deletes every segment; the next append starts a fresh one. Writer thread only. */
+    public void clear() throws IOException {
+        active = null;
+        while (!segments.isEmpty()) {
+            segments.pollFirstEntry().getValue().delete();
+        }
+    }
+    
+    public void close() {
+        for (JournalSegment segment : segments.values()) {
+            segment.force();
+            segment.close();
+        }
+    }
+    
+    private void roll(long firstSequence) throws IOException {
+        if (active != null) {
+            active.force();
+            if (active.isEmpty()) {
+                segments.remove(active.getFirstSequence());
+                active.delete();
+            }
+        }
+        active = JournalSegment.create(directory, firstSequence, segmentBytes);
+        segments.put(firstSequence, active);
+        while (maxSegments > 0 && segments.size() > maxSegments) {
+            segments.pollFirstEntry().getValue().delete();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,138 @@
+package com.iot.honeypot.persistence.journal;
+
+import com.iot.honeypot.entity.AttackLog;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.zip.CRC32;
+
+/**
+ * Binary record layout, all integers big-endian:
+ *
+ * <pre>
+ * int    length      bytes that follow, including the checksum; 0 marks the end of a segment
+ * long   sequence    attack id
+ * long   timestamp   epoch millis
+ * string sourceIp, serviceType, deviceEmulated, usernameAttempt, passwordAttempt, payload
+ * string loginAttempts
+ * int    crc32       over everything between length and crc
+ * </pre>
+ *
+ * Strings are an int byte count (-1 for null) followed by UTF-8 bytes. The
+ * fixed header lets range scans skip a record by reading 20 bytes. Journals
+ * written before loginAttempts was added end after the payload, which
+ * {@link #decode} tells by the room left before the checksum.
+ */
+final class JournalRecordCodec {
+    static final int HEADER_BYTES = 4 + 8 + 8;
+    static final int SEQUENCE_OFFSET = 4;
+    static final int TIMESTAMP_OFFSET = 12;
+    // Six strings, so records from before loginAttempts are still valid
+    private static final int MIN_LENGTH = HEADER_BYTES - 4 + 6 * 4 + 4;
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+    
+    private JournalRecordCodec() {
+    }
+    
+    static byte[][] fields(AttackLog attack) {
+        return new byte[][] {
+                bytes(attack.getSourceIp()),
+                bytes(attack.getServiceType()),
+                bytes(attack.getDeviceEmulated()),
+                bytes(attack.getUsernameAttempt()),
+                bytes(attack.getPasswordAttempt()),
+                bytes(attack.getPayload()),
+                bytes(attack.getLoginAttempts())
+        };
+    }
+    
+    /** Total bytes {@link #encode} will write, including the length prefix. */
+    static int encodedSize(byte[][] fields) {
+        int size = HEADER_BYTES + 4;
+        for (byte[] field : fields) {
+            size += 4 + (field != null ? field.length : 0);
+        }
+        return size;
+    }
+    
+    /** Writes one record at {@code position}; the caller has checked it fits. */
+    static void encode(ByteBuffer target, int position, AttackLog attack, byte[][] fields, int size) {
+        ByteBuffer out = target.duplicate();
+        out.position(position);
+        out.putInt(size - 4);
+        out.putLong(attack.getId());
+        out.putLong(epochMillis(attack.getTimestamp()));
+        for (byte[] field : fields) {
+            if (field == null) {
+                out.putInt(-1);
+            } else {
+                out.putInt(field.length);
+                out.put(field);
+            }
+        }
+        CRC32 crc = new CRC32();
+        ByteBuffer body = target.duplicate();
+        body.position(position + 4).limit(out.position());
+        crc.update(body);
+        out.putInt((int) crc.getValue());
+    }
+    
+    /**
+     * Length of the valid record at {@code position} including its prefix, or
+     * 0 if there is none there (end marker, torn write or bad checksum).
+     */
+    static int validLength(ByteBuffer source, int position, int limit) {
+        if (position + 4 > limit) return 0;
+        int length = source.getInt(position);
+        if (length < MIN_LENGTH || position + 4 + length > limit) return 0;
+        CRC32 crc = new CRC32();
+        ByteBuffer body = source.duplicate();
+        body.position(position + 4).limit(position + length);
+        crc.update(body);
+        return (int) crc.getValue() == source.getInt(position + length) ? length + 4 : 0;
+    }
+    
+    static long sequenceAt(ByteBuffer source, int position) {
+        return source.getLong(position + SEQUENCE_OFFSET);
+    }
+    
+    static long timestampAt(ByteBuffer source, int position) {
+        return source.getLong(position + TIMESTAMP_OFFSET);
+    }
+    
+    static AttackLog decode(ByteBuffer source, int position) {
+        ByteBuffer in = source.duplicate();
+        in.position(position + HEADER_BYTES);
+        AttackLog attack = new AttackLog();
+        attack.setId(sequenceAt(source, position));
+        attack.setTimestamp(LocalDateTime.ofInstant(Instant.ofEpochMilli(timestampAt(source, position)), ZONE));
+        attack.setSourceIp(string(in));
+        attack.setServiceType(string(in));
+        attack.setDeviceEmulated(string(in));
+        attack.setUsernameAttempt(string(in));
+        attack.setPasswordAttempt(string(in));
+        attack.setPayload(string(in));
+        if (in.position() < position + 4 + source.getInt(position) - 4) {
+            attack.setLoginAttempts(string(in));
+        }
+        return attack;
+    }
+    
+    static long epochMillis(LocalDateTime timestamp) {
+        return timestamp == null ? 0 : timestamp.atZone(ZONE).toInstant().toEpochMilli();
+    }
+    
+    private static byte[] bytes(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+    
+    private static String string(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,228 @@
+package com.iot.honeypot.persistence.journal;
+
+import com.iot.honeypot.entity.AttackLog;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * One pre-sized, memory-mapped journal file. A single writer appends records
+ * and publishes the new end through a volatile position; readers decode from
+ * duplicates of the mapping and never look past that position, so they need
+ * no lock. A sparse index (every {@link #INDEX_INTERVAL} records) lets reads
+ * start near a sequence or timestamp instead of at the head of the file.
+ */
+final class JournalSegment {
+    static final int INDEX_INTERVAL = 64;
+    
+    private final Path path;
+    private final long firstSequence;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private volatile int writePosition;
+    private volatile long lastSequence;
+    private volatile long minTimestamp = Long.MAX_VALUE;
+    private volatile long maxTimestamp = Long.MIN_VALUE;
+    private int records;
+    
+    // Sparse index: sequence, max timestamp of every earlier record, and offset
+    private long[] indexSequences = new long[16];
+    private long[] indexMaxBefore = new long[16];
+    private int[] indexOffsets = new int[16];
+    private int indexSize;
+    
+    private JournalSegment(Path path, long firstSequence, int capacity) throws IOException {
+        this.path = path;
+        this.firstSequence = firstSequence;
+        this.capacity = capacity;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        this.lastSequence = firstSequence - 1;
+    }
+    
+    static JournalSegment create(Path directory, long firstSequence, int capacity) throws IOException {
+        return new JournalSegment(directory.resolve(fileName(firstSequence)), firstSequence, capacity);
+    }
+    
+    /** Maps an existing file and recovers its end: the first zero length, torn write or checksum mismatch. */
+    static JournalSegment open(Path file, int capacity) throws IOException {
+        long first = Long.parseLong(file.getFileName().toString().substring(8, 28));
+        int size = (int) Math.max(capacity, Math.min(Files.size(file), Integer.MAX_VALUE));
+        JournalSegment segment = new JournalSegment(file, first, size);
+        int position = 0;
+        int length;
+        while ((length = JournalRecordCodec.validLength(segment.buffer, position, size)) > 0) {
+            segment.indexRecord(position,
+                JournalRecordCodec.sequenceAt(segment.buffer, position),
+                JournalRecordCodec.timestampAt(segment.buffer, position));
+            position += length;
+        }
+        segment.terminate(position);
+        segment.writePosition = position;
+        return segment;
+    }
+    
+    static boolean isSegmentFile(Path file) {
+        String name = file.getFileName().toString();
+        return name.length() == 32 && name.startsWith("attacks-") && name.endsWith(".seg");
+    }
+    
+    static String fileName(long firstSequence) {
+        return String.format("attacks-%020d.seg", firstSequence);
+    }
+    
+    /** Appends one record, or returns false if it does not fit in what is left of the file. */
+    boolean append(AttackLog attack, byte[][] fields, int size) {
+        int position = writePosition;
+        if (position + size > capacity) return false;
+        JournalRecordCodec.encode(buffer, position, attack, fields, size);
+        terminate(position + size);
+        indexRecord(position, attack.getId(), JournalRecordCodec.epochMillis(attack.getTimestamp()));
+        writePosition = position + size;
+        return true;
+    }
+    
+    void force() {
+        buffer.force();
+    }
+    
+    /**
+     * Visits records with {@code sequence >= fromSequence} in append order
+     * until the visitor returns false. Returns false if it was stopped early.
+     */
+    boolean forEachFrom(long fromSequence, Predicate<AttackLog> visitor) {
+        int end = writePosition;
+        int position = offsetForSequence(fromSequence);
+        while (position < end) {
+            int length = recordLength(position);
+            if (JournalRecordCodec.sequenceAt(buffer, position) >= fromSequence
+                && !visitor.test(JournalRecordCodec.decode(buffer, position))) {
+                return false;
+            }
+            position += length;
+        }
+        return true;
+    }
+    
+    /** Visits records stamped within {@code [fromMillis, toMillis)}; same contract as {@link #forEachFrom}. */
+    boolean forEachInRange(long fromMillis, long toMillis, Predicate<AttackLog> visitor) {
+        if (records == 0 || maxTimestamp < fromMillis || minTimestamp >= toMillis) return true;
+        int end = writePosition;
+        int position = offsetForTimestamp(fromMillis);
+        while (position < end) {
+            int length = recordLength(position);
+            long timestamp = JournalRecordCodec.timestampAt(buffer, position);
+            if (timestamp >= fromMillis && timestamp < toMillis
+                && !visitor.test(JournalRecordCodec.decode(buffer, position))) {
+                return false;
+            }
+            position += length;
+        }
+        return true;
+    }
+    
+    long getFirstSequence() {
+        return firstSequence;
+    }
+    
+    long getLastSequence() {
+        return lastSequence;
+    }
+    
+    boolean isEmpty() {
+        return writePosition == 0;
+    }
+    
+    int getWritePosition() {
+        return writePosition;
+    }
+    
+    int getCapacity() {
+        return capacity;
+    }
+    
+    void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Ignore
+        }
+    }
+    
+    void delete() throws IOException {
+        close();
+        Files.deleteIfExists(path);
+    }
+    
+    private int recordLength(int position) {
+        return buffer.getInt(position) + 4;
+    }
+    
+    /** Zero length after the last record so a restart stops there even if stale bytes follow. */
+    private void terminate(int position) {
+        if (position + 4 <= capacity) {
+            buffer.putInt(position, 0);
+        }
+    }
+    
+    private synchronized void indexRecord(int offset, long sequence, long timestamp) {
+        if (records++ % INDEX_INTERVAL == 0) {
+            if (indexSize == indexOffsets.length) {
+                indexSequences = Arrays.copyOf(indexSequences, indexSize * 2);
+                indexMaxBefore = Arrays.copyOf(indexMaxBefore, indexSize * 2);
+                indexOffsets = Arrays.copyOf(indexOffsets, indexSize * 2);
+            }
+            indexSequences[indexSize] = sequence;
+            indexMaxBefore[indexSize] = maxTimestamp;
+            indexOffsets[indexSize] = offset;
+            indexSize++;
+        }
+        if (timestamp < minTimestamp) minTimestamp = timestamp;
+        if (timestamp > maxTimestamp) maxTimestamp = timestamp;
+        lastSequence = sequence;
+    }
+    
+    /** Offset of the last indexed record whose sequence is at most {@code sequence}. */
+    private synchronized int offsetForSequence(long sequence) {
+        int low = 0;
+        int high = indexSize - 1;
+        int found = 0;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (indexSequences[mid] <= sequence) {
+                found = indexOffsets[mid];
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+    
+    /**
+     * Offset of the last indexed record before which every timestamp is below
+     * {@code timestamp}. Timestamps are only nearly ordered, so the running
+     * maximum keeps this safe if clocks step backwards.
+     */
+    private synchronized int offsetForTimestamp(long timestamp) {
+        int low = 0;
+        int high = indexSize - 1;
+        int found = 0;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (indexMaxBefore[mid] < timestamp) {
+                found = indexOffsets[mid];
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,195 @@
+package com.iot.honeypot.retention;
+
+import com.iot.honeypot.entity.AttackLog;
+import com.iot.honeypot.store.AttackStore;
+import com.iot.honeypot.store.IndexedField;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+
+/**
+ * Keeps the in-memory attack store within a record cap, a maximum age and a
+ * heap budget. A background thread checks the limits every interval, or
+ * sooner when ingest pushes the store past its cap, and retires the oldest
+ * records in one pass. Retired records optionally spill to compressed disk
+ * segments that queries continue into once the store runs out.
+ */
+@Component
+public class AttackRetention {
+    private static final Logger log = LoggerFactory.getLogger(AttackRetention.class);
+    private final RetentionProperties properties;
+    private final SpillStore spill;
+    private final LongAdder retiredByCount = new LongAdder();
+    private final LongAdder retiredByAge = new LongAdder();
+    private final LongAdder retiredByHeap = new LongAdder();
+    private final LongAdder spilled = new LongAdder();
+    private final LongAdder spillFailures = new LongAdder();
+    private AttackStore store;
+    private int maxRecords;
+    private Thread worker;
+    private volatile boolean running = true;
+    
+    public AttackRetention(RetentionProperties properties) throws IOException {
+        this.properties = properties;
+        this.spill = properties.isSpillEnabled()
+                ? new SpillStore(Paths.get(properties.getSpillDirectory()), properties.getSpillSegmentRecords(),
+                                 properties.getSpillMaxMb() * 1024 * 1024)
+                : null;
+    }
+    
+    /** Starts enforcing limits on {@code store}; called once the store has been restored. */
+    public synchronized void start(AttackStore store) {
+        if (worker != null) return;
+        this.store = store;
+        int configured = properties.getMaxRecords();
+        this.maxRecords = configured > 0 ? Math.min(configured, store.capacity()) : store.capacity() - store.capacity() / 8;
+        if (spill != null) {
+            try {
+                long dropped = spill.discardAfter(store.lastSequence());
+                if (dropped > 0) {
+                    log.warn("⚠️ Dropped {} spilled attacks with ids past the restored store (last id {})",
+                            dropped, store.lastSequence());
+                }
+            } catch (IOException e) {
+                log.error("❌ Failed to drop stale spill segments: {}", e.getMessage());
+            }
+        }
+        worker = new Thread(this::run, "honeypot-retention");
+        worker.setDaemon(true);
+        worker.start();
+    }
+    
+    /** Cheap check for the ingest path: wakes the worker early once the cap is exceeded. */
+    public void afterAppend() {
+        Thread current = worker;
+        if (current != null && store.size() > maxRecords) {
+            LockSupport.unpark(current);
+        }
+    }
+    
+    /**
+     * Continues a newest-first walk into spilled records with
+     * {@code id <= fromSequence}; a no-op when spilling is off.
+     */
+    public void forEachSpilledNewestFirst(long fromSequence, IndexedField field, String value, Predicate<AttackLog> visitor) {
+        if (spill != null) {
+            spill.forEachNewestFirst(fromSequence, field, value, visitor);
+        }
+    }
+    
+    public void clear() {
+        if (spill == null) return;
+        try {
+            spill.clear();
+        } catch (IOException e) {
+            log.error("❌ Failed to clear spilled attacks: {}", e.getMessage());
+        }
+    }
+    
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("maxRecords", maxRecords);
+        stats.put("maxAgeMinutes", properties.getMaxAgeMinutes());
+        stats.put("heapBudgetMb", properties.getHeapBudgetMb());
+        stats.put("storedRecords", store != null ? store.size() : 0);
+        stats.put("heapBytes", store != null ? store.heapBytes() : 0);
+        stats.put("offHeapBytes", store != null ? store.offHeapBytes() : 0);
+        stats.put("retiredByCount", retiredByCount.sum());
+        stats.put("retiredByAge", retiredByAge.sum());
+        stats.put("retiredByHeap", retiredByHeap.sum());
+        stats.put("overwrittenBeforeRetire", store != null ? store.overwrittenCount() : 0);
+        stats.put("spillEnabled", spill != null);
+        if (spill != null) {
+            stats.put("spilledRecords", spilled.sum());
+            stats.put("spillFailures", spillFailures.sum());
+            stats.put("spillSegments", spill.segmentCount());
+            stats.put("spillPending", spill.pendingCount());
+            stats.put("spilledBytes", spill.bytesOnDisk());
+        }
+        return stats;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        Thread current = worker;
+        if (current != null) {
+            LockSupport.unpark(current);
+            try {
+                current.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (spill != null) {
+            try {
+                spill.flush();
+            } catch (IOException e) {
+                log.error("❌ Failed to flush spilled attacks: {}", e.getMessage());
+            }
+        }
+    }
+    
+    private void run() {
+        long interval = TimeUnit.MILLISECONDS.toNanos(Math.max(10, properties.getCheckIntervalMs()));
+        while (running) {
+            LockSupport.parkNanos(interval);
+            try {
+                enforce();
+            } catch (RuntimeException e) {
+                log.error("❌ Retention error: {}", e.getMessage());
+            }
+        }
+    }
+    
+    private void enforce() {
+        long first = store.firstSequence();
+        long last = store.lastSequence();
+        if (last < first) return;
+        
+        long byCount = last - maxRecords;
+        long byAge = first - 1;
+        if (properties.getMaxAgeMinutes() > 0) {
+            // Ids follow arrival order, so the expired records form a prefix
+            LocalDateTime cutoff = LocalDateTime.now().minusMinutes(properties.getMaxAgeMinutes());
+            for (long sequence = first; sequence <= last; sequence++) {
+                LocalDateTime timestamp = store.timestampOf(sequence);
+                if (timestamp != null && !timestamp.isBefore(cutoff)) break;
+                byAge = sequence;
+            }
+        }
+        long byHeap = first - 1;
+        long budget = properties.getHeapBudgetMb() * 1024 * 1024;
+        long heap = store.heapBytes();
+        if (budget > 0 && heap > budget) {
+            long average = Math.max(1, heap / Math.max(1, store.size()));
+            byHeap = first - 1 + (heap - budget + average - 1) / average;
+        }
+        
+        long through = Math.max(byCount, Math.max(byAge, byHeap));
+        if (through < first) return;
+        long retiring = through - first + 1;
+        if (through == byCount) retiredByCount.add(retiring);
+        else if (through == byAge) retiredByAge.add(retiring);
+        else retiredByHeap.add(retiring);
+        store.retire(through, spill != null ? this::spill : null);
+    }
+    
+    private void spill(AttackLog attack) {
+        try {
+            if (spill.add(attack)) spilled.increment();
+        } catch (IOException e) {
+            spillFailures.increment();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.iot.honeypot.retention;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code honeypot.retention.*} settings. A limit of 0 switches that limit
+ * off, except {@code maxRecords} where 0 means seven eighths of the store
+ * capacity, leaving headroom for retirement to run before the ring wraps.
+ */
+@Component
+@ConfigurationProperties(prefix = "honeypot.retention")
+public class RetentionProperties {
+    private int maxRecords = 0;
+    private long maxAgeMinutes = 0;
+    private long heapBudgetMb = 0;
+    private long checkIntervalMs = 1000;
+    private boolean spillEnabled = false;
+    private String spillDirectory = "./data/spill";
+    private int spillSegmentRecords = 2048;
+    private long spillMaxMb = 0;
+    
+    public int getMaxRecords() { return maxRecords; }
+    public void setMaxRecords(int maxRecords) { this.maxRecords = maxRecords; }
+    
+    public long getMaxAgeMinutes() { return maxAgeMinutes; }
+    public void setMaxAgeMinutes(long maxAgeMinutes) { this.maxAgeMinutes = maxAgeMinutes; }
+    
+    public long getHeapBudgetMb() { return heapBudgetMb; }
+    public void setHeapBudgetMb(long heapBudgetMb) { this.heapBudgetMb = heapBudgetMb; }
+    
+    public long getCheckIntervalMs() { return checkIntervalMs; }
+    public void setCheckIntervalMs(long checkIntervalMs) { this.checkIntervalMs = checkIntervalMs; }
+    
+    public boolean isSpillEnabled() { return spillEnabled; }
+    public void setSpillEnabled(boolean spillEnabled) { this.spillEnabled = spillEnabled; }
+    
+    public String getSpillDirectory() { return spillDirectory; }
+    public void setSpillDirectory(String spillDirectory) { this.spillDirectory = spillDirectory; }
+    
+    public int getSpillSegmentRecords() { return spillSegmentRecords; }
+    public void setSpillSegmentRecords(int spillSegmentRecords) { this.spillSegmentRecords = spillSegmentRecords; }
+    
+    public long getSpillMaxMb() { return spillMaxMb; }
+    public void setSpillMaxMb(long spillMaxMb) { this.spillMaxMb = spillMaxMb; }
+}
\ No newline at end of file
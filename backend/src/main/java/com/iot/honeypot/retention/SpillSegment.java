@@ -0,0 +1,237 @@
+package com.iot.honeypot.retention;
+
+import com.iot.honeypot.entity.AttackLog;
+import com.iot.honeypot.store.IndexedField;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * An immutable file of retired attacks: an uncompressed summary header
+ * followed by a deflate-compressed body. The header (id range, time range,
+ * the distinct services and devices, and a Bloom filter of source IPs) stays
+ * in memory, so queries open only the segments that can hold a match. The
+ * body holds the records newest first, the order queries want them in, so a
+ * query decodes them one at a time and stops as soon as it has enough.
+ */
+final class SpillSegment {
+    private static final int MAGIC = 0x48535033; // "HSP3"
+    private static final int BLOOM_BYTES = 4096;
+    private static final int BLOOM_HASHES = 4;
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+    
+    final Path path;
+    final int count;
+    final long firstSequence;
+    final long lastSequence;
+    final long fileBytes;
+    private final Set<String> services;
+    private final Set<String> devices;
+    private final byte[] sourceIpBloom;
+    
+    private SpillSegment(Path path, int count, long firstSequence, long lastSequence, long fileBytes,
+                         Set<String> services, Set<String> devices, byte[] sourceIpBloom) {
+        this.path = path;
+        this.count = count;
+        this.firstSequence = firstSequence;
+        this.lastSequence = lastSequence;
+        this.fileBytes = fileBytes;
+        this.services = services;
+        this.devices = devices;
+        this.sourceIpBloom = sourceIpBloom;
+    }
+    
+    static String fileName(long firstSequence) {
+        return String.format("spill-%020d.seg", firstSequence);
+    }
+    
+    static boolean isSegmentFile(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith("spill-") && name.endsWith(".seg");
+    }
+    
+    /** Writes {@code attacks} (ascending ids) to a new file in {@code directory}, body in reverse. */
+    static SpillSegment write(Path directory, List<AttackLog> attacks) throws IOException {
+        Set<String> services = new HashSet<>();
+        Set<String> devices = new HashSet<>();
+        byte[] bloom = new byte[BLOOM_BYTES];
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DataOutputStream body = new DataOutputStream(new DeflaterOutputStream(compressed, deflater, 8192))) {
+            for (int i = attacks.size() - 1; i >= 0; i--) {
+                AttackLog attack = attacks.get(i);
+                addKey(services, IndexedField.SERVICE_TYPE.keyOf(attack));
+                addKey(devices, IndexedField.DEVICE.keyOf(attack));
+                String ip = IndexedField.SOURCE_IP.keyOf(attack);
+                if (ip != null) bloomAdd(bloom, ip);
+                body.writeLong(attack.getId());
+                body.writeLong(attack.getTimestamp() == null ? Long.MIN_VALUE
+                        : attack.getTimestamp().atZone(ZONE).toInstant().toEpochMilli());
+                writeString(body, attack.getSourceIp());
+                writeString(body, attack.getServiceType());
+                writeString(body, attack.getDeviceEmulated());
+                writeString(body, attack.getUsernameAttempt());
+                writeString(body, attack.getPasswordAttempt());
+                writeString(body, attack.getPayload());
+                writeString(body, attack.getLoginAttempts());
+            }
+        } finally {
+            deflater.end();
+        }
+        
+        long first = attacks.get(0).getId();
+        long last = attacks.get(attacks.size() - 1).getId();
+        Path path = directory.resolve(fileName(first));
+        Path temporary = directory.resolve(fileName(first) + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(attacks.size());
+            out.writeLong(first);
+            out.writeLong(last);
+            writeSet(out, services);
+            writeSet(out, devices);
+            out.write(bloom);
+            out.writeInt(compressed.size());
+            compressed.writeTo(out);
+        }
+        // Readers only ever see complete segments
+        Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE);
+        return new SpillSegment(path, attacks.size(), first, last, Files.size(path), services, devices, bloom);
+    }
+    
+    /** Reads just the header of an existing segment. */
+    static SpillSegment open(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC) throw new IOException("Not a spill segment: " + path);
+            int count = in.readInt();
+            long first = in.readLong();
+            long last = in.readLong();
+            Set<String> services = readSet(in);
+            Set<String> devices = readSet(in);
+            byte[] bloom = new byte[BLOOM_BYTES];
+            in.readFully(bloom);
+            return new SpillSegment(path, count, first, last, Files.size(path), services, devices, bloom);
+        }
+    }
+    
+    /** False only if no record in this segment can have {@code key} in {@code field}. */
+    boolean mayContain(IndexedField field, String key) {
+        switch (field) {
+            case SERVICE_TYPE: return services.contains(key);
+            case DEVICE: return devices.contains(key);
+            // Enrichment is not spilled, so nothing here can rule a segment out
+            case COUNTRY: case ASN: return true;
+            default: return bloomMayContain(sourceIpBloom, key);
+        }
+    }
+    
+    /**
+     * Decodes records newest first and hands each to {@code visitor} until it
+     * returns false; only the record being visited is held. Returns false if
+     * the visitor stopped the walk.
+     */
+    boolean forEachNewestFirst(Predicate<AttackLog> visitor) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            in.readInt();
+            in.readInt();
+            in.readLong();
+            in.readLong();
+            readSet(in);
+            readSet(in);
+            in.skipNBytes(BLOOM_BYTES);
+            in.readInt();
+            DataInputStream body = new DataInputStream(new BufferedInputStream(new InflaterInputStream(in), 8192));
+            for (int i = 0; i < count; i++) {
+                AttackLog attack = new AttackLog();
+                attack.setId(body.readLong());
+                long millis = body.readLong();
+                if (millis != Long.MIN_VALUE) {
+                    attack.setTimestamp(LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZONE));
+                }
+                attack.setSourceIp(readString(body));
+                attack.setServiceType(readString(body));
+                attack.setDeviceEmulated(readString(body));
+                attack.setUsernameAttempt(readString(body));
+                attack.setPasswordAttempt(readString(body));
+                attack.setPayload(readString(body));
+                attack.setLoginAttempts(readString(body));
+                if (!visitor.test(attack)) return false;
+            }
+        }
+        return true;
+    }
+    
+    private static void addKey(Set<String> keys, String key) {
+        if (key != null) keys.add(key);
+    }
+    
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+    
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    private static void writeSet(DataOutputStream out, Set<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+    
+    private static Set<String> readSet(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        Set<String> values = new HashSet<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            values.add(readString(in));
+        }
+        return values;
+    }
+    
+    private static void bloomAdd(byte[] bloom, String key) {
+        int h1 = key.hashCode();
+        int h2 = Integer.reverse(h1) * 0x9E3779B9 | 1;
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bloom.length * 8);
+            bloom[bit >>> 3] |= (byte) (1 << (bit & 7));
+        }
+    }
+    
+    private static boolean bloomMayContain(byte[] bloom, String key) {
+        int h1 = key.hashCode();
+        int h2 = Integer.reverse(h1) * 0x9E3779B9 | 1;
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bloom.length * 8);
+            if ((bloom[bit >>> 3] & (1 << (bit & 7))) == 0) return false;
+        }
+        return true;
+    }
+}
\ No newline at end of file
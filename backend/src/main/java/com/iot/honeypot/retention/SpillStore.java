@@ -0,0 +1,158 @@
+package com.iot.honeypot.retention;
+
+import com.iot.honeypot.entity.AttackLog;
+import com.iot.honeypot.store.IndexedField;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Directory of {@link SpillSegment}s plus the not-yet-full segment still
+ * being collected in memory. Records arrive oldest first from the retention
+ * thread; queries walk them newest first from any thread.
+ */
+final class SpillStore {
+    private static final Logger log = LoggerFactory.getLogger(SpillStore.class);
+    private final Path directory;
+    private final int segmentRecords;
+    private final long maxBytes;
+    private final ConcurrentSkipListMap<Long, SpillSegment> segments = new ConcurrentSkipListMap<>();
+    private List<AttackLog> pending = new ArrayList<>();
+    private long lastSequence;
+    private long bytes;
+    
+    SpillStore(Path directory, int segmentRecords, long maxBytes) throws IOException {
+        this.directory = directory;
+        this.segmentRecords = Math.max(1, segmentRecords);
+        this.maxBytes = maxBytes;
+        Files.createDirectories(directory);
+        try (Stream<Path> listing = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) listing::iterator) {
+                if (!SpillSegment.isSegmentFile(file)) continue;
+                try {
+                    SpillSegment segment = SpillSegment.open(file);
+                    segments.put(segment.firstSequence, segment);
+                    bytes += segment.fileBytes;
+                    lastSequence = Math.max(lastSequence, segment.lastSequence);
+                } catch (IOException e) {
+                    log.warn("⚠️ Skipping unreadable spill segment {}: {}", file, e.getMessage());
+                }
+            }
+        }
+    }
+    
+    /**
+     * Deletes the segments holding ids past {@code lastSequence}, the last id
+     * the store has handed out. They were spilled by an earlier run whose ids
+     * were not carried over, e.g. without persistence, and would otherwise
+     * clash with the ids handed out from now on. Returns the records dropped.
+     */
+    synchronized long discardAfter(long lastSequence) throws IOException {
+        long dropped = 0;
+        long kept = 0;
+        for (SpillSegment segment : new ArrayList<>(segments.values())) {
+            if (segment.lastSequence > lastSequence) {
+                segments.remove(segment.firstSequence);
+                bytes -= segment.fileBytes;
+                dropped += segment.count;
+                Files.deleteIfExists(segment.path);
+            } else {
+                kept = Math.max(kept, segment.lastSequence);
+            }
+        }
+        this.lastSequence = kept;
+        return dropped;
+    }
+    
+    /** Queues one retired record; ids already spilled (e.g. replayed again after a restart) are skipped. */
+    synchronized boolean add(AttackLog attack) throws IOException {
+        if (attack.getId() <= lastSequence) return false;
+        lastSequence = attack.getId();
+        pending.add(attack);
+        if (pending.size() >= segmentRecords) flush();
+        return true;
+    }
+    
+    /** Writes whatever is pending as a segment of its own. */
+    synchronized void flush() throws IOException {
+        if (pending.isEmpty()) return;
+        SpillSegment segment = SpillSegment.write(directory, pending);
+        pending = new ArrayList<>();
+        segments.put(segment.firstSequence, segment);
+        bytes += segment.fileBytes;
+        while (maxBytes > 0 && bytes > maxBytes && segments.size() > 1) {
+            SpillSegment oldest = segments.pollFirstEntry().getValue();
+            bytes -= oldest.fileBytes;
+            Files.deleteIfExists(oldest.path);
+        }
+    }
+    
+    /**
+     * Visits spilled records with {@code id <= fromSequence}, newest first,
+     * optionally only those whose {@code field} matches {@code value}, until
+     * {@code visitor} returns false. Returns false if it was stopped early.
+     */
+    boolean forEachNewestFirst(long fromSequence, IndexedField field, String value, Predicate<AttackLog> visitor) {
+        String key = field != null ? IndexedField.normalize(value) : null;
+        List<AttackLog> buffered;
+        List<SpillSegment> written;
+        // Both views under one lock, so a flush in between cannot show the same records twice
+        synchronized (this) {
+            buffered = new ArrayList<>(pending);
+            written = new ArrayList<>(segments.headMap(fromSequence, true).descendingMap().values());
+        }
+        if (!visitNewestFirst(buffered, fromSequence, field, key, visitor)) return false;
+        for (SpillSegment segment : written) {
+            if (key != null && !segment.mayContain(field, key)) continue;
+            try {
+                boolean finished = segment.forEachNewestFirst(attack -> attack.getId() > fromSequence
+                        || (key != null && !key.equals(field.keyOf(attack)))
+                        || visitor.test(attack));
+                if (!finished) return false;
+            } catch (IOException e) {
+                // Deleted by the size cap while we were reading, or damaged
+            }
+        }
+        return true;
+    }
+    
+    synchronized void clear() throws IOException {
+        pending = new ArrayList<>();
+        for (Map.Entry<Long, SpillSegment> entry : segments.entrySet()) {
+            Files.deleteIfExists(entry.getValue().path);
+        }
+        segments.clear();
+        bytes = 0;
+    }
+    
+    int segmentCount() {
+        return segments.size();
+    }
+    
+    synchronized long bytesOnDisk() {
+        return bytes;
+    }
+    
+    synchronized int pendingCount() {
+        return pending.size();
+    }
+    
+    private static boolean visitNewestFirst(List<AttackLog> attacks, long fromSequence, IndexedField field,
+                                            String key, Predicate<AttackLog> visitor) {
+        for (int i = attacks.size() - 1; i >= 0; i--) {
+            AttackLog attack = attacks.get(i);
+            if (attack.getId() > fromSequence) continue;
+            if (key != null && !key.equals(field.keyOf(attack))) continue;
+            if (!visitor.test(attack)) return false;
+        }
+        return true;
+    }
+}
\ No newline at end of file
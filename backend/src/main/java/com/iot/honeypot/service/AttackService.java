@@ -1,78 +1,307 @@
 package com.iot.honeypot.service;
 
+import com.iot.honeypot.admission.SourceClassifier;
+import com.iot.honeypot.credentials.CredentialDictionary;
+import com.iot.honeypot.enrichment.IpEnricher;
 import com.iot.honeypot.entity.AttackLog;
+import com.iot.honeypot.feed.AttackFeed;
+import com.iot.honeypot.persistence.AttackPersistence;
+import com.iot.honeypot.retention.AttackRetention;
+import com.iot.honeypot.stats.AttackRollups;
+import com.iot.honeypot.stats.AttackStatistics;
+import com.iot.honeypot.store.AttackStore;
+import com.iot.honeypot.store.ColumnarAttackStore;
+import com.iot.honeypot.store.IndexedField;
+import com.iot.honeypot.store.RingBufferAttackStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
 
 @Service
 public class AttackService {
-    private List<AttackLog> attackLogs = new CopyOnWriteArrayList<>();
+    private static final Logger log = LoggerFactory.getLogger(AttackService.class);
+    private static final int MAX_HISTORY = 10_000;
+    private static final int MAX_SPILLED_MATCHES = 10_000;
+    
+    private final AttackStore attackLogs;
+    private final AttackStatistics statistics;
+    private final AttackRollups rollups;
+    private final AttackPersistence persistence;
+    private final AttackFeed feed;
+    private final AttackRetention retention;
+    private final CredentialDictionary credentials;
+    private final IpEnricher enricher;
+    private final SourceClassifier classifier;
+    private final LongAdder logged = new LongAdder();
+    
+    public AttackService(AttackStatistics statistics,
+                         AttackRollups rollups,
+                         AttackPersistence persistence,
+                         AttackFeed feed,
+                         AttackRetention retention,
+                         CredentialDictionary credentials,
+                         IpEnricher enricher,
+                         SourceClassifier classifier,
+                         @Value("${honeypot.store.engine:ring}") String engine,
+                         @Value("${honeypot.store.capacity:262144}") int capacity,
+                         @Value("${honeypot.store.arena-mb:128}") int arenaMb) {
+        this.statistics = statistics;
+        this.rollups = rollups;
+        this.persistence = persistence;
+        this.feed = feed;
+        this.retention = retention;
+        this.credentials = credentials;
+        this.enricher = enricher;
+        this.classifier = classifier;
+        String selected = engine.trim().toLowerCase(Locale.ROOT);
+        if (selected.equals("columnar")) {
+            this.attackLogs = new ColumnarAttackStore(capacity, arenaMb * 1024L * 1024, credentials);
+        } else if (selected.equals("ring")) {
+            this.attackLogs = new RingBufferAttackStore(capacity);
+        } else {
+            throw new IllegalArgumentException("Unknown honeypot.store.engine: " + engine);
+        }
+        log.info("📦 Attack store: {} engine, {} records", selected, attackLogs.capacity());
+    }
     
     @PostConstruct
     public void init() {
-        // Add sample attacks for demo
-        attackLogs.add(new AttackLog("192.168.1.100", "TELNET", "Login: admin/admin123", "TP-Link Router"));
-        attackLogs.add(new AttackLog("10.0.0.55", "HTTP", "GET /admin/login.php", "D-Link Camera"));
-        attackLogs.add(new AttackLog("172.16.23.45", "TELNET", "Login: root/12345", "Cisco Switch"));
-        attackLogs.add(new AttackLog("203.0.113.12", "HTTP", "POST /cgi-bin/login.cgi", "Netgear Router"));
+        long restored = persistence.replay(attackLogs.capacity(), attack -> {
+            attackLogs.resumeAt(attack.getId());
+            store(attack);
+        });
+        retention.start(attackLogs);
+        if (restored > 0) {
+            log.info("📊 Restored {} attacks from storage", restored);
+            return;
+        }
         
-        System.out.println("📊 Loaded " + attackLogs.size() + " sample attacks for demo");
+        // Add sample attacks for demo, oldest first so the first one reads as most recent
+        store(new AttackLog("203.0.113.12", "HTTP", "POST /cgi-bin/login.cgi", "Netgear Router"));
+        store(new AttackLog("172.16.23.45", "TELNET", "Login: root/12345", "Cisco Switch"));
+        store(new AttackLog("10.0.0.55", "HTTP", "GET /admin/login.php", "D-Link Camera"));
+        store(new AttackLog("192.168.1.100", "TELNET", "Login: admin/admin123", "TP-Link Router"));
+        
+        log.info("📊 Loaded {} sample attacks for demo", attackLogs.size());
     }
     
     public void logAttack(AttackLog attack) {
-        attackLogs.add(0, attack); // Add to beginning for recent first
-        System.out.println("🚨 NEW ATTACK: " + attack.getSourceIp() + " -> " + attack.getServiceType());
+        store(attack);
+        persistence.append(attack);
+        feed.publish(attack);
+        logged.increment();
+        log.info("🚨 NEW ATTACK: {} -> {}", attack.getSourceIp(), attack.getServiceType());
     }
     
-    public List<AttackLog> getAllAttacks() {
-        return new ArrayList<>(attackLogs);
+    /**
+     * Visits stored attacks newest first, resuming after the cursor {@code after}
+     * (so only smaller ids), optionally restricted to {@code from <= timestamp < to}
+     * and one service type. At most {@code limit} records are visited, or all
+     * of them when {@code limit <= 0}. Nothing is copied, so memory does not
+     * grow with the number of matches. Continues into records that retention
+     * spilled to disk once the in-memory store is exhausted.
+     */
+    public void forEachAttack(Long after, LocalDateTime from, LocalDateTime to, String serviceType,
+                              int limit, Predicate<AttackLog> visitor) {
+        long start = after != null ? after - 1 : Long.MAX_VALUE;
+        int[] remaining = { limit > 0 ? limit : Integer.MAX_VALUE };
+        Predicate<AttackLog> page = attack -> visitor.test(attack) && --remaining[0] > 0;
+        forEachNewestFirst(start, serviceType != null ? IndexedField.SERVICE_TYPE : null, serviceType, from, to, page);
     }
     
     public List<AttackLog> getRecentAttacks(int count) {
-        return attackLogs.stream()
-                .limit(count)
-                .collect(Collectors.toList());
+        List<AttackLog> recent = new ArrayList<>(Math.max(0, Math.min(count, attackLogs.size())));
+        if (count <= 0) return recent;
+        forEachNewestFirst(Long.MAX_VALUE, null, null, null, null, attack -> {
+            recent.add(attack);
+            return recent.size() < count;
+        });
+        return recent;
     }
     
+    /** Answered from counters kept at ingest, so the cost does not depend on how many attacks are stored. */
     public Map<String, Object> getStats() {
+        LocalDateTime newest = attackLogs.timestampOf(attackLogs.lastSequence());
         Map<String, Object> stats = new HashMap<>();
         stats.put("totalAttacks", attackLogs.size());
-        stats.put("lastAttack", attackLogs.isEmpty() ? "Never" : 
-            attackLogs.get(0).getTimestamp().toString());
-        
-        // Attacks by service type
-        Map<String, Long> byService = attackLogs.stream()
-            .collect(Collectors.groupingBy(AttackLog::getServiceType, Collectors.counting()));
-        stats.put("attacksByService", byService);
-        
-        // Attacks by device
-        Map<String, Long> byDevice = attackLogs.stream()
-            .collect(Collectors.groupingBy(AttackLog::getDeviceEmulated, Collectors.counting()));
-        stats.put("attacksByDevice", byDevice);
-        
-        // Top attackers
-        Map<String, Long> topAttackers = attackLogs.stream()
-            .collect(Collectors.groupingBy(AttackLog::getSourceIp, Collectors.counting()))
-            .entrySet().stream()
-            .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
-            .limit(5)
-            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-        stats.put("topAttackers", topAttackers);
-        
+        stats.put("totalRecorded", statistics.getTotal());
+        stats.put("uniqueSourceIps", attackLogs.indexedKeys(IndexedField.SOURCE_IP));
+        stats.put("lastAttack", newest == null ? "Never" :
+            newest.toString());
+        stats.put("attacksByService", statistics.getAttacksByService());
+        stats.put("attacksByDevice", statistics.getAttacksByDevice());
+        stats.put("topAttackers", statistics.getTopAttackers(5));
+        stats.put("attacksByCountry", statistics.getAttacksByCountry());
+        stats.put("topNetworks", statistics.getTopNetworks(5));
         return stats;
     }
     
+    /** Attacks reported by the honeypots since startup, unaffected by clearing. */
+    public long getLoggedCount() {
+        return logged.sum();
+    }
+    
+    public int getStoreSize() {
+        return attackLogs.size();
+    }
+    
+    public long getStoreHeapBytes() {
+        return attackLogs.heapBytes();
+    }
+    
+    public Map<String, Object> getTimeseries(AttackRollups.Resolution resolution, LocalDateTime from, LocalDateTime to) {
+        return rollups.query(resolution, from, to);
+    }
+    
+    /** Answered from the credential dictionary's counters. */
+    public Map<String, Object> getTopCredentials(int limit) {
+        return credentials.getTop(limit);
+    }
+    
+    public Map<String, Object> getEnrichmentStats() {
+        return enricher.getStats();
+    }
+    
+    /** Swaps in a freshly loaded range database; records already stored keep the enrichment they got. */
+    public Map<String, Object> reloadEnrichment() throws IOException {
+        return enricher.reload();
+    }
+    
+    public Map<String, Object> getRetentionStats() {
+        return retention.getStats();
+    }
+    
+    public Map<String, Object> getPersistenceStats() {
+        return persistence.getStats();
+    }
+    
     public List<AttackLog> getAttacksByType(String serviceType) {
-        return attackLogs.stream()
-                .filter(attack -> serviceType.equalsIgnoreCase(attack.getServiceType()))
-                .collect(Collectors.toList());
+        return findNewestFirst(IndexedField.SERVICE_TYPE, serviceType);
+    }
+    
+    public List<AttackLog> getAttacksByIp(String sourceIp) {
+        return findNewestFirst(IndexedField.SOURCE_IP, sourceIp);
+    }
+    
+    public List<AttackLog> getAttacksByDevice(String device) {
+        return findNewestFirst(IndexedField.DEVICE, device);
+    }
+    
+    /** By ISO country code of the source IP's range. */
+    public List<AttackLog> getAttacksByCountry(String country) {
+        return findNewestFirst(IndexedField.COUNTRY, country);
+    }
+    
+    public List<AttackLog> getAttacksByAsn(int asn) {
+        return findNewestFirst(IndexedField.ASN, Integer.toString(asn));
+    }
+    
+    /** Persisted attacks with {@code from <= timestamp < to}, oldest first, capped at {@value #MAX_HISTORY}. */
+    public List<AttackLog> getHistory(LocalDateTime from, LocalDateTime to, int limit) {
+        int max = Math.min(limit, MAX_HISTORY);
+        List<AttackLog> history = new ArrayList<>();
+        if (max <= 0 || !from.isBefore(to)) return history;
+        persistence.forEachInRange(from, to, attack -> {
+            derive(attack);
+            history.add(attack);
+            return history.size() < max;
+        });
+        return history;
     }
     
     public void clearAllAttacks() {
         attackLogs.clear();
-        System.out.println("🗑️ All attack logs cleared");
+        statistics.reset();
+        rollups.reset();
+        credentials.reset();
+        persistence.clear();
+        retention.clear();
+        log.info("🗑️ All attack logs cleared");
+    }
+    
+    /** Every match still in memory, then at most {@value #MAX_SPILLED_MATCHES} more from spilled records. */
+    private List<AttackLog> findNewestFirst(IndexedField field, String value) {
+        List<AttackLog> matches = new ArrayList<>();
+        attackLogs.forEachMatchingNewestFirst(field, value, matches::add);
+        int limit = matches.size() + MAX_SPILLED_MATCHES;
+        forEachSpilledNewestFirst(attackLogs.firstSequence() - 1, field, value, attack -> {
+            matches.add(attack);
+            return matches.size() < limit;
+        });
+        return matches;
+    }
+    
+    /**
+     * Walks the in-memory store from {@code fromSequence} down, optionally
+     * through one index and within {@code from <= timestamp < to}, then
+     * carries on into spilled records unless the visitor stopped it.
+     */
+    private void forEachNewestFirst(long fromSequence, IndexedField field, String value,
+                                    LocalDateTime from, LocalDateTime to, Predicate<AttackLog> visitor) {
+        boolean[] stopped = { false };
+        Predicate<AttackLog> tracking = attack -> {
+            if (visitor.test(attack)) return true;
+            stopped[0] = true;
+            return false;
+        };
+        if (field != null) {
+            attackLogs.forEachMatchingNewestFirst(field, value, fromSequence, from, to, tracking);
+        } else {
+            attackLogs.forEachNewestFirst(fromSequence, from, to, tracking);
+        }
+        if (!stopped[0]) {
+            // Anything at or above the store's oldest id is still in memory and was visited already
+            forEachSpilledNewestFirst(Math.min(fromSequence, attackLogs.firstSequence() - 1), field, value,
+                    AttackStore.inRange(from, to, tracking));
+        }
+    }
+    
+    /**
+     * Spilled records come back without enrichment or source tag, so both
+     * are redone as they are read and derived fields are matched afterwards
+     * rather than through the segments' key summaries.
+     */
+    private void forEachSpilledNewestFirst(long fromSequence, IndexedField field, String value, Predicate<AttackLog> visitor) {
+        if (field != null && field.isDerived()) {
+            String key = IndexedField.normalize(value);
+            retention.forEachSpilledNewestFirst(fromSequence, null, null, attack -> {
+                derive(attack);
+                return !key.equals(field.keyOf(attack)) || visitor.test(attack);
+            });
+        } else {
+            retention.forEachSpilledNewestFirst(fromSequence, field, value, attack -> {
+                derive(attack);
+                return visitor.test(attack);
+            });
+        }
+    }
+    
+    private void store(AttackLog attack) {
+        // Replayed records are enriched here too, since the network is not persisted; the tag is only ever set at accept
+        enricher.enrich(attack);
+        // Before the append, so the stored record already points at the shared credentials
+        credentials.record(attack);
+        attackLogs.append(attack);
+        retention.afterAppend();
+        statistics.record(attack);
+        rollups.record(attack);
+    }
+    
+    /**
+     * Fields computed from the source IP for records read back from H2 or
+     * spill segments, which keep neither; left alone where already set.
+     */
+    private void derive(AttackLog attack) {
+        enricher.enrich(attack);
+        if (attack.getSourceTag() == null) {
+            attack.setSourceTag(classifier.tagOf(attack.getSourceIp()));
+        }
     }
 }
\ No newline at end of file
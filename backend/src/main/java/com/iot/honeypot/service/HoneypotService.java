@@ -1,47 +1,32 @@
 package com.iot.honeypot.service;
 
+import com.iot.honeypot.device.DeviceRuntime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import java.util.HashMap;
 import java.util.Map;
 
 @Service
 public class HoneypotService {
-    private Map<String, Boolean> serviceStatus = new HashMap<>();
+    private static final Logger log = LoggerFactory.getLogger(HoneypotService.class);
     
-    public HoneypotService() {
-        serviceStatus.put("telnet", true);
-        serviceStatus.put("http", true);
-        serviceStatus.put("ssh", false);
-    }
+    @Autowired
+    private DeviceRuntime deviceRuntime;
     
+    /** Every device profile with its protocol, ports and whether it is listening, by profile id. */
     public Map<String, Object> getServiceStatus() {
-        Map<String, Object> status = new HashMap<>();
-        status.put("telnet", Map.of(
-            "running", serviceStatus.get("telnet"),
-            "port", 2323,
-            "description", "TP-Link Router Emulator"
-        ));
-        status.put("http", Map.of(
-            "running", serviceStatus.get("http"),
-            "port", 8081,
-            "description", "D-Link Camera Web Interface"
-        ));
-        status.put("ssh", Map.of(
-            "running", serviceStatus.get("ssh"),
-            "port", 2222,
-            "description", "SSH Server (Coming Soon)"
-        ));
-        return status;
+        return deviceRuntime.getStatus();
+    }
+    
+    public boolean hasService(String serviceName) {
+        return deviceRuntime.contains(serviceName);
     }
     
     public boolean toggleService(String serviceName) {
-        if (serviceStatus.containsKey(serviceName)) {
-            boolean current = serviceStatus.get(serviceName);
-            serviceStatus.put(serviceName, !current);
-            System.out.println("🔧 " + serviceName + " service " + 
-                (current ? "stopped" : "started"));
-            return !current;
-        }
-        return false;
+        if (!deviceRuntime.contains(serviceName)) return false;
+        boolean running = deviceRuntime.toggle(serviceName);
+        log.info("🔧 {} service {}", serviceName, running ? "started" : "stopped");
+        return running;
     }
 }
\ No newline at end of file
@@ -0,0 +1,188 @@
+package com.iot.honeypot.stats;
+
+import com.iot.honeypot.entity.AttackLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Time-bucketed attack counts at three resolutions, updated at ingest. Each
+ * tier is a ring of buckets indexed by {@code epochSeconds / width}, so the
+ * tiers downsample by construction: seconds cover the last few minutes,
+ * minutes the last day and hours the last month, each in a fixed amount of
+ * memory. A bucket holds the attack count, counts by service and by device,
+ * and a HyperLogLog of source IPs. Reading a bucket is constant time and
+ * never touches the stored attacks.
+ */
+@Component
+public class AttackRollups {
+    private static final String UNKNOWN = "UNKNOWN";
+    private static final int HLL_PRECISION = 10;
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+    
+    public enum Resolution {
+        SECOND(1), MINUTE(60), HOUR(3600);
+        
+        final long widthSeconds;
+        
+        Resolution(long widthSeconds) {
+            this.widthSeconds = widthSeconds;
+        }
+        
+        public long getWidthSeconds() {
+            return widthSeconds;
+        }
+        
+        public static Resolution parse(String value) {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+    
+    private final Tier[] tiers = new Tier[Resolution.values().length];
+    
+    public AttackRollups(@Value("${honeypot.rollups.seconds:300}") int seconds,
+                         @Value("${honeypot.rollups.minutes:1440}") int minutes,
+                         @Value("${honeypot.rollups.hours:720}") int hours) {
+        tiers[Resolution.SECOND.ordinal()] = new Tier(Resolution.SECOND, seconds);
+        tiers[Resolution.MINUTE.ordinal()] = new Tier(Resolution.MINUTE, minutes);
+        tiers[Resolution.HOUR.ordinal()] = new Tier(Resolution.HOUR, hours);
+    }
+    
+    public void record(AttackLog attack) {
+        LocalDateTime timestamp = attack.getTimestamp() != null ? attack.getTimestamp() : LocalDateTime.now();
+        long epochSecond = timestamp.atZone(ZONE).toEpochSecond();
+        for (Tier tier : tiers) {
+            tier.record(epochSecond, attack);
+        }
+    }
+    
+    public void reset() {
+        for (Tier tier : tiers) {
+            tier.reset();
+        }
+    }
+    
+    /**
+     * Buckets at {@code resolution} covering {@code [from, to)}, oldest first,
+     * clamped to what the tier still retains. Empty periods come back as zero
+     * buckets so a chart gets a continuous series.
+     */
+    public Map<String, Object> query(Resolution resolution, LocalDateTime from, LocalDateTime to) {
+        Tier tier = tiers[resolution.ordinal()];
+        long width = resolution.widthSeconds;
+        long newest = Math.floorDiv(Instant.now().getEpochSecond(), width);
+        long first = Math.max(Math.floorDiv(from.atZone(ZONE).toEpochSecond(), width), newest - tier.slots() + 1);
+        long last = Math.min(Math.floorDiv(to.atZone(ZONE).toEpochSecond() - 1, width), newest);
+        
+        List<Map<String, Object>> buckets = new ArrayList<>();
+        HyperLogLog distinct = new HyperLogLog(HLL_PRECISION);
+        long total = 0;
+        for (long period = first; period <= last; period++) {
+            Bucket bucket = tier.get(period);
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("start", LocalDateTime.ofInstant(Instant.ofEpochSecond(period * width), ZONE));
+            if (bucket == null) {
+                row.put("count", 0L);
+                row.put("distinctIps", 0L);
+                row.put("byService", Map.of());
+                row.put("byDevice", Map.of());
+            } else {
+                long count = bucket.count.sum();
+                total += count;
+                distinct.merge(bucket.sourceIps);
+                row.put("count", count);
+                row.put("distinctIps", bucket.sourceIps.estimate());
+                row.put("byService", snapshot(bucket.byService));
+                row.put("byDevice", snapshot(bucket.byDevice));
+            }
+            buckets.add(row);
+        }
+        
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("resolution", resolution.name().toLowerCase(Locale.ROOT));
+        result.put("bucketSeconds", width);
+        result.put("retainedBuckets", tier.slots());
+        result.put("total", total);
+        result.put("distinctIps", distinct.estimate());
+        result.put("buckets", buckets);
+        return result;
+    }
+    
+    private static void increment(Map<String, LongAdder> counters, String key) {
+        counters.computeIfAbsent(key != null ? key : UNKNOWN, k -> new LongAdder()).increment();
+    }
+    
+    private static Map<String, Long> snapshot(Map<String, LongAdder> counters) {
+        Map<String, Long> copy = new LinkedHashMap<>();
+        counters.forEach((key, count) -> copy.put(key, count.sum()));
+        return copy;
+    }
+    
+    private static final class Tier {
+        private final Resolution resolution;
+        private final AtomicReferenceArray<Bucket> ring;
+        
+        Tier(Resolution resolution, int slots) {
+            this.resolution = resolution;
+            this.ring = new AtomicReferenceArray<>(Math.max(1, slots));
+        }
+        
+        int slots() {
+            return ring.length();
+        }
+        
+        void record(long epochSecond, AttackLog attack) {
+            long period = Math.floorDiv(epochSecond, resolution.widthSeconds);
+            int index = (int) Math.floorMod(period, (long) ring.length());
+            Bucket bucket = ring.get(index);
+            while (bucket == null || bucket.period < period) {
+                // First attack of a new period claims the slot from the one it replaces
+                Bucket fresh = new Bucket(period);
+                if (ring.compareAndSet(index, bucket, fresh)) {
+                    bucket = fresh;
+                } else {
+                    bucket = ring.get(index);
+                }
+            }
+            // Too old for this tier: its slot already belongs to a later period
+            if (bucket.period != period) return;
+            bucket.count.increment();
+            increment(bucket.byService, attack.getServiceType());
+            increment(bucket.byDevice, attack.getDeviceEmulated());
+            bucket.sourceIps.offer(attack.getSourceIp() != null ? attack.getSourceIp() : UNKNOWN);
+        }
+        
+        Bucket get(long period) {
+            Bucket bucket = ring.get((int) Math.floorMod(period, (long) ring.length()));
+            return bucket != null && bucket.period == period ? bucket : null;
+        }
+        
+        void reset() {
+            for (int i = 0; i < ring.length(); i++) {
+                ring.set(i, null);
+            }
+        }
+    }
+    
+    private static final class Bucket {
+        final long period;
+        final LongAdder count = new LongAdder();
+        final Map<String, LongAdder> byService = new ConcurrentHashMap<>();
+        final Map<String, LongAdder> byDevice = new ConcurrentHashMap<>();
+        final HyperLogLog sourceIps = new HyperLogLog(HLL_PRECISION);
+        
+        Bucket(long period) {
+            this.period = period;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,150 @@
+package com.iot.honeypot.stats;
+
+import com.iot.honeypot.enrichment.NetworkInfo;
+import com.iot.honeypot.entity.AttackLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Attack counters maintained at ingest so reading them never touches the
+ * stored records. Service and device totals are exact; top attackers come
+ * from Space-Saving sketches partitioned by source IP, so memory stays fixed
+ * no matter how many distinct addresses show up. Country and ASN totals are
+ * exact as well; they are bounded by the range database, not the traffic.
+ */
+@Component
+public class AttackStatistics {
+    private static final String UNKNOWN = "UNKNOWN";
+    private static final int STRIPES = 16;
+    
+    private final Map<String, LongAdder> byService = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> byDevice = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> byCountry = new ConcurrentHashMap<>();
+    private final Map<String, AsnCounter> byAsn = new ConcurrentHashMap<>();
+    private final SpaceSavingSketch[] attackers = new SpaceSavingSketch[STRIPES];
+    private final LongAdder total = new LongAdder();
+    
+    public AttackStatistics(@Value("${honeypot.stats.top-attackers-capacity:1024}") int topAttackersCapacity) {
+        int perStripe = Math.max(8, topAttackersCapacity / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            attackers[i] = new SpaceSavingSketch(perStripe);
+        }
+    }
+    
+    public void record(AttackLog attack) {
+        total.increment();
+        increment(byService, attack.getServiceType());
+        increment(byDevice, attack.getDeviceEmulated());
+        NetworkInfo network = attack.getNetwork();
+        increment(byCountry, network != null ? network.getCountry() : null);
+        if (network != null && network.getAsnKey() != null) {
+            byAsn.computeIfAbsent(network.getAsnKey(), k -> new AsnCounter(network)).count.increment();
+        }
+        String ip = attack.getSourceIp() != null ? attack.getSourceIp() : UNKNOWN;
+        // Each IP always lands in the same stripe, so stripes never need merging
+        SpaceSavingSketch stripe = attackers[(ip.hashCode() & 0x7fffffff) % STRIPES];
+        synchronized (stripe) {
+            stripe.offer(ip);
+        }
+    }
+    
+    public void reset() {
+        total.reset();
+        byService.clear();
+        byDevice.clear();
+        byCountry.clear();
+        byAsn.clear();
+        for (SpaceSavingSketch stripe : attackers) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+    }
+    
+    /** Attacks recorded since startup or the last reset. */
+    public long getTotal() {
+        return total.sum();
+    }
+    
+    public Map<String, Long> getAttacksByService() {
+        return snapshot(byService);
+    }
+    
+    public Map<String, Long> getAttacksByDevice() {
+        return snapshot(byDevice);
+    }
+    
+    /** Keyed by ISO country code; UNKNOWN counts addresses outside every listed range. */
+    public Map<String, Long> getAttacksByCountry() {
+        return snapshot(byCountry);
+    }
+    
+    /** The {@code limit} origin networks seen most, highest first, as {asn, organization, attacks}. */
+    public List<Map<String, Object>> getTopNetworks(int limit) {
+        List<AsnCounter> counters = new ArrayList<>(byAsn.values());
+        long[] counts = new long[counters.size()];
+        Integer[] order = new Integer[counters.size()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = counters.get(i).count.sum();
+            order[i] = i;
+        }
+        // Sorted on one snapshot of the counts, which ingest keeps moving
+        Arrays.sort(order, Comparator.comparingLong((Integer i) -> counts[i]).reversed());
+        List<Map<String, Object>> top = new ArrayList<>();
+        for (int i = 0; i < order.length && top.size() < limit; i++) {
+            AsnCounter counter = counters.get(order[i]);
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("asn", counter.asn);
+            entry.put("organization", counter.organization);
+            entry.put("attacks", counts[order[i]]);
+            top.add(entry);
+        }
+        return top;
+    }
+    
+    /** The {@code limit} most frequent source IPs with their estimated counts, highest first. */
+    public Map<String, Long> getTopAttackers(int limit) {
+        List<SpaceSavingSketch.Counter> candidates = new ArrayList<>();
+        for (SpaceSavingSketch stripe : attackers) {
+            synchronized (stripe) {
+                candidates.addAll(stripe.snapshot());
+            }
+        }
+        candidates.sort(Comparator.comparingLong((SpaceSavingSketch.Counter c) -> c.count).reversed());
+        Map<String, Long> top = new LinkedHashMap<>();
+        for (SpaceSavingSketch.Counter counter : candidates) {
+            if (top.size() >= limit) break;
+            top.put(counter.key, counter.count);
+        }
+        return top;
+    }
+    
+    private static void increment(Map<String, LongAdder> counters, String key) {
+        counters.computeIfAbsent(key != null ? key : UNKNOWN, k -> new LongAdder()).increment();
+    }
+    
+    private static Map<String, Long> snapshot(Map<String, LongAdder> counters) {
+        Map<String, Long> copy = new LinkedHashMap<>();
+        counters.forEach((key, count) -> copy.put(key, count.sum()));
+        return copy;
+    }
+    
+    private static final class AsnCounter {
+        final int asn;
+        final String organization;
+        final LongAdder count = new LongAdder();
+        
+        AsnCounter(NetworkInfo network) {
+            this.asn = network.getAsn();
+            this.organization = network.getOrganization();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,73 @@
+package com.iot.honeypot.stats;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * HyperLogLog distinct-count estimator with 2^precision one-byte registers.
+ * At the default precision of 10 a sketch takes 1 KB and estimates within
+ * about 3%. Sketches of equal precision merge losslessly, so distinct counts
+ * over a range of buckets come from merging the buckets' sketches.
+ *
+ * <p>{@link #offer} is called concurrently without locking. A register only
+ * ever grows and byte writes are atomic, so a race can at worst lose one of
+ * two simultaneous increases to the same register.
+ */
+final class HyperLogLog {
+    private final int precision;
+    private final byte[] registers;
+    
+    HyperLogLog(int precision) {
+        if (precision < 4 || precision > 16) throw new IllegalArgumentException("precision must be 4..16");
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+    
+    void offer(String value) {
+        long hash = hash(value);
+        int index = (int) (hash >>> (64 - precision));
+        // The guard bit caps the rank at 64 - precision + 1
+        int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+    
+    /** Folds {@code other} into this sketch; both must have the same precision. */
+    void merge(HyperLogLog other) {
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) registers[i] = other.registers[i];
+        }
+    }
+    
+    long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) zeros++;
+        }
+        double alpha = m == 16 ? 0.673 : m == 32 ? 0.697 : m == 64 ? 0.709 : 0.7213 / (1 + 1.079 / m);
+        double estimate = alpha * m * m / sum;
+        // Small-range correction: linear counting is more accurate while registers are still empty
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+    
+    /** FNV-1a over the UTF-8 bytes, then a 64-bit finaliser so every bit is well mixed. */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
\ No newline at end of file
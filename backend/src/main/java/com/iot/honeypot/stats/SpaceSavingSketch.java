@@ -0,0 +1,115 @@
+package com.iot.honeypot.stats;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving heavy-hitters summary with a fixed number of counters. Any key
+ * seen more than {@code total / capacity} times is guaranteed to be tracked,
+ * and each reported count overestimates the true count by at most the
+ * counter's {@code error}. Memory stays at {@code capacity} entries however
+ * many distinct keys arrive.
+ *
+ * <p>Counters live in an indexed min-heap so both the hit and the
+ * evict-the-minimum paths are O(log capacity). Not thread-safe.
+ */
+final class SpaceSavingSketch {
+    private final int capacity;
+    private final Map<String, Counter> counters;
+    private final Counter[] heap;
+    private int size;
+    
+    SpaceSavingSketch(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        this.counters = new HashMap<>(this.capacity * 2);
+        this.heap = new Counter[this.capacity];
+    }
+    
+    void offer(String key) {
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            counter.count++;
+            siftDown(counter.heapIndex);
+            return;
+        }
+        if (size < capacity) {
+            counter = new Counter(key, 1, 0);
+            counter.heapIndex = size;
+            heap[size++] = counter;
+            counters.put(key, counter);
+            siftUp(counter.heapIndex);
+            return;
+        }
+        // Replace the smallest counter; the newcomer inherits its count as error
+        Counter min = heap[0];
+        counters.remove(min.key);
+        min.error = min.count;
+        min.count++;
+        min.key = key;
+        counters.put(key, min);
+        siftDown(0);
+    }
+    
+    /** Copies of the current counters, unordered. */
+    List<Counter> snapshot() {
+        List<Counter> copy = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Counter c = heap[i];
+            copy.add(new Counter(c.key, c.count, c.error));
+        }
+        return copy;
+    }
+    
+    void clear() {
+        counters.clear();
+        for (int i = 0; i < size; i++) {
+            heap[i] = null;
+        }
+        size = 0;
+    }
+    
+    private void siftUp(int index) {
+        Counter moving = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent].count <= moving.count) break;
+            place(heap[parent], index);
+            index = parent;
+        }
+        place(moving, index);
+    }
+    
+    private void siftDown(int index) {
+        Counter moving = heap[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && heap[right].count < heap[child].count) child = right;
+            if (moving.count <= heap[child].count) break;
+            place(heap[child], index);
+            index = child;
+        }
+        place(moving, index);
+    }
+    
+    private void place(Counter counter, int index) {
+        heap[index] = counter;
+        counter.heapIndex = index;
+    }
+    
+    static final class Counter {
+        String key;
+        long count;
+        long error;
+        int heapIndex;
+        
+        Counter(String key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+    }
+}
\ No newline at end of file
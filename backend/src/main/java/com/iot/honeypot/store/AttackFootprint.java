@@ -0,0 +1,46 @@
+package com.iot.honeypot.store;
+
+import com.iot.honeypot.credentials.Credential;
+import com.iot.honeypot.entity.AttackLog;
+
+/**
+ * Rough retained-heap estimate for one {@link AttackLog}, assuming compressed
+ * oops and compact (Latin-1) strings. Meant for budgeting, not for profiling.
+ */
+public final class AttackFootprint {
+    // Object header and fields, the boxed id and a LocalDateTime with its date and time
+    private static final int FIXED_BYTES = 48 + 16 + 72;
+    private static final int STRING_OVERHEAD = 24 + 16;
+    
+    private AttackFootprint() {
+    }
+    
+    public static long estimate(AttackLog attack) {
+        return FIXED_BYTES
+                + string(attack.getSourceIp())
+                + string(attack.getServiceType())
+                + string(attack.getPayload())
+                + credential(attack.getUsername())
+                + credential(attack.getPassword())
+                + string(attack.getDeviceEmulated())
+                + attempts(attack.getAttemptCredentials());
+    }
+    
+    private static long attempts(Credential[] attempts) {
+        if (attempts == null) return 0;
+        long bytes = 16 + 4L * attempts.length;
+        for (Credential credential : attempts) {
+            bytes += credential(credential);
+        }
+        return bytes;
+    }
+    
+    /** Interned credentials are shared with every other record that captured them. */
+    private static long credential(Credential credential) {
+        return credential == null || credential.isInterned() ? 0 : 16 + string(credential.getValue());
+    }
+    
+    private static long string(String value) {
+        return value == null ? 0 : STRING_OVERHEAD + value.length();
+    }
+}
\ No newline at end of file
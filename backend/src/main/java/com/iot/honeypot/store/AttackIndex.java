@@ -0,0 +1,77 @@
+package com.iot.honeypot.store;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Secondary index threaded through a store's slots. Each key maps to
+ * the sequence of its newest record, and every slot remembers the previous
+ * sequence with the same key, so a lookup walks exactly the matching records
+ * newest first. Memory is one long per slot plus one map entry per live key;
+ * a key whose newest record is overwritten is dropped at that moment.
+ */
+final class AttackIndex {
+    private final int mask;
+    private final ConcurrentHashMap<String, Long> heads = new ConcurrentHashMap<>();
+    private final AtomicLongArray previous;
+    
+    AttackIndex(int capacity) {
+        this.mask = capacity - 1;
+        this.previous = new AtomicLongArray(capacity);
+    }
+    
+    /** Links a record that has just been published under {@code sequence}; {@code key} comes from {@link IndexedField#keyOf}. */
+    void add(String key, long sequence) {
+        if (key == null) return;
+        // compute serialises appends per key, so the chain stays strictly newest first
+        heads.compute(key, (k, head) -> {
+            if (head == null || head < sequence) {
+                previous.set(index(sequence), head == null ? 0 : head);
+                return sequence;
+            }
+            long after = head;
+            long next;
+            while ((next = previous.get(index(after))) > sequence) {
+                // The slot was reused by a newer record, so the rest of this chain is gone
+                if (next >= after) {
+                    next = 0;
+                    break;
+                }
+                after = next;
+            }
+            previous.set(index(sequence), next);
+            previous.set(index(after), sequence);
+            return head;
+        });
+    }
+    
+    /** Called before the slot holding {@code sequence} is overwritten. */
+    void evict(String key, long sequence) {
+        if (key != null) heads.remove(key, sequence);
+    }
+    
+    /** Drops keys whose newest record is below {@code floor}. */
+    void clearBelow(long floor) {
+        heads.values().removeIf(head -> head < floor);
+    }
+    
+    /** Newest sequence recorded for {@code value}, or 0 if there is none. */
+    long head(String value) {
+        String key = IndexedField.normalize(value);
+        Long head = key == null ? null : heads.get(key);
+        return head == null ? 0 : head;
+    }
+    
+    /** Sequence recorded before {@code sequence} under the same key, 0 at the end of the chain. */
+    long previous(long sequence) {
+        return previous.get(index(sequence));
+    }
+    
+    int keyCount() {
+        return heads.size();
+    }
+    
+    private int index(long sequence) {
+        return (int) (sequence & mask);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,113 @@
+package com.iot.honeypot.store;
+
+import com.iot.honeypot.entity.AttackLog;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * In-memory storage engine behind {@code AttackService}. Every record gets a
+ * strictly increasing sequence number at append time, which doubles as its id.
+ */
+public interface AttackStore {
+    
+    /** Stores {@code attack}, assigns its id and returns that sequence number. */
+    long append(AttackLog attack);
+    
+    /** The record stored under {@code sequence}, or {@code null} if it was evicted or never existed. */
+    AttackLog get(long sequence);
+    
+    /**
+     * Visits live records from newest to oldest, starting at {@code fromSequence}
+     * (inclusive, clamped to the newest record) until {@code visitor} returns false.
+     */
+    void forEachNewestFirst(long fromSequence, Predicate<AttackLog> visitor);
+    
+    default void forEachNewestFirst(Predicate<AttackLog> visitor) {
+        forEachNewestFirst(Long.MAX_VALUE, visitor);
+    }
+    
+    /**
+     * Visits live records whose {@code field} equals {@code value} (ignoring
+     * case), newest first from {@code fromSequence} (inclusive), until
+     * {@code visitor} returns false. Costs time in proportion to the matches
+     * walked, not to the size of the store.
+     */
+    void forEachMatchingNewestFirst(IndexedField field, String value, long fromSequence, Predicate<AttackLog> visitor);
+    
+    default void forEachMatchingNewestFirst(IndexedField field, String value, Predicate<AttackLog> visitor) {
+        forEachMatchingNewestFirst(field, value, Long.MAX_VALUE, visitor);
+    }
+    
+    /**
+     * {@link #forEachNewestFirst(long, Predicate)} restricted to records with
+     * {@code from <= timestamp < to}; either bound may be null. Engines that
+     * keep timestamps as primitives skip the rest without building them.
+     */
+    default void forEachNewestFirst(long fromSequence, LocalDateTime from, LocalDateTime to, Predicate<AttackLog> visitor) {
+        forEachNewestFirst(fromSequence, inRange(from, to, visitor));
+    }
+    
+    /** {@link #forEachMatchingNewestFirst(IndexedField, String, long, Predicate)} with the same time bounds. */
+    default void forEachMatchingNewestFirst(IndexedField field, String value, long fromSequence,
+                                            LocalDateTime from, LocalDateTime to, Predicate<AttackLog> visitor) {
+        forEachMatchingNewestFirst(field, value, fromSequence, inRange(from, to, visitor));
+    }
+    
+    /** Timestamp of the record stored under {@code sequence}, or {@code null}. */
+    default LocalDateTime timestampOf(long sequence) {
+        AttackLog attack = get(sequence);
+        return attack == null ? null : attack.getTimestamp();
+    }
+    
+    /** Number of distinct live values indexed for {@code field}. */
+    int indexedKeys(IndexedField field);
+    
+    /** Sequence of the oldest record still held, or {@code lastSequence() + 1} when empty. */
+    long firstSequence();
+    
+    /** Sequence of the newest record appended so far, 0 before the first append. */
+    long lastSequence();
+    
+    int size();
+    
+    int capacity();
+    
+    /**
+     * Makes the next append use {@code sequence} (never moving backwards), so
+     * records restored from disk keep their ids. Only called before ingest starts.
+     */
+    void resumeAt(long sequence);
+    
+    /**
+     * Drops every record up to and including {@code throughSequence}, oldest
+     * first, handing each one still held to {@code sink} (which may be null).
+     * Only one thread may retire at a time.
+     */
+    void retire(long throughSequence, Consumer<AttackLog> sink);
+    
+    /** Estimated heap held by the stored records, see {@link AttackFootprint}. */
+    long heapBytes();
+    
+    /** Memory held outside the Java heap, 0 for engines that keep everything on it. */
+    default long offHeapBytes() {
+        return 0;
+    }
+    
+    /** Live records lost because the ring wrapped before they were retired. */
+    long overwrittenCount();
+    
+    /** Drops every record; sequence numbers keep increasing. */
+    void clear();
+    
+    /** Passes on only records with {@code from <= timestamp < to}, continuing past the rest. */
+    static Predicate<AttackLog> inRange(LocalDateTime from, LocalDateTime to, Predicate<AttackLog> visitor) {
+        if (from == null && to == null) return visitor;
+        return attack -> {
+            LocalDateTime timestamp = attack.getTimestamp();
+            if (from != null && (timestamp == null || timestamp.isBefore(from))) return true;
+            if (to != null && (timestamp == null || !timestamp.isBefore(to))) return true;
+            return visitor.test(attack);
+        };
+    }
+}
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.iot.honeypot.store;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Dense ids for one column's repeating values, such as service types, device
+ * names and enriched networks, with each value's index key kept alongside so
+ * evicting a record never has to derive it again. Ids are assigned only under the
+ * owning store's append lock; lookups by id need no lock. At most
+ * {@code limit} values are held, after which the store keeps the text inline.
+ */
+final class ColumnDictionary<T> {
+    static final int FULL = -1;
+    
+    private final int limit;
+    private final Function<T, String> keyOf;
+    private final Map<T, Integer> ids = new HashMap<>();
+    private volatile Object[] values = new Object[16];
+    private volatile String[] keys = new String[16];
+    
+    ColumnDictionary(int limit, Function<T, String> keyOf) {
+        this.limit = limit;
+        this.keyOf = keyOf;
+    }
+    
+    /** Strings keyed the way {@link IndexedField} normalises them. */
+    static ColumnDictionary<String> ofStrings(int limit) {
+        return new ColumnDictionary<>(limit, IndexedField::normalize);
+    }
+    
+    /** Id of {@code value}, assigning the next one if it is new; {@link #FULL} once the limit is reached. Append lock only. */
+    int idOf(T value) {
+        Integer id = ids.get(value);
+        if (id != null) return id;
+        int next = ids.size();
+        if (next >= limit) return FULL;
+        Object[] currentValues = values;
+        String[] currentKeys = keys;
+        if (next == currentValues.length) {
+            currentValues = Arrays.copyOf(currentValues, next * 2);
+            currentKeys = Arrays.copyOf(currentKeys, next * 2);
+        }
+        currentValues[next] = value;
+        currentKeys[next] = keyOf.apply(value);
+        // Both arrays are published before any record carrying the id
+        keys = currentKeys;
+        values = currentValues;
+        ids.put(value, next);
+        return next;
+    }
+    
+    @SuppressWarnings("unchecked")
+    T value(int id) {
+        return (T) values[id];
+    }
+    
+    String key(int id) {
+        return keys[id];
+    }
+    
+    int size() {
+        return ids.size();
+    }
+}
\ No newline at end of file
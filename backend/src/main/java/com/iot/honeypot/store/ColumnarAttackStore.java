@@ -0,0 +1,623 @@
+package com.iot.honeypot.store;
+
+import com.iot.honeypot.credentials.Credential;
+import com.iot.honeypot.credentials.CredentialAttempts;
+import com.iot.honeypot.credentials.CredentialDictionary;
+import com.iot.honeypot.enrichment.NetworkInfo;
+import com.iot.honeypot.entity.AttackLog;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * {@code honeypot.store.engine=columnar}: the same bounded ring as
+ * {@link RingBufferAttackStore}, but decomposed into primitive columns so a
+ * stored attack is a few array elements rather than a graph of objects for
+ * the collector to trace. Timestamps are epoch milliseconds, source
+ * addresses are packed into two longs, service types and devices are ids in
+ * per-column dictionaries, as are the enriched network and source tag, and
+ * credentials are ids in the {@link CredentialDictionary}. The payload, the
+ * login attempts of a multi-attempt session (as dictionary ids where they
+ * have them), and any value a dictionary had no room for go to an off-heap
+ * arena. {@link AttackLog}s are built only
+ * when a record is read, and time-bounded walks test the timestamp column
+ * before building anything.
+ *
+ * <p>Columns are allocated in chunks as the ring first fills. The arena is a
+ * ring of direct buffers of {@code arenaBytes} in total; when it wraps before
+ * the record ring does, the records whose bytes it overwrites are dropped
+ * and counted as overwritten, like records the ring laps.
+ *
+ * <p>Appends, retiring and clearing are serialised on the store, which keeps
+ * records in the arena in sequence order. Readers take no lock: each slot
+ * carries the sequence it was published under, writers mark it busy before
+ * touching the slot's columns or its arena bytes, and readers check the
+ * mark on both sides of the read.
+ */
+public class ColumnarAttackStore implements AttackStore {
+    private static final long BUSY = -1;
+    private static final IndexedField[] FIELDS = IndexedField.values();
+    private static final int CHUNK_RECORDS = 1 << 14;
+    private static final int RETIRE_BATCH = 256;
+    private static final int ARENA_CHUNK_BYTES = 16 << 20;
+    private static final int DICTIONARY_LIMIT = 1 << 16;
+    // One entry per ASN, organisation and country seen, which a full range database can put in the tens of thousands
+    private static final int NETWORK_LIMIT = 1 << 20;
+    private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+    
+    // Dictionary-encoded columns: an id, or one of these
+    private static final int ABSENT = -1;
+    private static final int INLINE = -2;
+    
+    // Flags column: the low bits hold the address kind, then whether there is a payload and an attempt list
+    private static final byte ADDRESS_TEXT = 1;
+    private static final byte ADDRESS_INLINE = 2;
+    private static final int ADDRESS_MASK = 7;
+    private static final int HAS_PAYLOAD = 8;
+    private static final int HAS_ATTEMPTS = 16;
+    
+    // Heap per record: published, timestamp, two address halves, six ids, arena offset and length, flags,
+    // and one chain link per index
+    private static final int RECORD_HEAP_BYTES = 8 + 8 + 16 + 24 + 8 + 4 + 1 + 8 * 5;
+    
+    private final int capacity;
+    private final int mask;
+    private final int chunkRecords;
+    private final AtomicReferenceArray<Chunk> chunks;
+    private final long arenaBytes;
+    private final AtomicReferenceArray<ByteBuffer> arena;
+    private final CredentialDictionary credentials;
+    private final ColumnDictionary<String> services = ColumnDictionary.ofStrings(DICTIONARY_LIMIT);
+    private final ColumnDictionary<String> devices = ColumnDictionary.ofStrings(DICTIONARY_LIMIT);
+    private final ColumnDictionary<String> sources = ColumnDictionary.ofStrings(DICTIONARY_LIMIT);
+    private final ColumnDictionary<String> tags = ColumnDictionary.ofStrings(DICTIONARY_LIMIT);
+    // Keyed by country; the ASN key is already held by the network itself
+    private final ColumnDictionary<NetworkInfo> networks = new ColumnDictionary<>(NETWORK_LIMIT,
+            network -> IndexedField.normalize(network.getCountry()));
+    private final AttackIndex[] indexes;
+    private final LongAdder overwritten = new LongAdder();
+    private final long[] addressHalves = new long[2];
+    private byte[] scratch = new byte[256];
+    private int scratchLength;
+    private long arenaTail;
+    private volatile int arenaChunks;
+    private volatile long nextSequence = 1;
+    private volatile long floor = 1;
+    // Oldest sequence whose arena bytes are still intact
+    private volatile long lapped = 1;
+    
+    public ColumnarAttackStore(int requestedCapacity, long requestedArenaBytes, CredentialDictionary credentials) {
+        int size = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.capacity = size;
+        this.mask = size - 1;
+        this.chunkRecords = Math.min(size, CHUNK_RECORDS);
+        this.chunks = new AtomicReferenceArray<>(size / chunkRecords);
+        long arenaChunkCount = Math.max(1, (requestedArenaBytes + ARENA_CHUNK_BYTES - 1) / ARENA_CHUNK_BYTES);
+        this.arenaBytes = arenaChunkCount * ARENA_CHUNK_BYTES;
+        this.arena = new AtomicReferenceArray<>((int) arenaChunkCount);
+        this.credentials = credentials;
+        this.indexes = new AttackIndex[FIELDS.length];
+        for (IndexedField field : FIELDS) {
+            indexes[field.ordinal()] = new AttackIndex(size);
+        }
+    }
+    
+    @Override
+    public synchronized long append(AttackLog attack) {
+        long sequence = nextSequence;
+        nextSequence = sequence + 1;
+        attack.setId(sequence);
+        int slot = (int) (sequence & mask);
+        Chunk chunk = chunkFor(slot);
+        int i = slot & (chunkRecords - 1);
+        long evicted = chunk.published.getAndSet(i, BUSY);
+        // Retired and lapped records were unlinked when they left, so anything still published is live
+        if (evicted > 0) {
+            unlink(chunk, i, evicted);
+            overwritten.increment();
+        }
+        
+        scratchLength = 0;
+        byte flags = 0;
+        if (attack.getPayload() != null) {
+            flags |= HAS_PAYLOAD;
+            writeInline(attack.getPayload());
+        }
+        String sourceIp = attack.getSourceIp();
+        long high = 0;
+        long low = 0;
+        if (sourceIp != null) {
+            if ((low = PackedAddress.parseIpv4(sourceIp)) >= 0) {
+                flags |= PackedAddress.IPV4;
+            } else if (PackedAddress.parseIpv6(sourceIp, addressHalves)) {
+                flags |= PackedAddress.IPV6;
+                high = addressHalves[0];
+                low = addressHalves[1];
+            } else if ((low = sources.idOf(sourceIp)) != ColumnDictionary.FULL) {
+                flags |= ADDRESS_TEXT;
+            } else {
+                flags |= ADDRESS_INLINE;
+                writeInline(sourceIp);
+            }
+        }
+        int service = encode(services, attack.getServiceType());
+        int device = encode(devices, attack.getDeviceEmulated());
+        int username = encode(attack.getUsername());
+        int password = encode(attack.getPassword());
+        String attempts = CredentialAttempts.encodeIds(attack.getAttemptCredentials(), AttackLog.PAYLOAD_LENGTH);
+        if (attempts != null) {
+            flags |= HAS_ATTEMPTS;
+            writeInline(attempts);
+        }
+        // Derived from the source address, so past the limit it is dropped rather than spent arena bytes on
+        int network = attack.getNetwork() != null ? networks.idOf(attack.getNetwork()) : ABSENT;
+        if (network == ColumnDictionary.FULL) network = ABSENT;
+        int tag = attack.getSourceTag() != null ? tags.idOf(attack.getSourceTag()) : ABSENT;
+        if (tag == ColumnDictionary.FULL) tag = ABSENT;
+        
+        long offset = reserve(scratchLength, sequence);
+        if (scratchLength > 0) {
+            long physical = offset % arenaBytes;
+            arenaChunk((int) (physical / ARENA_CHUNK_BYTES)).put((int) (physical % ARENA_CHUNK_BYTES), scratch, 0, scratchLength);
+        }
+        LocalDateTime timestamp = attack.getTimestamp();
+        chunk.timestamps[i] = timestamp == null ? NO_TIMESTAMP : timestamp.toInstant(ZoneOffset.UTC).toEpochMilli();
+        chunk.addressHigh[i] = high;
+        chunk.addressLow[i] = low;
+        chunk.services[i] = service;
+        chunk.devices[i] = device;
+        chunk.usernames[i] = username;
+        chunk.passwords[i] = password;
+        chunk.networks[i] = network;
+        chunk.tags[i] = tag;
+        chunk.arenaOffsets[i] = offset;
+        chunk.arenaLengths[i] = scratchLength;
+        chunk.flags[i] = flags;
+        chunk.published.set(i, sequence);
+        for (IndexedField field : FIELDS) {
+            indexes[field.ordinal()].add(field.keyOf(attack), sequence);
+        }
+        return sequence;
+    }
+    
+    @Override
+    public AttackLog get(long sequence) {
+        if (sequence < firstSequence() || sequence > lastSequence()) return null;
+        int slot = (int) (sequence & mask);
+        Chunk chunk = chunks.get(slot / chunkRecords);
+        return chunk == null ? null : read(chunk, slot & (chunkRecords - 1), sequence);
+    }
+    
+    @Override
+    public LocalDateTime timestampOf(long sequence) {
+        if (sequence < firstSequence() || sequence > lastSequence()) return null;
+        int slot = (int) (sequence & mask);
+        Chunk chunk = chunks.get(slot / chunkRecords);
+        if (chunk == null) return null;
+        int i = slot & (chunkRecords - 1);
+        if (chunk.published.get(i) != sequence) return null;
+        long millis = chunk.timestamps[i];
+        VarHandle.loadLoadFence();
+        if (chunk.published.get(i) != sequence || millis == NO_TIMESTAMP) return null;
+        return toDateTime(millis);
+    }
+    
+    @Override
+    public void forEachNewestFirst(long fromSequence, Predicate<AttackLog> visitor) {
+        forEachNewestFirst(fromSequence, null, null, visitor);
+    }
+    
+    @Override
+    public void forEachNewestFirst(long fromSequence, LocalDateTime from, LocalDateTime to, Predicate<AttackLog> visitor) {
+        long fromMillis = from == null ? Long.MIN_VALUE : ceilMillis(from);
+        long toMillis = to == null ? Long.MAX_VALUE : ceilMillis(to);
+        boolean bounded = from != null || to != null;
+        long oldest = firstSequence();
+        for (long sequence = Math.min(fromSequence, lastSequence()); sequence >= oldest; sequence--) {
+            int slot = (int) (sequence & mask);
+            Chunk chunk = chunks.get(slot / chunkRecords);
+            if (chunk == null) continue;
+            int i = slot & (chunkRecords - 1);
+            if (bounded && !inRange(chunk.timestamps[i], fromMillis, toMillis)) continue;
+            AttackLog attack = read(chunk, i, sequence);
+            if (attack != null && !visitor.test(attack)) return;
+        }
+    }
+    
+    @Override
+    public void forEachMatchingNewestFirst(IndexedField field, String value, long fromSequence, Predicate<AttackLog> visitor) {
+        forEachMatchingNewestFirst(field, value, fromSequence, null, null, visitor);
+    }
+    
+    @Override
+    public void forEachMatchingNewestFirst(IndexedField field, String value, long fromSequence,
+                                           LocalDateTime from, LocalDateTime to, Predicate<AttackLog> visitor) {
+        long fromMillis = from == null ? Long.MIN_VALUE : ceilMillis(from);
+        long toMillis = to == null ? Long.MAX_VALUE : ceilMillis(to);
+        boolean bounded = from != null || to != null;
+        AttackIndex attackIndex = indexes[field.ordinal()];
+        long oldest = firstSequence();
+        long sequence = attackIndex.head(value);
+        while (sequence > 0 && sequence >= oldest) {
+            int slot = (int) (sequence & mask);
+            Chunk chunk = chunks.get(slot / chunkRecords);
+            int i = slot & (chunkRecords - 1);
+            if (chunk == null || chunk.published.get(i) != sequence) return;
+            long next = attackIndex.previous(sequence);
+            if (sequence <= fromSequence && (!bounded || inRange(chunk.timestamps[i], fromMillis, toMillis))) {
+                AttackLog attack = read(chunk, i, sequence);
+                // Overwritten while we read it, so everything older is gone as well
+                if (attack == null) return;
+                if (!visitor.test(attack)) return;
+            } else if (chunk.published.get(i) != sequence) {
+                return;
+            }
+            sequence = next;
+        }
+    }
+    
+    @Override
+    public int indexedKeys(IndexedField field) {
+        return indexes[field.ordinal()].keyCount();
+    }
+    
+    @Override
+    public long firstSequence() {
+        return Math.max(Math.max(floor, lapped), nextSequence - capacity);
+    }
+    
+    @Override
+    public long lastSequence() {
+        return nextSequence - 1;
+    }
+    
+    @Override
+    public int size() {
+        return (int) Math.max(0, lastSequence() - firstSequence() + 1);
+    }
+    
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+    
+    @Override
+    public synchronized void resumeAt(long sequence) {
+        long previous = nextSequence;
+        nextSequence = Math.max(previous, sequence);
+        // Nothing stored yet, so the skipped ids are not a gap to count
+        if (previous == floor) floor = Math.max(previous, sequence);
+    }
+    
+    @Override
+    public void retire(long throughSequence, Consumer<AttackLog> sink) {
+        AttackLog[] batch = sink != null ? new AttackLog[RETIRE_BATCH] : null;
+        while (true) {
+            int count = 0;
+            synchronized (this) {
+                long from = floor;
+                long to = Math.min(throughSequence, lastSequence());
+                if (to < from) return;
+                long start = Math.max(from, to + 1 - capacity);
+                long end = Math.min(to, start + RETIRE_BATCH - 1);
+                floor = end + 1;
+                for (long sequence = start; sequence <= end; sequence++) {
+                    int slot = (int) (sequence & mask);
+                    Chunk chunk = chunks.get(slot / chunkRecords);
+                    int i = slot & (chunkRecords - 1);
+                    if (chunk == null || chunk.published.get(i) != sequence) continue;
+                    if (batch != null) {
+                        AttackLog attack = read(chunk, i, sequence);
+                        if (attack != null) batch[count++] = attack;
+                    }
+                    chunk.published.set(i, 0);
+                    unlink(chunk, i, sequence);
+                }
+            }
+            // Handed over a batch at a time outside the lock, so spilling to disk never holds up ingest
+            for (int i = 0; i < count; i++) {
+                sink.accept(batch[i]);
+                batch[i] = null;
+            }
+        }
+    }
+    
+    /** Fixed per record: the column and index entries, whatever the record holds. */
+    @Override
+    public long heapBytes() {
+        return (long) size() * RECORD_HEAP_BYTES;
+    }
+    
+    /** Arena buffers allocated so far; they are kept for reuse once the arena has wrapped. */
+    @Override
+    public long offHeapBytes() {
+        return (long) arenaChunks * ARENA_CHUNK_BYTES;
+    }
+    
+    @Override
+    public long overwrittenCount() {
+        return overwritten.sum();
+    }
+    
+    @Override
+    public void clear() {
+        long cleared = nextSequence;
+        retire(cleared - 1, null);
+        for (AttackIndex attackIndex : indexes) {
+            attackIndex.clearBelow(cleared);
+        }
+    }
+    
+    private Chunk chunkFor(int slot) {
+        int index = slot / chunkRecords;
+        Chunk chunk = chunks.get(index);
+        if (chunk == null) {
+            chunk = new Chunk(chunkRecords);
+            chunks.set(index, chunk);
+        }
+        return chunk;
+    }
+    
+    private ByteBuffer arenaChunk(int index) {
+        ByteBuffer buffer = arena.get(index);
+        if (buffer == null) {
+            buffer = ByteBuffer.allocateDirect(ARENA_CHUNK_BYTES);
+            arena.set(index, buffer);
+            arenaChunks++;
+        }
+        return buffer;
+    }
+    
+    /**
+     * Claims {@code length} arena bytes for {@code sequence}, never across a
+     * buffer boundary, and first drops the older records whose bytes the
+     * claim overwrites. Append lock only.
+     */
+    private long reserve(int length, long sequence) {
+        long offset = arenaTail;
+        long within = offset % ARENA_CHUNK_BYTES;
+        if (length > 0 && within + length > ARENA_CHUNK_BYTES) {
+            offset += ARENA_CHUNK_BYTES - within;
+        }
+        arenaTail = offset + length;
+        long reusedBelow = arenaTail - arenaBytes;
+        if (reusedBelow > 0) {
+            long oldest = Math.max(Math.max(lapped, floor), sequence - capacity + 1);
+            long current = oldest;
+            for (; current < sequence; current++) {
+                int slot = (int) (current & mask);
+                Chunk chunk = chunks.get(slot / chunkRecords);
+                if (chunk == null) continue;
+                int i = slot & (chunkRecords - 1);
+                if (chunk.published.get(i) != current) continue;
+                if (chunk.arenaOffsets[i] >= reusedBelow) break;
+                // The full fence of getAndSet keeps readers from seeing new bytes under the old sequence
+                chunk.published.getAndSet(i, 0);
+                unlink(chunk, i, current);
+                overwritten.increment();
+            }
+            if (current > oldest) lapped = current;
+        }
+        return offset;
+    }
+    
+    /** Drops the index entries of the record at {@code i}; its columns are still intact. Append lock only. */
+    private void unlink(Chunk chunk, int i, long sequence) {
+        boolean keysInline = chunk.services[i] == INLINE || chunk.devices[i] == INLINE
+                || (chunk.flags[i] & ADDRESS_MASK) == ADDRESS_INLINE;
+        String[] inline = keysInline ? readInline(chunk, i) : null;
+        for (IndexedField field : FIELDS) {
+            indexes[field.ordinal()].evict(keyOf(field, chunk, i, inline), sequence);
+        }
+    }
+    
+    private String keyOf(IndexedField field, Chunk chunk, int i, String[] inline) {
+        if (field == IndexedField.SERVICE_TYPE) {
+            int id = chunk.services[i];
+            return id >= 0 ? services.key(id) : id == INLINE ? IndexedField.normalize(inline[2]) : null;
+        }
+        if (field == IndexedField.DEVICE) {
+            int id = chunk.devices[i];
+            return id >= 0 ? devices.key(id) : id == INLINE ? IndexedField.normalize(inline[3]) : null;
+        }
+        if (field == IndexedField.SOURCE_IP) {
+            return IndexedField.normalize(sourceIp(chunk, i, inline));
+        }
+        int id = chunk.networks[i];
+        if (id < 0) return null;
+        return field == IndexedField.COUNTRY ? networks.key(id) : networks.value(id).getAsnKey();
+    }
+    
+    private String sourceIp(Chunk chunk, int i, String[] inline) {
+        byte kind = (byte) (chunk.flags[i] & ADDRESS_MASK);
+        if (kind == PackedAddress.NONE) return null;
+        if (kind == ADDRESS_TEXT) return sources.value((int) chunk.addressLow[i]);
+        if (kind == ADDRESS_INLINE) return inline[1];
+        return PackedAddress.format(kind, chunk.addressHigh[i], chunk.addressLow[i]);
+    }
+    
+    /** Builds the record at {@code i}, or returns null if it is not (or stops being) {@code sequence} while being read. */
+    private AttackLog read(Chunk chunk, int i, long sequence) {
+        if (chunk.published.get(i) != sequence) return null;
+        long millis = chunk.timestamps[i];
+        long high = chunk.addressHigh[i];
+        long low = chunk.addressLow[i];
+        int service = chunk.services[i];
+        int device = chunk.devices[i];
+        int username = chunk.usernames[i];
+        int password = chunk.passwords[i];
+        int network = chunk.networks[i];
+        int tag = chunk.tags[i];
+        byte flags = chunk.flags[i];
+        String[] inline = chunk.arenaLengths[i] > 0 ? readInline(chunk, i) : null;
+        VarHandle.loadLoadFence();
+        if (chunk.published.get(i) != sequence) return null;
+        
+        AttackLog attack = new AttackLog();
+        attack.setId(sequence);
+        attack.setTimestamp(millis == NO_TIMESTAMP ? null : toDateTime(millis));
+        byte kind = (byte) (flags & ADDRESS_MASK);
+        if (kind == ADDRESS_TEXT) {
+            attack.setSourceIp(sources.value((int) low));
+        } else if (kind == ADDRESS_INLINE) {
+            attack.setSourceIp(inline[1]);
+        } else if (kind != PackedAddress.NONE) {
+            attack.setSourceIp(PackedAddress.format(kind, high, low));
+        }
+        attack.setPayload(inline != null ? inline[0] : null);
+        attack.setServiceType(decode(services, service, inline, 2));
+        attack.setDeviceEmulated(decode(devices, device, inline, 3));
+        attack.setUsername(decode(username, inline, 4));
+        attack.setPassword(decode(password, inline, 5));
+        attack.setAttemptCredentials(inline != null ? CredentialAttempts.decode(inline[6], credentials) : null);
+        attack.setNetwork(network >= 0 ? networks.value(network) : null);
+        attack.setSourceTag(tag >= 0 ? tags.value(tag) : null);
+        return attack;
+    }
+    
+    /**
+     * The arena strings of the record at {@code i}, by position: payload,
+     * source, service, device, username, password and login attempts, null
+     * where the value lives in a column or is absent. The caller re-checks the sequence afterwards.
+     */
+    private String[] readInline(Chunk chunk, int i) {
+        int length = chunk.arenaLengths[i];
+        long physical = chunk.arenaOffsets[i] % arenaBytes;
+        ByteBuffer buffer = arena.get((int) (physical / ARENA_CHUNK_BYTES));
+        String[] inline = new String[7];
+        if (buffer == null || length <= 0 || length > ARENA_CHUNK_BYTES) return inline;
+        byte[] bytes = new byte[length];
+        buffer.get((int) (physical % ARENA_CHUNK_BYTES), bytes, 0, length);
+        int[] position = { 0 };
+        byte flags = chunk.flags[i];
+        try {
+            if ((flags & HAS_PAYLOAD) != 0) inline[0] = nextInline(bytes, position);
+            if ((flags & ADDRESS_MASK) == ADDRESS_INLINE) inline[1] = nextInline(bytes, position);
+            if (chunk.services[i] == INLINE) inline[2] = nextInline(bytes, position);
+            if (chunk.devices[i] == INLINE) inline[3] = nextInline(bytes, position);
+            if (chunk.usernames[i] == INLINE) inline[4] = nextInline(bytes, position);
+            if (chunk.passwords[i] == INLINE) inline[5] = nextInline(bytes, position);
+            if ((flags & HAS_ATTEMPTS) != 0) inline[6] = nextInline(bytes, position);
+        } catch (IndexOutOfBoundsException e) {
+            // Torn by a concurrent overwrite; the sequence re-check discards it
+        }
+        return inline;
+    }
+    
+    private static String nextInline(byte[] bytes, int[] position) {
+        int length = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = bytes[position[0]++];
+            length |= (b & 0x7f) << shift;
+            shift += 7;
+        } while (b < 0 && shift < 32);
+        if (length < 0 || position[0] + length > bytes.length) throw new IndexOutOfBoundsException();
+        String value = new String(bytes, position[0], length, StandardCharsets.UTF_8);
+        position[0] += length;
+        return value;
+    }
+    
+    private int encode(ColumnDictionary<String> dictionary, String value) {
+        if (value == null) return ABSENT;
+        int id = dictionary.idOf(value);
+        if (id != ColumnDictionary.FULL) return id;
+        writeInline(value);
+        return INLINE;
+    }
+    
+    private int encode(Credential credential) {
+        if (credential == null) return ABSENT;
+        if (credential.isInterned()) return credential.getId();
+        writeInline(credential.getValue());
+        return INLINE;
+    }
+    
+    private static String decode(ColumnDictionary<String> dictionary, int id, String[] inline, int position) {
+        if (id >= 0) return dictionary.value(id);
+        return id == INLINE ? inline[position] : null;
+    }
+    
+    private Credential decode(int id, String[] inline, int position) {
+        if (id >= 0) return credentials.get(id);
+        return id == INLINE ? Credential.detached(inline[position]) : null;
+    }
+    
+    /** Appends a length-prefixed UTF-8 string to the record being encoded, cut to the payload column's length. */
+    private void writeInline(String value) {
+        String text = value.length() > AttackLog.PAYLOAD_LENGTH ? value.substring(0, AttackLog.PAYLOAD_LENGTH) : value;
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        ensureScratch(scratchLength + 5 + bytes.length);
+        int length = bytes.length;
+        while ((length & ~0x7f) != 0) {
+            scratch[scratchLength++] = (byte) (length & 0x7f | 0x80);
+            length >>>= 7;
+        }
+        scratch[scratchLength++] = (byte) length;
+        System.arraycopy(bytes, 0, scratch, scratchLength, bytes.length);
+        scratchLength += bytes.length;
+    }
+    
+    private void ensureScratch(int needed) {
+        if (needed > scratch.length) {
+            scratch = Arrays.copyOf(scratch, Math.max(needed, scratch.length * 2));
+        }
+    }
+    
+    private static boolean inRange(long millis, long fromMillis, long toMillis) {
+        return millis != NO_TIMESTAMP && millis >= fromMillis && millis < toMillis;
+    }
+    
+    /** Local date-times are stored as if they were UTC, so no zone rules are involved either way. */
+    private static LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000), Math.floorMod(millis, 1000) * 1_000_000, ZoneOffset.UTC);
+    }
+    
+    /** Rounds up, so comparing stored milliseconds against it agrees with comparing the full timestamps. */
+    private static long ceilMillis(LocalDateTime time) {
+        long millis = time.toInstant(ZoneOffset.UTC).toEpochMilli();
+        return time.getNano() % 1_000_000 != 0 ? millis + 1 : millis;
+    }
+    
+    /** Columns for {@code CHUNK_RECORDS} consecutive slots. */
+    private static final class Chunk {
+        final AtomicLongArray published;
+        final long[] timestamps;
+        final long[] addressHigh;
+        final long[] addressLow;
+        final int[] services;
+        final int[] devices;
+        final int[] usernames;
+        final int[] passwords;
+        final int[] networks;
+        final int[] tags;
+        final long[] arenaOffsets;
+        final int[] arenaLengths;
+        final byte[] flags;
+        
+        Chunk(int records) {
+            published = new AtomicLongArray(records);
+            timestamps = new long[records];
+            addressHigh = new long[records];
+            addressLow = new long[records];
+            services = new int[records];
+            devices = new int[records];
+            usernames = new int[records];
+            passwords = new int[records];
+            networks = new int[records];
+            tags = new int[records];
+            arenaOffsets = new long[records];
+            arenaLengths = new int[records];
+            flags = new byte[records];
+        }
+    }
+}
\ No newline at end of file
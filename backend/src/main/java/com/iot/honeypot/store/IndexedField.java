@@ -0,0 +1,39 @@
+package com.iot.honeypot.store;
+
+import com.iot.honeypot.entity.AttackLog;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Attack fields the store keeps secondary indexes on. Matching ignores case.
+ * Derived fields come from enrichment at ingest rather than from the record
+ * itself, so storage that does not keep them cannot be searched on them.
+ */
+public enum IndexedField {
+    SERVICE_TYPE(AttackLog::getServiceType, false),
+    SOURCE_IP(AttackLog::getSourceIp, false),
+    DEVICE(AttackLog::getDeviceEmulated, false),
+    COUNTRY(AttackLog::getCountry, true),
+    ASN(attack -> attack.getNetwork() != null ? attack.getNetwork().getAsnKey() : null, true);
+    
+    private final Function<AttackLog, String> getter;
+    private final boolean derived;
+    
+    IndexedField(Function<AttackLog, String> getter, boolean derived) {
+        this.getter = getter;
+        this.derived = derived;
+    }
+    
+    public boolean isDerived() {
+        return derived;
+    }
+    
+    /** Normalised index key for {@code attack}, or {@code null} if the field is unset. */
+    public String keyOf(AttackLog attack) {
+        return normalize(getter.apply(attack));
+    }
+    
+    public static String normalize(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,88 @@
+package com.iot.honeypot.store;
+
+/**
+ * Source addresses as two longs. Only literals in the form the listeners
+ * report them are packed: dotted-quad IPv4 without leading zeros, and IPv6
+ * as eight lowercase hex groups the way {@code InetAddress.getHostAddress()}
+ * writes it. Formatting a packed address therefore gives back exactly the
+ * text that was stored, and nothing is ever looked up by name.
+ */
+public final class PackedAddress {
+    public static final byte NONE = 0;
+    public static final byte IPV4 = 4;
+    public static final byte IPV6 = 6;
+    
+    private PackedAddress() {
+    }
+    
+    /** The address as an unsigned 32-bit value, or -1 if {@code text} is not a canonical IPv4 literal. */
+    public static long parseIpv4(String text) {
+        int length = text.length();
+        if (length < 7 || length > 15) return -1;
+        long address = 0;
+        int octets = 0;
+        int position = 0;
+        while (position <= length) {
+            int start = position;
+            int value = 0;
+            while (position < length && text.charAt(position) != '.') {
+                char c = text.charAt(position);
+                if (c < '0' || c > '9') return -1;
+                value = value * 10 + (c - '0');
+                position++;
+            }
+            int digits = position - start;
+            if (digits == 0 || digits > 3 || value > 255 || (digits > 1 && text.charAt(start) == '0')) return -1;
+            address = address << 8 | value;
+            octets++;
+            position++;
+        }
+        return octets == 4 ? address : -1;
+    }
+    
+    /** Fills {@code halves} with the high and low 64 bits, or returns false if {@code text} is not a canonical IPv6 literal. */
+    public static boolean parseIpv6(String text, long[] halves) {
+        int length = text.length();
+        if (length < 15 || length > 39) return false;
+        long high = 0;
+        long low = 0;
+        int groups = 0;
+        int position = 0;
+        while (position <= length) {
+            int start = position;
+            int value = 0;
+            while (position < length && text.charAt(position) != ':') {
+                int digit = Character.digit(text.charAt(position), 16);
+                if (digit < 0 || Character.isUpperCase(text.charAt(position))) return false;
+                value = value << 4 | digit;
+                position++;
+            }
+            int digits = position - start;
+            if (digits == 0 || digits > 4 || (digits > 1 && text.charAt(start) == '0') || groups == 8) return false;
+            if (groups < 4) {
+                high = high << 16 | value;
+            } else {
+                low = low << 16 | value;
+            }
+            groups++;
+            position++;
+        }
+        if (groups != 8) return false;
+        halves[0] = high;
+        halves[1] = low;
+        return true;
+    }
+    
+    public static String format(byte kind, long high, long low) {
+        if (kind == IPV4) {
+            return (low >>> 24 & 0xff) + "." + (low >>> 16 & 0xff) + "." + (low >>> 8 & 0xff) + "." + (low & 0xff);
+        }
+        StringBuilder text = new StringBuilder(39);
+        for (int group = 0; group < 8; group++) {
+            long half = group < 4 ? high : low;
+            if (group > 0) text.append(':');
+            text.append(Long.toHexString(half >>> (48 - 16 * (group & 3)) & 0xffff));
+        }
+        return text.toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,208 @@
+package com.iot.honeypot.store;
+
+import com.iot.honeypot.entity.AttackLog;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Bounded multi-producer ring buffer. Producers claim a sequence with one
+ * atomic increment and publish into their slot without locks or copying, so
+ * an append is O(1) regardless of how much is stored. Once full, the oldest
+ * record is overwritten.
+ *
+ * <p>Each slot carries the sequence it was published under. Writers mark the
+ * slot busy, one at a time, before replacing the record, and readers check
+ * the mark on both sides of the read, so a reader never returns a record
+ * under the wrong sequence. A writer stalled for a whole lap finds a newer
+ * record in its slot and counts its own as overwritten.
+ *
+ * <p>Secondary indexes on {@link IndexedField}s are maintained in the same
+ * append and dropped with the records they point at, whether those leave by
+ * being overwritten, retired or cleared. Retiring also empties the slots, so
+ * retired records stop counting against the heap straight away.
+ */
+public class RingBufferAttackStore implements AttackStore {
+    private static final long BUSY = -1;
+    private static final IndexedField[] FIELDS = IndexedField.values();
+    
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<AttackLog> slots;
+    private final AtomicLongArray published;
+    private final AtomicLong nextSequence = new AtomicLong(1);
+    private final AttackIndex[] indexes;
+    private final LongAdder heapBytes = new LongAdder();
+    private final LongAdder overwritten = new LongAdder();
+    private volatile long floor = 1;
+    
+    public RingBufferAttackStore(int requestedCapacity) {
+        int size = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.capacity = size;
+        this.mask = size - 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.published = new AtomicLongArray(size);
+        this.indexes = new AttackIndex[IndexedField.values().length];
+        for (IndexedField field : IndexedField.values()) {
+            indexes[field.ordinal()] = new AttackIndex(size);
+        }
+    }
+    
+    @Override
+    public long append(AttackLog attack) {
+        long sequence = nextSequence.getAndIncrement();
+        int index = (int) (sequence & mask);
+        attack.setId(sequence);
+        long evicted = claim(index, sequence);
+        if (evicted > sequence) {
+            // Stalled for a whole lap: a newer record already took the slot, so this one is overwritten on arrival
+            overwritten.increment();
+            return sequence;
+        }
+        AttackLog previous = slots.getAndSet(index, attack);
+        if (previous != null) {
+            heapBytes.add(-AttackFootprint.estimate(previous));
+            if (evicted > 0) {
+                for (IndexedField field : FIELDS) {
+                    indexes[field.ordinal()].evict(field.keyOf(previous), evicted);
+                }
+                // Still live when the ring came round: nobody retired it first
+                if (evicted >= floor) overwritten.increment();
+            }
+        }
+        heapBytes.add(AttackFootprint.estimate(attack));
+        published.set(index, sequence);
+        for (IndexedField field : FIELDS) {
+            indexes[field.ordinal()].add(field.keyOf(attack), sequence);
+        }
+        return sequence;
+    }
+    
+    /**
+     * Marks slot {@code index} busy for {@code sequence} and returns the
+     * sequence it held, or a newer one, untouched, if a writer a lap ahead
+     * got there first. Waits out another writer's mark so only one ever
+     * fills the slot at a time.
+     */
+    private long claim(int index, long sequence) {
+        while (true) {
+            long current = published.get(index);
+            if (current == BUSY) {
+                Thread.onSpinWait();
+            } else if (current > sequence || published.compareAndSet(index, current, BUSY)) {
+                return current;
+            }
+        }
+    }
+    
+    @Override
+    public AttackLog get(long sequence) {
+        if (sequence < firstSequence() || sequence > lastSequence()) return null;
+        int index = (int) (sequence & mask);
+        if (published.get(index) != sequence) return null;
+        AttackLog attack = slots.get(index);
+        return published.get(index) == sequence ? attack : null;
+    }
+    
+    @Override
+    public void forEachNewestFirst(long fromSequence, Predicate<AttackLog> visitor) {
+        long oldest = firstSequence();
+        for (long sequence = Math.min(fromSequence, lastSequence()); sequence >= oldest; sequence--) {
+            AttackLog attack = get(sequence);
+            if (attack != null && !visitor.test(attack)) return;
+        }
+    }
+    
+    @Override
+    public void forEachMatchingNewestFirst(IndexedField field, String value, long fromSequence, Predicate<AttackLog> visitor) {
+        AttackIndex attackIndex = indexes[field.ordinal()];
+        long oldest = firstSequence();
+        long sequence = attackIndex.head(value);
+        while (sequence > 0 && sequence >= oldest) {
+            int index = (int) (sequence & mask);
+            if (published.get(index) != sequence) return;
+            long next = attackIndex.previous(sequence);
+            AttackLog attack = slots.get(index);
+            // Overwritten while we read it, so everything older is gone as well
+            if (published.get(index) != sequence) return;
+            // Retired, which goes oldest first, so the rest of the chain is too
+            if (attack == null) return;
+            if (sequence <= fromSequence && !visitor.test(attack)) return;
+            sequence = next;
+        }
+    }
+    
+    @Override
+    public int indexedKeys(IndexedField field) {
+        return indexes[field.ordinal()].keyCount();
+    }
+    
+    @Override
+    public long firstSequence() {
+        return Math.max(floor, nextSequence.get() - capacity);
+    }
+    
+    @Override
+    public long lastSequence() {
+        return nextSequence.get() - 1;
+    }
+    
+    @Override
+    public int size() {
+        return (int) Math.max(0, lastSequence() - firstSequence() + 1);
+    }
+    
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+    
+    @Override
+    public void resumeAt(long sequence) {
+        long previous = nextSequence.getAndAccumulate(sequence, Math::max);
+        // Nothing stored yet, so the skipped ids are not a gap to count
+        if (previous == floor) floor = Math.max(previous, sequence);
+    }
+    
+    @Override
+    public synchronized void retire(long throughSequence, Consumer<AttackLog> sink) {
+        long from = floor;
+        long to = Math.min(throughSequence, lastSequence());
+        if (to < from) return;
+        floor = to + 1;
+        for (long sequence = Math.max(from, to + 1 - capacity); sequence <= to; sequence++) {
+            int index = (int) (sequence & mask);
+            if (published.get(index) != sequence) continue;
+            AttackLog attack = slots.get(index);
+            // Whoever takes the reference out of the slot accounts for it, so a racing overwrite never double counts
+            if (attack == null || published.get(index) != sequence || !slots.compareAndSet(index, attack, null)) continue;
+            heapBytes.add(-AttackFootprint.estimate(attack));
+            for (IndexedField field : FIELDS) {
+                indexes[field.ordinal()].evict(field.keyOf(attack), sequence);
+            }
+            if (sink != null) sink.accept(attack);
+        }
+    }
+    
+    @Override
+    public long heapBytes() {
+        return heapBytes.sum();
+    }
+    
+    @Override
+    public long overwrittenCount() {
+        return overwritten.sum();
+    }
+    
+    @Override
+    public void clear() {
+        long cleared = nextSequence.get();
+        retire(cleared - 1, null);
+        for (AttackIndex attackIndex : indexes) {
+            attackIndex.clearBelow(cleared);
+        }
+    }
+}
\ No newline at end of file
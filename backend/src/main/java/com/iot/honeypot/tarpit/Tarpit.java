@@ -0,0 +1,125 @@
+package com.iot.honeypot.tarpit;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs {@link TarpitPlan}s on one shared timing wheel, so a connection that
+ * is being slowed down holds no thread while it waits.
+ */
+@Component
+public class Tarpit {
+    private final TarpitProperties properties;
+    private final HashedTimingWheel wheel;
+    private final AtomicInteger activePlans = new AtomicInteger();
+    
+    public Tarpit(TarpitProperties properties) {
+        this.properties = properties;
+        this.wheel = new HashedTimingWheel("honeypot-tarpit", properties.getTickMs(), properties.getWheelSize());
+    }
+    
+    public TarpitProfile profileFor(String device) {
+        return properties.profileFor(device);
+    }
+    
+    /**
+     * Starts {@code plan} against {@code target}. The first step runs in the
+     * target's context before this returns if the plan begins with a write.
+     * The future completes when the plan finishes or the connection closes.
+     */
+    public CompletableFuture<Void> run(TarpitTarget target, TarpitPlan plan) {
+        Runner runner = new Runner(target, plan.steps());
+        activePlans.incrementAndGet();
+        target.execute(runner::advance);
+        return runner.done;
+    }
+    
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("activePlans", activePlans.get());
+        stats.put("pendingTimers", wheel.getPendingCount());
+        stats.put("tickMs", properties.getTickMs());
+        return stats;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        wheel.stop();
+    }
+    
+    private final class Runner {
+        final TarpitTarget target;
+        final List<TarpitPlan.Step> steps;
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        int index;
+        int dripOffset;
+        
+        Runner(TarpitTarget target, List<TarpitPlan.Step> steps) {
+            this.target = target;
+            this.steps = steps;
+        }
+        
+        /** Executes steps until the next delay; always called in the target's context. */
+        void advance() {
+            while (index < steps.size()) {
+                if (!target.isOpen()) {
+                    finish();
+                    return;
+                }
+                TarpitPlan.Step step = steps.get(index);
+                switch (step.kind) {
+                    case WRITE:
+                        target.write(step.data);
+                        index++;
+                        break;
+                    case GATHER:
+                        ByteBuffer[] views = new ByteBuffer[step.buffers.length];
+                        for (int i = 0; i < views.length; i++) {
+                            views[i] = step.buffers[i].duplicate();
+                        }
+                        target.write(views);
+                        index++;
+                        break;
+                    case CLOSE:
+                        target.close();
+                        index++;
+                        break;
+                    case PAUSE:
+                        index++;
+                        sleep(step.millis);
+                        return;
+                    case DRIP:
+                        int end = Math.min(step.data.length, dripOffset + step.chunkBytes);
+                        byte[] chunk = new byte[end - dripOffset];
+                        System.arraycopy(step.data, dripOffset, chunk, 0, chunk.length);
+                        target.write(chunk);
+                        if (end < step.data.length) {
+                            dripOffset = end;
+                            sleep(step.millis);
+                            return;
+                        }
+                        dripOffset = 0;
+                        index++;
+                        break;
+                }
+            }
+            finish();
+        }
+        
+        private void sleep(long millis) {
+            wheel.schedule(millis, () -> target.execute(this::advance));
+        }
+        
+        private void finish() {
+            if (done.complete(null)) {
+                activePlans.decrementAndGet();
+            }
+        }
+    }
+}
\ No newline at end of file
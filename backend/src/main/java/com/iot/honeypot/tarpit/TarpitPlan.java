@@ -0,0 +1,75 @@
+package com.iot.honeypot.tarpit;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An ordered script of delayed writes for one connection, for example
+ * "wait two seconds, drip the failure message, hold the socket, close".
+ * Plans are immutable once handed to {@link Tarpit#run} and may be shared.
+ */
+public final class TarpitPlan {
+    
+    enum Kind { WRITE, GATHER, PAUSE, DRIP, CLOSE }
+    
+    static final class Step {
+        final Kind kind;
+        final byte[] data;
+        final ByteBuffer[] buffers;
+        final long millis;
+        final int chunkBytes;
+        
+        Step(Kind kind, byte[] data, long millis, int chunkBytes) {
+            this(kind, data, null, millis, chunkBytes);
+        }
+        
+        Step(Kind kind, byte[] data, ByteBuffer[] buffers, long millis, int chunkBytes) {
+            this.kind = kind;
+            this.data = data;
+            this.buffers = buffers;
+            this.millis = millis;
+            this.chunkBytes = chunkBytes;
+        }
+    }
+    
+    private final List<Step> steps = new ArrayList<>();
+    
+    public TarpitPlan write(byte[] data) {
+        steps.add(new Step(Kind.WRITE, data, 0, 0));
+        return this;
+    }
+    
+    /**
+     * Writes {@code buffers} in one gathering write. Each run writes fresh
+     * duplicates, so the buffers themselves are never consumed and a plan
+     * holding them can be shared.
+     */
+    public TarpitPlan write(ByteBuffer[] buffers) {
+        steps.add(new Step(Kind.GATHER, null, buffers, 0, 0));
+        return this;
+    }
+    
+    public TarpitPlan pause(long millis) {
+        if (millis > 0) steps.add(new Step(Kind.PAUSE, null, millis, 0));
+        return this;
+    }
+    
+    /** Writes {@code data} {@code chunkBytes} at a time, {@code intervalMillis} apart. Falls back to a single write if either is zero. */
+    public TarpitPlan drip(byte[] data, int chunkBytes, long intervalMillis) {
+        if (chunkBytes <= 0 || intervalMillis <= 0 || chunkBytes >= data.length) {
+            return write(data);
+        }
+        steps.add(new Step(Kind.DRIP, data, intervalMillis, chunkBytes));
+        return this;
+    }
+    
+    public TarpitPlan close() {
+        steps.add(new Step(Kind.CLOSE, null, 0, 0));
+        return this;
+    }
+    
+    List<Step> steps() {
+        return steps;
+    }
+}
\ No newline at end of file
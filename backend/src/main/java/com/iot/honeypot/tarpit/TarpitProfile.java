@@ -0,0 +1,87 @@
+package com.iot.honeypot.tarpit;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Delays applied to one emulated device. All values are milliseconds or
+ * bytes; zero disables the corresponding behaviour.
+ */
+public class TarpitProfile {
+    /** Wait before the fake reply (Telnet "Login failed", HTTP response). */
+    private long responseDelayMs;
+    /** Drip-feed banners and replies this many bytes at a time. */
+    private int dripChunkBytes;
+    /** Gap between drip-fed chunks. */
+    private long dripIntervalMs;
+    /** Keep the connection open this long after the last byte before closing. */
+    private long closeDelayMs;
+    
+    public TarpitProfile() {
+    }
+    
+    public TarpitProfile(long responseDelayMs, int dripChunkBytes, long dripIntervalMs, long closeDelayMs) {
+        this.responseDelayMs = responseDelayMs;
+        this.dripChunkBytes = dripChunkBytes;
+        this.dripIntervalMs = dripIntervalMs;
+        this.closeDelayMs = closeDelayMs;
+    }
+    
+    public long getResponseDelayMs() { return responseDelayMs; }
+    public void setResponseDelayMs(long responseDelayMs) { this.responseDelayMs = responseDelayMs; }
+    
+    public int getDripChunkBytes() { return dripChunkBytes; }
+    public void setDripChunkBytes(int dripChunkBytes) { this.dripChunkBytes = dripChunkBytes; }
+    
+    public long getDripIntervalMs() { return dripIntervalMs; }
+    public void setDripIntervalMs(long dripIntervalMs) { this.dripIntervalMs = dripIntervalMs; }
+    
+    public long getCloseDelayMs() { return closeDelayMs; }
+    public void setCloseDelayMs(long closeDelayMs) { this.closeDelayMs = closeDelayMs; }
+    
+    /** Drip-feeds {@code data} according to this profile. */
+    public TarpitPlan drip(TarpitPlan plan, byte[] data) {
+        return plan.drip(data, dripChunkBytes, dripIntervalMs);
+    }
+    
+    /** Wait, then send {@code reply}, leaving the connection open for more. */
+    public TarpitPlan respond(byte[] reply) {
+        return drip(new TarpitPlan().pause(responseDelayMs), reply);
+    }
+    
+    /** The standard ending: wait, send {@code reply}, linger, close. */
+    public TarpitPlan reply(byte[] reply) {
+        return drip(new TarpitPlan().pause(responseDelayMs), reply)
+                .pause(closeDelayMs)
+                .close();
+    }
+    
+    /**
+     * {@link #reply(byte[])} for a reply held in buffers, sent with one
+     * gathering write. Drip-feeding needs the bytes in one array, so a profile
+     * that drips copies them out first.
+     */
+    public TarpitPlan reply(ByteBuffer[] reply) {
+        if (dripChunkBytes > 0 && dripIntervalMs > 0) {
+            return reply(concat(reply));
+        }
+        return new TarpitPlan().pause(responseDelayMs)
+                .write(reply)
+                .pause(closeDelayMs)
+                .close();
+    }
+    
+    static byte[] concat(ByteBuffer[] buffers) {
+        int length = 0;
+        for (ByteBuffer buffer : buffers) {
+            length += buffer.remaining();
+        }
+        byte[] data = new byte[length];
+        int offset = 0;
+        for (ByteBuffer buffer : buffers) {
+            int n = buffer.remaining();
+            buffer.duplicate().get(data, offset, n);
+            offset += n;
+        }
+        return data;
+    }
+}
\ No newline at end of file
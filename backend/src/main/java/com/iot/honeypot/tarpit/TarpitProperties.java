@@ -0,0 +1,40 @@
+package com.iot.honeypot.tarpit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@code honeypot.tarpit.*} settings. Profiles are keyed by the emulated
+ * device name in lower-case-dash form, e.g. {@code tp-link-router}.
+ */
+@Component
+@ConfigurationProperties(prefix = "honeypot.tarpit")
+public class TarpitProperties {
+    private long tickMs = 10;
+    private int wheelSize = 512;
+    private TarpitProfile defaults = new TarpitProfile();
+    private Map<String, TarpitProfile> profiles = new HashMap<>();
+    
+    public long getTickMs() { return tickMs; }
+    public void setTickMs(long tickMs) { this.tickMs = tickMs; }
+    
+    public int getWheelSize() { return wheelSize; }
+    public void setWheelSize(int wheelSize) { this.wheelSize = wheelSize; }
+    
+    public TarpitProfile getDefaults() { return defaults; }
+    public void setDefaults(TarpitProfile defaults) { this.defaults = defaults; }
+    
+    public Map<String, TarpitProfile> getProfiles() { return profiles; }
+    public void setProfiles(Map<String, TarpitProfile> profiles) { this.profiles = profiles; }
+    
+    public TarpitProfile profileFor(String device) {
+        TarpitProfile profile = profiles.get(key(device));
+        return profile != null ? profile : defaults;
+    }
+    
+    static String key(String device) {
+        return device.toLowerCase().replaceAll("[^a-z0-9]+", "-").replaceAll("^-|-$", "");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,99 @@
+package com.iot.honeypot.tarpit;
+
+import com.iot.honeypot.listener.Session;
+import com.iot.honeypot.metrics.ListenerMetrics;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+
+/**
+ * Something the tarpit can write to after the handler that accepted it has
+ * moved on: a non-blocking {@link Session} or a plain blocking socket.
+ */
+public interface TarpitTarget {
+    
+    /** Runs {@code step} in the context that owns the connection, even if it has closed since. */
+    void execute(Runnable step);
+    
+    /** Only meaningful inside {@link #execute(Runnable)}. */
+    boolean isOpen();
+    
+    void write(byte[] data);
+    
+    /** Writes the remaining bytes of {@code data} in order; the buffers may be consumed. */
+    default void write(ByteBuffer[] data) {
+        write(TarpitProfile.concat(data));
+    }
+    
+    void close();
+    
+    static TarpitTarget of(Session session) {
+        return new TarpitTarget() {
+            @Override
+            public void execute(Runnable step) {
+                session.executeAlways(step);
+            }
+            
+            @Override
+            public boolean isOpen() {
+                return session.isOpen();
+            }
+            
+            @Override
+            public void write(byte[] data) {
+                session.write(data);
+            }
+            
+            @Override
+            public void write(ByteBuffer[] data) {
+                session.write(data);
+            }
+            
+            @Override
+            public void close() {
+                session.close();
+            }
+        };
+    }
+    
+    /**
+     * Writes run directly on the wheel thread. Tarpit chunks are far smaller
+     * than a socket send buffer, so they do not block in practice. Bytes
+     * sent are counted against {@code metrics}.
+     */
+    static TarpitTarget of(Socket socket, ListenerMetrics metrics) {
+        return new TarpitTarget() {
+            @Override
+            public void execute(Runnable step) {
+                step.run();
+            }
+            
+            @Override
+            public boolean isOpen() {
+                return !socket.isClosed();
+            }
+            
+            @Override
+            public void write(byte[] data) {
+                try {
+                    OutputStream out = socket.getOutputStream();
+                    out.write(data);
+                    out.flush();
+                    metrics.bytesOut(data.length);
+                } catch (IOException e) {
+                    close();
+                }
+            }
+            
+            @Override
+            public void close() {
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    // Ignore
+                }
+            }
+        };
+    }
+}
\ No newline at end of file
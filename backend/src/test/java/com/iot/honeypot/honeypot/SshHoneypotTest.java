@@ -0,0 +1,269 @@
+package com.iot.honeypot.honeypot;
+
+import com.iot.honeypot.admission.Admission;
+import com.iot.honeypot.admission.AdmissionController;
+import com.iot.honeypot.admission.AdmissionDecision;
+import com.iot.honeypot.device.EmulatedDevice;
+import com.iot.honeypot.entity.AttackLog;
+import com.iot.honeypot.listener.ListenerEngine;
+import com.iot.honeypot.listener.ServerBinding;
+import com.iot.honeypot.metrics.ListenerMetrics;
+import com.iot.honeypot.service.AttackService;
+import com.jcraft.jsch.JSch;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+import com.jcraft.jsch.UserInfo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives {@link SshHoneypot} with JSch over loopback, through both the
+ * event-loop session and the thread-per-connection handler, and checks the
+ * record each connection is logged as.
+ */
+class SshHoneypotTest {
+    private static final String CLIENT_VERSION = "SSH-2.0-HoneypotTest_1.0";
+    private static final String KEX = "curve25519-sha256";
+    private static final String CIPHER = "aes128-ctr";
+    private static final String MAC = "hmac-sha2-256";
+    private static final String COMPRESSION = "none";
+    private static final String HASSH = md5(KEX + ";" + CIPHER + ";" + MAC + ";" + COMPRESSION);
+    private static final String SOURCE_TAG = "test-scanners";
+    
+    enum Mode { NIO, BLOCKING }
+    
+    @TempDir
+    Path directory;
+    private final AttackService attackService = mock(AttackService.class);
+    private ListenerEngine engine;
+    
+    @AfterEach
+    void shutdown() {
+        if (engine != null) engine.shutdown();
+    }
+    
+    @ParameterizedTest
+    @EnumSource(Mode.class)
+    void recordsClientVersionAndHassh(Mode mode) throws Exception {
+        SshHoneypot honeypot = honeypot(settings(6, false));
+        AttackLog attack = connect(mode, honeypot, "root", "xc3511");
+        
+        assertEquals("SSH", attack.getServiceType());
+        assertEquals("Test Device", attack.getDeviceEmulated());
+        assertEquals(SOURCE_TAG, attack.getSourceTag());
+        assertTrue(attack.getPayload().contains(" | Client: " + CLIENT_VERSION), attack.getPayload());
+        assertTrue(attack.getPayload().contains(" | HASSH: " + HASSH), attack.getPayload());
+        assertEquals("root", attack.getUsernameAttempt());
+        assertEquals("xc3511", attack.getPasswordAttempt());
+    }
+    
+    @ParameterizedTest
+    @EnumSource(Mode.class)
+    void recordsEveryPasswordAttempt(Mode mode) throws Exception {
+        SshHoneypot honeypot = honeypot(settings(6, false));
+        AttackLog attack = connect(mode, honeypot, "admin", "admin", "1234", "password");
+        
+        assertTrue(attack.getPayload().startsWith("Attempts: 3"), attack.getPayload());
+        assertEquals("password", attack.getPasswordAttempt());
+        List<Map<String, String>> attempts = attack.getAttempts();
+        assertEquals(3, attempts.size());
+        assertEquals(Map.of("username", "admin", "password", "admin"), attempts.get(0));
+        assertEquals(Map.of("username", "admin", "password", "1234"), attempts.get(1));
+        assertEquals(Map.of("username", "admin", "password", "password"), attempts.get(2));
+    }
+    
+    @ParameterizedTest
+    @EnumSource(Mode.class)
+    void disconnectsAfterMaxAuthAttempts(Mode mode) throws Exception {
+        SshHoneypot honeypot = honeypot(settings(2, false));
+        AttackLog attack = connect(mode, honeypot, "root", "a", "b", "c", "d");
+        
+        assertTrue(attack.getPayload().startsWith("Attempts: 2"), attack.getPayload());
+        assertTrue(attack.getPayload().endsWith(" | Dropped: Too many authentication failures"), attack.getPayload());
+        assertEquals(2, attack.getAttempts().size());
+    }
+    
+    @ParameterizedTest
+    @EnumSource(Mode.class)
+    void fingerprintsClientWhenNoHandshakePermitIsFree(Mode mode) throws Exception {
+        SshHoneypot honeypot = honeypot(settings(6, false));
+        SshHandshakeLimiter handshakes = (SshHandshakeLimiter) ReflectionTestUtils.getField(honeypot, "handshakes");
+        assertTrue(handshakes.tryBegin());
+        AttackLog attack;
+        try {
+            attack = connect(mode, honeypot, "root", "xc3511");
+        } finally {
+            handshakes.end(false);
+        }
+        
+        assertTrue(attack.getPayload().contains(" | HASSH: " + HASSH), attack.getPayload());
+        assertTrue(attack.getPayload().endsWith(" | Dropped: Too many connections"), attack.getPayload());
+        assertNull(attack.getPasswordAttempt());
+        assertEquals(1L, honeypot.getStats().get("shed"));
+        assertEquals(1L, honeypot.getStats().get("started"));
+    }
+    
+    @ParameterizedTest
+    @EnumSource(Mode.class)
+    void fingerprintOnlyNeverStartsKeyExchange(Mode mode) throws Exception {
+        SshHoneypot honeypot = honeypot(settings(6, true));
+        AttackLog attack = connect(mode, honeypot, "root", "xc3511");
+        
+        assertTrue(attack.getPayload().contains(" | Client: " + CLIENT_VERSION), attack.getPayload());
+        assertTrue(attack.getPayload().contains(" | HASSH: " + HASSH), attack.getPayload());
+        assertTrue(attack.getPayload().endsWith(" | Dropped: Too many connections"), attack.getPayload());
+        assertNull(attack.getPasswordAttempt());
+        assertEquals(1L, honeypot.getStats().get("shed"));
+        assertEquals(0L, honeypot.getStats().get("started"));
+    }
+    
+    private SshProperties settings(int maxAuthAttempts, boolean fingerprintOnly) {
+        SshProperties settings = new SshProperties();
+        settings.setMaxHandshakes(1);
+        settings.setFingerprintOnly(fingerprintOnly);
+        settings.setMaxAuthAttempts(maxAuthAttempts);
+        settings.setLoginGraceMs(10000);
+        settings.setHostKeyFile(directory.resolve("ssh_host_ed25519_key").toString());
+        return settings;
+    }
+    
+    /** Wired the way Spring wires it, logging into the mocked {@link AttackService}. */
+    private SshHoneypot honeypot(SshProperties settings) throws Exception {
+        SshHoneypot honeypot = new SshHoneypot();
+        ReflectionTestUtils.setField(honeypot, "attackService", attackService);
+        ReflectionTestUtils.setField(honeypot, "settings", settings);
+        honeypot.init();
+        return honeypot;
+    }
+    
+    /**
+     * Logs in as {@code user} with each of {@code passwords} in turn over one
+     * connection, which always fails, and returns the record the honeypot
+     * logged for it.
+     */
+    private AttackLog connect(Mode mode, SshHoneypot honeypot, String user, String... passwords) throws Exception {
+        EmulatedDevice device = mock(EmulatedDevice.class);
+        when(device.getDevice()).thenReturn("Test Device");
+        when(device.getBanner()).thenReturn(new byte[0]);
+        when(device.getMetrics()).thenReturn(new ListenerMetrics("test", new SimpleMeterRegistry()));
+        
+        if (mode == Mode.NIO) {
+            AdmissionController admission = mock(AdmissionController.class);
+            when(admission.decide(any(), anyInt())).thenReturn(Admission.of(AdmissionDecision.ACCEPT, SOURCE_TAG));
+            engine = new ListenerEngine(admission, 1, 120000);
+            ServerBinding binding = engine.bind(0, device.getMetrics(), () -> honeypot.newSession(device));
+            login(binding.getPort(), user, passwords);
+        } else {
+            try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+                CompletableFuture<Void> handled = CompletableFuture.runAsync(() -> {
+                    try {
+                        honeypot.newHandler(server.accept(), SOURCE_TAG, device).run();
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+                login(server.getLocalPort(), user, passwords);
+                handled.get();
+            }
+        }
+        ArgumentCaptor<AttackLog> logged = ArgumentCaptor.forClass(AttackLog.class);
+        verify(attackService, timeout(10000)).logAttack(logged.capture());
+        return logged.getValue();
+    }
+    
+    private static void login(int port, String user, String... passwords) throws JSchException {
+        Session session = new JSch().getSession(user, InetAddress.getLoopbackAddress().getHostAddress(), port);
+        session.setClientVersion(CLIENT_VERSION);
+        session.setConfig("StrictHostKeyChecking", "no");
+        session.setConfig("PreferredAuthentications", "password");
+        session.setConfig("kex", KEX);
+        session.setConfig("server_host_key", SshHostKey.ALGORITHM);
+        session.setConfig("cipher.c2s", CIPHER);
+        session.setConfig("cipher.s2c", CIPHER);
+        session.setConfig("mac.c2s", MAC);
+        session.setConfig("mac.s2c", MAC);
+        session.setConfig("enable_server_sig_algs", "no");
+        session.setConfig("enable_strict_kex", "no");
+        session.setPassword(passwords[0]);
+        session.setUserInfo(new Passwords(passwords));
+        try {
+            assertThrows(JSchException.class, () -> session.connect(10000));
+        } finally {
+            session.disconnect();
+        }
+    }
+    
+    private static String md5(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(text.getBytes(StandardCharsets.US_ASCII));
+            return String.format("%032x", new BigInteger(1, digest));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    /** Offers the remaining passwords one at a time when JSch asks for another. */
+    private static final class Passwords implements UserInfo {
+        private final String[] passwords;
+        private int next = 1;
+        
+        Passwords(String[] passwords) {
+            this.passwords = passwords;
+        }
+        
+        @Override
+        public boolean promptPassword(String message) {
+            return next < passwords.length;
+        }
+        
+        @Override
+        public String getPassword() {
+            return passwords[next++];
+        }
+        
+        @Override
+        public String getPassphrase() {
+            return null;
+        }
+        
+        @Override
+        public boolean promptPassphrase(String message) {
+            return false;
+        }
+        
+        @Override
+        public boolean promptYesNo(String message) {
+            return false;
+        }
+        
+        @Override
+        public void showMessage(String message) {
+        }
+    }
+}
\ No newline at end of file
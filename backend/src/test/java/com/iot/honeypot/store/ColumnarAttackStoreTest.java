@@ -0,0 +1,233 @@
+package com.iot.honeypot.store;
+
+import com.iot.honeypot.credentials.Credential;
+import com.iot.honeypot.credentials.CredentialDictionary;
+import com.iot.honeypot.enrichment.NetworkInfo;
+import com.iot.honeypot.entity.AttackLog;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Feeds the same records to {@link ColumnarAttackStore} and
+ * {@link RingBufferAttackStore} and expects the same records back, apart
+ * from timestamps, which the columnar engine keeps to the millisecond.
+ */
+class ColumnarAttackStoreTest {
+    private static final LocalDateTime START = LocalDateTime.of(2026, 3, 14, 9, 26, 53, 589_793_238);
+    private static final String[] SOURCES = {
+            "203.0.113.7", "198.51.100.23", "2001:db8:0:0:0:0:0:1", "2001:db8::7", "scanner.example", null
+    };
+    private static final String[] SERVICES = {"SSH", "Telnet", "HTTP"};
+    private static final NetworkInfo[] NETWORKS = {
+            new NetworkInfo(64496, "Example Transit", "NL"), new NetworkInfo(64511, "Example Hosting", "US"), null
+    };
+    
+    private final CredentialDictionary credentials = new CredentialDictionary(1024);
+    
+    @Test
+    void readsBackWhatTheRingStoreHolds() {
+        RingBufferAttackStore ring = new RingBufferAttackStore(64);
+        ColumnarAttackStore columnar = new ColumnarAttackStore(64, 1, credentials);
+        for (int i = 1; i <= 200; i++) {
+            assertEquals(ring.append(attack(i)), columnar.append(attack(i)));
+        }
+        
+        assertEquals(ring.firstSequence(), columnar.firstSequence());
+        assertEquals(ring.size(), columnar.size());
+        assertEquals(ring.overwrittenCount(), columnar.overwrittenCount());
+        assertSameRecords(all(ring, Long.MAX_VALUE), all(columnar, Long.MAX_VALUE));
+        assertSameRecords(all(ring, 170), all(columnar, 170));
+        for (IndexedField field : IndexedField.values()) {
+            assertEquals(ring.indexedKeys(field), columnar.indexedKeys(field), field.name());
+        }
+        for (String value : new String[] {"ssh", "TELNET", "203.0.113.7", "2001:db8::7", "Scanner.Example", "router-3"}) {
+            for (IndexedField field : new IndexedField[] {IndexedField.SERVICE_TYPE, IndexedField.SOURCE_IP, IndexedField.DEVICE}) {
+                assertSameRecords(matching(ring, field, value), matching(columnar, field, value));
+            }
+        }
+        List<AttackLog> dutch = matching(ring, IndexedField.COUNTRY, "nl");
+        assertEquals(21, dutch.size());
+        assertSameRecords(dutch, matching(columnar, IndexedField.COUNTRY, "nl"));
+        List<AttackLog> hosted = matching(ring, IndexedField.ASN, "64511");
+        assertEquals(21, hosted.size());
+        assertSameRecords(hosted, matching(columnar, IndexedField.ASN, "64511"));
+    }
+    
+    @Test
+    void truncatesTimestampsToTheMillisecond() {
+        RingBufferAttackStore ring = new RingBufferAttackStore(64);
+        ColumnarAttackStore columnar = new ColumnarAttackStore(64, 1, credentials);
+        for (int i = 1; i <= 40; i++) {
+            ring.append(attack(i));
+            columnar.append(attack(i));
+        }
+        
+        assertEquals(START.plusSeconds(7).truncatedTo(ChronoUnit.MILLIS), columnar.timestampOf(8));
+        assertEquals(START.plusSeconds(7).truncatedTo(ChronoUnit.MILLIS), columnar.get(8).getTimestamp());
+        // Whole-millisecond bounds select what the full timestamps would
+        LocalDateTime from = START.plusSeconds(10).truncatedTo(ChronoUnit.MILLIS);
+        LocalDateTime to = START.plusSeconds(20).truncatedTo(ChronoUnit.MILLIS);
+        List<AttackLog> expected = new ArrayList<>();
+        ring.forEachNewestFirst(Long.MAX_VALUE, from, to, expected::add);
+        List<AttackLog> actual = new ArrayList<>();
+        columnar.forEachNewestFirst(Long.MAX_VALUE, from, to, actual::add);
+        assertEquals(10, expected.size());
+        assertSameRecords(expected, actual);
+        
+        expected.clear();
+        ring.forEachMatchingNewestFirst(IndexedField.SERVICE_TYPE, "http", Long.MAX_VALUE, from, to, expected::add);
+        actual.clear();
+        columnar.forEachMatchingNewestFirst(IndexedField.SERVICE_TYPE, "http", Long.MAX_VALUE, from, to, actual::add);
+        assertSameRecords(expected, actual);
+        
+        // A bound inside a millisecond is compared with the timestamp as stored
+        actual.clear();
+        columnar.forEachNewestFirst(Long.MAX_VALUE, START.plusSeconds(10).plusNanos(1), to, actual::add);
+        assertEquals(List.of(20L, 19L, 18L, 17L, 16L, 15L, 14L, 13L, 12L), ids(actual));
+    }
+    
+    @Test
+    void cutsInlineStringsToThePayloadLength() {
+        ColumnarAttackStore columnar = new ColumnarAttackStore(64, 1, credentials);
+        AttackLog attack = attack(1);
+        attack.setPayload("x".repeat(AttackLog.PAYLOAD_LENGTH) + "lost");
+        attack.setPassword(Credential.detached("é".repeat(AttackLog.PAYLOAD_LENGTH + 1)));
+        attack.setTimestamp(null);
+        columnar.append(attack);
+        
+        AttackLog read = columnar.get(1);
+        assertEquals("x".repeat(AttackLog.PAYLOAD_LENGTH), read.getPayload());
+        assertEquals("é".repeat(AttackLog.PAYLOAD_LENGTH), read.getPasswordAttempt());
+        assertNull(read.getTimestamp());
+        assertNull(columnar.timestampOf(1));
+    }
+    
+    @Test
+    void dropsRecordsWhoseArenaBytesAreReused() {
+        // The arena rounds up to one 16 MB buffer, which holds about 250 full payloads
+        ColumnarAttackStore columnar = new ColumnarAttackStore(1024, 1, credentials);
+        for (int i = 1; i <= 600; i++) {
+            AttackLog attack = attack(i);
+            attack.setPayload(fill(i));
+            columnar.append(attack);
+        }
+        
+        long first = columnar.firstSequence();
+        assertTrue(first > 600 - 256 && first < 600 - 200, "first " + first);
+        assertEquals(600 - columnar.size(), columnar.overwrittenCount());
+        assertEquals(16L << 20, columnar.offHeapBytes());
+        assertNull(columnar.get(first - 1));
+        List<AttackLog> live = all(columnar, Long.MAX_VALUE);
+        assertEquals(columnar.size(), live.size());
+        for (AttackLog attack : live) {
+            assertEquals(fill(attack.getId().intValue()), attack.getPayload());
+        }
+        List<AttackLog> ssh = matching(columnar, IndexedField.SERVICE_TYPE, "ssh");
+        assertTrue(ssh.get(ssh.size() - 1).getId() >= first);
+    }
+    
+    @Test
+    void retiresInBatchesOldestFirst() {
+        RingBufferAttackStore ring = new RingBufferAttackStore(2048);
+        ColumnarAttackStore columnar = new ColumnarAttackStore(2048, 1, credentials);
+        for (int i = 1; i <= 1000; i++) {
+            ring.append(attack(i));
+            columnar.append(attack(i));
+        }
+        List<AttackLog> expected = new ArrayList<>();
+        ring.retire(900, expected::add);
+        List<AttackLog> actual = new ArrayList<>();
+        columnar.retire(900, actual::add);
+        
+        assertEquals(900, actual.size());
+        assertSameRecords(expected, actual);
+        assertEquals(901, columnar.firstSequence());
+        assertNull(columnar.get(900));
+        assertSameRecords(matching(ring, IndexedField.SERVICE_TYPE, "telnet"), matching(columnar, IndexedField.SERVICE_TYPE, "telnet"));
+        
+        // Retired slots are not counted when the ring comes round to them
+        for (int i = 1001; i <= 3000; i++) {
+            columnar.append(attack(i));
+        }
+        assertEquals(3000 - 2048 - 900, columnar.overwrittenCount());
+        columnar.retire(2000, null);
+        actual.clear();
+        columnar.retire(Long.MAX_VALUE, actual::add);
+        assertEquals(1000, actual.size());
+        assertEquals(2001, actual.get(0).getId());
+        assertEquals(0, columnar.size());
+    }
+    
+    /**
+     * Record {@code i}: interned credentials on every other record, a login
+     * list on every fifth, and the address, network and tag cycling through
+     * the packed, dictionary and absent cases.
+     */
+    private AttackLog attack(int i) {
+        AttackLog attack = new AttackLog(SOURCES[i % SOURCES.length], SERVICES[i % SERVICES.length],
+                i % 7 == 0 ? null : "GET /cgi-bin/" + i, "router-" + i % 4);
+        attack.setTimestamp(START.plusSeconds(i - 1));
+        attack.setUsernameAttempt("user" + i % 3);
+        attack.setPasswordAttempt(i % 11 == 0 ? null : "pass" + i);
+        if (i % 5 == 0) {
+            attack.setAttemptCredentials(new Credential[] {
+                    Credential.detached("root"), Credential.detached("xc3511"),
+                    Credential.detached("admin"), null
+            });
+        }
+        attack.setNetwork(NETWORKS[i % NETWORKS.length]);
+        attack.setSourceTag(i % 2 == 0 ? "known-scanners" : null);
+        if (i % 2 == 0) credentials.record(attack);
+        return attack;
+    }
+    
+    private static String fill(int i) {
+        return String.valueOf((char) ('a' + i % 26)).repeat(AttackLog.PAYLOAD_LENGTH - 8) + String.format("%08d", i);
+    }
+    
+    private static List<AttackLog> all(AttackStore store, long fromSequence) {
+        List<AttackLog> attacks = new ArrayList<>();
+        store.forEachNewestFirst(fromSequence, attacks::add);
+        return attacks;
+    }
+    
+    private static List<AttackLog> matching(AttackStore store, IndexedField field, String value) {
+        List<AttackLog> attacks = new ArrayList<>();
+        store.forEachMatchingNewestFirst(field, value, attacks::add);
+        return attacks;
+    }
+    
+    private static void assertSameRecords(List<AttackLog> expected, List<AttackLog> actual) {
+        assertEquals(ids(expected), ids(actual));
+        for (int i = 0; i < expected.size(); i++) {
+            AttackLog want = expected.get(i);
+            AttackLog got = actual.get(i);
+            String record = "record " + want.getId();
+            assertEquals(want.getSourceIp(), got.getSourceIp(), record);
+            assertEquals(want.getServiceType(), got.getServiceType(), record);
+            assertEquals(want.getPayload(), got.getPayload(), record);
+            assertEquals(want.getDeviceEmulated(), got.getDeviceEmulated(), record);
+            assertEquals(want.getUsernameAttempt(), got.getUsernameAttempt(), record);
+            assertEquals(want.getPasswordAttempt(), got.getPasswordAttempt(), record);
+            assertEquals(want.getAttempts(), got.getAttempts(), record);
+            assertEquals(want.getNetwork(), got.getNetwork(), record);
+            assertEquals(want.getSourceTag(), got.getSourceTag(), record);
+            assertEquals(want.getTimestamp().truncatedTo(ChronoUnit.MILLIS), got.getTimestamp(), record);
+        }
+    }
+    
+    private static List<Long> ids(List<AttackLog> attacks) {
+        List<Long> ids = new ArrayList<>();
+        for (AttackLog attack : attacks) {
+            ids.add(attack.getId());
+        }
+        return ids;
+    }
+}
\ No newline at end of file
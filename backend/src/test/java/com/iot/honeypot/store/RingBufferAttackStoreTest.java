@@ -0,0 +1,224 @@
+package com.iot.honeypot.store;
+
+import com.iot.honeypot.entity.AttackLog;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RingBufferAttackStoreTest {
+    private static final String[] SERVICES = {"SSH", "Telnet", "HTTP"};
+    
+    @Test
+    void roundsCapacityUpToAPowerOfTwo() {
+        assertEquals(8, new RingBufferAttackStore(5).capacity());
+        assertEquals(8, new RingBufferAttackStore(8).capacity());
+    }
+    
+    @Test
+    void overwritesOldestRecordsOnceFull() {
+        RingBufferAttackStore store = new RingBufferAttackStore(8);
+        for (int i = 1; i <= 20; i++) {
+            assertEquals(i, store.append(attack(i)));
+        }
+        
+        assertEquals(8, store.size());
+        assertEquals(13, store.firstSequence());
+        assertEquals(20, store.lastSequence());
+        assertNull(store.get(12));
+        assertEquals("payload-13", store.get(13).getPayload());
+        assertEquals(12, store.overwrittenCount());
+        assertEquals(heapOf(store), store.heapBytes());
+        assertEquals(List.of(20L, 19L, 18L, 17L, 16L, 15L, 14L, 13L), sequences(store));
+    }
+    
+    @Test
+    void indexWalksOnlyLiveRecordsAfterTheRingWraps() {
+        RingBufferAttackStore store = new RingBufferAttackStore(8);
+        AttackLog first = attack(1);
+        first.setDeviceEmulated("Retired Camera");
+        store.append(first);
+        for (int i = 2; i <= 21; i++) {
+            store.append(attack(i));
+        }
+        
+        // 14..21 are live; SSH went to every third record from 1
+        assertEquals(List.of(19L, 16L), matching(store, IndexedField.SERVICE_TYPE, "ssh", Long.MAX_VALUE));
+        assertEquals(List.of(20L, 17L, 14L), matching(store, IndexedField.SERVICE_TYPE, "TELNET", Long.MAX_VALUE));
+        assertEquals(List.of(16L), matching(store, IndexedField.SERVICE_TYPE, "SSH", 18));
+        assertEquals(List.of(), matching(store, IndexedField.DEVICE, "Retired Camera", Long.MAX_VALUE));
+        assertEquals(1, store.indexedKeys(IndexedField.DEVICE));
+        assertEquals(3, store.indexedKeys(IndexedField.SERVICE_TYPE));
+    }
+    
+    @Test
+    void retireHandsRecordsToTheSinkOldestFirst() {
+        RingBufferAttackStore store = new RingBufferAttackStore(16);
+        for (int i = 1; i <= 10; i++) {
+            store.append(attack(i));
+        }
+        List<Long> retired = new ArrayList<>();
+        store.retire(6, attack -> retired.add(attack.getId()));
+        
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L), retired);
+        assertEquals(7, store.firstSequence());
+        assertEquals(4, store.size());
+        assertNull(store.get(6));
+        assertEquals(List.of(10L, 7L), matching(store, IndexedField.SERVICE_TYPE, "SSH", Long.MAX_VALUE));
+        assertEquals(heapOf(store), store.heapBytes());
+        
+        // Retired slots were emptied, so only the four still held count as overwritten
+        for (int i = 11; i <= 26; i++) {
+            store.append(attack(i));
+        }
+        assertEquals(4, store.overwrittenCount());
+        retired.clear();
+        store.retire(Long.MAX_VALUE, attack -> retired.add(attack.getId()));
+        assertEquals(16, retired.size());
+        assertEquals(11L, retired.get(0));
+        assertEquals(0, store.size());
+        assertEquals(0, store.heapBytes());
+    }
+    
+    @Test
+    void clearKeepsSequencesIncreasing() {
+        RingBufferAttackStore store = new RingBufferAttackStore(8);
+        for (int i = 1; i <= 5; i++) {
+            store.append(attack(i));
+        }
+        store.clear();
+        
+        assertEquals(0, store.size());
+        assertEquals(0, store.indexedKeys(IndexedField.SERVICE_TYPE));
+        assertEquals(6, store.append(attack(6)));
+        assertEquals(List.of(6L), sequences(store));
+        assertEquals(0, store.overwrittenCount());
+    }
+    
+    @Test
+    void resumesAfterRestoredSequences() {
+        RingBufferAttackStore store = new RingBufferAttackStore(8);
+        store.resumeAt(100);
+        store.resumeAt(50);
+        
+        assertEquals(100, store.append(attack(1)));
+        assertEquals(100, store.firstSequence());
+        assertEquals(1, store.size());
+        assertEquals(0, store.overwrittenCount());
+    }
+    
+    @Test
+    void readersNeverSeeARecordUnderTheWrongSequence() throws Exception {
+        int writers = 4;
+        int perWriter = 50_000;
+        RingBufferAttackStore store = new RingBufferAttackStore(1024);
+        ExecutorService pool = Executors.newFixedThreadPool(writers + 3);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        Queue<String> failures = new ConcurrentLinkedQueue<>();
+        List<Long> retired = new ArrayList<>();
+        try {
+            List<Future<?>> appends = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                appends.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 1; i <= perWriter; i++) {
+                        store.append(attack(i));
+                    }
+                    return null;
+                }));
+            }
+            Future<?> scanner = pool.submit(() -> {
+                start.await();
+                while (writing.get()) {
+                    long[] previous = {Long.MAX_VALUE};
+                    store.forEachNewestFirst(attack -> {
+                        if (attack.getId() >= previous[0]) failures.add("out of order at " + attack.getId());
+                        previous[0] = attack.getId();
+                        return true;
+                    });
+                    long last = store.lastSequence();
+                    for (long sequence = last; sequence > last - 64 && sequence > 0; sequence--) {
+                        AttackLog attack = store.get(sequence);
+                        if (attack != null && attack.getId() != sequence) failures.add(attack.getId() + " read as " + sequence);
+                    }
+                }
+                return null;
+            });
+            Future<?> indexReader = pool.submit(() -> {
+                start.await();
+                while (writing.get()) {
+                    long[] previous = {Long.MAX_VALUE};
+                    store.forEachMatchingNewestFirst(IndexedField.SERVICE_TYPE, "telnet", attack -> {
+                        if (!"Telnet".equals(attack.getServiceType())) failures.add(attack.getId() + " matched Telnet");
+                        if (attack.getId() >= previous[0]) failures.add("index out of order at " + attack.getId());
+                        previous[0] = attack.getId();
+                        return true;
+                    });
+                }
+                return null;
+            });
+            Future<?> retirer = pool.submit(() -> {
+                start.await();
+                while (writing.get()) {
+                    store.retire(store.lastSequence() - 512, attack -> retired.add(attack.getId()));
+                }
+                return null;
+            });
+            start.countDown();
+            for (Future<?> append : appends) {
+                append.get(60, TimeUnit.SECONDS);
+            }
+            writing.set(false);
+            scanner.get(10, TimeUnit.SECONDS);
+            indexReader.get(10, TimeUnit.SECONDS);
+            retirer.get(10, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+        
+        assertTrue(failures.isEmpty(), () -> failures.size() + " failures, first: " + failures.peek());
+        for (int i = 1; i < retired.size(); i++) {
+            assertTrue(retired.get(i) > retired.get(i - 1), "retired " + retired.get(i) + " after " + retired.get(i - 1));
+        }
+        assertEquals((long) writers * perWriter, store.lastSequence());
+        assertEquals(heapOf(store), store.heapBytes());
+    }
+    
+    /** Third of the records are SSH, the rest Telnet and HTTP, all from one source. */
+    private static AttackLog attack(int i) {
+        return new AttackLog("203.0.113.7", SERVICES[(i - 1) % SERVICES.length], "payload-" + i, "Test Camera");
+    }
+    
+    private static List<Long> sequences(AttackStore store) {
+        List<Long> sequences = new ArrayList<>();
+        store.forEachNewestFirst(attack -> sequences.add(attack.getId()));
+        return sequences;
+    }
+    
+    private static List<Long> matching(AttackStore store, IndexedField field, String value, long fromSequence) {
+        List<Long> sequences = new ArrayList<>();
+        store.forEachMatchingNewestFirst(field, value, fromSequence, attack -> sequences.add(attack.getId()));
+        return sequences;
+    }
+    
+    private static long heapOf(AttackStore store) {
+        long[] bytes = {0};
+        store.forEachNewestFirst(attack -> {
+            bytes[0] += AttackFootprint.estimate(attack);
+            return true;
+        });
+        return bytes[0];
+    }
+}
\ No newline at end of file
@@ -0,0 +1,90 @@
+package com.iot.honeypot.benchmarks;
+
+import com.iot.honeypot.entity.AttackLog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@code AttackService.logAttack} with one, four and one per
+ * core producer threads, each building its attack the way a honeypot
+ * handler does. Retention trims the store in the background as in production.
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar AttackIngestBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AttackIngestBenchmark {
+    
+    private ServiceFixture fixture;
+    
+    @Setup(Level.Trial)
+    public void open() throws Exception {
+        fixture = new ServiceFixture(262_144, 0);
+    }
+    
+    @TearDown(Level.Trial)
+    public void close() {
+        fixture.close();
+    }
+    
+    @Benchmark
+    @Threads(1)
+    public void producers1(Producer producer) {
+        fixture.service.logAttack(producer.next());
+    }
+    
+    @Benchmark
+    @Threads(4)
+    public void producers4(Producer producer) {
+        fixture.service.logAttack(producer.next());
+    }
+    
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void producersMax(Producer producer) {
+        fixture.service.logAttack(producer.next());
+    }
+    
+    /** Per-thread source of attacks spread over 256 source addresses. */
+    @State(Scope.Thread)
+    public static class Producer {
+        private final String[] sourceIps = new String[256];
+        private int sequence;
+        
+        @Setup
+        public void prepare() {
+            for (int i = 0; i < sourceIps.length; i++) {
+                sourceIps[i] = "198.51.100." + i;
+            }
+        }
+        
+        AttackLog next() {
+            int n = sequence++;
+            if ((n & 1) == 0) {
+                AttackLog login = new AttackLog(sourceIps[n & 255], "TELNET", "Attempts: 1", "TP-Link Router");
+                login.setUsernameAttempt("root");
+                login.setPasswordAttempt("xc3511");
+                return login;
+            }
+            return new AttackLog(sourceIps[n & 255], "HTTP", "GET /shell?cd+/tmp | User-Agent: Hello, World", "D-Link Camera");
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,73 @@
+package com.iot.honeypot.benchmarks;
+
+import com.iot.honeypot.entity.AttackLog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the dashboard queries against a store holding {@code size}
+ * attacks: the stats panel, the recent list and a by-type lookup matching
+ * one attack in ten.
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar AttackQueryBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AttackQueryBenchmark {
+    
+    @Param({"10000", "100000", "1000000"})
+    public int size;
+    
+    private ServiceFixture fixture;
+    
+    @Setup(Level.Trial)
+    public void fill() throws Exception {
+        fixture = new ServiceFixture(size * 2, size);
+        for (int i = 0; i < size; i++) {
+            String sourceIp = "203.0." + ((i >> 8) & 255) + "." + (i & 255);
+            fixture.service.logAttack(i % 10 == 0
+                    ? new AttackLog(sourceIp, "TELNET", "Username: admin, Password: admin", "TP-Link Router")
+                    : new AttackLog(sourceIp, "HTTP", "GET /cgi-bin/luci | User-Agent: Mozila/5.0", "D-Link Camera"));
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void close() {
+        fixture.close();
+    }
+    
+    @Benchmark
+    public Map<String, Object> getStats() {
+        return fixture.service.getStats();
+    }
+    
+    @Benchmark
+    public List<AttackLog> getRecentAttacks() {
+        return fixture.service.getRecentAttacks(10);
+    }
+    
+    @Benchmark
+    public List<AttackLog> getAttacksByType() {
+        return fixture.service.getAttacksByType("TELNET");
+    }
+}
\ No newline at end of file
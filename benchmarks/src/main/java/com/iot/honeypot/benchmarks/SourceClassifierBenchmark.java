@@ -0,0 +1,98 @@
+package com.iot.honeypot.benchmarks;
+
+import com.iot.honeypot.admission.Admission;
+import com.iot.honeypot.admission.SourceClassifier;
+import com.iot.honeypot.admission.SourceClassifierProperties;
+import com.iot.honeypot.admission.SourceList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.DefaultResourceLoader;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accept-time cost of classifying a connection against a tag list of
+ * {@code prefixes} networks, IPv4 /12 to /32 with one in ten IPv6, for
+ * sources spread over the whole IPv4 space. Runs on the {@link InetAddress}
+ * the accept loop already has, as the admission check does.
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar SourceClassifierBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SourceClassifierBenchmark {
+    private static final int ADDRESSES = 1 << 16;
+    
+    @Param({"100000", "500000"})
+    public int prefixes;
+    
+    private SourceClassifier classifier;
+    private Path file;
+    private InetAddress[] addresses;
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void load() throws Exception {
+        SplittableRandom random = new SplittableRandom(42);
+        StringBuilder list = new StringBuilder();
+        for (int i = 0; i < prefixes; i++) {
+            if (i % 10 == 0) {
+                list.append(String.format("2%03x:%x::/%d", random.nextInt(0x400), random.nextInt(0x10000), 32 + random.nextInt(17)));
+            } else {
+                int length = 12 + random.nextInt(21);
+                int address = random.nextInt() & (int) (-1L << (32 - length));
+                list.append(address >>> 24).append('.').append(address >>> 16 & 0xff).append('.')
+                        .append(address >>> 8 & 0xff).append('.').append(address & 0xff).append('/').append(length);
+            }
+            list.append('\n');
+        }
+        file = Files.createTempFile("scanner-ranges", ".txt");
+        Files.write(file, list.toString().getBytes(StandardCharsets.UTF_8));
+        SourceList scanners = new SourceList();
+        scanners.setLocation(file.toUri().toString());
+        SourceClassifierProperties properties = new SourceClassifierProperties();
+        properties.setReloadCheckMs(0);
+        properties.getLists().put("scanners", scanners);
+        classifier = new SourceClassifier(properties, new DefaultResourceLoader());
+        classifier.start();
+        
+        addresses = new InetAddress[ADDRESSES];
+        byte[] bytes = new byte[4];
+        for (int i = 0; i < ADDRESSES; i++) {
+            random.nextBytes(bytes);
+            addresses[i] = InetAddress.getByAddress(bytes);
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void close() throws Exception {
+        classifier.shutdown();
+        Files.deleteIfExists(file);
+    }
+    
+    @Benchmark
+    public Admission classify() {
+        return classifier.classify(addresses[next++ & (ADDRESSES - 1)]);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,121 @@
+package com.iot.honeypot.benchmarks;
+
+import com.iot.honeypot.credentials.CredentialDictionary;
+import com.iot.honeypot.entity.AttackLog;
+import com.iot.honeypot.store.AttackStore;
+import com.iot.honeypot.store.ColumnarAttackStore;
+import com.iot.honeypot.store.RingBufferAttackStore;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+
+/**
+ * Fills one storage engine with N attacks shaped like honeypot traffic, then
+ * reports the live heap it retains, the collector's work while filling, the
+ * pause of a full collection over the filled store and the time of a
+ * time-bounded scan that matches the newest 1%. Run each engine in its own
+ * JVM with the same heap settings:
+ *
+ * <pre>
+ * java -Xmx4g -XX:+UseG1GC -cp target/benchmarks.jar com.iot.honeypot.benchmarks.StoreFootprintBenchmark ring [records]
+ * java -Xmx4g -XX:+UseG1GC -cp target/benchmarks.jar com.iot.honeypot.benchmarks.StoreFootprintBenchmark columnar [records]
+ * </pre>
+ *
+ * Records default to 10,000,000. The columnar arena is sized to hold all of
+ * them, so neither engine drops anything before the measurements.
+ */
+public class StoreFootprintBenchmark {
+    private static final String[] SERVICES = { "TELNET", "HTTP", "SSH" };
+    private static final String[] DEVICES = { "TP-Link Router", "D-Link Camera", "Ubiquiti airMAX" };
+    private static final String[] USERNAMES = { "root", "admin", "support", "user", "guest", "ubnt", "default", "telnet" };
+    private static final String[] PASSWORDS = { "xc3511", "vizxv", "admin", "888888", "12345", "default", "ubnt", "1234",
+                                                "password", "root", "7ujMko0admin", "juantech", "anko", "hi3518" };
+    private static final int SOURCES = 200_000;
+    private static final int FULL_COLLECTIONS = 3;
+    
+    public static void main(String[] args) {
+        String engine = args.length > 0 ? args[0] : "columnar";
+        int records = args.length > 1 ? Integer.parseInt(args[1]) : 10_000_000;
+        CredentialDictionary credentials = new CredentialDictionary(65536);
+        AttackStore store = engine.equals("ring")
+                ? new RingBufferAttackStore(records)
+                : new ColumnarAttackStore(records, (long) records * 48, credentials);
+        
+        long heapBefore = liveHeap();
+        long gcCountBefore = gcCount();
+        long gcMillisBefore = gcMillis();
+        long started = System.nanoTime();
+        LocalDateTime time = LocalDateTime.now().minusSeconds(records / 1000);
+        for (int n = 0; n < records; n++) {
+            store.append(next(n, time.plusNanos(n * 1_000_000L), credentials));
+        }
+        double fillSeconds = (System.nanoTime() - started) / 1e9;
+        long gcCount = gcCount() - gcCountBefore;
+        long gcMillis = gcMillis() - gcMillisBefore;
+        
+        long fullPauseMillis = 0;
+        for (int i = 0; i < FULL_COLLECTIONS; i++) {
+            long pauseStarted = System.nanoTime();
+            System.gc();
+            fullPauseMillis = (System.nanoTime() - pauseStarted) / 1_000_000;
+        }
+        long retained = liveHeap() - heapBefore;
+        
+        LocalDateTime from = store.timestampOf(store.lastSequence() - records / 100);
+        long scanStarted = System.nanoTime();
+        int[] matched = { 0 };
+        store.forEachNewestFirst(Long.MAX_VALUE, from, null, attack -> {
+            matched[0]++;
+            return true;
+        });
+        long scanMillis = (System.nanoTime() - scanStarted) / 1_000_000;
+        
+        System.out.printf("engine=%s records=%d stored=%d heap_max_mb=%d%n",
+                engine, records, store.size(), Runtime.getRuntime().maxMemory() >> 20);
+        System.out.printf("%-9s %10s %12s %12s %10s %10s %13s %10s %12s%n", "engine", "fill_s", "heap_mb",
+                "bytes/rec", "offheap_mb", "gc_count", "gc_fill_ms", "full_gc_ms", "scan_1%_ms");
+        System.out.printf("%-9s %10.1f %12d %12d %10d %10d %13d %10d %12d%n", engine, fillSeconds, retained >> 20,
+                retained / Math.max(1, store.size()), store.offHeapBytes() >> 20, gcCount, gcMillis, fullPauseMillis, scanMillis);
+        if (matched[0] == 0) System.out.println("scan matched nothing");
+    }
+    
+    /** Fresh strings for what differs per connection, shared ones for what the honeypot reuses. */
+    private static AttackLog next(int n, LocalDateTime timestamp, CredentialDictionary credentials) {
+        int source = (n * 7919) % SOURCES;
+        String ip = "10." + (source >>> 16) + "." + (source >>> 8 & 0xff) + "." + (source & 0xff);
+        int kind = n % 3;
+        String payload = kind == 1
+                ? "GET /cgi-bin/login.cgi?id=" + n + " | User-Agent: Mozilla/5.0"
+                : "Attempts: 1";
+        AttackLog attack = new AttackLog(ip, SERVICES[kind], payload, DEVICES[kind]);
+        attack.setTimestamp(timestamp);
+        if (kind != 1) {
+            attack.setUsernameAttempt(USERNAMES[n % USERNAMES.length]);
+            attack.setPasswordAttempt(PASSWORDS[n % PASSWORDS.length]);
+            // As AttackService does at ingest, so both engines hold shared credentials
+            credentials.record(attack);
+        }
+        return attack;
+    }
+    
+    private static long liveHeap() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+    
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, collector.getCollectionCount());
+        }
+        return count;
+    }
+    
+    private static long gcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(0, collector.getCollectionTime());
+        }
+        return millis;
+    }
+}
\ No newline at end of file